@@ -0,0 +1,58 @@
+package com.banco.notificaciones.carga;
+
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Prioridad;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Parámetros de una corrida, leídos de propiedades de sistema {@code carga.*}
+ * (el perfil Maven {@code carga} las pasa desde la línea de comandos).
+ *
+ * @param url           base de una instancia ya levantada; vacía para arrancar la aplicación aquí
+ * @param tasa          solicitudes por segundo programadas, respondan o no a tiempo
+ * @param maximoEnVuelo por encima de este número las solicitudes se descartan y se informan
+ * @param comparar      reporte JSON de una corrida anterior contra el que comparar, o null
+ */
+record ConfiguracionCarga(
+        String url,
+        double tasa,
+        Duration duracion,
+        Duration calentamiento,
+        Mezcla<Operacion> operaciones,
+        Mezcla<CanalNotificacion> canales,
+        Mezcla<Prioridad> prioridades,
+        int maximoEnVuelo,
+        Path directorio,
+        String etiqueta,
+        Path comparar) {
+
+    /** Operaciones contra {@code /api/notificaciones}. */
+    enum Operacion { CREAR, ENVIAR, CONSULTAR }
+
+    static ConfiguracionCarga desdePropiedades() {
+        double tasa = Double.parseDouble(propiedad("carga.tasa", "200"));
+        if (tasa <= 0) {
+            throw new IllegalArgumentException("carga.tasa debe ser positiva: " + tasa);
+        }
+        String comparar = propiedad("carga.comparar", "");
+        return new ConfiguracionCarga(
+                propiedad("carga.url", ""),
+                tasa,
+                Duration.ofSeconds(Long.parseLong(propiedad("carga.duracion-s", "60"))),
+                Duration.ofSeconds(Long.parseLong(propiedad("carga.calentamiento-s", "10"))),
+                Mezcla.leer(propiedad("carga.operaciones", "CREAR:50,ENVIAR:30,CONSULTAR:20"), Operacion::valueOf),
+                Mezcla.leer(propiedad("carga.canales", "EMAIL:50,SMS:30,PUSH:20"), CanalNotificacion::valueOf),
+                Mezcla.leer(propiedad("carga.prioridades", "ALTA:20,MEDIA:50,BAJA:30"), Prioridad::valueOf),
+                Integer.parseInt(propiedad("carga.max-en-vuelo", "10000")),
+                Path.of(propiedad("carga.directorio", "target/carga")),
+                propiedad("carga.etiqueta", "local"),
+                comparar.isBlank() ? null : Path.of(comparar));
+    }
+
+    private static String propiedad(String nombre, String porDefecto) {
+        String valor = System.getProperty(nombre);
+        return valor == null || valor.isBlank() ? porDefecto : valor.trim();
+    }
+}
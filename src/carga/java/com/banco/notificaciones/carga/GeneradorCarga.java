@@ -0,0 +1,234 @@
+package com.banco.notificaciones.carga;
+
+import com.banco.notificaciones.SistemaNotificacionesApplication;
+import com.banco.notificaciones.carga.ConfiguracionCarga.Operacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga de extremo a extremo contra {@code /api/notificaciones}.
+ * Sin {@code carga.url} arranca la aplicación en este proceso con la pasarela
+ * HTTP simulada y el servidor SMTP simulado como proveedores.
+ *
+ * <p>Modelo abierto: las solicitudes se programan a intervalos fijos de 1/tasa y
+ * salen sin esperar a las anteriores (HttpClient asíncrono), así una respuesta
+ * lenta no frena la tasa. La latencia se mide desde el instante programado, lo
+ * que incluye cualquier atraso del propio generador.
+ *
+ * <p>CREAR da de alta con la mezcla de canales y prioridades, ENVIAR toma una
+ * creada aún sin enviar y CONSULTAR pide una ya enviada; mientras no hay
+ * candidatas, ENVIAR y CONSULTAR se convierten en CREAR. Uso:
+ * {@code mvn -Pcarga test-compile exec:exec -Dcarga.tasa=500 -Dcarga.duracion-s=60}
+ */
+public final class GeneradorCarga {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final DateTimeFormatter MARCA = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final Duration ESPERA_FINAL = Duration.ofSeconds(30);
+
+    private final ConfiguracionCarga config;
+    private final URI base;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private final AtomicLong secuencia = new AtomicLong();
+    private final BlockingQueue<String> sinEnviar = new ArrayBlockingQueue<>(65_536);
+    private final AtomicReferenceArray<String> enviadas = new AtomicReferenceArray<>(4096);
+    private final AtomicLong totalEnviadas = new AtomicLong();
+
+    GeneradorCarga(ConfiguracionCarga config, URI base) {
+        this.config = config;
+        this.base = base;
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracionCarga config = ConfiguracionCarga.desdePropiedades();
+        ConfigurableApplicationContext contexto = null;
+        String url = config.url();
+        if (url.isBlank()) {
+            contexto = arrancar(config, args);
+            url = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            new GeneradorCarga(config, URI.create(url)).ejecutar();
+        } finally {
+            if (contexto != null) {
+                SpringApplication.exit(contexto);
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Proveedores simulados y logs en WARN; una propiedad de sistema ya definida o un
+     * argumento {@code --propiedad=valor} tienen prioridad.
+     */
+    private static ConfigurableApplicationContext arrancar(ConfiguracionCarga config, String[] args) {
+        Map<String, String> propiedades = new LinkedHashMap<>();
+        propiedades.put("server.port", "0");
+        propiedades.put("notificaciones.pasarela.simulada.habilitada", "true");
+        propiedades.put("notificaciones.smtp.simulado.habilitado", "true");
+        propiedades.put("notificaciones.auditoria.directorio", config.directorio().resolve("auditoria").toString());
+        propiedades.put("logging.level.root", "WARN");
+        propiedades.put("logging.level.com.banco.notificaciones", "WARN");
+        propiedades.forEach(System.getProperties()::putIfAbsent);
+        return SpringApplication.run(SistemaNotificacionesApplication.class, args);
+    }
+
+    void ejecutar() throws IOException, InterruptedException {
+        System.out.printf("Carga contra %s: %.0f sol/s, operaciones %s, canales %s, prioridades %s%n",
+                base, config.tasa(), config.operaciones(), config.canales(), config.prioridades());
+        if (!config.calentamiento().isZero()) {
+            System.out.printf("Calentamiento de %d s%n", config.calentamiento().toSeconds());
+            fase(config.calentamiento(), new ReporteCarga(null));
+        }
+
+        String nombre = "carga-" + config.etiqueta() + "-" + MARCA.format(LocalDateTime.now());
+        Path hlog = config.directorio().resolve(nombre + ".hlog");
+        ReporteCarga reporte = new ReporteCarga(hlog);
+        ScheduledExecutorService intervalos = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "carga-intervalos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        intervalos.scheduleAtFixedRate(reporte::cerrarIntervalo, 1, 1, TimeUnit.SECONDS);
+        System.out.printf("Medición de %d s%n", config.duracion().toSeconds());
+        long inicio = System.nanoTime();
+        fase(config.duracion(), reporte);
+        Duration medido = Duration.ofNanos(System.nanoTime() - inicio);
+        intervalos.shutdown();
+        intervalos.awaitTermination(5, TimeUnit.SECONDS);
+        reporte.cerrarIntervalo();
+
+        Path json = config.directorio().resolve(nombre + ".json");
+        Map<String, Object> resumen = reporte.escribirResumen(config, medido, json);
+        ReporteCarga.imprimir(resumen, config.comparar(), System.out);
+        System.out.printf("%nReporte: %s%nHistogramas por intervalo: %s%n", json, hlog);
+    }
+
+    /**
+     * Programa las solicitudes de la fase y espera a que respondan las que quedaron en vuelo.
+     */
+    private void fase(Duration duracion, ReporteCarga reporte) throws InterruptedException {
+        double intervaloNanos = TimeUnit.SECONDS.toNanos(1) / config.tasa();
+        long inicio = System.nanoTime();
+        long fin = inicio + duracion.toNanos();
+        for (long i = 0; ; i++) {
+            long programada = inicio + (long) (i * intervaloNanos);
+            if (programada >= fin) {
+                break;
+            }
+            long espera = programada - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            reporte.registrarAtraso(System.nanoTime() - programada);
+            disparar(programada, reporte);
+        }
+        long limite = System.nanoTime() + ESPERA_FINAL.toNanos();
+        while (enVuelo.get() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void disparar(long programada, ReporteCarga reporte) {
+        if (enVuelo.get() >= config.maximoEnVuelo()) {
+            reporte.descartar();
+            return;
+        }
+        Operacion operacion = config.operaciones().elegir();
+        String id = switch (operacion) {
+            case ENVIAR -> sinEnviar.poll();
+            case CONSULTAR -> enviadaAlAzar();
+            case CREAR -> null;
+        };
+        if (id == null) {
+            operacion = Operacion.CREAR;
+        }
+        HttpRequest solicitud = switch (operacion) {
+            case CREAR -> solicitud("").POST(HttpRequest.BodyPublishers.ofByteArray(alta())).build();
+            case ENVIAR -> solicitud("/" + id + "/enviar").POST(HttpRequest.BodyPublishers.noBody()).build();
+            case CONSULTAR -> solicitud("/" + id).GET().build();
+        };
+        Operacion realizada = operacion;
+        enVuelo.incrementAndGet();
+        http.sendAsync(solicitud, HttpResponse.BodyHandlers.ofString()).whenComplete((respuesta, error) -> {
+            boolean exitosa = error == null && respuesta.statusCode() / 100 == 2;
+            reporte.registrar(realizada, System.nanoTime() - programada, exitosa);
+            enVuelo.decrementAndGet();
+            if (exitosa) {
+                recordar(realizada, id, respuesta.body());
+            }
+        });
+    }
+
+    private HttpRequest.Builder solicitud(String ruta) {
+        return HttpRequest.newBuilder(base.resolve("/api/notificaciones" + ruta))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+    }
+
+    private byte[] alta() {
+        long n = secuencia.incrementAndGet();
+        CanalNotificacion canal = config.canales().elegir();
+        String destinatario = switch (canal) {
+            case EMAIL -> "cliente" + n + "@carga.banco.com";
+            case SMS -> String.format("55%08d", n % 100_000_000);
+            case PUSH -> "device_carga" + n;
+        };
+        Map<String, String> cuerpo = new LinkedHashMap<>();
+        cuerpo.put("destinatario", destinatario);
+        cuerpo.put("mensaje", "Mensaje de carga " + n);
+        cuerpo.put("canal", canal.name());
+        cuerpo.put("prioridad", config.prioridades().elegir().name());
+        try {
+            return JSON.writeValueAsBytes(cuerpo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el alta " + n, e);
+        }
+    }
+
+    private void recordar(Operacion operacion, String id, String cuerpo) {
+        if (operacion == Operacion.CREAR) {
+            try {
+                sinEnviar.offer(JSON.readTree(cuerpo).path("id").asText());
+            } catch (JsonProcessingException e) {
+                // Respuesta sin id: no queda candidata para ENVIAR
+            }
+        } else if (operacion == Operacion.ENVIAR) {
+            enviadas.set((int) (totalEnviadas.getAndIncrement() % enviadas.length()), id);
+        }
+    }
+
+    private String enviadaAlAzar() {
+        long total = Math.min(totalEnviadas.get(), enviadas.length());
+        return total == 0 ? null : enviadas.get(ThreadLocalRandom.current().nextInt((int) total));
+    }
+}
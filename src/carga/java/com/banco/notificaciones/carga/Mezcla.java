@@ -0,0 +1,69 @@
+package com.banco.notificaciones.carga;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Elección ponderada entre valores, leída de una lista como {@code "EMAIL:50,SMS:30,PUSH:20"}.
+ * Los pesos no necesitan sumar 100.
+ */
+final class Mezcla<T> {
+
+    private final List<T> valores;
+    private final int[] acumulados;
+    private final Map<T, Integer> pesos;
+
+    private Mezcla(Map<T, Integer> pesos) {
+        this.pesos = Collections.unmodifiableMap(pesos);
+        this.valores = new ArrayList<>(pesos.keySet());
+        this.acumulados = new int[valores.size()];
+        int total = 0;
+        for (int i = 0; i < valores.size(); i++) {
+            total += pesos.get(valores.get(i));
+            acumulados[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("La mezcla necesita al menos un peso positivo: " + pesos);
+        }
+    }
+
+    static <T> Mezcla<T> leer(String texto, Function<String, T> convertir) {
+        Map<T, Integer> pesos = new LinkedHashMap<>();
+        for (String parte : texto.split(",")) {
+            String[] campos = parte.trim().split(":");
+            if (campos.length != 2) {
+                throw new IllegalArgumentException("Entrada de mezcla inválida, se espera VALOR:PESO: " + parte);
+            }
+            int peso = Integer.parseInt(campos[1].trim());
+            if (peso < 0) {
+                throw new IllegalArgumentException("Peso negativo en la mezcla: " + parte);
+            }
+            pesos.put(convertir.apply(campos[0].trim().toUpperCase()), peso);
+        }
+        return new Mezcla<>(pesos);
+    }
+
+    T elegir() {
+        int sorteo = ThreadLocalRandom.current().nextInt(acumulados[acumulados.length - 1]);
+        for (int i = 0; i < acumulados.length; i++) {
+            if (sorteo < acumulados[i]) {
+                return valores.get(i);
+            }
+        }
+        return valores.get(valores.size() - 1);
+    }
+
+    Map<T, Integer> getPesos() {
+        return pesos;
+    }
+
+    @Override
+    public String toString() {
+        return pesos.toString();
+    }
+}
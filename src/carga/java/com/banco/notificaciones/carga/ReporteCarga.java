@@ -0,0 +1,224 @@
+package com.banco.notificaciones.carga;
+
+import com.banco.notificaciones.carga.ConfiguracionCarga.Operacion;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias de una corrida por operación, en HdrHistogram con 3 dígitos
+ * significativos. La latencia se mide desde el instante en que la solicitud
+ * estaba programada, no desde que salió: si el generador o el servidor se
+ * atrasan, la espera cuenta (sin omisión coordinada).
+ *
+ * <p>Cada intervalo se agrega al archivo {@code .hlog} (una línea por operación,
+ * etiquetada con su nombre), legible con HistogramLogProcessor y HdrHistogram
+ * Log Analyzer. Al final se escribe un resumen JSON con p50/p90/p99/p99.9 para
+ * comparar entre builds.
+ */
+final class ReporteCarga {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] CLAVES = {"p50Ms", "p90Ms", "p99Ms", "p999Ms"};
+    private static final String TOTAL = "TOTAL";
+
+    private final Map<Operacion, Recorder> grabadores = new EnumMap<>(Operacion.class);
+    private final Map<Operacion, Histogram> acumulados = new EnumMap<>(Operacion.class);
+    private final Map<Operacion, LongAdder> errores = new EnumMap<>(Operacion.class);
+    private final Recorder atrasos = new Recorder(3);
+    private final Histogram atrasoAcumulado = new Histogram(3);
+    private final LongAdder descartadas = new LongAdder();
+    private final PrintStream salidaLog;
+    private final HistogramLogWriter log;
+    private final long inicioMs = System.currentTimeMillis();
+
+    /**
+     * @param archivoLog destino del {@code .hlog}, o null para no escribirlo (calentamiento)
+     */
+    ReporteCarga(Path archivoLog) {
+        for (Operacion operacion : Operacion.values()) {
+            grabadores.put(operacion, new Recorder(3));
+            acumulados.put(operacion, new Histogram(3));
+            errores.put(operacion, new LongAdder());
+        }
+        if (archivoLog == null) {
+            this.salidaLog = null;
+            this.log = null;
+            return;
+        }
+        try {
+            Files.createDirectories(archivoLog.getParent());
+            this.salidaLog = new PrintStream(Files.newOutputStream(archivoLog), false, "UTF-8");
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear " + archivoLog, e);
+        }
+        this.log = new HistogramLogWriter(salidaLog);
+        log.outputLogFormatVersion();
+        log.outputStartTime(inicioMs);
+        log.setBaseTime(inicioMs);
+        log.outputLegend();
+    }
+
+    /**
+     * Seguro entre hilos: se llama desde los hilos que completan las respuestas.
+     */
+    void registrar(Operacion operacion, long latenciaNanos, boolean exitosa) {
+        grabadores.get(operacion).recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latenciaNanos)));
+        if (!exitosa) {
+            errores.get(operacion).increment();
+        }
+    }
+
+    /** Atraso del generador respecto del instante programado de cada solicitud. */
+    void registrarAtraso(long atrasoNanos) {
+        atrasos.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(atrasoNanos)));
+    }
+
+    /** Solicitud no enviada por superar el máximo en vuelo. */
+    void descartar() {
+        descartadas.increment();
+    }
+
+    /**
+     * Cierra el intervalo en curso: lo escribe en el log y lo suma a los acumulados.
+     * Lo llama un único hilo, una vez por segundo y al terminar.
+     */
+    synchronized void cerrarIntervalo() {
+        for (Operacion operacion : Operacion.values()) {
+            Histogram intervalo = grabadores.get(operacion).getIntervalHistogram();
+            acumulados.get(operacion).add(intervalo);
+            if (log != null && intervalo.getTotalCount() > 0) {
+                intervalo.setTag(operacion.name());
+                log.outputIntervalHistogram(intervalo);
+            }
+        }
+        atrasoAcumulado.add(atrasos.getIntervalHistogram());
+        if (salidaLog != null) {
+            salidaLog.flush();
+        }
+    }
+
+    /**
+     * Escribe el resumen JSON junto al {@code .hlog} y lo devuelve.
+     */
+    synchronized Map<String, Object> escribirResumen(ConfiguracionCarga config, Duration medido, Path destino) {
+        Histogram total = new Histogram(3);
+        long erroresTotales = 0;
+        Map<String, Object> operaciones = new LinkedHashMap<>();
+        for (Operacion operacion : Operacion.values()) {
+            Histogram histograma = acumulados.get(operacion);
+            total.add(histograma);
+            long erroresOperacion = errores.get(operacion).sum();
+            erroresTotales += erroresOperacion;
+            operaciones.put(operacion.name(), resumen(histograma, erroresOperacion, medido));
+        }
+        operaciones.put(TOTAL, resumen(total, erroresTotales, medido));
+
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("etiqueta", config.etiqueta());
+        resumen.put("inicio", Instant.ofEpochMilli(inicioMs).toString());
+        resumen.put("tasaObjetivo", config.tasa());
+        resumen.put("duracionS", medido.toMillis() / 1000.0);
+        resumen.put("mezclaOperaciones", config.operaciones().toString());
+        resumen.put("mezclaCanales", config.canales().toString());
+        resumen.put("mezclaPrioridades", config.prioridades().toString());
+        resumen.put("descartadas", descartadas.sum());
+        resumen.put("atrasoGeneradorP99Ms", milisegundos(atrasoAcumulado.getValueAtPercentile(99)));
+        resumen.put("atrasoGeneradorMaxMs", milisegundos(atrasoAcumulado.getMaxValue()));
+        resumen.put("operaciones", operaciones);
+        try {
+            JSON.writeValue(destino.toFile(), resumen);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir " + destino, e);
+        }
+        if (salidaLog != null) {
+            salidaLog.close();
+        }
+        return resumen;
+    }
+
+    /**
+     * Tabla legible del resumen y, si hay reporte anterior, la variación de cada percentil.
+     */
+    @SuppressWarnings("unchecked")
+    static void imprimir(Map<String, Object> resumen, Path anterior, PrintStream salida) {
+        JsonNode previo = null;
+        if (anterior != null) {
+            try {
+                previo = JSON.readTree(anterior.toFile());
+            } catch (IOException e) {
+                salida.println("No se pudo leer el reporte a comparar " + anterior + ": " + e.getMessage());
+            }
+        }
+        salida.printf("%nCarga %s: %.0f sol/s objetivo durante %.0f s, %s descartadas%n",
+                resumen.get("etiqueta"), (double) resumen.get("tasaObjetivo"), (double) resumen.get("duracionS"),
+                resumen.get("descartadas"));
+        salida.printf("%-10s %10s %8s %9s %9s %9s %9s %9s %9s%n",
+                "operación", "solicitudes", "errores", "sol/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Map<String, Map<String, Object>> operaciones = (Map<String, Map<String, Object>>) resumen.get("operaciones");
+        operaciones.forEach((nombre, datos) -> {
+            salida.printf("%-10s %10d %8d %9.1f", nombre, datos.get("solicitudes"), datos.get("errores"),
+                    datos.get("tasa"));
+            for (String clave : CLAVES) {
+                salida.printf(" %9.2f", datos.get(clave));
+            }
+            salida.printf(" %9.2f%n", datos.get("maxMs"));
+        });
+        if (previo == null) {
+            return;
+        }
+        salida.printf("%nVariación frente a %s (%s)%n", anterior.getFileName(), previo.path("etiqueta").asText());
+        for (Map.Entry<String, Map<String, Object>> entrada : operaciones.entrySet()) {
+            JsonNode operacionPrevia = previo.path("operaciones").path(entrada.getKey());
+            if (operacionPrevia.isMissingNode()) {
+                continue;
+            }
+            StringBuilder linea = new StringBuilder(String.format("%-10s", entrada.getKey()));
+            for (String clave : CLAVES) {
+                double antes = operacionPrevia.path(clave).asDouble();
+                double ahora = (double) entrada.getValue().get(clave);
+                linea.append(String.format(" %s %7.2f -> %7.2f (%+.1f%%)", clave.replace("Ms", ""), antes, ahora,
+                        antes > 0 ? (ahora - antes) * 100 / antes : 0));
+            }
+            salida.println(linea);
+        }
+    }
+
+    private static Map<String, Object> resumen(Histogram histograma, long errores, Duration medido) {
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("solicitudes", histograma.getTotalCount());
+        datos.put("errores", errores);
+        datos.put("tasa", redondear(histograma.getTotalCount() * 1000.0 / Math.max(1, medido.toMillis())));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            datos.put(CLAVES[i], milisegundos(histograma.getValueAtPercentile(PERCENTILES[i])));
+        }
+        datos.put("maxMs", milisegundos(histograma.getMaxValue()));
+        datos.put("mediaMs", redondear(histograma.getMean() / 1000.0));
+        return datos;
+    }
+
+    private static double milisegundos(long microsegundos) {
+        return redondear(microsegundos / 1000.0);
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 1000) / 1000.0;
+    }
+}
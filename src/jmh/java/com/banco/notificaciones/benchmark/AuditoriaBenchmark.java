@@ -0,0 +1,112 @@
+package com.banco.notificaciones.benchmark;
+
+import com.banco.notificaciones.auditoria.AuditoriaEnvios;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Costo en el hilo de envío de registrar un evento de auditoría, con el escritor
+ * real volcando a disco. {@code muestreo=0.01} es la configuración por defecto
+ * (el 99% de los éxitos solo sortea el muestreo); con {@code 1.0} cada éxito
+ * ocupa una ranura, y los fallos la ocupan siempre. Con {@code -prof gc} se
+ * comprueba que el hilo de envío no asigna memoria; la métrica {@code descartados}
+ * cuenta los eventos que no cupieron en el anillo durante cada iteración.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditoriaBenchmark {
+
+    private static final BigDecimal COSTO = new BigDecimal("0.10");
+
+    @Param({"0.01", "1.0"})
+    private double muestreo;
+
+    private Path directorio;
+    private AuditoriaEnvios auditoria;
+    private final AtomicLong contabilizados = new AtomicLong();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Descartes {
+        public long descartados;
+
+        @TearDown(Level.Iteration)
+        public void contar(AuditoriaBenchmark benchmark) {
+            descartados = benchmark.descartadosSinContar();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("auditoria-benchmark");
+        auditoria = new AuditoriaEnvios(true, directorio.toString(), 65_536, muestreo, 64, 2);
+        auditoria.iniciar();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws IOException {
+        auditoria.detener();
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            for (Path archivo : archivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(archivo);
+            }
+        }
+    }
+
+    @Benchmark
+    public void exito(Descartes descartes) {
+        registrarExito();
+    }
+
+    @Benchmark
+    public void fallo(Descartes descartes) {
+        auditoria.registrar("0192f0c4-6a1e-7000-8000-000000000001", CanalNotificacion.SMS,
+                "5512345678", false, 1_500_000, null);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void exitoConcurrente(Descartes descartes) {
+        registrarExito();
+    }
+
+    private void registrarExito() {
+        auditoria.registrar("0192f0c4-6a1e-7000-8000-000000000001", CanalNotificacion.EMAIL,
+                "usuario@banco.com", true, 1_500_000, COSTO);
+    }
+
+    /**
+     * Descartes desde la última lectura; con varios hilos cada descarte lo cuenta uno solo.
+     */
+    private long descartadosSinContar() {
+        long total = auditoria.getDescartados();
+        return total - contabilizados.getAndSet(total);
+    }
+}
@@ -0,0 +1,121 @@
+package com.banco.notificaciones.benchmark;
+
+import com.banco.notificaciones.auditoria.AuditoriaEnvios;
+import com.banco.notificaciones.despacho.DespachadorNotificaciones;
+import com.banco.notificaciones.factory.NotificacionStrategyFactory;
+import com.banco.notificaciones.identificador.GeneradorIdOrdenado;
+import com.banco.notificaciones.mapper.NotificacionMapperImpl;
+import com.banco.notificaciones.metricas.MetricasNotificaciones;
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.Prioridad;
+import com.banco.notificaciones.reintento.MotorReintentos;
+import com.banco.notificaciones.repository.NotificacionRepository;
+import com.banco.notificaciones.service.NotificacionServiceImpl;
+import com.banco.notificaciones.strategy.EmailNotificationStrategy;
+import com.banco.notificaciones.strategy.PushNotificationStrategy;
+import com.banco.notificaciones.strategy.SmsNotificationStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Construye los componentes reales sin levantar el contexto de Spring,
+ * con la misma configuración que application.properties.
+ */
+final class Entorno {
+
+    private Entorno() {
+    }
+
+    static EmailNotificationStrategy email() {
+        EmailNotificationStrategy strategy = new EmailNotificationStrategy();
+        ReflectionTestUtils.setField(strategy, "costo", new BigDecimal("0.10"));
+        return strategy;
+    }
+
+    static SmsNotificationStrategy sms() {
+        SmsNotificationStrategy strategy = new SmsNotificationStrategy();
+        ReflectionTestUtils.setField(strategy, "costo", new BigDecimal("0.50"));
+        return strategy;
+    }
+
+    static PushNotificationStrategy push() {
+        PushNotificationStrategy strategy = new PushNotificationStrategy();
+        ReflectionTestUtils.setField(strategy, "costo", new BigDecimal("0.05"));
+        return strategy;
+    }
+
+    /**
+     * Servicio con despacho síncrono; el despachador no arranca workers.
+     * Las métricas se registran en un registro Prometheus, como en producción.
+     */
+    static NotificacionServiceImpl servicio(NotificacionRepository repository) {
+        return servicio(repository, new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+    }
+
+    static NotificacionServiceImpl servicio(NotificacionRepository repository, MeterRegistry registro) {
+        return servicio(repository, registro, auditoriaDeshabilitada());
+    }
+
+    static NotificacionServiceImpl servicio(NotificacionRepository repository, MeterRegistry registro,
+                                           AuditoriaEnvios auditoria) {
+        return servicio(repository, registro, auditoria, new NotificacionStrategyFactory(email(), sms(), push()));
+    }
+
+    static NotificacionServiceImpl servicio(NotificacionRepository repository, MeterRegistry registro,
+                                           AuditoriaEnvios auditoria, NotificacionStrategyFactory strategyFactory) {
+        NotificacionServiceImpl servicio = new NotificacionServiceImpl(
+                repository,
+                strategyFactory,
+                new NotificacionMapperImpl(),
+                new DespachadorNotificaciones(false, 10_000, 1, 0, 2_000, 10_000),
+                new GeneradorIdOrdenado(1),
+                new MetricasNotificaciones(registro, repository),
+                auditoria,
+                reintentos(repository, registro));
+        ReflectionTestUtils.setField(servicio, "tamanoLoteEnvio", 100);
+        return servicio;
+    }
+
+    /**
+     * Auditoría que no arranca el escritor; {@code registrar} retorna de inmediato.
+     */
+    static AuditoriaEnvios auditoriaDeshabilitada() {
+        return new AuditoriaEnvios(false, "auditoria", 2, 0.0, 1, 1);
+    }
+
+    /**
+     * Motor de reintentos con las políticas por defecto; no arranca la rueda.
+     */
+    static MotorReintentos reintentos(NotificacionRepository repository, MeterRegistry registro) {
+        return new MotorReintentos(repository, registro, true, 100, 5, 3, 4, 1_000, 2_000, 500, 300_000, 60_000, 60_000);
+    }
+
+    /**
+     * Notificación de ejemplo; el 1% queda FALLIDA para que el filtrado por
+     * estado devuelva un subconjunto pequeño.
+     */
+    static Notificacion notificacion(String id, int i) {
+        CanalNotificacion canal = CanalNotificacion.values()[i % CanalNotificacion.values().length];
+        return Notificacion.builder()
+                .id(id)
+                .destinatario(switch (canal) {
+                    case EMAIL -> "usuario" + (i % 10_000) + "@banco.com";
+                    case SMS -> String.valueOf(5_500_000_000L + i % 10_000);
+                    case PUSH -> "device_" + (i % 10_000);
+                })
+                .mensaje("Su estado de cuenta está disponible")
+                .canal(canal)
+                .prioridad(Prioridad.values()[i % Prioridad.values().length])
+                .estado(i % 100 == 0 ? Estado.FALLIDA : Estado.PENDIENTE)
+                .costo(new BigDecimal("0.10"))
+                .fechaCreacion(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.banco.notificaciones.benchmark;
+
+import com.banco.notificaciones.factory.NotificacionStrategyFactory;
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.repository.NotificacionRepository;
+import com.banco.notificaciones.service.NotificacionServiceImpl;
+import com.banco.notificaciones.service.NotificacionServiceReactivo;
+import com.banco.notificaciones.strategy.EmailNotificationStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tiempo para completar N envíos simultáneos cuando el proveedor tarda
+ * {@value #LATENCIA_MS} ms en responder.
+ *
+ * <p>BLOQUEANTE reproduce el modo servlet: cada envío ocupa uno de
+ * {@value #HILOS_SERVIDOR} hilos (el máximo por defecto de Tomcat) mientras espera
+ * al proveedor. REACTIVO usa {@link NotificacionServiceReactivo} con el contrato
+ * asíncrono de la estrategia, así que todos los envíos quedan en vuelo a la vez.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EnvioConcurrenteBenchmark {
+
+    private static final long LATENCIA_MS = 20;
+    private static final int HILOS_SERVIDOR = 200;
+
+    public enum Pila { BLOQUEANTE, REACTIVO }
+
+    @Param({"200", "2000"})
+    private int enVuelo;
+
+    @Param({"BLOQUEANTE", "REACTIVO"})
+    private Pila pila;
+
+    private ExecutorService hilosServidor;
+    private NotificacionServiceImpl servicio;
+    private NotificacionServiceReactivo reactivo;
+    private List<String> ids;
+
+    /**
+     * Email cuyo proveedor responde tras la latencia: bloqueando el hilo en
+     * {@code enviar} y sin bloquearlo en {@code enviarAsincrono}.
+     */
+    static final class EmailConLatencia extends EmailNotificationStrategy {
+
+        EmailConLatencia() {
+            ReflectionTestUtils.setField(this, "costo", new BigDecimal("0.10"));
+        }
+
+        @Override
+        public boolean enviar(Notificacion notificacion) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(LATENCIA_MS));
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> enviarAsincrono(Notificacion notificacion) {
+            return CompletableFuture.supplyAsync(() -> true,
+                    CompletableFuture.delayedExecutor(LATENCIA_MS, TimeUnit.MILLISECONDS, Runnable::run));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        hilosServidor = Executors.newFixedThreadPool(HILOS_SERVIDOR);
+    }
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        NotificacionRepository repository = new NotificacionRepository();
+        NotificacionStrategyFactory factory = new NotificacionStrategyFactory(
+                new EmailConLatencia(), Entorno.sms(), Entorno.push());
+        servicio = Entorno.servicio(repository, new SimpleMeterRegistry(), Entorno.auditoriaDeshabilitada(), factory);
+        reactivo = new NotificacionServiceReactivo(servicio);
+        ids = new ArrayList<>(enVuelo);
+        for (int i = 0; i < enVuelo; i++) {
+            Notificacion notificacion = Entorno.notificacion(
+                    String.format("0190a1b2-c3d4-7e5f-8a6b-%012d", i), i * CanalNotificacion.values().length);
+            repository.guardar(notificacion);
+            ids.add(notificacion.getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        hilosServidor.shutdownNow();
+    }
+
+    @Benchmark
+    public int enviar() throws Exception {
+        if (pila == Pila.REACTIVO) {
+            return Flux.fromIterable(ids)
+                    .flatMap(reactivo::enviarNotificacion, enVuelo)
+                    .count()
+                    .block()
+                    .intValue();
+        }
+        List<Future<?>> envios = new ArrayList<>(enVuelo);
+        for (String id : ids) {
+            envios.add(hilosServidor.submit(() -> servicio.enviarNotificacion(id)));
+        }
+        for (Future<?> envio : envios) {
+            envio.get();
+        }
+        return envios.size();
+    }
+}
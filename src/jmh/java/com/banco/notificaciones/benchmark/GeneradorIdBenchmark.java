@@ -0,0 +1,53 @@
+package com.banco.notificaciones.benchmark;
+
+import com.banco.notificaciones.identificador.GeneradorId;
+import com.banco.notificaciones.identificador.GeneradorIdAleatorio;
+import com.banco.notificaciones.identificador.GeneradorIdOrdenado;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de generación de IDs: UUID aleatorio (SecureRandom compartido)
+ * frente al generador ordenado, con 1 hilo y con 32 hilos concurrentes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneradorIdBenchmark {
+
+    @Param({"ORDENADO", "UUID"})
+    private String generador;
+
+    private GeneradorId generadorId;
+
+    @Setup
+    public void preparar() {
+        generadorId = "UUID".equals(generador) ? new GeneradorIdAleatorio() : new GeneradorIdOrdenado(1);
+    }
+
+    @Benchmark
+    public String unHilo() {
+        return generadorId.generar();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String treintaYDosHilos() {
+        return generadorId.generar();
+    }
+}
@@ -0,0 +1,117 @@
+package com.banco.notificaciones.benchmark;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.Prioridad;
+import com.banco.notificaciones.repository.NotificacionRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Huella en heap por notificación almacenada. Compara el almacén compacto del
+ * repositorio con la disposición anterior ({@code ConcurrentHashMap<String, Notificacion>}).
+ * El contador auxiliar {@code bytesPorRegistro} es el resultado de interés;
+ * el tiempo reportado es el de carga.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx12g", "-XX:+UseParallelGC"})
+public class HuellaMemoriaBenchmark {
+
+    private static final int DESTINATARIOS = 10_000;
+    private static final String[] PLANTILLAS = {
+            "Su estado de cuenta está disponible",
+            "Se realizó un cargo a su tarjeta",
+            "Su código de verificación fue enviado",
+            "Tiene una transferencia pendiente de autorizar"
+    };
+
+    @Param({"1000000"})
+    private int registros;
+
+    @Param({"COMPACTA", "OBJETOS"})
+    private String disposicion;
+
+    private Object almacen;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Huella {
+        public long bytesPorRegistro;
+    }
+
+    @TearDown(Level.Iteration)
+    public void liberar() {
+        almacen = null;
+    }
+
+    @Benchmark
+    public Object cargar(Huella huella) {
+        almacen = null;
+        long antes = heapUsado();
+        if ("COMPACTA".equals(disposicion)) {
+            NotificacionRepository repository = new NotificacionRepository();
+            for (int i = 0; i < registros; i++) {
+                repository.guardar(crear(i));
+            }
+            almacen = repository;
+        } else {
+            Map<String, Notificacion> objetos = new ConcurrentHashMap<>();
+            for (int i = 0; i < registros; i++) {
+                Notificacion notificacion = crear(i);
+                objetos.put(notificacion.getId(), notificacion);
+            }
+            almacen = objetos;
+        }
+        huella.bytesPorRegistro = (heapUsado() - antes) / registros;
+        return almacen;
+    }
+
+    /**
+     * Simula lo que llega por la API: textos nuevos en cada petición aunque su
+     * contenido se repita.
+     */
+    private static Notificacion crear(int i) {
+        return Notificacion.builder()
+                .id(UUID.randomUUID().toString())
+                .destinatario(new String("usuario" + (i % DESTINATARIOS) + "@banco.com"))
+                .mensaje(new String(PLANTILLAS[i % PLANTILLAS.length]))
+                .canal(CanalNotificacion.EMAIL)
+                .prioridad(Prioridad.MEDIA)
+                .estado(i % 4 == 0 ? Estado.ENVIADA : Estado.PENDIENTE)
+                .costo(new BigDecimal("0.10"))
+                .fechaCreacion(LocalDateTime.now())
+                .build();
+    }
+
+    private static long heapUsado() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,68 @@
+package com.banco.notificaciones.benchmark;
+
+import com.banco.notificaciones.dto.NotificacionResponse;
+import com.banco.notificaciones.mapper.NotificacionMapper;
+import com.banco.notificaciones.mapper.NotificacionMapperImpl;
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.strategy.CanalNotificacionStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo a {@link NotificacionResponse} y validación y envío de cada estrategia de canal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeoYEstrategiasBenchmark {
+
+    @Param({"EMAIL", "SMS", "PUSH"})
+    private CanalNotificacion canal;
+
+    private NotificacionMapper mapper;
+    private CanalNotificacionStrategy strategy;
+    private Notificacion notificacion;
+
+    @Setup
+    public void preparar() {
+        mapper = new NotificacionMapperImpl();
+        strategy = switch (canal) {
+            case EMAIL -> Entorno.email();
+            case SMS -> Entorno.sms();
+            case PUSH -> Entorno.push();
+        };
+        notificacion = Entorno.notificacion("0190a1b2-c3d4-7e5f-8a6b-7c8d9e0f1a2b", canal.ordinal() + CanalNotificacion.values().length);
+    }
+
+    @Benchmark
+    public NotificacionResponse toResponse() {
+        return mapper.toResponse(notificacion);
+    }
+
+    @Benchmark
+    public boolean enviar() {
+        return strategy.enviar(notificacion);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean enviarConcurrente() {
+        return enviar();
+    }
+}
@@ -0,0 +1,77 @@
+package com.banco.notificaciones.benchmark;
+
+import com.banco.notificaciones.dto.NotificacionResponse;
+import com.banco.notificaciones.metricas.MetricasNotificaciones;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Prioridad;
+import com.banco.notificaciones.repository.NotificacionRepository;
+import com.banco.notificaciones.service.NotificacionServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sobrecosto de la instrumentación: la misma creación con un registro Prometheus
+ * y con un registro sin exportadores (medidores no-op), y el costo aislado de
+ * registrar un envío.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MetricasBenchmark {
+
+    private static final BigDecimal COSTO = new BigDecimal("0.10");
+
+    @Param({"PROMETHEUS", "NINGUNO"})
+    private String registro;
+
+    private NotificacionServiceImpl servicio;
+    private MetricasNotificaciones metricas;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        MeterRegistry meterRegistry = "PROMETHEUS".equals(registro)
+                ? new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)
+                : new CompositeMeterRegistry();
+        NotificacionRepository repository = new NotificacionRepository();
+        servicio = Entorno.servicio(repository, meterRegistry);
+        metricas = new MetricasNotificaciones(meterRegistry, repository);
+    }
+
+    @Benchmark
+    public NotificacionResponse crearNotificacion() {
+        return servicio.crearNotificacion("usuario@banco.com", "Su código de verificación es 123456",
+                CanalNotificacion.EMAIL, Prioridad.ALTA);
+    }
+
+    @Benchmark
+    public void registrarEnvio() {
+        metricas.registrarEnvio(CanalNotificacion.EMAIL, true, 1_500_000, COSTO);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void registrarEnvioConcurrente() {
+        registrarEnvio();
+    }
+}
@@ -0,0 +1,91 @@
+package com.banco.notificaciones.benchmark;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.smtp.PoolSmtp;
+import com.banco.notificaciones.smtp.ServidorSmtpSimulado;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mensajes por segundo hacia el servidor SMTP simulado, con
+ * {@value #LATENCIA_MS} ms por ida y vuelta, según el tamaño del pool.
+ * {@value #HILOS} hilos envían lotes de {@value #LOTE} emails a la vez.
+ *
+ * <p>CONEXION_POR_MENSAJE abre y cierra una sesión por mensaje y espera cada
+ * respuesta; SESION_REUTILIZADA mantiene las sesiones abiertas pero sin
+ * PIPELINING; PIPELINING además agrupa los comandos de cada mensaje con el
+ * contenido del anterior.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(PoolSmtpBenchmark.HILOS)
+@Fork(1)
+public class PoolSmtpBenchmark {
+
+    static final int HILOS = 8;
+    private static final int LOTE = 20;
+    private static final long LATENCIA_MS = 1;
+
+    public enum Modo { CONEXION_POR_MENSAJE, SESION_REUTILIZADA, PIPELINING }
+
+    @Param({"1", "4", "8"})
+    private int sesiones;
+
+    @Param({"CONEXION_POR_MENSAJE", "SESION_REUTILIZADA", "PIPELINING"})
+    private Modo modo;
+
+    private ServidorSmtpSimulado servidor;
+    private PoolSmtp pool;
+    private List<Notificacion> lote;
+
+    @Setup
+    public void preparar() {
+        servidor = new ServidorSmtpSimulado(0, Duration.ofMillis(LATENCIA_MS), true);
+        pool = new PoolSmtp(servidor.getDireccion(), "notificaciones@banco.com", "Estado de cuenta", sesiones,
+                modo == Modo.CONEXION_POR_MENSAJE ? 1 : 1000, Duration.ofSeconds(30), Duration.ofSeconds(30),
+                modo == Modo.PIPELINING, new SimpleMeterRegistry());
+        lote = new ArrayList<>(LOTE);
+        for (int i = 0; i < LOTE; i++) {
+            lote.add(Notificacion.builder()
+                    .id("id-" + i)
+                    .destinatario("cliente" + i + "@correo.com")
+                    .mensaje("Su estado de cuenta del mes ya está disponible en la banca en línea.")
+                    .canal(CanalNotificacion.EMAIL)
+                    .build());
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        pool.close();
+        servidor.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public List<Boolean> enviarLote() {
+        return pool.enviarLote(lote);
+    }
+}
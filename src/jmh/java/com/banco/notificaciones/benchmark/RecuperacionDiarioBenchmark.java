@@ -0,0 +1,113 @@
+package com.banco.notificaciones.benchmark;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.Prioridad;
+import com.banco.notificaciones.persistencia.DiarioNotificaciones;
+import com.banco.notificaciones.persistencia.ModoSincronizacion;
+import com.banco.notificaciones.repository.NotificacionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tiempo de arranque del repositorio persistente: carga de la instantánea más
+ * reproducción del diario. Con {@code origen=DIARIO} todo el estado está en
+ * segmentos sin compactar; con {@code INSTANTANEA} se compacta antes de medir.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class RecuperacionDiarioBenchmark {
+
+    @Param({"100000", "1000000", "10000000"})
+    private int registros;
+
+    @Param({"INSTANTANEA", "DIARIO"})
+    private String origen;
+
+    private Path directorio;
+    private DiarioNotificaciones diario;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        directorio = Files.createTempDirectory("diario-benchmark");
+        DiarioNotificaciones escritura = crearDiario();
+        NotificacionRepository repository = new NotificacionRepository(Optional.of(escritura));
+        repository.recuperar();
+        LocalDateTime fecha = LocalDateTime.now();
+        CanalNotificacion[] canales = CanalNotificacion.values();
+        for (int i = 0; i < registros; i++) {
+            repository.guardar(Notificacion.builder()
+                    .id(String.format("%016x", i))
+                    .destinatario("usuario" + i + "@banco.com")
+                    .mensaje("Su estado de cuenta está disponible")
+                    .canal(canales[i % canales.length])
+                    .prioridad(Prioridad.MEDIA)
+                    .estado(i % 4 == 0 ? Estado.ENVIADA : Estado.PENDIENTE)
+                    .costo(new BigDecimal("0.10"))
+                    .fechaCreacion(fecha)
+                    .build());
+        }
+        if ("INSTANTANEA".equals(origen)) {
+            escritura.solicitarCompactacion();
+            while (escritura.isCompactando()) {
+                Thread.sleep(50);
+            }
+        }
+        escritura.detener();
+    }
+
+    @TearDown(Level.Iteration)
+    public void cerrar() {
+        if (diario != null) {
+            diario.detener();
+            diario = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void borrar() throws IOException {
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            for (Path archivo : archivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(archivo);
+            }
+        }
+    }
+
+    @Benchmark
+    public long recuperar() {
+        diario = crearDiario();
+        NotificacionRepository repository = new NotificacionRepository(Optional.of(diario));
+        repository.recuperar();
+        return repository.contar();
+    }
+
+    private DiarioNotificaciones crearDiario() {
+        return new DiarioNotificaciones(directorio.toString(), ModoSincronizacion.POR_INTERVALO, 100, 86_400, 1_024 * 1024);
+    }
+}
@@ -0,0 +1,105 @@
+package com.banco.notificaciones.benchmark;
+
+import com.banco.notificaciones.dto.CostoTotalResponse;
+import com.banco.notificaciones.identificador.GeneradorIdOrdenado;
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.repository.NotificacionRepository;
+import com.banco.notificaciones.service.NotificacionServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operaciones de {@link NotificacionRepository} con 1k, 1M y 10M registros
+ * residentes. El 1% de los registros está FALLIDA.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class RepositorioBenchmark {
+
+    @Param({"1000", "1000000", "10000000"})
+    private int registros;
+
+    private String[] ids;
+    private NotificacionRepository repository;
+    private NotificacionServiceImpl servicio;
+
+    @Setup
+    public void preparar() {
+        GeneradorIdOrdenado generador = new GeneradorIdOrdenado(1);
+        repository = new NotificacionRepository();
+        servicio = Entorno.servicio(repository);
+        ids = new String[registros];
+        for (int i = 0; i < registros; i++) {
+            ids[i] = generador.generar();
+            repository.guardar(Entorno.notificacion(ids[i], i));
+        }
+    }
+
+    @Benchmark
+    public Optional<Notificacion> buscarPorId() {
+        return repository.buscarPorId(idAleatorio());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Optional<Notificacion> buscarPorIdConcurrente() {
+        return buscarPorId();
+    }
+
+    @Benchmark
+    public Notificacion guardar() {
+        int i = ThreadLocalRandom.current().nextInt(registros);
+        return repository.guardar(Entorno.notificacion(ids[i], i));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Notificacion guardarConcurrente() {
+        return guardar();
+    }
+
+    @Benchmark
+    public List<Notificacion> filtrarPorEstado() {
+        return repository.filtrarPorEstado(Estado.FALLIDA);
+    }
+
+    @Benchmark
+    public List<Notificacion> paginaPorEstado() {
+        return repository.filtrarPorEstado(Estado.PENDIENTE, idAleatorio(), 100);
+    }
+
+    @Benchmark
+    public CostoTotalResponse calcularCostoTotal() {
+        return servicio.calcularCostoTotal();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public CostoTotalResponse calcularCostoTotalConcurrente() {
+        return calcularCostoTotal();
+    }
+
+    private String idAleatorio() {
+        return ids[ThreadLocalRandom.current().nextInt(registros)];
+    }
+}
@@ -0,0 +1,76 @@
+package com.banco.notificaciones.benchmark;
+
+import com.banco.notificaciones.mapper.NotificacionMapper;
+import com.banco.notificaciones.mapper.NotificacionMapperImpl;
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.respuesta.CacheRespuestas;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cuerpo de {@code GET /api/notificaciones/{id}} para una notificación ENVIADA:
+ * mapear y serializar con Jackson en cada consulta frente a leer los bytes de
+ * {@link CacheRespuestas}, con y sin el cálculo del ETag.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RespuestaCacheBenchmark {
+
+    private static final String ID = "0190a1b2-c3d4-7e5f-8a6b-7c8d9e0f1a2b";
+
+    private NotificacionMapper mapper;
+    private ObjectMapper objectMapper;
+    private CacheRespuestas cache;
+    private Notificacion notificacion;
+
+    @Setup
+    public void preparar() throws JsonProcessingException {
+        mapper = new NotificacionMapperImpl();
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .setTimeZone(TimeZone.getTimeZone("America/Mexico_City"));
+        cache = new CacheRespuestas(new SimpleMeterRegistry(), 64);
+        notificacion = Entorno.notificacion(ID, 0);
+        notificacion.setEstado(Estado.ENVIADA);
+        notificacion.setFechaEnvio(LocalDateTime.now());
+        cache.guardar(ID, objectMapper.writeValueAsBytes(mapper.toResponse(notificacion)));
+    }
+
+    @Benchmark
+    public byte[] serializar() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(mapper.toResponse(notificacion));
+    }
+
+    @Benchmark
+    public CacheRespuestas.Respuesta serializarConEtag() throws JsonProcessingException {
+        return CacheRespuestas.sinGuardar(serializar());
+    }
+
+    @Benchmark
+    public CacheRespuestas.Respuesta cache() {
+        return cache.obtener(ID);
+    }
+}
@@ -0,0 +1,86 @@
+package com.banco.notificaciones.benchmark;
+
+import com.banco.notificaciones.reintento.RuedaTemporizacion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por reintento de programar y disparar con {@code pendientes} entradas
+ * vivas: cada operación programa una entrada y avanza el reloj simulado un tick,
+ * de modo que vence en promedio una entrada por operación y el total se mantiene.
+ * {@code COLA_PRIORIDAD} es el montículo que usa un {@code ScheduledExecutorService}
+ * con una tarea por notificación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RuedaTemporizacionBenchmark {
+
+    private static final long TICK = 1_000_000L;
+
+    @Param({"1000", "1000000"})
+    private int pendientes;
+
+    @Param({"RUEDA", "COLA_PRIORIDAD"})
+    private String planificador;
+
+    private RuedaTemporizacion<String> rueda;
+    private PriorityQueue<long[]> cola;
+    private SplittableRandom aleatorio;
+    private long ahora;
+    private String valor;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        aleatorio = new SplittableRandom(42);
+        ahora = 0;
+        valor = "0190a1b2-c3d4-7e5f-8a9b-0c1d2e3f4a5b";
+        rueda = new RuedaTemporizacion<>(TICK, 0);
+        cola = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        for (int i = 0; i < pendientes; i++) {
+            programar();
+        }
+    }
+
+    @Benchmark
+    public int programarYDisparar(Blackhole blackhole) {
+        programar();
+        ahora += TICK;
+        if ("RUEDA".equals(planificador)) {
+            return rueda.avanzar(ahora, blackhole::consume);
+        }
+        int entregados = 0;
+        while (!cola.isEmpty() && cola.peek()[0] <= ahora) {
+            blackhole.consume(cola.poll());
+            entregados++;
+        }
+        return entregados;
+    }
+
+    private void programar() {
+        long instante = ahora + aleatorio.nextLong(2L * pendientes * TICK);
+        if ("RUEDA".equals(planificador)) {
+            rueda.programar(valor, instante);
+        } else {
+            cola.offer(new long[]{instante});
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.banco.notificaciones.benchmark;
+
+import com.banco.notificaciones.dto.EnvioResponse;
+import com.banco.notificaciones.dto.NotificacionResponse;
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Prioridad;
+import com.banco.notificaciones.repository.NotificacionRepository;
+import com.banco.notificaciones.service.NotificacionServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creación y envío a través de {@link NotificacionServiceImpl} con el repositorio,
+ * las estrategias y el mapper reales. Cada iteración parte de un repositorio vacío.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ServicioBenchmark {
+
+    private static final int NOTIFICACIONES_POR_HILO = 1024;
+
+    private NotificacionRepository repository;
+    private NotificacionServiceImpl servicio;
+
+    /**
+     * Notificaciones pendientes propias de cada hilo para medir el envío.
+     * Cada invocación las restablece a PENDIENTE con un guardar antes de enviar.
+     */
+    @State(Scope.Thread)
+    public static class Envios {
+        private final Notificacion[] pendientes = new Notificacion[NOTIFICACIONES_POR_HILO];
+        private int siguiente;
+
+        @Setup(Level.Iteration)
+        public void preparar(ServicioBenchmark benchmark) {
+            for (int i = 0; i < pendientes.length; i++) {
+                pendientes[i] = Entorno.notificacion(
+                        benchmark.servicio.crearNotificacion("usuario@banco.com", "Saldo disponible",
+                                CanalNotificacion.EMAIL, Prioridad.MEDIA).getId(), i + 1);
+            }
+        }
+
+        Notificacion siguiente() {
+            return pendientes[siguiente++ & (NOTIFICACIONES_POR_HILO - 1)];
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        repository = new NotificacionRepository();
+        servicio = Entorno.servicio(repository);
+    }
+
+    @Benchmark
+    public NotificacionResponse crearNotificacion() {
+        return servicio.crearNotificacion("usuario@banco.com", "Su código de verificación es 123456",
+                CanalNotificacion.EMAIL, Prioridad.ALTA);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public NotificacionResponse crearNotificacionConcurrente() {
+        return crearNotificacion();
+    }
+
+    @Benchmark
+    public EnvioResponse enviarNotificacion(Envios envios) {
+        Notificacion notificacion = envios.siguiente();
+        repository.guardar(notificacion);
+        return servicio.enviarNotificacion(notificacion.getId());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public EnvioResponse enviarNotificacionConcurrente(Envios envios) {
+        return enviarNotificacion(envios);
+    }
+}
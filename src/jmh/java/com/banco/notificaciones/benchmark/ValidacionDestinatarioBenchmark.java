@@ -0,0 +1,81 @@
+package com.banco.notificaciones.benchmark;
+
+import com.banco.notificaciones.validacion.ValidadoresDestinatario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validaciones de destinatario por segundo y por canal. Cada invocación valida
+ * un arreglo con una mezcla fija de destinatarios válidos e inválidos; el
+ * benchmark {@code expresionRegular} es la validación con {@code String.matches}
+ * que hacía el canal SMS, como referencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacionDestinatarioBenchmark {
+
+    private static final int DESTINATARIOS = 1024;
+
+    @Param({"EMAIL", "SMS", "PUSH"})
+    private String canal;
+
+    private String[] destinatarios;
+
+    @Setup
+    public void preparar() {
+        destinatarios = new String[DESTINATARIOS];
+        for (int i = 0; i < DESTINATARIOS; i++) {
+            boolean valido = i % 8 != 0;
+            destinatarios[i] = switch (canal) {
+                case "EMAIL" -> valido ? "usuario" + i + "@correo.banco.com" : "usuario" + i + "banco.com";
+                case "SMS" -> valido ? String.valueOf(5_500_000_000L + i) : "55-" + i;
+                default -> valido ? "device_fcm" + Integer.toHexString(i * 7919) : "dispositivo" + i;
+            };
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DESTINATARIOS)
+    public int validar() {
+        int validos = 0;
+        for (String destinatario : destinatarios) {
+            boolean valido = switch (canal) {
+                case "EMAIL" -> ValidadoresDestinatario.esEmailValido(destinatario);
+                case "SMS" -> ValidadoresDestinatario.esTelefonoValido(destinatario);
+                default -> ValidadoresDestinatario.esDispositivoValido(destinatario);
+            };
+            if (valido) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DESTINATARIOS)
+    public int expresionRegular() {
+        int validos = 0;
+        for (String destinatario : destinatarios) {
+            if (destinatario.matches("\\d{10}")) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+}
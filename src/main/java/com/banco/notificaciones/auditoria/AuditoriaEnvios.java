@@ -0,0 +1,404 @@
+package com.banco.notificaciones.auditoria;
+
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Auditoría de envíos, fuera del hilo que envía.
+ *
+ * <p>Los hilos de envío reservan una ranura de un buffer circular preasignado con
+ * un CAS, copian referencias y primitivos, y la publican; no toman locks ni crean
+ * objetos. Un único hilo escritor consume las ranuras en orden, enmascara el
+ * destinatario y escribe una línea JSON por evento en archivos que rotan por
+ * tamaño ({@code auditoria-NNNNNN.jsonl}). Los fallos se registran siempre y los
+ * envíos exitosos según la tasa de muestreo. Si el buffer se llena el evento se
+ * descarta y se cuenta: el envío nunca espera a la auditoría.
+ */
+@Component
+public class AuditoriaEnvios {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditoriaEnvios.class);
+
+    private static final Pattern ARCHIVO = Pattern.compile("auditoria-(\\d{6})\\.jsonl");
+    private static final int TAMANO_BLOQUE = 64 * 1024;
+    private static final int MAX_LINEA = 2048;
+    private static final int MAX_TEXTO = 128;
+    private static final int VISIBLES = 4;
+    private static final String PREFIJO_DISPOSITIVO = "device_";
+    private static final long ESPERA_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long INTERVALO_AVISO_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Ranura del buffer circular; se reutiliza en cada vuelta.
+     */
+    private static final class Evento {
+        private long instante;
+        private String id;
+        private CanalNotificacion canal;
+        private String destinatario;
+        private boolean exitoso;
+        private long nanos;
+        private BigDecimal costo;
+    }
+
+    private final boolean habilitada;
+    private final Path directorio;
+    private final double muestreoExitos;
+    private final long tamanoArchivoBytes;
+    private final int archivosMaximos;
+
+    private final Evento[] eventos;
+    private final AtomicLongArray publicados;
+    private final int mascara;
+    private final AtomicLong reservados = new AtomicLong();
+    private volatile long consumidos;
+    private final LongAdder descartados = new LongAdder();
+
+    private volatile boolean activo;
+    private Thread escritor;
+    private final ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BLOQUE);
+    private FileChannel archivo;
+    private long numeroArchivo;
+    private long bytesArchivo;
+    private long descartadosAvisados;
+    private long ultimoAviso;
+
+    public AuditoriaEnvios(
+            @Value("${notificaciones.auditoria.habilitada:true}") boolean habilitada,
+            @Value("${notificaciones.auditoria.directorio:./auditoria}") String directorio,
+            @Value("${notificaciones.auditoria.capacidad:65536}") int capacidad,
+            @Value("${notificaciones.auditoria.muestreo-exitos:0.01}") double muestreoExitos,
+            @Value("${notificaciones.auditoria.tamano-archivo-mb:64}") long tamanoArchivoMb,
+            @Value("${notificaciones.auditoria.archivos:10}") int archivosMaximos) {
+        if (muestreoExitos < 0 || muestreoExitos > 1) {
+            throw new IllegalArgumentException("La tasa de muestreo debe estar entre 0 y 1: " + muestreoExitos);
+        }
+        this.habilitada = habilitada;
+        this.directorio = Paths.get(directorio);
+        this.muestreoExitos = muestreoExitos;
+        this.tamanoArchivoBytes = Math.max(1, tamanoArchivoMb) * 1024 * 1024;
+        this.archivosMaximos = Math.max(1, archivosMaximos);
+
+        int ranuras = Integer.highestOneBit(Math.max(2, capacidad) - 1) << 1;
+        this.eventos = new Evento[ranuras];
+        this.publicados = new AtomicLongArray(ranuras);
+        for (int i = 0; i < ranuras; i++) {
+            eventos[i] = new Evento();
+            publicados.set(i, -1);
+        }
+        this.mascara = ranuras - 1;
+    }
+
+    @PostConstruct
+    public synchronized void iniciar() throws IOException {
+        if (!habilitada || activo) {
+            return;
+        }
+        Files.createDirectories(directorio);
+        abrirArchivo(ultimoArchivo() + 1);
+        activo = true;
+        ultimoAviso = System.nanoTime();
+        escritor = new Thread(this::escribir, "auditoria-escritor");
+        escritor.setDaemon(true);
+        escritor.start();
+        logger.info("Auditoría de envíos iniciada sobre {} (muestreo de éxitos {}, {} ranuras)",
+                archivoAuditoria(numeroArchivo), muestreoExitos, eventos.length);
+    }
+
+    /**
+     * Detiene el escritor tras volcar los eventos ya publicados.
+     */
+    @PreDestroy
+    public synchronized void detener() {
+        if (!activo) {
+            return;
+        }
+        activo = false;
+        LockSupport.unpark(escritor);
+        try {
+            escritor.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            archivo.close();
+        } catch (IOException e) {
+            logger.error("Error cerrando el archivo de auditoría: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Registra el resultado de un envío. No bloquea ni asigna memoria; si el buffer
+     * está lleno el evento se descarta.
+     */
+    public void registrar(String id, CanalNotificacion canal, String destinatario,
+                          boolean exitoso, long nanos, BigDecimal costo) {
+        if (!activo || (exitoso && !muestrear())) {
+            return;
+        }
+        long secuencia;
+        do {
+            secuencia = reservados.get();
+            if (secuencia - consumidos >= eventos.length) {
+                descartados.increment();
+                return;
+            }
+        } while (!reservados.compareAndSet(secuencia, secuencia + 1));
+
+        int indice = (int) secuencia & mascara;
+        Evento evento = eventos[indice];
+        evento.instante = System.currentTimeMillis();
+        evento.id = id;
+        evento.canal = canal;
+        evento.destinatario = destinatario;
+        evento.exitoso = exitoso;
+        evento.nanos = nanos;
+        evento.costo = costo;
+        publicados.lazySet(indice, secuencia);
+    }
+
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    public boolean isActiva() {
+        return activo;
+    }
+
+    private boolean muestrear() {
+        return muestreoExitos >= 1
+                || (muestreoExitos > 0 && ThreadLocalRandom.current().nextDouble() < muestreoExitos);
+    }
+
+    private void escribir() {
+        while (activo || pendientes()) {
+            try {
+                if (drenar() == 0) {
+                    volcar();
+                    avisarDescartes();
+                    LockSupport.parkNanos(this, ESPERA_NANOS);
+                }
+            } catch (IOException e) {
+                logger.error("Error escribiendo la auditoría: {}", e.getMessage());
+                buffer.clear();
+            }
+        }
+        try {
+            volcar();
+            archivo.force(false);
+        } catch (IOException e) {
+            logger.error("Error escribiendo la auditoría: {}", e.getMessage());
+        }
+    }
+
+    private boolean pendientes() {
+        return reservados.get() > consumidos;
+    }
+
+    /**
+     * Serializa los eventos publicados consecutivos y libera sus ranuras.
+     *
+     * @return número de eventos consumidos
+     */
+    private int drenar() throws IOException {
+        long secuencia = consumidos;
+        int consumidosAhora = 0;
+        while (consumidosAhora < eventos.length) {
+            int indice = (int) secuencia & mascara;
+            if (publicados.get(indice) != secuencia) {
+                break;
+            }
+            if (buffer.remaining() < MAX_LINEA) {
+                volcar();
+            }
+            serializar(eventos[indice]);
+            eventos[indice].id = null;
+            eventos[indice].destinatario = null;
+            eventos[indice].costo = null;
+            consumidos = ++secuencia;
+            consumidosAhora++;
+        }
+        return consumidosAhora;
+    }
+
+    private void serializar(Evento evento) {
+        poner("{\"instante\":");
+        ponerNumero(evento.instante);
+        poner(",\"id\":");
+        ponerTexto(evento.id);
+        poner(",\"canal\":");
+        ponerTexto(evento.canal == null ? null : evento.canal.name());
+        poner(evento.exitoso ? ",\"resultado\":\"EXITOSO\"" : ",\"resultado\":\"FALLIDO\"");
+        poner(",\"destinatario\":");
+        ponerDestinatario(evento.canal, evento.destinatario);
+        poner(",\"duracionUs\":");
+        ponerNumero(TimeUnit.NANOSECONDS.toMicros(evento.nanos));
+        poner(",\"costo\":");
+        poner(evento.costo == null ? "null" : evento.costo.toPlainString());
+        poner("}\n");
+    }
+
+    /**
+     * Escribe el destinatario enmascarado: del email se conserva la inicial y el
+     * dominio, del token de dispositivo el prefijo, y en general solo los últimos
+     * cuatro caracteres.
+     */
+    private void ponerDestinatario(CanalNotificacion canal, String destinatario) {
+        if (destinatario == null) {
+            poner("null");
+            return;
+        }
+        int longitud = Math.min(destinatario.length(), MAX_TEXTO);
+        buffer.put((byte) '"');
+        int arroba = canal == CanalNotificacion.EMAIL ? destinatario.indexOf('@') : -1;
+        if (arroba > 0 && arroba < longitud) {
+            ponerCaracteres(destinatario, 0, 1);
+            poner("***");
+            ponerCaracteres(destinatario, arroba, longitud);
+        } else {
+            if (canal == CanalNotificacion.PUSH && destinatario.startsWith(PREFIJO_DISPOSITIVO)) {
+                poner(PREFIJO_DISPOSITIVO);
+            }
+            poner("***");
+            if (longitud > 2 * VISIBLES) {
+                ponerCaracteres(destinatario, longitud - VISIBLES, longitud);
+            }
+        }
+        buffer.put((byte) '"');
+    }
+
+    private void ponerTexto(String texto) {
+        if (texto == null) {
+            poner("null");
+            return;
+        }
+        buffer.put((byte) '"');
+        ponerCaracteres(texto, 0, Math.min(texto.length(), MAX_TEXTO));
+        buffer.put((byte) '"');
+    }
+
+    /**
+     * Copia caracteres escapados para JSON; todo lo que no es ASCII imprimible
+     * se escribe como {@code \\uXXXX}, así la salida es siempre ASCII.
+     */
+    private void ponerCaracteres(String texto, int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            char c = texto.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.put((byte) '\\').put((byte) c);
+            } else if (c >= 0x20 && c < 0x7f) {
+                buffer.put((byte) c);
+            } else {
+                buffer.put((byte) '\\').put((byte) 'u')
+                        .put(HEX[(c >> 12) & 0xf]).put(HEX[(c >> 8) & 0xf])
+                        .put(HEX[(c >> 4) & 0xf]).put(HEX[c & 0xf]);
+            }
+        }
+    }
+
+    private void poner(String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            buffer.put((byte) ascii.charAt(i));
+        }
+    }
+
+    private void ponerNumero(long valor) {
+        if (valor < 0) {
+            buffer.put((byte) '-');
+            valor = -valor;
+        }
+        long divisor = 1;
+        while (valor / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + (valor / divisor) % 10));
+        }
+    }
+
+    private void volcar() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesArchivo += archivo.write(buffer);
+        }
+        buffer.clear();
+        if (bytesArchivo >= tamanoArchivoBytes) {
+            archivo.close();
+            abrirArchivo(numeroArchivo + 1);
+            eliminarAntiguos();
+        }
+    }
+
+    private void avisarDescartes() {
+        long ahora = System.nanoTime();
+        if (ahora - ultimoAviso < INTERVALO_AVISO_NANOS) {
+            return;
+        }
+        ultimoAviso = ahora;
+        long total = descartados.sum();
+        if (total > descartadosAvisados) {
+            logger.warn("Auditoría de envíos: {} eventos descartados por buffer lleno", total - descartadosAvisados);
+            descartadosAvisados = total;
+        }
+    }
+
+    private void abrirArchivo(long numero) throws IOException {
+        archivo = FileChannel.open(archivoAuditoria(numero),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        numeroArchivo = numero;
+        bytesArchivo = archivo.size();
+    }
+
+    private void eliminarAntiguos() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            for (Path ruta : archivos.toList()) {
+                Matcher coincidencia = ARCHIVO.matcher(ruta.getFileName().toString());
+                if (coincidencia.matches() && Long.parseLong(coincidencia.group(1)) <= numeroArchivo - archivosMaximos) {
+                    Files.deleteIfExists(ruta);
+                }
+            }
+        }
+    }
+
+    private long ultimoArchivo() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.map(ruta -> ARCHIVO.matcher(ruta.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .mapToLong(coincidencia -> Long.parseLong(coincidencia.group(1)))
+                    .max()
+                    .orElse(0);
+        }
+    }
+
+    private Path archivoAuditoria(long numero) {
+        return directorio.resolve(String.format("auditoria-%06d.jsonl", numero));
+    }
+}
@@ -0,0 +1,31 @@
+package com.banco.notificaciones.circuito;
+
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+
+import java.time.Duration;
+
+/**
+ * Envío rechazado localmente porque el circuito del canal está abierto: el
+ * proveedor no llegó a llamarse, así que no cuenta como intento fallido. La
+ * notificación debe volver a intentarse cuando pase {@link #getEspera()}.
+ */
+public class CircuitoAbiertoException extends RuntimeException {
+
+    private final CanalNotificacion canal;
+    private final Duration espera;
+
+    public CircuitoAbiertoException(CanalNotificacion canal, Duration espera) {
+        super("Circuito de " + canal + " abierto, reintentar en " + espera.toMillis() + " ms");
+        this.canal = canal;
+        this.espera = espera;
+    }
+
+    public CanalNotificacion getCanal() {
+        return canal;
+    }
+
+    /** Tiempo que falta para que el circuito vuelva a dejar pasar envíos. */
+    public Duration getEspera() {
+        return espera;
+    }
+}
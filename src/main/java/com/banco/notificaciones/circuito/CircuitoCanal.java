@@ -0,0 +1,187 @@
+package com.banco.notificaciones.circuito;
+
+import com.banco.notificaciones.model.enums.EstadoCircuito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker sin locks para el proveedor de un canal.
+ *
+ * <p>El estado es una única {@link Fase} inmutable que se reemplaza con CAS; cada
+ * fase trae su propia ventana (CERRADO) o sus permisos de sondeo (SEMIABIERTO),
+ * de modo que cambiar de fase reinicia ese estado sin coordinar hilos. Quien
+ * llama pide una fase con {@link #permitir()} y devuelve el resultado con
+ * {@link #registrar}: los resultados de una fase que ya terminó se descartan.
+ *
+ * <p>CERRADO abre el circuito cuando la ventana supera el umbral de fallos o de
+ * llamadas lentas. ABIERTO rechaza todo durante la espera y después pasa a
+ * SEMIABIERTO, que deja pasar un número fijo de sondeos: si todos salen bien y
+ * a tiempo el circuito se cierra, y al primer fallo o sondeo lento se reabre.
+ */
+public final class CircuitoCanal {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitoCanal.class);
+
+    /** Fase del circuito; identifica a qué estado pertenece cada llamada permitida. */
+    public static final class Fase {
+        private final EstadoCircuito estado;
+        private final long desde;
+        private final VentanaDeslizante ventana;
+        private final AtomicInteger permisos;
+        private final AtomicInteger exitos = new AtomicInteger();
+
+        private Fase(EstadoCircuito estado, long desde, VentanaDeslizante ventana, int permisos) {
+            this.estado = estado;
+            this.desde = desde;
+            this.ventana = ventana;
+            this.permisos = new AtomicInteger(permisos);
+        }
+    }
+
+    private final String nombre;
+    private final int tamanoVentana;
+    private final int minimoLlamadas;
+    private final int porcentajeFallos;
+    private final int porcentajeLentas;
+    private final long lentaNanos;
+    private final long esperaAbiertoNanos;
+    private final int sondeos;
+    private final LongSupplier reloj;
+    private final Consumer<EstadoCircuito> alCambiar;
+    private final AtomicReference<Fase> fase;
+
+    /**
+     * @param tamanoVentana     llamadas recientes que se evalúan en CERRADO
+     * @param minimoLlamadas    llamadas necesarias en la ventana antes de poder abrir
+     * @param porcentajeFallos  porcentaje de fallos que abre el circuito
+     * @param porcentajeLentas  porcentaje de llamadas lentas que abre el circuito
+     * @param lentaNanos        duración a partir de la cual una llamada cuenta como lenta
+     * @param esperaAbiertoNanos tiempo en ABIERTO antes de empezar a sondear
+     * @param sondeos           llamadas permitidas en SEMIABIERTO; todas deben salir bien para cerrar
+     * @param alCambiar         recibe el nuevo estado en cada transición
+     */
+    public CircuitoCanal(String nombre, int tamanoVentana, int minimoLlamadas, int porcentajeFallos,
+                         int porcentajeLentas, long lentaNanos, long esperaAbiertoNanos, int sondeos,
+                         LongSupplier reloj, Consumer<EstadoCircuito> alCambiar) {
+        if (tamanoVentana < 1 || sondeos < 1) {
+            throw new IllegalArgumentException(
+                    "La ventana y los sondeos deben ser al menos 1: " + tamanoVentana + ", " + sondeos);
+        }
+        this.nombre = nombre;
+        this.tamanoVentana = tamanoVentana;
+        this.minimoLlamadas = Math.min(Math.max(1, minimoLlamadas), tamanoVentana);
+        this.porcentajeFallos = porcentajeFallos;
+        this.porcentajeLentas = porcentajeLentas;
+        this.lentaNanos = lentaNanos;
+        this.esperaAbiertoNanos = esperaAbiertoNanos;
+        this.sondeos = sondeos;
+        this.reloj = reloj;
+        this.alCambiar = alCambiar;
+        this.fase = new AtomicReference<>(cerrada());
+    }
+
+    /**
+     * Pide permiso para llamar al proveedor.
+     *
+     * @return la fase a la que pertenece la llamada, o null si el circuito la rechaza
+     */
+    public Fase permitir() {
+        while (true) {
+            Fase actual = fase.get();
+            switch (actual.estado) {
+                case CERRADO:
+                    return actual;
+                case ABIERTO:
+                    if (reloj.getAsLong() - actual.desde < esperaAbiertoNanos) {
+                        return null;
+                    }
+                    cambiar(actual, new Fase(EstadoCircuito.SEMIABIERTO, reloj.getAsLong(), null, sondeos));
+                    break;
+                default:
+                    if (tomarPermiso(actual.permisos)) {
+                        return actual;
+                    }
+                    // Sondeos que no responden: tras otra espera se vuelve a abrir para reintentarlo
+                    if (reloj.getAsLong() - actual.desde < esperaAbiertoNanos) {
+                        return null;
+                    }
+                    cambiar(actual, abierta());
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Registra el resultado de una llamada permitida en {@code fase}.
+     */
+    public void registrar(Fase fase, boolean exitoso, long duracionNanos) {
+        if (fase != this.fase.get()) {
+            return;
+        }
+        boolean lenta = duracionNanos >= lentaNanos;
+        if (fase.estado == EstadoCircuito.CERRADO) {
+            fase.ventana.registrar(!exitoso, lenta);
+            if (fase.ventana.superaUmbral(minimoLlamadas, porcentajeFallos, porcentajeLentas)) {
+                cambiar(fase, abierta());
+            }
+        } else if (fase.estado == EstadoCircuito.SEMIABIERTO) {
+            if (!exitoso || lenta) {
+                cambiar(fase, abierta());
+            } else if (fase.exitos.incrementAndGet() >= sondeos) {
+                cambiar(fase, cerrada());
+            }
+        }
+    }
+
+    public EstadoCircuito getEstado() {
+        return fase.get().estado;
+    }
+
+    /**
+     * Tiempo que falta para que el circuito vuelva a dejar pasar llamadas; 0 si está cerrado.
+     */
+    public long esperaRestanteNanos() {
+        Fase actual = fase.get();
+        if (actual.estado == EstadoCircuito.CERRADO) {
+            return 0;
+        }
+        return Math.max(0, esperaAbiertoNanos - (reloj.getAsLong() - actual.desde));
+    }
+
+    private Fase cerrada() {
+        return new Fase(EstadoCircuito.CERRADO, reloj.getAsLong(), new VentanaDeslizante(tamanoVentana), 0);
+    }
+
+    private Fase abierta() {
+        return new Fase(EstadoCircuito.ABIERTO, reloj.getAsLong(), null, 0);
+    }
+
+    private void cambiar(Fase anterior, Fase nueva) {
+        if (fase.compareAndSet(anterior, nueva)) {
+            if (nueva.estado == EstadoCircuito.ABIERTO) {
+                logger.warn("Circuito de {} abierto: se rechazan envíos durante {} ms",
+                        nombre, esperaAbiertoNanos / 1_000_000);
+            } else {
+                logger.info("Circuito de {} pasa de {} a {}", nombre, anterior.estado, nueva.estado);
+            }
+            alCambiar.accept(nueva.estado);
+        }
+    }
+
+    private static boolean tomarPermiso(AtomicInteger permisos) {
+        while (true) {
+            int disponibles = permisos.get();
+            if (disponibles <= 0) {
+                return false;
+            }
+            if (permisos.compareAndSet(disponibles, disponibles - 1)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.banco.notificaciones.circuito;
+
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.EstadoCircuito;
+import com.banco.notificaciones.strategy.CanalNotificacionStrategy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Un circuit breaker por canal frente a su proveedor. Si el proveedor empieza a
+ * fallar o a tardar, el circuito se abre y los envíos fallan al instante en lugar
+ * de ocupar hilos esperándolo; pasada la espera se sondea con pocos envíos.
+ * El estado de cada circuito se publica como métrica y en el health check.
+ */
+@Component
+public class CircuitosProveedor {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitosProveedor.class);
+    private static final String CANAL = "canal";
+
+    private final boolean habilitado;
+    private final Map<CanalNotificacion, CircuitoCanal> circuitos = new EnumMap<>(CanalNotificacion.class);
+    private final Map<CanalNotificacion, Counter> rechazadas = new EnumMap<>(CanalNotificacion.class);
+
+    public CircuitosProveedor(
+            MeterRegistry registro,
+            @Value("${notificaciones.circuito.habilitado:true}") boolean habilitado,
+            @Value("${notificaciones.circuito.ventana:50}") int ventana,
+            @Value("${notificaciones.circuito.minimo-llamadas:20}") int minimoLlamadas,
+            @Value("${notificaciones.circuito.umbral-fallos:50}") int umbralFallos,
+            @Value("${notificaciones.circuito.umbral-lentas:80}") int umbralLentas,
+            @Value("${notificaciones.circuito.lenta-ms:2000}") long lentaMs,
+            @Value("${notificaciones.circuito.espera-abierto-ms:30000}") long esperaAbiertoMs,
+            @Value("${notificaciones.circuito.sondeos:3}") int sondeos) {
+        this.habilitado = habilitado;
+        if (!habilitado) {
+            logger.info("Circuit breakers de proveedores deshabilitados");
+            return;
+        }
+        for (CanalNotificacion canal : CanalNotificacion.values()) {
+            Counter transiciones = Counter.builder("notificaciones.circuito.transiciones")
+                    .description("Cambios de estado del circuito del proveedor")
+                    .tag(CANAL, canal.name())
+                    .register(registro);
+            CircuitoCanal circuito = new CircuitoCanal(canal.name(), ventana, minimoLlamadas, umbralFallos,
+                    umbralLentas, TimeUnit.MILLISECONDS.toNanos(lentaMs),
+                    TimeUnit.MILLISECONDS.toNanos(esperaAbiertoMs), sondeos, System::nanoTime,
+                    estado -> transiciones.increment());
+            circuitos.put(canal, circuito);
+            rechazadas.put(canal, Counter.builder("notificaciones.circuito.rechazadas")
+                    .description("Envíos rechazados sin llamar al proveedor por el circuito abierto")
+                    .tag(CANAL, canal.name())
+                    .register(registro));
+            Gauge.builder("notificaciones.circuito.estado", circuito, c -> c.getEstado().ordinal())
+                    .description("Estado del circuito del proveedor: 0 cerrado, 1 abierto, 2 semiabierto")
+                    .tag(CANAL, canal.name())
+                    .register(registro);
+        }
+        logger.info("Circuit breakers de proveedores: ventana {} llamadas, abre con {}% fallos o {}% lentas (>{} ms)",
+                ventana, umbralFallos, umbralLentas, lentaMs);
+    }
+
+    /**
+     * Envuelve la estrategia con el circuito de su canal; deshabilitados, la devuelve sin cambios.
+     */
+    public CanalNotificacionStrategy aplicar(CanalNotificacionStrategy strategy) {
+        if (!habilitado) {
+            return strategy;
+        }
+        CanalNotificacion canal = strategy.getNombreCanal();
+        return new EstrategiaProtegida(strategy, circuitos.get(canal), rechazadas.get(canal));
+    }
+
+    /**
+     * Estado actual del circuito de cada canal; vacío si están deshabilitados.
+     */
+    public Map<CanalNotificacion, EstadoCircuito> estados() {
+        if (circuitos.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<CanalNotificacion, EstadoCircuito> estados = new EnumMap<>(CanalNotificacion.class);
+        circuitos.forEach((canal, circuito) -> estados.put(canal, circuito.getEstado()));
+        return estados;
+    }
+}
@@ -0,0 +1,147 @@
+package com.banco.notificaciones.circuito;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.strategy.CanalNotificacionStrategy;
+import io.micrometer.core.instrument.Counter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorador que pasa cada llamada al proveedor por el {@link CircuitoCanal} del
+ * canal. Con el circuito abierto el envío se rechaza al instante con
+ * {@link CircuitoAbiertoException}, sin llamar al proveedor: quien envía la
+ * aplaza hasta que termine la espera, sin contarla como intento. Un lote cuenta
+ * como una sola llamada, fallida si ninguna notificación válida salió.
+ *
+ * <p>Sólo los errores del proveedor entran en la ventana: un destinatario inválido
+ * lo rechaza la propia estrategia sin llamar al proveedor, así que esos envíos se
+ * delegan sin pasar por el circuito y un cliente con datos malos no lo abre para
+ * todos. Las validaciones y el costo tampoco pasan por el circuito.
+ */
+class EstrategiaProtegida implements CanalNotificacionStrategy {
+
+    private final CanalNotificacionStrategy delegada;
+    private final CircuitoCanal circuito;
+    private final Counter rechazadas;
+
+    EstrategiaProtegida(CanalNotificacionStrategy delegada, CircuitoCanal circuito, Counter rechazadas) {
+        this.delegada = delegada;
+        this.circuito = circuito;
+        this.rechazadas = rechazadas;
+    }
+
+    @Override
+    public boolean enviar(Notificacion notificacion) {
+        if (!delegada.esDestinatarioValido(notificacion.getDestinatario())) {
+            return delegada.enviar(notificacion);
+        }
+        CircuitoCanal.Fase fase = circuito.permitir();
+        if (fase == null) {
+            rechazadas.increment();
+            throw rechazo();
+        }
+        long inicio = System.nanoTime();
+        boolean exitoso = false;
+        try {
+            exitoso = delegada.enviar(notificacion);
+            return exitoso;
+        } finally {
+            circuito.registrar(fase, exitoso, System.nanoTime() - inicio);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> enviarAsincrono(Notificacion notificacion) {
+        return enviarAsincrono(notificacion, () -> { });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> enviarAsincrono(Notificacion notificacion, Runnable alLlamarProveedor) {
+        if (!delegada.esDestinatarioValido(notificacion.getDestinatario())) {
+            return delegada.enviarAsincrono(notificacion, alLlamarProveedor);
+        }
+        CircuitoCanal.Fase fase = circuito.permitir();
+        if (fase == null) {
+            rechazadas.increment();
+            return CompletableFuture.failedFuture(rechazo());
+        }
+        long inicio = System.nanoTime();
+        CompletableFuture<Boolean> envio;
+        try {
+            envio = delegada.enviarAsincrono(notificacion, alLlamarProveedor);
+        } catch (RuntimeException e) {
+            circuito.registrar(fase, false, System.nanoTime() - inicio);
+            throw e;
+        }
+        envio.whenComplete((exitoso, error) -> {
+            // Un envío cancelado por quien lo pidió no dice nada del proveedor
+            if (!(error instanceof CancellationException)) {
+                circuito.registrar(fase, error == null && Boolean.TRUE.equals(exitoso), System.nanoTime() - inicio);
+            }
+        });
+        return envio;
+    }
+
+    @Override
+    public List<Boolean> enviarLote(List<Notificacion> notificaciones) {
+        boolean[] validas = new boolean[notificaciones.size()];
+        boolean algunaValida = false;
+        for (int i = 0; i < validas.length; i++) {
+            validas[i] = delegada.esDestinatarioValido(notificaciones.get(i).getDestinatario());
+            algunaValida |= validas[i];
+        }
+        if (!algunaValida) {
+            return delegada.enviarLote(notificaciones);
+        }
+        CircuitoCanal.Fase fase = circuito.permitir();
+        if (fase == null) {
+            rechazadas.increment(notificaciones.size());
+            throw rechazo();
+        }
+        long inicio = System.nanoTime();
+        List<Boolean> resultados = null;
+        try {
+            resultados = delegada.enviarLote(notificaciones);
+            return resultados;
+        } finally {
+            circuito.registrar(fase, algunaEnviada(validas, resultados), System.nanoTime() - inicio);
+        }
+    }
+
+    @Override
+    public boolean esDestinatarioValido(String destinatario) {
+        return delegada.esDestinatarioValido(destinatario);
+    }
+
+    @Override
+    public BigDecimal calcularCosto() {
+        return delegada.calcularCosto();
+    }
+
+    @Override
+    public CanalNotificacion getNombreCanal() {
+        return delegada.getNombreCanal();
+    }
+
+    private static boolean algunaEnviada(boolean[] validas, List<Boolean> resultados) {
+        if (resultados == null) {
+            return false;
+        }
+        for (int i = 0; i < validas.length && i < resultados.size(); i++) {
+            if (validas[i] && Boolean.TRUE.equals(resultados.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CircuitoAbiertoException rechazo() {
+        return new CircuitoAbiertoException(delegada.getNombreCanal(),
+                Duration.ofNanos(circuito.esperaRestanteNanos()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.banco.notificaciones.circuito;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Últimas N llamadas al proveedor en un anillo sin locks. Cada llamada ocupa una
+ * ranura con sus marcas de fallo y lentitud y los contadores se ajustan con la
+ * diferencia respecto a la llamada que reemplaza, así que leer las tasas no
+ * recorre el anillo. Bajo concurrencia los contadores pueden ir un registro por
+ * detrás, lo que basta para decidir si abrir el circuito.
+ */
+final class VentanaDeslizante {
+
+    private static final int OCUPADA = 1;
+    private static final int FALLO = 2;
+    private static final int LENTA = 4;
+
+    private final AtomicIntegerArray ranuras;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicInteger llamadas = new AtomicInteger();
+    private final AtomicInteger fallos = new AtomicInteger();
+    private final AtomicInteger lentas = new AtomicInteger();
+
+    VentanaDeslizante(int tamano) {
+        this.ranuras = new AtomicIntegerArray(tamano);
+    }
+
+    void registrar(boolean fallo, boolean lenta) {
+        int nueva = OCUPADA | (fallo ? FALLO : 0) | (lenta ? LENTA : 0);
+        int ranura = (int) (cursor.getAndIncrement() % ranuras.length());
+        int anterior = ranuras.getAndSet(ranura, nueva);
+        if ((anterior & OCUPADA) == 0) {
+            llamadas.incrementAndGet();
+        }
+        ajustar(fallos, anterior, nueva, FALLO);
+        ajustar(lentas, anterior, nueva, LENTA);
+    }
+
+    /**
+     * Indica si, con al menos {@code minimo} llamadas registradas, el porcentaje de
+     * fallos o de llamadas lentas alcanza su umbral.
+     */
+    boolean superaUmbral(int minimo, int porcentajeFallos, int porcentajeLentas) {
+        int total = llamadas.get();
+        if (total == 0 || total < minimo) {
+            return false;
+        }
+        return fallos.get() * 100L >= (long) porcentajeFallos * total
+                || lentas.get() * 100L >= (long) porcentajeLentas * total;
+    }
+
+    private static void ajustar(AtomicInteger contador, int anterior, int nueva, int marca) {
+        int diferencia = (nueva & marca) - (anterior & marca);
+        if (diferencia != 0) {
+            contador.addAndGet(Integer.signum(diferencia));
+        }
+    }
+}
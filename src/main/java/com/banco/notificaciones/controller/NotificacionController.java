@@ -1,51 +1,178 @@
 package com.banco.notificaciones.controller;
 
+import com.banco.notificaciones.circuito.CircuitosProveedor;
+import com.banco.notificaciones.despacho.DespachadorNotificaciones;
+import com.banco.notificaciones.dto.CostoDesgloseResponse;
 import com.banco.notificaciones.dto.CostoTotalResponse;
 import com.banco.notificaciones.dto.CrearNotificacionRequest;
+import com.banco.notificaciones.dto.EnvioLoteResponse;
 import com.banco.notificaciones.dto.EnvioResponse;
+import com.banco.notificaciones.dto.EstadisticasDespachoResponse;
 import com.banco.notificaciones.dto.HealthResponse;
 import com.banco.notificaciones.dto.NotificacionResponse;
+import com.banco.notificaciones.dto.PaginaNotificacionesResponse;
+import com.banco.notificaciones.dto.PlanEntregaRequest;
+import com.banco.notificaciones.dto.PlanEntregaResponse;
+import com.banco.notificaciones.idempotencia.CacheIdempotencia;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
 import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.EstadoCircuito;
+import com.banco.notificaciones.respuesta.CacheRespuestas;
+import com.banco.notificaciones.service.IngestaLoteService;
 import com.banco.notificaciones.service.NotificacionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/notificaciones")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class NotificacionController {
     
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+    private static final String HEADER_IDEMPOTENCIA = "Idempotency-Key";
+    private static final String HEADER_REPETIDA = "Idempotent-Replayed";
+    
     private final NotificacionService notificacionService;
+    private final DespachadorNotificaciones despachador;
+    private final IngestaLoteService ingestaLoteService;
+    private final ObjectMapper objectMapper;
+    private final CacheIdempotencia cacheIdempotencia;
+    private final CacheRespuestas cacheRespuestas;
+    private final CircuitosProveedor circuitos;
     
+    /**
+     * Con {@code Idempotency-Key} un reintento del productor devuelve la respuesta
+     * original (marcada con {@code Idempotent-Replayed: true}) en lugar de crear otra
+     * notificación. Reutilizar la clave con otra petición es un error.
+     */
     @PostMapping
     public ResponseEntity<NotificacionResponse> crearNotificacion(
+            @RequestHeader(value = HEADER_IDEMPOTENCIA, required = false) String claveIdempotencia,
             @Valid @RequestBody CrearNotificacionRequest request) {
         
-        NotificacionResponse response = notificacionService.crearNotificacion(
+        if (claveIdempotencia == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(crear(request));
+        }
+        
+        CacheIdempotencia.Resolucion resolucion = cacheIdempotencia.resolver(claveIdempotencia, () -> crear(request));
+        NotificacionResponse response = resolucion.respuesta();
+        if (!resolucion.repetida()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+        if (!mismaPeticion(request, response)) {
+            throw new IllegalArgumentException("Idempotency-Key ya usada con otra petición: " + claveIdempotencia);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(HEADER_REPETIDA, "true")
+                .body(response);
+    }
+    
+    private NotificacionResponse crear(CrearNotificacionRequest request) {
+        return notificacionService.crearNotificacion(
                 request.getDestinatario(),
                 request.getMensaje(),
                 request.getCanal(),
                 request.getPrioridad()
         );
-        
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    private static boolean mismaPeticion(CrearNotificacionRequest request, NotificacionResponse response) {
+        return response.getCanal() == request.getCanal()
+                && response.getPrioridad() == request.getPrioridad()
+                && Objects.equals(response.getDestinatario(), request.getDestinatario())
+                && Objects.equals(response.getMensaje(), request.getMensaje());
+    }
+    
+    /**
+     * Carga masiva en streaming. Acepta NDJSON o un arreglo JSON y responde
+     * con una línea NDJSON por registro (ID creado o errores de validación).
+     */
+    @PostMapping(value = "/lote",
+            consumes = {MEDIA_TYPE_NDJSON, MediaType.APPLICATION_JSON_VALUE},
+            produces = MEDIA_TYPE_NDJSON)
+    public void crearLote(InputStream cuerpo, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MEDIA_TYPE_NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ingestaLoteService.procesar(cuerpo, response.getOutputStream());
     }
     
     @PostMapping("/{id}/enviar")
     public ResponseEntity<EnvioResponse> enviarNotificacion(@PathVariable String id) {
-        EnvioResponse response = notificacionService.enviarNotificacion(id);
+        EnvioResponse response = notificacionService.encolarEnvio(id);
+        HttpStatus status = Boolean.TRUE.equals(response.getEncolada())
+                || Boolean.TRUE.equals(response.getEnDespacho())
+                || Boolean.TRUE.equals(response.getAplazada()) ? HttpStatus.ACCEPTED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
+    }
+    
+    /**
+     * Plan de entrega multicanal. La respuesta se escribe al cumplirse el plan,
+     * sin ocupar el hilo de la petición mientras responden los proveedores.
+     */
+    @PostMapping("/plan")
+    public CompletableFuture<ResponseEntity<PlanEntregaResponse>> ejecutarPlan(
+            @Valid @RequestBody PlanEntregaRequest request) {
+        return notificacionService.ejecutarPlan(request).thenApply(ResponseEntity::ok);
+    }
+    
+    @PostMapping("/enviar-pendientes")
+    public ResponseEntity<EnvioLoteResponse> enviarPendientes() {
+        EnvioLoteResponse response = notificacionService.enviarPendientes();
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/despacho/estadisticas")
+    public ResponseEntity<EstadisticasDespachoResponse> obtenerEstadisticasDespacho() {
+        return ResponseEntity.ok(despachador.estadisticas());
+    }
+    
+    /**
+     * Las notificaciones ENVIADA ya no cambian: su JSON se sirve desde la caché de
+     * respuestas. Toda respuesta lleva ETag y con {@code If-None-Match} coincidente
+     * se responde 304 sin cuerpo.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<NotificacionResponse> obtenerPorId(@PathVariable String id) {
-        NotificacionResponse response = notificacionService.obtenerPorId(id);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> obtenerPorId(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String siNoCoincide) throws IOException {
+        
+        CacheRespuestas.Respuesta respuesta = cacheRespuestas.obtener(id);
+        if (respuesta == null) {
+            NotificacionResponse notificacion = notificacionService.obtenerPorId(id);
+            byte[] cuerpo = objectMapper.writeValueAsBytes(notificacion);
+            respuesta = notificacion.getEstado() == Estado.ENVIADA
+                    ? cacheRespuestas.guardar(id, cuerpo)
+                    : CacheRespuestas.sinGuardar(cuerpo);
+        }
+        if (CacheRespuestas.coincide(siNoCoincide, respuesta.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(respuesta.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(respuesta.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(respuesta.cuerpo());
     }
     
     @GetMapping("/estado/{estado}")
@@ -56,17 +183,66 @@ public class NotificacionController {
         return ResponseEntity.ok(notificaciones);
     }
     
+    @GetMapping("/estado/{estado}/pagina")
+    public ResponseEntity<PaginaNotificacionesResponse> obtenerPaginaPorEstado(
+            @PathVariable Estado estado,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        
+        PaginaNotificacionesResponse pagina = notificacionService.obtenerPaginaPorEstado(estado, cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+    
+    /**
+     * Escribe las notificaciones del estado como NDJSON a medida que se recorren,
+     * sin construir la lista completa en memoria.
+     */
+    @GetMapping(value = "/estado/{estado}/stream", produces = MEDIA_TYPE_NDJSON)
+    public ResponseEntity<StreamingResponseBody> recorrerPorEstado(@PathVariable Estado estado) {
+        Stream<NotificacionResponse> notificaciones = notificacionService.recorrerPorEstado(estado);
+        
+        StreamingResponseBody cuerpo = salida -> {
+            try (notificaciones;
+                 JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+                // Sin el espacio que Jackson pone entre valores raíz: cada línea empieza en '{'
+                generador.setRootValueSeparator(null);
+                Iterator<NotificacionResponse> iterador = notificaciones.iterator();
+                while (iterador.hasNext()) {
+                    generador.writeObject(iterador.next());
+                    generador.writeRaw('\n');
+                }
+            }
+        };
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON))
+                .body(cuerpo);
+    }
+    
     @GetMapping("/costo-total")
     public ResponseEntity<CostoTotalResponse> obtenerCostoTotal() {
         CostoTotalResponse response = notificacionService.calcularCostoTotal();
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/costo-total/desglose")
+    public ResponseEntity<CostoDesgloseResponse> obtenerCostoDesglose() {
+        CostoDesgloseResponse response = notificacionService.calcularCostoDesglose();
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * DEGRADED si el circuito de algún proveedor no está cerrado: el servicio
+     * responde, pero los envíos por ese canal fallan o se limitan a sondeos.
+     */
     @GetMapping("/health")
     public ResponseEntity<HealthResponse> health() {
+        Map<CanalNotificacion, EstadoCircuito> estados = circuitos.estados();
+        boolean cerrados = estados.values().stream().allMatch(estado -> estado == EstadoCircuito.CERRADO);
         HealthResponse response = HealthResponse.builder()
-                .status("UP")
+                .status(cerrados ? "UP" : "DEGRADED")
                 .service("Sistema de Notificaciones Bancarias")
+                .circuitos(estados)
                 .build();
         return ResponseEntity.ok(response);
     }
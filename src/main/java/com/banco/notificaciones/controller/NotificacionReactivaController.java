@@ -0,0 +1,263 @@
+package com.banco.notificaciones.controller;
+
+import com.banco.notificaciones.circuito.CircuitosProveedor;
+import com.banco.notificaciones.despacho.DespachadorNotificaciones;
+import com.banco.notificaciones.dto.CostoDesgloseResponse;
+import com.banco.notificaciones.dto.CostoTotalResponse;
+import com.banco.notificaciones.dto.CrearNotificacionRequest;
+import com.banco.notificaciones.dto.EnvioLoteResponse;
+import com.banco.notificaciones.dto.EnvioResponse;
+import com.banco.notificaciones.dto.EstadisticasDespachoResponse;
+import com.banco.notificaciones.dto.HealthResponse;
+import com.banco.notificaciones.dto.NotificacionResponse;
+import com.banco.notificaciones.dto.PaginaNotificacionesResponse;
+import com.banco.notificaciones.dto.PlanEntregaRequest;
+import com.banco.notificaciones.dto.PlanEntregaResponse;
+import com.banco.notificaciones.idempotencia.CacheIdempotencia;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.EstadoCircuito;
+import com.banco.notificaciones.respuesta.CacheRespuestas;
+import com.banco.notificaciones.service.IngestaLoteService;
+import com.banco.notificaciones.service.NotificacionService;
+import com.banco.notificaciones.service.NotificacionServiceReactivo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Variante no bloqueante de {@link NotificacionController}, activa con el perfil
+ * {@code reactivo} (Spring WebFlux). Expone las mismas rutas y respuestas;
+ * la diferencia es que {@code POST /{id}/enviar} no pasa por la cola de despacho:
+ * envía con el contrato asíncrono de la estrategia y responde al completarse,
+ * sin ocupar un hilo mientras responde el proveedor.
+ */
+@RestController
+@RequestMapping("/api/notificaciones")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class NotificacionReactivaController {
+
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+    private static final String HEADER_IDEMPOTENCIA = "Idempotency-Key";
+    private static final String HEADER_REPETIDA = "Idempotent-Replayed";
+    private static final int TROZOS_EN_VUELO = 4;
+
+    private final NotificacionServiceReactivo servicioReactivo;
+    private final NotificacionService notificacionService;
+    private final DespachadorNotificaciones despachador;
+    private final IngestaLoteService ingestaLoteService;
+    private final ObjectMapper objectMapper;
+    private final CacheIdempotencia cacheIdempotencia;
+    private final CacheRespuestas cacheRespuestas;
+    private final CircuitosProveedor circuitos;
+
+    /**
+     * Con {@code Idempotency-Key} la creación corre en {@code boundedElastic}: un
+     * duplicado concurrente espera el resultado de la primera petición.
+     */
+    @PostMapping
+    public Mono<ResponseEntity<NotificacionResponse>> crearNotificacion(
+            @RequestHeader(value = HEADER_IDEMPOTENCIA, required = false) String claveIdempotencia,
+            @Valid @RequestBody CrearNotificacionRequest request) {
+
+        if (claveIdempotencia == null) {
+            return servicioReactivo.crearNotificacion(request)
+                    .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+        }
+
+        return Mono.fromCallable(() -> cacheIdempotencia.resolver(claveIdempotencia, () -> crear(request)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(resolucion -> {
+                    NotificacionResponse response = resolucion.respuesta();
+                    if (!resolucion.repetida()) {
+                        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+                    }
+                    if (!mismaPeticion(request, response)) {
+                        throw new IllegalArgumentException("Idempotency-Key ya usada con otra petición: " + claveIdempotencia);
+                    }
+                    return ResponseEntity.status(HttpStatus.CREATED)
+                            .header(HEADER_REPETIDA, "true")
+                            .body(response);
+                });
+    }
+
+    private NotificacionResponse crear(CrearNotificacionRequest request) {
+        return notificacionService.crearNotificacion(
+                request.getDestinatario(),
+                request.getMensaje(),
+                request.getCanal(),
+                request.getPrioridad()
+        );
+    }
+
+    private static boolean mismaPeticion(CrearNotificacionRequest request, NotificacionResponse response) {
+        return response.getCanal() == request.getCanal()
+                && response.getPrioridad() == request.getPrioridad()
+                && Objects.equals(response.getDestinatario(), request.getDestinatario())
+                && Objects.equals(response.getMensaje(), request.getMensaje());
+    }
+
+    /**
+     * Carga masiva en streaming con el mismo servicio que el modo servlet: el cuerpo
+     * se lee con contrapresión (pocos trozos en vuelo) y la salida NDJSON se publica
+     * a medida que se escribe, ambos desde {@code boundedElastic}.
+     */
+    @PostMapping(value = "/lote",
+            consumes = {MEDIA_TYPE_NDJSON, MediaType.APPLICATION_JSON_VALUE},
+            produces = MEDIA_TYPE_NDJSON)
+    public Mono<Void> crearLote(ServerHttpRequest request, ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON));
+        return response.writeWith(DataBufferUtils.outputStreamPublisher(salida -> {
+            try (InputStream entrada = leerCuerpo(request.getBody())) {
+                ingestaLoteService.procesar(entrada, salida);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, response.bufferFactory(), tarea -> Schedulers.boundedElastic().schedule(tarea)));
+    }
+
+    private static InputStream leerCuerpo(Flux<DataBuffer> cuerpo) {
+        Iterator<DataBuffer> trozos = cuerpo.toIterable(TROZOS_EN_VUELO).iterator();
+        return new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return trozos.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return trozos.next().asInputStream(true);
+            }
+        });
+    }
+
+    @PostMapping("/{id}/enviar")
+    public Mono<ResponseEntity<EnvioResponse>> enviarNotificacion(@PathVariable String id) {
+        return servicioReactivo.enviarNotificacion(id)
+                .map(response -> {
+                    HttpStatus status = Boolean.TRUE.equals(response.getEncolada())
+                            || Boolean.TRUE.equals(response.getEnDespacho())
+                            || Boolean.TRUE.equals(response.getAplazada()) ? HttpStatus.ACCEPTED : HttpStatus.OK;
+                    return ResponseEntity.status(status).body(response);
+                });
+    }
+
+    @PostMapping("/plan")
+    public Mono<PlanEntregaResponse> ejecutarPlan(@Valid @RequestBody PlanEntregaRequest request) {
+        return servicioReactivo.ejecutarPlan(request);
+    }
+
+    @PostMapping("/enviar-pendientes")
+    public Mono<EnvioLoteResponse> enviarPendientes() {
+        return servicioReactivo.enviarPendientes();
+    }
+
+    @GetMapping("/despacho/estadisticas")
+    public Mono<EstadisticasDespachoResponse> obtenerEstadisticasDespacho() {
+        return Mono.fromCallable(despachador::estadisticas);
+    }
+
+    /**
+     * Igual que en el modo servlet: ETag en toda respuesta, 304 si coincide
+     * {@code If-None-Match} y el JSON de las ENVIADA desde la caché de respuestas.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<byte[]>> obtenerPorId(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String siNoCoincide) {
+
+        CacheRespuestas.Respuesta enCache = cacheRespuestas.obtener(id);
+        Mono<CacheRespuestas.Respuesta> respuesta = enCache != null
+                ? Mono.just(enCache)
+                : servicioReactivo.obtenerPorId(id).map(notificacion -> {
+                    byte[] cuerpo = serializar(notificacion);
+                    return notificacion.getEstado() == Estado.ENVIADA
+                            ? cacheRespuestas.guardar(id, cuerpo)
+                            : CacheRespuestas.sinGuardar(cuerpo);
+                });
+        return respuesta.map(encontrada -> {
+            if (CacheRespuestas.coincide(siNoCoincide, encontrada.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(encontrada.etag()).<byte[]>build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(encontrada.etag())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(encontrada.cuerpo());
+        });
+    }
+
+    private byte[] serializar(NotificacionResponse notificacion) {
+        try {
+            return objectMapper.writeValueAsBytes(notificacion);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @GetMapping("/estado/{estado}")
+    public Flux<NotificacionResponse> obtenerPorEstado(@PathVariable Estado estado) {
+        return servicioReactivo.recorrerPorEstado(estado);
+    }
+
+    @GetMapping("/estado/{estado}/pagina")
+    public Mono<PaginaNotificacionesResponse> obtenerPaginaPorEstado(
+            @PathVariable Estado estado,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+
+        return servicioReactivo.obtenerPaginaPorEstado(estado, cursor, limite);
+    }
+
+    /**
+     * NDJSON con contrapresión: el recorrido avanza al ritmo en que el cliente lee.
+     */
+    @GetMapping(value = "/estado/{estado}/stream", produces = MEDIA_TYPE_NDJSON)
+    public Flux<NotificacionResponse> recorrerPorEstado(@PathVariable Estado estado) {
+        return servicioReactivo.recorrerPorEstado(estado);
+    }
+
+    @GetMapping("/costo-total")
+    public Mono<CostoTotalResponse> obtenerCostoTotal() {
+        return servicioReactivo.calcularCostoTotal();
+    }
+
+    @GetMapping("/costo-total/desglose")
+    public Mono<CostoDesgloseResponse> obtenerCostoDesglose() {
+        return servicioReactivo.calcularCostoDesglose();
+    }
+
+    @GetMapping("/health")
+    public Mono<HealthResponse> health() {
+        Map<CanalNotificacion, EstadoCircuito> estados = circuitos.estados();
+        boolean cerrados = estados.values().stream().allMatch(estado -> estado == EstadoCircuito.CERRADO);
+        return Mono.just(HealthResponse.builder()
+                .status(cerrados ? "UP" : "DEGRADED")
+                .service("Sistema de Notificaciones Bancarias")
+                .circuitos(estados)
+                .build());
+    }
+}
@@ -0,0 +1,246 @@
+package com.banco.notificaciones.despacho;
+
+import com.banco.notificaciones.dto.EstadisticasDespachoResponse;
+import com.banco.notificaciones.exception.ColaLlenaException;
+import com.banco.notificaciones.model.enums.Prioridad;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cola de despacho acotada por prioridad, drenada por un pool de workers.
+ * Los workers atienden siempre la prioridad más alta disponible, salvo que la
+ * cabeza de una prioridad inferior supere su espera máxima configurada, en
+ * cuyo caso se atiende primero para evitar inanición del tráfico BAJA.
+ */
+@Component
+public class DespachadorNotificaciones {
+
+    private static final Logger logger = LoggerFactory.getLogger(DespachadorNotificaciones.class);
+
+    private final boolean asincrono;
+    private final int capacidad;
+    private final int workers;
+    private final Map<Prioridad, Long> esperaMaximaNanos = new EnumMap<>(Prioridad.class);
+
+    private final Map<Prioridad, Queue<TareaDespacho>> colas = new EnumMap<>(Prioridad.class);
+    private final Map<Prioridad, AtomicInteger> profundidad = new EnumMap<>(Prioridad.class);
+    private final Map<Prioridad, LongAdder> procesadas = new EnumMap<>(Prioridad.class);
+    private final Map<Prioridad, LongAdder> esperaAcumuladaNanos = new EnumMap<>(Prioridad.class);
+    private final Map<Prioridad, AtomicLong> esperaMaximaObservadaNanos = new EnumMap<>(Prioridad.class);
+    private final LongAdder rechazadas = new LongAdder();
+    private final AtomicInteger enCurso = new AtomicInteger();
+
+    private final Semaphore huecos;
+    private final Semaphore pendientes = new Semaphore(0);
+    private final Set<String> idsEnDespacho = ConcurrentHashMap.newKeySet();
+    private ExecutorService pool;
+
+    public DespachadorNotificaciones(
+            @Value("${notificaciones.despacho.asincrono:true}") boolean asincrono,
+            @Value("${notificaciones.despacho.capacidad:10000}") int capacidad,
+            @Value("${notificaciones.despacho.workers:8}") int workers,
+            @Value("${notificaciones.despacho.espera-maxima-ms.alta:0}") long esperaMaximaAltaMs,
+            @Value("${notificaciones.despacho.espera-maxima-ms.media:2000}") long esperaMaximaMediaMs,
+            @Value("${notificaciones.despacho.espera-maxima-ms.baja:10000}") long esperaMaximaBajaMs) {
+        if (capacidad <= 0 || workers <= 0) {
+            throw new IllegalArgumentException("La capacidad y el número de workers deben ser positivos");
+        }
+        this.asincrono = asincrono;
+        this.capacidad = capacidad;
+        this.workers = workers;
+        this.huecos = new Semaphore(capacidad);
+        esperaMaximaNanos.put(Prioridad.ALTA, TimeUnit.MILLISECONDS.toNanos(esperaMaximaAltaMs));
+        esperaMaximaNanos.put(Prioridad.MEDIA, TimeUnit.MILLISECONDS.toNanos(esperaMaximaMediaMs));
+        esperaMaximaNanos.put(Prioridad.BAJA, TimeUnit.MILLISECONDS.toNanos(esperaMaximaBajaMs));
+        for (Prioridad prioridad : Prioridad.values()) {
+            colas.put(prioridad, new ConcurrentLinkedQueue<>());
+            profundidad.put(prioridad, new AtomicInteger());
+            procesadas.put(prioridad, new LongAdder());
+            esperaAcumuladaNanos.put(prioridad, new LongAdder());
+            esperaMaximaObservadaNanos.put(prioridad, new AtomicLong());
+        }
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        AtomicInteger secuencia = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(workers, tarea -> {
+            Thread hilo = new Thread(tarea, "despacho-" + secuencia.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        for (int i = 0; i < workers; i++) {
+            pool.execute(this::atender);
+        }
+        logger.info("Despachador iniciado: asincrono={}, capacidad={}, workers={}", asincrono, capacidad, workers);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    public boolean isAsincrono() {
+        return asincrono;
+    }
+
+    /**
+     * Encola la tarea de envío de una notificación.
+     *
+     * @return false si la notificación ya estaba en la cola o en curso
+     * @throws ColaLlenaException si la cola está llena
+     */
+    public boolean encolar(String id, Prioridad prioridad, Runnable tarea) {
+        Prioridad efectiva = prioridad != null ? prioridad : Prioridad.MEDIA;
+        if (!idsEnDespacho.add(id)) {
+            return false;
+        }
+        if (!huecos.tryAcquire()) {
+            idsEnDespacho.remove(id);
+            rechazadas.increment();
+            throw new ColaLlenaException("La cola de despacho está llena, reintente más tarde");
+        }
+        colas.get(efectiva).offer(new TareaDespacho(id, efectiva, tarea, System.nanoTime()));
+        profundidad.get(efectiva).incrementAndGet();
+        pendientes.release();
+        return true;
+    }
+
+    /**
+     * Reserva una notificación para enviarla fuera de la cola, de forma que no
+     * se despache dos veces a la vez.
+     *
+     * @return false si ya estaba en la cola, en curso o reservada
+     */
+    public boolean reservar(String id) {
+        return idsEnDespacho.add(id);
+    }
+
+    public void liberar(String id) {
+        idsEnDespacho.remove(id);
+    }
+
+    public EstadisticasDespachoResponse estadisticas() {
+        Map<Prioridad, Integer> profundidadPorPrioridad = new EnumMap<>(Prioridad.class);
+        Map<Prioridad, Long> procesadasPorPrioridad = new EnumMap<>(Prioridad.class);
+        Map<Prioridad, Double> esperaPromedioMs = new EnumMap<>(Prioridad.class);
+        Map<Prioridad, Double> esperaMaximaMs = new EnumMap<>(Prioridad.class);
+        Map<Prioridad, Long> esperaMaximaConfiguradaMs = new EnumMap<>(Prioridad.class);
+        for (Prioridad prioridad : Prioridad.values()) {
+            long total = procesadas.get(prioridad).sum();
+            profundidadPorPrioridad.put(prioridad, profundidad.get(prioridad).get());
+            procesadasPorPrioridad.put(prioridad, total);
+            esperaPromedioMs.put(prioridad, total == 0 ? 0.0
+                    : aMilisegundos(esperaAcumuladaNanos.get(prioridad).sum()) / total);
+            esperaMaximaMs.put(prioridad, aMilisegundos(esperaMaximaObservadaNanos.get(prioridad).get()));
+            esperaMaximaConfiguradaMs.put(prioridad,
+                    TimeUnit.NANOSECONDS.toMillis(esperaMaximaNanos.get(prioridad)));
+        }
+        return EstadisticasDespachoResponse.builder()
+                .asincrono(asincrono)
+                .capacidad(capacidad)
+                .workers(workers)
+                .profundidadCola(capacidad - huecos.availablePermits())
+                .enCurso(enCurso.get())
+                .rechazadas(rechazadas.sum())
+                .profundidadPorPrioridad(profundidadPorPrioridad)
+                .procesadasPorPrioridad(procesadasPorPrioridad)
+                .esperaPromedioMs(esperaPromedioMs)
+                .esperaMaximaMs(esperaMaximaMs)
+                .esperaMaximaConfiguradaMs(esperaMaximaConfiguradaMs)
+                .build();
+    }
+
+    private void atender() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                pendientes.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            TareaDespacho tarea = siguiente();
+            huecos.release();
+            ejecutar(tarea);
+        }
+    }
+
+    /**
+     * Elige la siguiente tarea. Cada permiso de {@code pendientes} corresponde a
+     * una tarea ya publicada en alguna cola, por lo que siempre hay una disponible.
+     */
+    private TareaDespacho siguiente() {
+        long ahora = System.nanoTime();
+        Prioridad[] prioridades = Prioridad.values();
+        for (int i = 1; i < prioridades.length; i++) {
+            Prioridad prioridad = prioridades[i];
+            TareaDespacho cabeza = colas.get(prioridad).peek();
+            if (cabeza != null && ahora - cabeza.encolada() > esperaMaximaNanos.get(prioridad)) {
+                TareaDespacho vencida = tomar(prioridad);
+                if (vencida != null) {
+                    return vencida;
+                }
+            }
+        }
+        while (true) {
+            for (Prioridad prioridad : prioridades) {
+                TareaDespacho tarea = tomar(prioridad);
+                if (tarea != null) {
+                    return tarea;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private TareaDespacho tomar(Prioridad prioridad) {
+        TareaDespacho tarea = colas.get(prioridad).poll();
+        if (tarea != null) {
+            profundidad.get(prioridad).decrementAndGet();
+        }
+        return tarea;
+    }
+
+    private void ejecutar(TareaDespacho tarea) {
+        long espera = System.nanoTime() - tarea.encolada();
+        esperaAcumuladaNanos.get(tarea.prioridad()).add(espera);
+        esperaMaximaObservadaNanos.get(tarea.prioridad()).accumulateAndGet(espera, Math::max);
+        enCurso.incrementAndGet();
+        try {
+            tarea.accion().run();
+        } catch (RuntimeException e) {
+            logger.error("Error despachando la notificación {}: {}", tarea.id(), e.getMessage());
+        } finally {
+            enCurso.decrementAndGet();
+            idsEnDespacho.remove(tarea.id());
+            procesadas.get(tarea.prioridad()).increment();
+        }
+    }
+
+    private static double aMilisegundos(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private record TareaDespacho(String id, Prioridad prioridad, Runnable accion, long encolada) {
+    }
+}
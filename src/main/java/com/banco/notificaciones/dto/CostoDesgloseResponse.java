@@ -0,0 +1,23 @@
+package com.banco.notificaciones.dto;
+
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.Prioridad;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CostoDesgloseResponse {
+    private BigDecimal costoTotal;
+    private Map<CanalNotificacion, BigDecimal> porCanal;
+    private Map<Prioridad, BigDecimal> porPrioridad;
+    private Map<Estado, BigDecimal> porEstado;
+}
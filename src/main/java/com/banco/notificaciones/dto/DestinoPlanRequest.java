@@ -0,0 +1,22 @@
+package com.banco.notificaciones.dto;
+
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DestinoPlanRequest {
+    
+    @NotNull(message = "El canal es obligatorio")
+    private CanalNotificacion canal;
+    
+    @NotBlank(message = "El destinatario es obligatorio")
+    private String destinatario;
+}
@@ -0,0 +1,21 @@
+package com.banco.notificaciones.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnvioLoteResponse {
+    private Integer total;
+    private Integer exitosos;
+    private Integer fallidos;
+    /** No intentadas por circuito abierto; quedan programadas para después. */
+    private Integer aplazadas;
+    private List<ResultadoEnvioResponse> resultados;
+}
@@ -11,5 +11,10 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class EnvioResponse {
     private Boolean exitoso;
+    private Boolean encolada;
+    /** Ya estaba en la cola o en curso: esta solicitud no la volvió a encolar. */
+    private Boolean enDespacho;
+    /** El circuito del canal estaba abierto: no se intentó y queda programada para después. */
+    private Boolean aplazada;
     private NotificacionResponse notificacion;
 }
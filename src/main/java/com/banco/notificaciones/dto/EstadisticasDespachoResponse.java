@@ -0,0 +1,27 @@
+package com.banco.notificaciones.dto;
+
+import com.banco.notificaciones.model.enums.Prioridad;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasDespachoResponse {
+    private Boolean asincrono;
+    private Integer capacidad;
+    private Integer workers;
+    private Integer profundidadCola;
+    private Integer enCurso;
+    private Long rechazadas;
+    private Map<Prioridad, Integer> profundidadPorPrioridad;
+    private Map<Prioridad, Long> procesadasPorPrioridad;
+    private Map<Prioridad, Double> esperaPromedioMs;
+    private Map<Prioridad, Double> esperaMaximaMs;
+    private Map<Prioridad, Long> esperaMaximaConfiguradaMs;
+}
@@ -1,10 +1,14 @@
 package com.banco.notificaciones.dto;
 
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.EstadoCircuito;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -12,4 +16,5 @@ import lombok.NoArgsConstructor;
 public class HealthResponse {
     private String status;
     private String service;
+    private Map<CanalNotificacion, EstadoCircuito> circuitos;
 }
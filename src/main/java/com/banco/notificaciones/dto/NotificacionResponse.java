@@ -26,4 +26,6 @@ public class NotificacionResponse {
     private BigDecimal costo;
     private LocalDateTime fechaCreacion;
     private LocalDateTime fechaEnvio;
+    private int intentos;
+    private LocalDateTime proximoIntento;
 }
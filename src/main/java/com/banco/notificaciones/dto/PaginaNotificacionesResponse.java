@@ -0,0 +1,22 @@
+package com.banco.notificaciones.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados con cursor opaco para solicitar la siguiente.
+ * {@code siguienteCursor} es null cuando no hay más resultados.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaNotificacionesResponse {
+    private List<NotificacionResponse> contenido;
+    private Integer limite;
+    private String siguienteCursor;
+}
@@ -0,0 +1,44 @@
+package com.banco.notificaciones.dto;
+
+import com.banco.notificaciones.model.enums.ModoEntrega;
+import com.banco.notificaciones.model.enums.Prioridad;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Un mismo mensaje a entregar por varios canales. En FAILOVER los destinos se
+ * prueban en el orden recibido; con {@code presupuestoMs} se inicia el siguiente
+ * si el actual no respondió en ese tiempo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanEntregaRequest {
+    
+    @NotNull(message = "El modo es obligatorio")
+    private ModoEntrega modo;
+    
+    @NotBlank(message = "El mensaje es obligatorio")
+    @Size(max = 500, message = "El mensaje no puede exceder 500 caracteres")
+    private String mensaje;
+    
+    @NotNull(message = "La prioridad es obligatoria")
+    private Prioridad prioridad;
+    
+    @NotEmpty(message = "El plan necesita al menos un destino")
+    private List<@Valid @NotNull DestinoPlanRequest> destinos;
+    
+    @PositiveOrZero(message = "El presupuesto de latencia no puede ser negativo")
+    private Long presupuestoMs;
+}
@@ -0,0 +1,26 @@
+package com.banco.notificaciones.dto;
+
+import com.banco.notificaciones.model.enums.ModoEntrega;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Resultado de un plan de entrega. En FAILOVER es exitoso si algún canal entregó;
+ * en DIFUSION, si entregaron todos. {@code costoTotal} suma solo lo que se envió.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanEntregaResponse {
+    private ModoEntrega modo;
+    private Boolean exitoso;
+    private Integer entregadas;
+    private BigDecimal costoTotal;
+    private List<ResultadoCanalResponse> resultados;
+}
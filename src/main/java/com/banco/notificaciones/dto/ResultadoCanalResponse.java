@@ -0,0 +1,27 @@
+package com.banco.notificaciones.dto;
+
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.ResultadoEntrega;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Resultado de un canal del plan. {@code notificacionId} y {@code duracionMs}
+ * son null si el canal no llegó a intentarse; el costo es cero si no se envió.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoCanalResponse {
+    private CanalNotificacion canal;
+    private String destinatario;
+    private ResultadoEntrega resultado;
+    private String notificacionId;
+    private BigDecimal costo;
+    private Long duracionMs;
+}
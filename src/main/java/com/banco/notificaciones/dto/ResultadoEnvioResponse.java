@@ -0,0 +1,18 @@
+package com.banco.notificaciones.dto;
+
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoEnvioResponse {
+    private String id;
+    private CanalNotificacion canal;
+    private Boolean exitoso;
+    private Boolean aplazada;
+}
@@ -0,0 +1,23 @@
+package com.banco.notificaciones.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Resultado de un registro de la carga por lote: el ID creado o los errores de validación.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultadoLoteResponse {
+    private Long indice;
+    private String id;
+    private Map<String, String> errores;
+}
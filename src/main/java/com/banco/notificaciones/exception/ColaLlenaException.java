@@ -0,0 +1,12 @@
+package com.banco.notificaciones.exception;
+
+/**
+ * La cola de despacho no admite más envíos. Es una saturación pasajera: el
+ * cliente puede reintentar más tarde, por eso se responde 503.
+ */
+public class ColaLlenaException extends RuntimeException {
+
+    public ColaLlenaException(String message) {
+        super(message);
+    }
+}
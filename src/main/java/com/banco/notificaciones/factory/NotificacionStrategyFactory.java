@@ -1,24 +1,50 @@
 package com.banco.notificaciones.factory;
 
+import com.banco.notificaciones.circuito.CircuitosProveedor;
+import com.banco.notificaciones.limite.LimitesEnvio;
 import com.banco.notificaciones.model.enums.CanalNotificacion;
 import com.banco.notificaciones.strategy.CanalNotificacionStrategy;
 import com.banco.notificaciones.strategy.EmailNotificationStrategy;
 import com.banco.notificaciones.strategy.PushNotificationStrategy;
 import com.banco.notificaciones.strategy.SmsNotificationStrategy;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
  * Factory para crear estrategias de notificación.
  * Aplica el principio Open/Closed.
+ * Con {@link LimitesEnvio}, cada estrategia se entrega envuelta con los límites de tasa de su canal,
+ * y por debajo de ellos con el circuit breaker de su proveedor ({@link CircuitosProveedor}), para
+ * que la espera del límite no cuente como lentitud del proveedor.
  */
 @Component
-@RequiredArgsConstructor
 public class NotificacionStrategyFactory {
     
-    private final EmailNotificationStrategy emailStrategy;
-    private final SmsNotificationStrategy smsStrategy;
-    private final PushNotificationStrategy pushStrategy;
+    private final CanalNotificacionStrategy emailStrategy;
+    private final CanalNotificacionStrategy smsStrategy;
+    private final CanalNotificacionStrategy pushStrategy;
+    
+    /**
+     * Estrategias sin límites de tasa.
+     */
+    public NotificacionStrategyFactory(EmailNotificationStrategy emailStrategy,
+                                       SmsNotificationStrategy smsStrategy,
+                                       PushNotificationStrategy pushStrategy) {
+        this.emailStrategy = emailStrategy;
+        this.smsStrategy = smsStrategy;
+        this.pushStrategy = pushStrategy;
+    }
+    
+    @Autowired
+    public NotificacionStrategyFactory(EmailNotificationStrategy emailStrategy,
+                                       SmsNotificationStrategy smsStrategy,
+                                       PushNotificationStrategy pushStrategy,
+                                       LimitesEnvio limites,
+                                       CircuitosProveedor circuitos) {
+        this.emailStrategy = limites.aplicar(circuitos.aplicar(emailStrategy));
+        this.smsStrategy = limites.aplicar(circuitos.aplicar(smsStrategy));
+        this.pushStrategy = limites.aplicar(circuitos.aplicar(pushStrategy));
+    }
     
     public CanalNotificacionStrategy getStrategy(CanalNotificacion canal) {
         if (canal == null) {
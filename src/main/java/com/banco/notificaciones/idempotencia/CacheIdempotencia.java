@@ -0,0 +1,173 @@
+package com.banco.notificaciones.idempotencia;
+
+import com.banco.notificaciones.dto.NotificacionResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Recuerda la respuesta de cada creación hecha con {@code Idempotency-Key} para
+ * devolverla tal cual cuando el productor reintenta la misma petición.
+ *
+ * <p>Cada clave guarda un {@link CompletableFuture}: la primera petición lo
+ * registra con {@code putIfAbsent} y crea la notificación; las duplicadas
+ * concurrentes esperan ese mismo resultado, así que solo una creación gana. Si
+ * la creación falla la clave se libera y el siguiente intento vuelve a crear.
+ *
+ * <p>Las entradas vencen tras el TTL y, como todas tienen el mismo, la cola de
+ * inserción está ordenada por vencimiento: cada alta purga desde la cabeza las
+ * vencidas y, si se supera el máximo, las más antiguas ya resueltas. Una
+ * creación en curso nunca se desaloja por tamaño: sus duplicados volverían a
+ * crear la notificación.
+ */
+@Component
+public class CacheIdempotencia {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheIdempotencia.class);
+    private static final int LONGITUD_MAXIMA_CLAVE = 255;
+
+    /**
+     * Respuesta resuelta para una clave; {@code repetida} indica que viene de una creación anterior.
+     */
+    public record Resolucion(NotificacionResponse respuesta, boolean repetida) {
+    }
+
+    private static final class Entrada {
+        private final String clave;
+        private final long venceNanos;
+        private final CompletableFuture<NotificacionResponse> resultado = new CompletableFuture<>();
+
+        private Entrada(String clave, long venceNanos) {
+            this.clave = clave;
+            this.venceNanos = venceNanos;
+        }
+
+        private boolean vencida(long ahora) {
+            return ahora - venceNanos >= 0;
+        }
+    }
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Queue<Entrada> porAntiguedad = new ConcurrentLinkedQueue<>();
+    private final long ttlNanos;
+    private final int maximo;
+    private final Counter nuevas;
+    private final Counter repetidas;
+
+    public CacheIdempotencia(
+            MeterRegistry registro,
+            @Value("${notificaciones.idempotencia.ttl-segundos:86400}") long ttlSegundos,
+            @Value("${notificaciones.idempotencia.maximo:100000}") int maximo) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, ttlSegundos));
+        this.maximo = Math.max(1, maximo);
+        this.nuevas = Counter.builder("notificaciones.idempotencia")
+                .description("Creaciones con Idempotency-Key según se crearon o se repitieron")
+                .tag("resultado", "nueva")
+                .register(registro);
+        this.repetidas = Counter.builder("notificaciones.idempotencia")
+                .description("Creaciones con Idempotency-Key según se crearon o se repitieron")
+                .tag("resultado", "repetida")
+                .register(registro);
+        Gauge.builder("notificaciones.idempotencia.claves", entradas, Map::size)
+                .description("Claves de idempotencia recordadas")
+                .register(registro);
+        logger.info("Idempotencia: TTL {} s, máximo {} claves", ttlSegundos, this.maximo);
+    }
+
+    /**
+     * Devuelve la respuesta guardada para la clave o, si no hay ninguna vigente,
+     * ejecuta {@code crear} una sola vez aunque lleguen duplicados en paralelo.
+     *
+     * @throws IllegalArgumentException si la clave está vacía o es demasiado larga
+     */
+    public Resolucion resolver(String clave, Supplier<NotificacionResponse> crear) {
+        if (clave == null || clave.isBlank() || clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key debe tener entre 1 y " + LONGITUD_MAXIMA_CLAVE + " caracteres");
+        }
+        while (true) {
+            long ahora = System.nanoTime();
+            Entrada existente = entradas.get(clave);
+            if (existente != null && existente.vencida(ahora)) {
+                entradas.remove(clave, existente);
+                continue;
+            }
+            if (existente != null) {
+                NotificacionResponse respuesta = esperar(existente);
+                if (respuesta != null) {
+                    repetidas.increment();
+                    return new Resolucion(respuesta, true);
+                }
+                continue;
+            }
+            Entrada nueva = new Entrada(clave, ahora + ttlNanos);
+            if (entradas.putIfAbsent(clave, nueva) != null) {
+                continue;
+            }
+            porAntiguedad.offer(nueva);
+            purgar(ahora);
+            return new Resolucion(crearUnaVez(nueva, crear), false);
+        }
+    }
+
+    public int getTamano() {
+        return entradas.size();
+    }
+
+    private NotificacionResponse crearUnaVez(Entrada entrada, Supplier<NotificacionResponse> crear) {
+        try {
+            NotificacionResponse respuesta = crear.get();
+            entrada.resultado.complete(respuesta);
+            nuevas.increment();
+            return respuesta;
+        } catch (RuntimeException | Error e) {
+            // Cualquier fallo completa el futuro: si no, los duplicados esperarían para siempre
+            entradas.remove(entrada.clave, entrada);
+            entrada.resultado.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Espera la creación en curso de otra petición; {@code null} si falló y hay que reintentar.
+     */
+    private static NotificacionResponse esperar(Entrada entrada) {
+        try {
+            return entrada.resultado.join();
+        } catch (CompletionException e) {
+            return null;
+        }
+    }
+
+    private void purgar(long ahora) {
+        for (Entrada cabeza; (cabeza = porAntiguedad.peek()) != null && cabeza.vencida(ahora); ) {
+            Entrada retirada = porAntiguedad.poll();
+            if (retirada != null) {
+                entradas.remove(retirada.clave, retirada);
+            }
+        }
+        // Por tamaño se salta lo que sigue en curso; solo hay tantas como creaciones concurrentes
+        Iterator<Entrada> antiguas = porAntiguedad.iterator();
+        while (entradas.size() > maximo && antiguas.hasNext()) {
+            Entrada antigua = antiguas.next();
+            if (antigua.resultado.isDone()) {
+                antiguas.remove();
+                entradas.remove(antigua.clave, antigua);
+            }
+        }
+    }
+}
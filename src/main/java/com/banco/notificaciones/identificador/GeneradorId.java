@@ -0,0 +1,10 @@
+package com.banco.notificaciones.identificador;
+
+/**
+ * Genera los identificadores de las notificaciones.
+ * La implementación se elige con {@code notificaciones.id.generador}.
+ */
+public interface GeneradorId {
+
+    String generar();
+}
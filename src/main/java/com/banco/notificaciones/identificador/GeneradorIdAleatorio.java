@@ -0,0 +1,20 @@
+package com.banco.notificaciones.identificador;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * UUID versión 4, el esquema original. Se conserva para despliegues que
+ * necesiten IDs sin información temporal.
+ */
+@Component
+@ConditionalOnProperty(name = "notificaciones.id.generador", havingValue = "UUID")
+public class GeneradorIdAleatorio implements GeneradorId {
+
+    @Override
+    public String generar() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,96 @@
+package com.banco.notificaciones.identificador;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IDs ordenados por tiempo con formato de UUID versión 7.
+ *
+ * <p>Los 128 bits se reparten en: 48 bits de milisegundos de época, la versión,
+ * 16 bits de secuencia, la variante, 10 bits de nodo y 48 bits aleatorios.
+ * Milisegundos y secuencia salen de un único {@link AtomicLong} que solo avanza,
+ * por lo que los IDs de un nodo son estrictamente crecientes aunque el reloj
+ * retroceda; si la secuencia se agota en un milisegundo, se toma prestado el
+ * siguiente. La parte aleatoria usa {@link ThreadLocalRandom}, sin estado compartido.
+ *
+ * <p>El texto resultante es un UUID canónico en minúsculas, de modo que el orden
+ * lexicográfico coincide con el de generación y el repositorio lo almacena
+ * como dos {@code long}.
+ */
+@Component
+@ConditionalOnProperty(name = "notificaciones.id.generador", havingValue = "ORDENADO", matchIfMissing = true)
+public class GeneradorIdOrdenado implements GeneradorId {
+
+    public static final int NODO_MAXIMO = (1 << 10) - 1;
+
+    private static final int BITS_SECUENCIA = 16;
+    private static final long VERSION = 7L << 12;
+    private static final long VARIANTE = 2L << 62;
+    private static final byte[] HEXADECIMAL = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final long nodo;
+    private final AtomicLong ultimo = new AtomicLong();
+
+    public GeneradorIdOrdenado(@Value("${notificaciones.id.nodo:0}") int nodo) {
+        if (nodo < 0 || nodo > NODO_MAXIMO) {
+            throw new IllegalArgumentException(
+                    String.format("El nodo debe estar entre 0 y %d", NODO_MAXIMO));
+        }
+        this.nodo = nodo;
+    }
+
+    @Override
+    public String generar() {
+        long marca = siguienteMarca();
+        long milisegundos = marca >>> BITS_SECUENCIA;
+        long secuencia = marca & 0xFFFF;
+        long alto = milisegundos << 16 | VERSION | secuencia >>> 4;
+        long bajo = VARIANTE | (secuencia & 0xF) << 58 | nodo << 48
+                | ThreadLocalRandom.current().nextLong() & 0xFFFF_FFFF_FFFFL;
+        return formatear(alto, bajo);
+    }
+
+    /**
+     * Milisegundos de época codificados en un ID generado por esta clase.
+     */
+    public static long milisegundos(String id) {
+        return Long.parseUnsignedLong(id.substring(0, 8) + id.substring(9, 13), 16);
+    }
+
+    private long siguienteMarca() {
+        long ahora = System.currentTimeMillis() << BITS_SECUENCIA;
+        while (true) {
+            long anterior = ultimo.get();
+            long siguiente = Math.max(ahora, anterior + 1);
+            if (ultimo.weakCompareAndSetVolatile(anterior, siguiente)) {
+                return siguiente;
+            }
+        }
+    }
+
+    private static String formatear(long alto, long bajo) {
+        byte[] texto = new byte[36];
+        escribir(texto, 0, alto >>> 32, 8);
+        texto[8] = '-';
+        escribir(texto, 9, alto >>> 16, 4);
+        texto[13] = '-';
+        escribir(texto, 14, alto, 4);
+        texto[18] = '-';
+        escribir(texto, 19, bajo >>> 48, 4);
+        texto[23] = '-';
+        escribir(texto, 24, bajo, 12);
+        return new String(texto, StandardCharsets.US_ASCII);
+    }
+
+    private static void escribir(byte[] texto, int desde, long valor, int digitos) {
+        for (int i = desde + digitos - 1; i >= desde; i--) {
+            texto[i] = HEXADECIMAL[(int) (valor & 0xF)];
+            valor >>>= 4;
+        }
+    }
+}
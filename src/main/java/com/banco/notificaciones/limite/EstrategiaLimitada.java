@@ -0,0 +1,81 @@
+package com.banco.notificaciones.limite;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.strategy.CanalNotificacionStrategy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorador que espera el turno de {@link LimitesEnvio} antes de cada llamada
+ * al proveedor. Las validaciones y el costo se delegan sin esperar. En el envío
+ * asíncrono el turno se reserva igual, pero la llamada se difiere sin bloquear.
+ */
+class EstrategiaLimitada implements CanalNotificacionStrategy {
+
+    private final CanalNotificacionStrategy delegada;
+    private final LimitesEnvio limites;
+
+    EstrategiaLimitada(CanalNotificacionStrategy delegada, LimitesEnvio limites) {
+        this.delegada = delegada;
+        this.limites = limites;
+    }
+
+    @Override
+    public boolean enviar(Notificacion notificacion) {
+        limites.adquirir(delegada.getNombreCanal(), notificacion.getDestinatario());
+        return delegada.enviar(notificacion);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> enviarAsincrono(Notificacion notificacion) {
+        long espera = limites.reservarTurno(delegada.getNombreCanal(), notificacion.getDestinatario());
+        if (espera <= 0) {
+            return delegada.enviarAsincrono(notificacion);
+        }
+        return CompletableFuture.supplyAsync(() -> notificacion,
+                        CompletableFuture.delayedExecutor(espera, TimeUnit.NANOSECONDS))
+                .thenCompose(delegada::enviarAsincrono);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> enviarAsincrono(Notificacion notificacion, Runnable alLlamarProveedor) {
+        long espera = limites.reservarTurno(delegada.getNombreCanal(), notificacion.getDestinatario());
+        if (espera <= 0) {
+            return delegada.enviarAsincrono(notificacion, alLlamarProveedor);
+        }
+        // Cancelar el futuro durante la espera evita la etapa siguiente, y con ella el aviso
+        return CompletableFuture.supplyAsync(() -> notificacion,
+                        CompletableFuture.delayedExecutor(espera, TimeUnit.NANOSECONDS))
+                .thenCompose(n -> delegada.enviarAsincrono(n, alLlamarProveedor));
+    }
+
+    @Override
+    public List<Boolean> enviarLote(List<Notificacion> notificaciones) {
+        List<String> destinatarios = new ArrayList<>(notificaciones.size());
+        for (Notificacion notificacion : notificaciones) {
+            destinatarios.add(notificacion.getDestinatario());
+        }
+        limites.adquirir(delegada.getNombreCanal(), destinatarios);
+        return delegada.enviarLote(notificaciones);
+    }
+
+    @Override
+    public boolean esDestinatarioValido(String destinatario) {
+        return delegada.esDestinatarioValido(destinatario);
+    }
+
+    @Override
+    public BigDecimal calcularCosto() {
+        return delegada.calcularCosto();
+    }
+
+    @Override
+    public CanalNotificacion getNombreCanal() {
+        return delegada.getNombreCanal();
+    }
+}
@@ -0,0 +1,76 @@
+package com.banco.notificaciones.limite;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Cubeta de tokens sin locks, implementada como GCRA: el estado es un único
+ * instante teórico de llegada (TAT) en nanosegundos que se avanza con CAS.
+ *
+ * <p>Cada permiso avanza el TAT un intervalo de emisión ({@code 1 / tasa}); la
+ * cubeta admite hasta {@code rafaga} permisos seguidos y después uno por
+ * intervalo. En lugar de rechazar, {@link #reservar} aparta el turno y devuelve
+ * cuánto debe esperar quien llama, de modo que los excedentes quedan en fila.
+ */
+public final class LimitadorTasa {
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final LongSupplier reloj;
+    private final AtomicLong llegadaTeorica;
+
+    public LimitadorTasa(double tasaPorSegundo, int rafaga) {
+        this(tasaPorSegundo, rafaga, System::nanoTime);
+    }
+
+    LimitadorTasa(double tasaPorSegundo, int rafaga, LongSupplier reloj) {
+        if (tasaPorSegundo <= 0 || rafaga < 1) {
+            throw new IllegalArgumentException(
+                    "La tasa debe ser positiva y la ráfaga al menos 1: " + tasaPorSegundo + ", " + rafaga);
+        }
+        this.intervaloNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / tasaPorSegundo));
+        this.toleranciaNanos = (rafaga - 1) * intervaloNanos;
+        this.reloj = reloj;
+        this.llegadaTeorica = new AtomicLong(reloj.getAsLong());
+    }
+
+    /**
+     * Reserva permisos y devuelve los nanosegundos que hay que esperar antes de usarlos.
+     */
+    public long reservar(int permisos) {
+        while (true) {
+            long ahora = reloj.getAsLong();
+            long actual = llegadaTeorica.get();
+            long base = Math.max(actual, ahora);
+            if (llegadaTeorica.compareAndSet(actual, base + permisos * intervaloNanos)) {
+                return Math.max(0, base + (permisos - 1) * intervaloNanos - toleranciaNanos - ahora);
+            }
+        }
+    }
+
+    /**
+     * Indica si la cubeta está llena, es decir, si no guarda estado de
+     * reservas anteriores y puede descartarse sin cambiar el comportamiento.
+     */
+    public boolean estaLlena() {
+        return llegadaTeorica.get() <= reloj.getAsLong();
+    }
+
+    /**
+     * Espera el tiempo indicado, tolerando despertares espurios.
+     *
+     * @throws IllegalStateException si el hilo se interrumpe durante la espera
+     */
+    public static void esperar(long nanos) {
+        long limite = System.nanoTime() + nanos;
+        for (long restante = nanos; restante > 0; restante = limite - System.nanoTime()) {
+            LockSupport.parkNanos(restante);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Envío interrumpido mientras esperaba el límite de tasa");
+            }
+        }
+    }
+}
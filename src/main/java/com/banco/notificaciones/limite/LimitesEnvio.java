@@ -0,0 +1,203 @@
+package com.banco.notificaciones.limite;
+
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.strategy.CanalNotificacionStrategy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Límites de tasa hacia los proveedores, por canal y por destinatario.
+ *
+ * <p>Quien supera el límite no falla: reserva su turno en la cubeta y espera
+ * en su propio hilo (normalmente un worker del despachador) hasta que le toca.
+ * Los envíos no bloqueantes reservan el turno y difieren la llamada sin ocupar hilo.
+ * Las cubetas por destinatario se crean al primer envío; un hilo propio
+ * descarta cada {@code purga-ms} las que volvieron a estar llenas, fuera del
+ * camino de envío. La reserva y el descarte comprueban la cubeta dentro de la
+ * misma operación atómica sobre la clave, así que nunca se descarta una cubeta
+ * en la que otro hilo está reservando.
+ */
+@Component
+public class LimitesEnvio {
+
+    private static final Logger logger = LoggerFactory.getLogger(LimitesEnvio.class);
+    private static final String CANAL = "canal";
+
+    private final Map<CanalNotificacion, LimitadorTasa> porCanal = new EnumMap<>(CanalNotificacion.class);
+    private final Map<String, LimitadorTasa> porDestinatario = new ConcurrentHashMap<>();
+    private final double tasaDestinatario;
+    private final int rafagaDestinatario;
+    private final ScheduledExecutorService purga;
+
+    private final Map<CanalNotificacion, Timer> esperas = new EnumMap<>(CanalNotificacion.class);
+    private final Map<CanalNotificacion, Counter> demoradas = new EnumMap<>(CanalNotificacion.class);
+
+    public LimitesEnvio(
+            MeterRegistry registro,
+            @Value("${notificaciones.limite.tasa.email:0}") double tasaEmail,
+            @Value("${notificaciones.limite.tasa.sms:0}") double tasaSms,
+            @Value("${notificaciones.limite.tasa.push:0}") double tasaPush,
+            @Value("${notificaciones.limite.rafaga.email:1}") int rafagaEmail,
+            @Value("${notificaciones.limite.rafaga.sms:1}") int rafagaSms,
+            @Value("${notificaciones.limite.rafaga.push:1}") int rafagaPush,
+            @Value("${notificaciones.limite.destinatario.tasa:0}") double tasaDestinatario,
+            @Value("${notificaciones.limite.destinatario.rafaga:1}") int rafagaDestinatario,
+            @Value("${notificaciones.limite.destinatario.purga-ms:10000}") long purgaMs) {
+        configurar(CanalNotificacion.EMAIL, tasaEmail, rafagaEmail);
+        configurar(CanalNotificacion.SMS, tasaSms, rafagaSms);
+        configurar(CanalNotificacion.PUSH, tasaPush, rafagaPush);
+        this.tasaDestinatario = tasaDestinatario;
+        this.rafagaDestinatario = Math.max(1, rafagaDestinatario);
+
+        for (CanalNotificacion canal : CanalNotificacion.values()) {
+            esperas.put(canal, Timer.builder("notificaciones.limite.espera")
+                    .description("Espera impuesta por los límites de tasa antes de llamar al proveedor")
+                    .tag(CANAL, canal.name())
+                    .publishPercentileHistogram()
+                    .register(registro));
+            demoradas.put(canal, Counter.builder("notificaciones.limite.demoradas")
+                    .description("Envíos que tuvieron que esperar por el límite de tasa")
+                    .tag(CANAL, canal.name())
+                    .register(registro));
+        }
+        Gauge.builder("notificaciones.limite.destinatarios", porDestinatario, Map::size)
+                .description("Destinatarios con cubeta de límite activa")
+                .register(registro);
+        if (tasaDestinatario > 0) {
+            long intervalo = Math.max(1, purgaMs);
+            purga = Executors.newSingleThreadScheduledExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "limite-purga");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            purga.scheduleWithFixedDelay(this::purgar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+        } else {
+            purga = null;
+        }
+        logger.info("Límites de envío: por canal {}, por destinatario {}/s (ráfaga {})",
+                porCanal.keySet(), tasaDestinatario, this.rafagaDestinatario);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (purga != null) {
+            purga.shutdownNow();
+        }
+    }
+
+    /**
+     * Descarta las cubetas por destinatario que volvieron a estar llenas.
+     *
+     * @return cubetas descartadas
+     */
+    int purgar() {
+        int[] descartadas = new int[1];
+        for (String destinatario : porDestinatario.keySet()) {
+            porDestinatario.computeIfPresent(destinatario, (clave, limitador) -> {
+                if (!limitador.estaLlena()) {
+                    return limitador;
+                }
+                descartadas[0]++;
+                return null;
+            });
+        }
+        return descartadas[0];
+    }
+
+    /**
+     * Envuelve la estrategia con los límites de su canal; si no hay ninguno
+     * aplicable la devuelve sin cambios.
+     */
+    public CanalNotificacionStrategy aplicar(CanalNotificacionStrategy strategy) {
+        if (!porCanal.containsKey(strategy.getNombreCanal()) && tasaDestinatario <= 0) {
+            return strategy;
+        }
+        return new EstrategiaLimitada(strategy, this);
+    }
+
+    /**
+     * Espera el turno de un envío individual.
+     */
+    public void adquirir(CanalNotificacion canal, String destinatario) {
+        LimitadorTasa.esperar(reservarTurno(canal, destinatario));
+    }
+
+    /**
+     * Reserva el turno de un envío individual sin esperarlo.
+     *
+     * @return nanosegundos que faltan para poder llamar al proveedor
+     */
+    public long reservarTurno(CanalNotificacion canal, String destinatario) {
+        long espera = reservarCanal(canal, 1);
+        if (destinatario != null) {
+            espera = Math.max(espera, reservarDestinatario(destinatario));
+        }
+        registrarEspera(canal, espera, 1);
+        return espera;
+    }
+
+    /**
+     * Espera el turno de un lote: reserva un permiso del canal por notificación
+     * y uno por cada destinatario, y espera al más tardío.
+     */
+    public void adquirir(CanalNotificacion canal, List<String> destinatarios) {
+        if (destinatarios.isEmpty()) {
+            return;
+        }
+        long espera = reservarCanal(canal, destinatarios.size());
+        for (String destinatario : destinatarios) {
+            if (destinatario != null) {
+                espera = Math.max(espera, reservarDestinatario(destinatario));
+            }
+        }
+        registrarEspera(canal, espera, destinatarios.size());
+        LimitadorTasa.esperar(espera);
+    }
+
+    private long reservarCanal(CanalNotificacion canal, int permisos) {
+        LimitadorTasa limitador = porCanal.get(canal);
+        return limitador == null ? 0 : limitador.reservar(permisos);
+    }
+
+    private long reservarDestinatario(String destinatario) {
+        if (tasaDestinatario <= 0) {
+            return 0;
+        }
+        long[] espera = new long[1];
+        porDestinatario.compute(destinatario, (clave, limitador) -> {
+            LimitadorTasa actual = limitador != null
+                    ? limitador : new LimitadorTasa(tasaDestinatario, rafagaDestinatario);
+            espera[0] = actual.reservar(1);
+            return actual;
+        });
+        return espera[0];
+    }
+
+    private void registrarEspera(CanalNotificacion canal, long nanos, int envios) {
+        esperas.get(canal).record(nanos, TimeUnit.NANOSECONDS);
+        if (nanos > 0) {
+            demoradas.get(canal).increment(envios);
+        }
+    }
+
+    private void configurar(CanalNotificacion canal, double tasa, int rafaga) {
+        if (tasa > 0) {
+            porCanal.put(canal, new LimitadorTasa(tasa, Math.max(1, rafaga)));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.banco.notificaciones.metricas;
+
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.repository.NotificacionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas del flujo de notificaciones, expuestas en /actuator/prometheus.
+ *
+ * <p>Todos los medidores se registran al iniciar y se guardan en {@link EnumMap},
+ * de modo que registrar un evento no busca en el registro ni crea etiquetas:
+ * solo incrementa contadores o el histograma del timer ya resueltos.
+ * Los gauges de tamaño y de conteo por estado leen los agregados
+ * incrementales del repositorio al momento del scrape.
+ */
+@Component
+public class MetricasNotificaciones {
+
+    private static final String CANAL = "canal";
+    private static final String RESULTADO = "resultado";
+
+    private final Timer creacion;
+    private final Map<CanalNotificacion, Timer> enviosExitosos = new EnumMap<>(CanalNotificacion.class);
+    private final Map<CanalNotificacion, Timer> enviosFallidos = new EnumMap<>(CanalNotificacion.class);
+    private final Map<CanalNotificacion, Counter> exitosos = new EnumMap<>(CanalNotificacion.class);
+    private final Map<CanalNotificacion, Counter> fallidos = new EnumMap<>(CanalNotificacion.class);
+    private final Map<CanalNotificacion, Counter> costoEnviado = new EnumMap<>(CanalNotificacion.class);
+
+    public MetricasNotificaciones(MeterRegistry registro, NotificacionRepository repository) {
+        creacion = Timer.builder("notificaciones.creacion")
+                .description("Tiempo de creación de una notificación")
+                .publishPercentileHistogram()
+                .register(registro);
+        for (CanalNotificacion canal : CanalNotificacion.values()) {
+            enviosExitosos.put(canal, timerEnvio(registro, canal, "exitoso"));
+            enviosFallidos.put(canal, timerEnvio(registro, canal, "fallido"));
+            exitosos.put(canal, contadorEnvios(registro, canal, "exitoso"));
+            fallidos.put(canal, contadorEnvios(registro, canal, "fallido"));
+            costoEnviado.put(canal, Counter.builder("notificaciones.costo.enviado")
+                    .description("Costo acumulado de las notificaciones enviadas")
+                    .tag(CANAL, canal.name())
+                    .register(registro));
+        }
+        Gauge.builder("notificaciones.almacenadas", repository, NotificacionRepository::contar)
+                .description("Notificaciones en el repositorio")
+                .register(registro);
+        for (Estado estado : Estado.values()) {
+            Gauge.builder("notificaciones.por.estado", repository, r -> r.contarPorEstado(estado))
+                    .description("Notificaciones en el repositorio por estado")
+                    .tag("estado", estado.name())
+                    .register(registro);
+        }
+        Gauge.builder("notificaciones.costo.total", repository, r -> r.costoTotal().doubleValue())
+                .description("Costo total de las notificaciones almacenadas")
+                .register(registro);
+    }
+
+    public void registrarCreacion(long nanos) {
+        creacion.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra el envío individual de una notificación.
+     */
+    public void registrarEnvio(CanalNotificacion canal, boolean exitoso, long nanos, BigDecimal costo) {
+        (exitoso ? enviosExitosos : enviosFallidos).get(canal).record(nanos, TimeUnit.NANOSECONDS);
+        registrarEnvios(canal, exitoso ? 1 : 0, exitoso ? 0 : 1, exitoso ? costo : null);
+    }
+
+    /**
+     * Registra el resultado de un lote enviado por un canal.
+     */
+    public void registrarEnvios(CanalNotificacion canal, int cantidadExitosos, int cantidadFallidos,
+                                BigDecimal costo) {
+        if (cantidadExitosos > 0) {
+            exitosos.get(canal).increment(cantidadExitosos);
+        }
+        if (cantidadFallidos > 0) {
+            fallidos.get(canal).increment(cantidadFallidos);
+        }
+        if (costo != null && costo.signum() != 0) {
+            costoEnviado.get(canal).increment(costo.doubleValue());
+        }
+    }
+
+    private static Timer timerEnvio(MeterRegistry registro, CanalNotificacion canal, String resultado) {
+        return Timer.builder("notificaciones.envio")
+                .description("Tiempo de envío individual por canal")
+                .tag(CANAL, canal.name())
+                .tag(RESULTADO, resultado)
+                .publishPercentileHistogram()
+                .register(registro);
+    }
+
+    private static Counter contadorEnvios(MeterRegistry registro, CanalNotificacion canal, String resultado) {
+        return Counter.builder("notificaciones.envios")
+                .description("Envíos por canal y resultado")
+                .tag(CANAL, canal.name())
+                .tag(RESULTADO, resultado)
+                .register(registro);
+    }
+}
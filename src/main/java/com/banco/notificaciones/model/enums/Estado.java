@@ -8,7 +8,16 @@ import lombok.Getter;
 public enum Estado {
     PENDIENTE("Pendiente de envío"),
     ENVIADA("Enviada exitosamente"),
-    FALLIDA("Falló el envío");
+    FALLIDA("Falló el envío"),
+    DESCARTADA("Descartada tras agotar los reintentos"),
+    CANCELADA("Cancelada porque su plan de entrega se cumplió por otro canal");
     
     private final String descripcion;
+    
+    /**
+     * Estados en los que la notificación ya no se vuelve a enviar ni a reintentar.
+     */
+    public boolean esFinal() {
+        return this == ENVIADA || this == DESCARTADA || this == CANCELADA;
+    }
 }
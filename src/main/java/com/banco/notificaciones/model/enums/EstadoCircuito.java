@@ -0,0 +1,14 @@
+package com.banco.notificaciones.model.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum EstadoCircuito {
+    CERRADO("Los envíos llegan al proveedor"),
+    ABIERTO("Los envíos fallan sin llamar al proveedor"),
+    SEMIABIERTO("Solo pasan algunos envíos de sondeo");
+    
+    private final String descripcion;
+}
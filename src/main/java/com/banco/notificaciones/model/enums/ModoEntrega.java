@@ -0,0 +1,13 @@
+package com.banco.notificaciones.model.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum ModoEntrega {
+    DIFUSION("Envía por todos los canales a la vez"),
+    FAILOVER("Prueba los canales en orden hasta que uno entregue");
+    
+    private final String descripcion;
+}
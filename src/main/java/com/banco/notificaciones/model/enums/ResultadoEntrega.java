@@ -0,0 +1,15 @@
+package com.banco.notificaciones.model.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum ResultadoEntrega {
+    ENTREGADA("El proveedor aceptó el envío"),
+    FALLIDA("El proveedor rechazó el envío o falló"),
+    CANCELADA("Se canceló en vuelo al cumplirse el plan"),
+    OMITIDA("No llegó a intentarse");
+    
+    private final String descripcion;
+}
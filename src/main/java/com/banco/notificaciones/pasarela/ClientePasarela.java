@@ -0,0 +1,116 @@
+package com.banco.notificaciones.pasarela;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cliente de la pasarela HTTP de un canal sobre un {@link HttpClient} compartido,
+ * que reutiliza conexiones y multiplexa las solicitudes con HTTP/2 cuando la
+ * pasarela lo admite. Cada envío es un POST JSON no bloqueante con timeout, y
+ * las solicitudes en vuelo están acotadas: las excedentes esperan en fila sin
+ * ocupar hilo.
+ *
+ * <p>Una respuesta 2xx es un envío aceptado. Cualquier otra respuesta, un timeout
+ * o un error de conexión se registran y el envío se da por fallido.
+ */
+public final class ClientePasarela {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientePasarela.class);
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final CanalNotificacion canal;
+    private final HttpClient cliente;
+    private final URI destino;
+    private final Duration timeout;
+    private final LimiteEnVuelo limite;
+    private final Timer aceptadas;
+    private final Timer fallidas;
+
+    public ClientePasarela(CanalNotificacion canal, HttpClient cliente, URI destino, Duration timeout,
+                           int maximoEnVuelo, MeterRegistry registro) {
+        this.canal = canal;
+        this.cliente = cliente;
+        this.destino = destino;
+        this.timeout = timeout;
+        this.limite = new LimiteEnVuelo(maximoEnVuelo);
+        this.aceptadas = temporizador(registro, "aceptada");
+        this.fallidas = temporizador(registro, "fallida");
+        Gauge.builder("notificaciones.pasarela.en.vuelo", limite, LimiteEnVuelo::getEnVuelo)
+                .description("Solicitudes en vuelo hacia la pasarela")
+                .tag("canal", canal.name())
+                .register(registro);
+        Gauge.builder("notificaciones.pasarela.en.espera", limite, LimiteEnVuelo::getEnEspera)
+                .description("Solicitudes esperando lugar por el máximo en vuelo")
+                .tag("canal", canal.name())
+                .register(registro);
+    }
+
+    /**
+     * Entrega la notificación a la pasarela.
+     *
+     * @return futuro con true si la pasarela la aceptó; nunca se completa con error
+     */
+    public CompletableFuture<Boolean> enviar(Notificacion notificacion) {
+        HttpRequest solicitud = HttpRequest.newBuilder(destino)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(cuerpo(notificacion)))
+                .build();
+        long inicio = System.nanoTime();
+        return limite.ejecutar(() -> cliente.sendAsync(solicitud, HttpResponse.BodyHandlers.discarding()))
+                .handle((respuesta, error) -> {
+                    boolean aceptada = error == null && respuesta.statusCode() / 100 == 2;
+                    (aceptada ? aceptadas : fallidas).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                    if (error != null) {
+                        logger.warn("Pasarela de {} sin respuesta para la notificación {}: {}",
+                                canal, notificacion.getId(), error.toString());
+                    } else if (!aceptada) {
+                        logger.warn("Pasarela de {} rechazó la notificación {} con HTTP {}",
+                                canal, notificacion.getId(), respuesta.statusCode());
+                    }
+                    return aceptada;
+                });
+    }
+
+    public URI getDestino() {
+        return destino;
+    }
+
+    private static byte[] cuerpo(Notificacion notificacion) {
+        Map<String, String> campos = new LinkedHashMap<>();
+        campos.put("id", notificacion.getId());
+        campos.put("destinatario", notificacion.getDestinatario());
+        campos.put("mensaje", notificacion.getMensaje());
+        try {
+            return JSON.writeValueAsBytes(campos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la notificación " + notificacion.getId(), e);
+        }
+    }
+
+    private Timer temporizador(MeterRegistry registro, String resultado) {
+        return Timer.builder("notificaciones.pasarela.solicitud")
+                .description("Duración de las solicitudes a la pasarela, incluida la espera por lugar")
+                .tag("canal", canal.name())
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(registro);
+    }
+}
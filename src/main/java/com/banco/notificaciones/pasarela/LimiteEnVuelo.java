@@ -0,0 +1,76 @@
+package com.banco.notificaciones.pasarela;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Limita las solicitudes en vuelo hacia una pasarela sin bloquear a quien llama:
+ * por encima del máximo la solicitud queda en una fila y se lanza cuando termina
+ * otra. Sin locks; quien libera un lugar revisa la fila después de liberarlo y
+ * quien encola revisa el contador después de encolar, así que ninguna se pierde.
+ */
+final class LimiteEnVuelo {
+
+    private final int maximo;
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private final Queue<Runnable> enEspera = new ConcurrentLinkedQueue<>();
+
+    LimiteEnVuelo(int maximo) {
+        if (maximo < 1) {
+            throw new IllegalArgumentException("El máximo en vuelo debe ser al menos 1: " + maximo);
+        }
+        this.maximo = maximo;
+    }
+
+    <T> CompletableFuture<T> ejecutar(Supplier<CompletableFuture<T>> solicitud) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        enEspera.add(() -> {
+            CompletableFuture<T> enCurso;
+            try {
+                enCurso = solicitud.get();
+            } catch (RuntimeException e) {
+                enCurso = CompletableFuture.failedFuture(e);
+            }
+            enCurso.whenComplete((valor, error) -> {
+                enVuelo.decrementAndGet();
+                drenar();
+                if (error != null) {
+                    resultado.completeExceptionally(error);
+                } else {
+                    resultado.complete(valor);
+                }
+            });
+        });
+        drenar();
+        return resultado;
+    }
+
+    int getEnVuelo() {
+        return enVuelo.get();
+    }
+
+    int getEnEspera() {
+        return enEspera.size();
+    }
+
+    private void drenar() {
+        while (!enEspera.isEmpty()) {
+            int actual = enVuelo.get();
+            if (actual >= maximo) {
+                return;
+            }
+            if (!enVuelo.compareAndSet(actual, actual + 1)) {
+                continue;
+            }
+            Runnable siguiente = enEspera.poll();
+            if (siguiente == null) {
+                enVuelo.decrementAndGet();
+            } else {
+                siguiente.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.banco.notificaciones.pasarela;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pasarela HTTP embebida para pruebas y corridas de carga sin red externa.
+ * Acepta cualquier POST en localhost y responde 202 tras la latencia configurada,
+ * o 503 con la probabilidad de error indicada. La latencia se simula con un
+ * planificador, no con un hilo dormido por solicitud, así que admite muchas
+ * solicitudes en vuelo. Habla HTTP/1.1 con keep-alive.
+ */
+public final class PasarelaSimulada implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasarelaSimulada.class);
+    private static final byte[] ACEPTADA = "{\"aceptada\":true}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NO_DISPONIBLE = "{\"aceptada\":false}".getBytes(StandardCharsets.UTF_8);
+
+    static {
+        // El servidor escribe cabeceras y cuerpo por separado: con Nagle cada respuesta
+        // esperaría el ACK retrasado del cliente (~40 ms). Se lee al cargar el servidor
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer servidor;
+    private final ScheduledExecutorService planificador;
+    private final long latenciaNanos;
+    private final double tasaError;
+    private final AtomicLong solicitudes = new AtomicLong();
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final AtomicInteger maximoEnCurso = new AtomicInteger();
+    private final Set<SocketAddress> conexiones = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param puerto    puerto local; 0 para uno libre
+     * @param latencia  tiempo hasta responder cada solicitud
+     * @param tasaError probabilidad (0 a 1) de responder 503
+     */
+    public PasarelaSimulada(int puerto, Duration latencia, double tasaError) {
+        if (tasaError < 0 || tasaError > 1) {
+            throw new IllegalArgumentException("La tasa de error debe estar entre 0 y 1: " + tasaError);
+        }
+        this.latenciaNanos = latencia.toNanos();
+        this.tasaError = tasaError;
+        AtomicInteger secuencia = new AtomicInteger();
+        this.planificador = Executors.newScheduledThreadPool(2, tarea -> {
+            Thread hilo = new Thread(tarea, "pasarela-simulada-" + secuencia.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        try {
+            this.servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto), 1024);
+        } catch (IOException e) {
+            planificador.shutdownNow();
+            throw new UncheckedIOException("No se pudo abrir la pasarela simulada en el puerto " + puerto, e);
+        }
+        servidor.setExecutor(planificador);
+        servidor.createContext("/", this::atender);
+        servidor.start();
+        logger.info("Pasarela simulada en {} (latencia {} ms, error {})",
+                getUri(), latencia.toMillis(), tasaError);
+    }
+
+    public URI getUri() {
+        InetSocketAddress direccion = servidor.getAddress();
+        return URI.create("http://" + direccion.getHostString() + ":" + direccion.getPort());
+    }
+
+    public long getSolicitudes() {
+        return solicitudes.get();
+    }
+
+    /** Mayor número de solicitudes atendidas a la vez desde el inicio. */
+    public int getMaximoEnCurso() {
+        return maximoEnCurso.get();
+    }
+
+    /** Conexiones distintas por las que llegaron solicitudes. */
+    public int getConexiones() {
+        return conexiones.size();
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        planificador.shutdownNow();
+    }
+
+    private void atender(HttpExchange intercambio) throws IOException {
+        try (InputStream cuerpo = intercambio.getRequestBody()) {
+            cuerpo.readAllBytes();
+        }
+        solicitudes.incrementAndGet();
+        conexiones.add(intercambio.getRemoteAddress());
+        maximoEnCurso.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+        boolean falla = tasaError > 0 && ThreadLocalRandom.current().nextDouble() < tasaError;
+        planificador.schedule(() -> responder(intercambio, falla ? 503 : 202, falla ? NO_DISPONIBLE : ACEPTADA),
+                latenciaNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void responder(HttpExchange intercambio, int estado, byte[] cuerpo) {
+        enCurso.decrementAndGet();
+        try {
+            intercambio.getResponseHeaders().set("Content-Type", "application/json");
+            intercambio.sendResponseHeaders(estado, cuerpo.length);
+            intercambio.getResponseBody().write(cuerpo);
+        } catch (IOException e) {
+            logger.debug("El cliente cerró la conexión antes de la respuesta: {}", e.getMessage());
+        } finally {
+            intercambio.close();
+        }
+    }
+}
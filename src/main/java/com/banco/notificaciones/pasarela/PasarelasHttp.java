@@ -0,0 +1,104 @@
+package com.banco.notificaciones.pasarela;
+
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Clientes de las pasarelas HTTP de SMS y push. Todos comparten un único
+ * {@link HttpClient} (y con él su pool de conexiones y un pool pequeño de hilos
+ * para completar respuestas). Un canal sin URL no tiene cliente y su estrategia
+ * se limita a registrar el envío, como antes.
+ *
+ * <p>Con {@code notificaciones.pasarela.simulada.habilitada=true} se levanta una
+ * {@link PasarelaSimulada} en localhost y los canales sin URL propia la usan.
+ */
+@Component
+public class PasarelasHttp {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasarelasHttp.class);
+
+    private final ExecutorService hilos;
+    private final PasarelaSimulada simulada;
+    private final Map<CanalNotificacion, ClientePasarela> clientes = new EnumMap<>(CanalNotificacion.class);
+
+    public PasarelasHttp(
+            MeterRegistry registro,
+            @Value("${notificaciones.pasarela.sms.url:}") String urlSms,
+            @Value("${notificaciones.pasarela.push.url:}") String urlPush,
+            @Value("${notificaciones.pasarela.timeout-conexion-ms:2000}") long timeoutConexionMs,
+            @Value("${notificaciones.pasarela.timeout-ms:5000}") long timeoutMs,
+            @Value("${notificaciones.pasarela.max-en-vuelo:256}") int maximoEnVuelo,
+            @Value("${notificaciones.pasarela.hilos:4}") int hilos,
+            @Value("${notificaciones.pasarela.simulada.habilitada:false}") boolean simuladaHabilitada,
+            @Value("${notificaciones.pasarela.simulada.puerto:0}") int puertoSimulada,
+            @Value("${notificaciones.pasarela.simulada.latencia-ms:50}") long latenciaSimuladaMs,
+            @Value("${notificaciones.pasarela.simulada.tasa-error:0}") double tasaErrorSimulada) {
+        this.simulada = simuladaHabilitada
+                ? new PasarelaSimulada(puertoSimulada, Duration.ofMillis(latenciaSimuladaMs), tasaErrorSimulada)
+                : null;
+        String base = simulada != null ? simulada.getUri().toString() : "";
+        urlSms = urlSms.isBlank() && simulada != null ? base + "/sms" : urlSms;
+        urlPush = urlPush.isBlank() && simulada != null ? base + "/push" : urlPush;
+
+        if (urlSms.isBlank() && urlPush.isBlank()) {
+            this.hilos = null;
+            return;
+        }
+        AtomicInteger secuencia = new AtomicInteger();
+        this.hilos = Executors.newFixedThreadPool(Math.max(1, hilos), tarea -> {
+            Thread hilo = new Thread(tarea, "pasarela-http-" + secuencia.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(timeoutConexionMs))
+                .executor(this.hilos)
+                .build();
+        Duration timeout = Duration.ofMillis(timeoutMs);
+        registrar(CanalNotificacion.SMS, urlSms, cliente, timeout, maximoEnVuelo, registro);
+        registrar(CanalNotificacion.PUSH, urlPush, cliente, timeout, maximoEnVuelo, registro);
+    }
+
+    /**
+     * Cliente de la pasarela del canal, si está configurada.
+     */
+    public Optional<ClientePasarela> cliente(CanalNotificacion canal) {
+        return Optional.ofNullable(clientes.get(canal));
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (hilos != null) {
+            hilos.shutdownNow();
+        }
+        if (simulada != null) {
+            simulada.close();
+        }
+    }
+
+    private void registrar(CanalNotificacion canal, String url, HttpClient cliente, Duration timeout,
+                           int maximoEnVuelo, MeterRegistry registro) {
+        if (url.isBlank()) {
+            return;
+        }
+        clientes.put(canal, new ClientePasarela(canal, cliente, URI.create(url), timeout, maximoEnVuelo, registro));
+        logger.info("Pasarela HTTP de {}: {} (timeout {} ms, máximo {} en vuelo)",
+                canal, url, timeout.toMillis(), maximoEnVuelo);
+    }
+}
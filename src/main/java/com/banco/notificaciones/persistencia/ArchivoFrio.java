@@ -0,0 +1,448 @@
+package com.banco.notificaciones.persistencia;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Almacenamiento frío de notificaciones en estado terminal: segmentos
+ * {@link SegmentoFrio} inmutables y comprimidos que sacan del heap las
+ * notificaciones antiguas.
+ *
+ * <p>Cada ID tiene como mucho una copia vigente, la del segmento más reciente
+ * que lo contiene. Cuando una notificación archivada vuelve a guardarse o se
+ * elimina, su copia se anula registrando {@code (ID, segmento)} en
+ * {@code anuladas.log} con fsync; en memoria solo queda el segmento anulado más
+ * reciente de cada ID, así que el heap crece con las anulaciones y no con lo archivado.
+ *
+ * <p>Durante la recuperación las anulaciones se acumulan en memoria: una
+ * notificación que el diario reproduce y que después se movió al mismo segmento
+ * no debe anular su copia. {@link #confirmarRecuperacion} escribe las que quedan.
+ */
+@Component
+@ConditionalOnProperty(name = "notificaciones.archivo.habilitado", havingValue = "true")
+public class ArchivoFrio {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchivoFrio.class);
+
+    private static final Pattern SEGMENTO = Pattern.compile("archivo-(\\d{12})\\.seg");
+    private static final String ANULADAS = "anuladas.log";
+
+    /**
+     * Copia archivada de una notificación y el segmento que la contiene.
+     */
+    public record Copia(Notificacion notificacion, long segmento) {
+    }
+
+    private record Anulacion(String id, long segmento) {
+    }
+
+    private final Path directorio;
+    private final Duration edadMinima;
+    private final long intervaloNanos;
+    private final int registrosPorSegmento;
+
+    private volatile List<SegmentoFrio> segmentos = List.of();
+    private final Map<String, Long> anuladas = new ConcurrentHashMap<>();
+    private final List<Anulacion> pendientesDeAnular = new ArrayList<>();
+    private final Map<String, Long> anterioresPendientes = new HashMap<>();
+    private volatile boolean recuperando = true;
+    private long ultimoSegmento;
+    private FileChannel registroAnuladas;
+    private ScheduledExecutorService planificador;
+
+    public ArchivoFrio(
+            @Value("${notificaciones.archivo.directorio:./datos/archivo}") String directorio,
+            @Value("${notificaciones.archivo.edad-minima-min:1440}") long edadMinimaMin,
+            @Value("${notificaciones.archivo.intervalo-s:300}") long intervaloS,
+            @Value("${notificaciones.archivo.registros-por-segmento:500000}") int registrosPorSegmento) {
+        this.directorio = Paths.get(directorio);
+        this.edadMinima = Duration.ofMinutes(Math.max(0, edadMinimaMin));
+        this.intervaloNanos = TimeUnit.SECONDS.toNanos(Math.max(1, intervaloS));
+        this.registrosPorSegmento = Math.max(1, registrosPorSegmento);
+    }
+
+    /**
+     * Carga los segmentos y las anulaciones existentes. Sin diario el estado en
+     * caliente no sobrevive al reinicio, así que tampoco se conserva lo archivado.
+     *
+     * @param conservar false para descartar los segmentos de una ejecución anterior
+     */
+    public synchronized void abrir(boolean conservar) throws IOException {
+        Files.createDirectories(directorio);
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            for (Path archivo : archivos.toList()) {
+                String nombre = archivo.getFileName().toString();
+                if (nombre.endsWith(".tmp") || !conservar && (SEGMENTO.matcher(nombre).matches() || nombre.equals(ANULADAS))) {
+                    Files.delete(archivo);
+                }
+            }
+        }
+        List<SegmentoFrio> abiertos = new ArrayList<>();
+        for (long numero : numeros()) {
+            abiertos.add(SegmentoFrio.abrir(archivoSegmento(numero), numero));
+            ultimoSegmento = numero;
+        }
+        segmentos = List.copyOf(abiertos);
+        cargarAnuladas();
+        logger.info("Archivo frío abierto: {} segmentos, {} notificaciones, {} anuladas (directorio {})",
+                abiertos.size(), abiertos.stream().mapToLong(SegmentoFrio::getRegistros).sum(),
+                anuladas.size(), directorio);
+    }
+
+    /**
+     * Escribe las notificaciones como un segmento nuevo, ya durable y visible al retornar.
+     *
+     * @param ordenadas notificaciones ordenadas por ID y sin repetir
+     * @return número del segmento
+     */
+    public synchronized long archivar(List<Notificacion> ordenadas) throws IOException {
+        long numero = ultimoSegmento + 1;
+        SegmentoFrio segmento = SegmentoFrio.escribir(archivoSegmento(numero), numero, ordenadas);
+        List<SegmentoFrio> nuevos = new ArrayList<>(segmentos);
+        nuevos.add(segmento);
+        segmentos = List.copyOf(nuevos);
+        ultimoSegmento = numero;
+        return numero;
+    }
+
+    /**
+     * Copia vigente del ID, o null si no está archivado o su copia fue anulada.
+     */
+    public Copia buscar(String id) {
+        List<SegmentoFrio> actuales = segmentos;
+        for (int i = actuales.size() - 1; i >= 0; i--) {
+            SegmentoFrio segmento = actuales.get(i);
+            if (!segmento.podriaContener(id)) {
+                continue;
+            }
+            try {
+                Notificacion notificacion = segmento.buscar(id);
+                if (notificacion != null) {
+                    return vigente(id, segmento.getNumero()) ? new Copia(notificacion, segmento.getNumero()) : null;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("No fue posible leer el segmento archivado " + segmento.getNumero(), e);
+            }
+        }
+        return null;
+    }
+
+    public boolean existe(long segmento) {
+        return segmentos.stream().anyMatch(actual -> actual.getNumero() == segmento);
+    }
+
+    /**
+     * Anula la copia del ID en el segmento. Fuera de la recuperación queda durable al retornar.
+     */
+    public synchronized void anular(String id, long segmento) {
+        Long anterior = anuladas.get(id);
+        if (anterior != null && anterior >= segmento) {
+            return;
+        }
+        anuladas.put(id, segmento);
+        if (recuperando) {
+            anterioresPendientes.putIfAbsent(id, anterior != null ? anterior : 0L);
+            pendientesDeAnular.add(new Anulacion(id, segmento));
+            return;
+        }
+        try {
+            escribirAnulada(id, segmento);
+            registroAnuladas.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No fue posible registrar la anulación de " + id, e);
+        }
+    }
+
+    /**
+     * Deshace, durante la recuperación, la anulación pendiente de la copia del ID
+     * en el segmento: la notificación reproducida era la que se movió a él.
+     */
+    public synchronized void restaurar(String id, long segmento) {
+        if (!recuperando || !pendientesDeAnular.removeIf(
+                anulacion -> anulacion.segmento() == segmento && anulacion.id().equals(id))) {
+            return;
+        }
+        Long anterior = anterioresPendientes.remove(id);
+        if (anterior == null || anterior == 0L) {
+            anuladas.remove(id);
+        } else {
+            anuladas.put(id, anterior);
+        }
+    }
+
+    /**
+     * Copias anuladas, persistidas o pendientes, con su contenido archivado.
+     * Sirve para descontarlas de los resúmenes de los segmentos al recuperar.
+     */
+    public synchronized List<Notificacion> leerAnuladas() throws IOException {
+        List<Notificacion> resultado = new ArrayList<>();
+        List<Anulacion> todas = new ArrayList<>(leerRegistroAnuladas());
+        todas.addAll(pendientesDeAnular);
+        for (Anulacion anulacion : todas) {
+            SegmentoFrio segmento = segmento(anulacion.segmento());
+            Notificacion notificacion = segmento != null ? segmento.buscar(anulacion.id()) : null;
+            if (notificacion != null) {
+                resultado.add(notificacion);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Persiste las anulaciones acumuladas durante la recuperación.
+     */
+    public synchronized void confirmarRecuperacion() throws IOException {
+        for (Anulacion anulacion : pendientesDeAnular) {
+            escribirAnulada(anulacion.id(), anulacion.segmento());
+        }
+        registroAnuladas.force(false);
+        logger.info("Archivo frío recuperado: {} anulaciones nuevas", pendientesDeAnular.size());
+        pendientesDeAnular.clear();
+        anterioresPendientes.clear();
+        recuperando = false;
+    }
+
+    /**
+     * Recorre en orden de ID las copias vigentes posteriores a {@code despuesDe}, del
+     * estado indicado (null para todos). Mezcla los segmentos que tienen ese estado.
+     */
+    public Iterator<Notificacion> recorrer(Estado estado, String despuesDe) {
+        PriorityQueue<Cabeza> cabezas = new PriorityQueue<>(Comparator.comparing(cabeza -> cabeza.actual.getId()));
+        for (SegmentoFrio segmento : segmentos) {
+            if (estado == null || segmento.contar(estado) > 0) {
+                Cabeza cabeza = new Cabeza(segmento.getNumero(), segmento.recorrer(despuesDe), estado);
+                if (cabeza.avanzar()) {
+                    cabezas.add(cabeza);
+                }
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !cabezas.isEmpty();
+            }
+
+            @Override
+            public Notificacion next() {
+                Cabeza cabeza = cabezas.poll();
+                if (cabeza == null) {
+                    throw new NoSuchElementException();
+                }
+                Notificacion actual = cabeza.actual;
+                if (cabeza.avanzar()) {
+                    cabezas.add(cabeza);
+                }
+                return actual;
+            }
+        };
+    }
+
+    public List<SegmentoFrio> getSegmentos() {
+        return segmentos;
+    }
+
+    public Duration getEdadMinima() {
+        return edadMinima;
+    }
+
+    public int getRegistrosPorSegmento() {
+        return registrosPorSegmento;
+    }
+
+    /**
+     * Programa la tarea de archivado cada {@code intervalo-s} en un hilo propio.
+     */
+    public synchronized void iniciar(Runnable archivar) {
+        if (planificador != null) {
+            return;
+        }
+        planificador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "archivo-frio");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        planificador.scheduleWithFixedDelay(() -> {
+            try {
+                archivar.run();
+            } catch (RuntimeException e) {
+                logger.error("Error archivando notificaciones: {}", e.getMessage());
+            }
+        }, intervaloNanos, intervaloNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Borra todos los segmentos y anulaciones.
+     */
+    public synchronized void limpiar() throws IOException {
+        cerrarSegmentos();
+        segmentos = List.of();
+        anuladas.clear();
+        pendientesDeAnular.clear();
+        anterioresPendientes.clear();
+        if (registroAnuladas != null) {
+            registroAnuladas.truncate(0);
+            registroAnuladas.force(true);
+        }
+        for (long numero : numeros()) {
+            Files.deleteIfExists(archivoSegmento(numero));
+        }
+    }
+
+    @PreDestroy
+    public synchronized void detener() {
+        if (planificador != null) {
+            planificador.shutdown();
+            try {
+                planificador.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            cerrarSegmentos();
+            if (registroAnuladas != null) {
+                registroAnuladas.close();
+            }
+        } catch (IOException e) {
+            logger.error("Error cerrando el archivo frío: {}", e.getMessage());
+        }
+    }
+
+    private boolean vigente(String id, long segmento) {
+        Long anulada = anuladas.get(id);
+        return anulada == null || segmento > anulada;
+    }
+
+    private SegmentoFrio segmento(long numero) {
+        for (SegmentoFrio segmento : segmentos) {
+            if (segmento.getNumero() == numero) {
+                return segmento;
+            }
+        }
+        return null;
+    }
+
+    private void cargarAnuladas() throws IOException {
+        registroAnuladas = FileChannel.open(directorio.resolve(ANULADAS),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        for (Anulacion anulacion : leerRegistroAnuladas()) {
+            anuladas.merge(anulacion.id(), anulacion.segmento(), Math::max);
+        }
+        registroAnuladas.position(registroAnuladas.size());
+    }
+
+    /**
+     * Lee {@code [long segmento][int longitud][id]} hasta el final o hasta un registro incompleto.
+     */
+    private List<Anulacion> leerRegistroAnuladas() throws IOException {
+        ByteBuffer contenido = ByteBuffer.allocate((int) registroAnuladas.size());
+        while (contenido.hasRemaining()) {
+            if (registroAnuladas.read(contenido, contenido.position()) < 0) {
+                break;
+            }
+        }
+        contenido.flip();
+        List<Anulacion> anulaciones = new ArrayList<>();
+        while (contenido.remaining() >= Long.BYTES + Integer.BYTES) {
+            long segmento = contenido.getLong();
+            int longitud = contenido.getInt();
+            if (longitud < 0 || longitud > contenido.remaining()) {
+                break;
+            }
+            String id = new String(contenido.array(), contenido.position(), longitud, StandardCharsets.UTF_8);
+            contenido.position(contenido.position() + longitud);
+            anulaciones.add(new Anulacion(id, segmento));
+        }
+        return anulaciones;
+    }
+
+    private void escribirAnulada(String id, long segmento) throws IOException {
+        byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer registro = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + bytes.length)
+                .putLong(segmento).putInt(bytes.length).put(bytes).flip();
+        while (registro.hasRemaining()) {
+            registroAnuladas.write(registro, registroAnuladas.size());
+        }
+    }
+
+    private void cerrarSegmentos() throws IOException {
+        for (SegmentoFrio segmento : segmentos) {
+            segmento.close();
+        }
+    }
+
+    private List<Long> numeros() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.map(archivo -> SEGMENTO.matcher(archivo.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(coincidencia -> Long.parseLong(coincidencia.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path archivoSegmento(long numero) {
+        return directorio.resolve(String.format("archivo-%012d.seg", numero));
+    }
+
+    /**
+     * Posición de un segmento dentro de la mezcla: descarta las copias anuladas
+     * y las de otros estados.
+     */
+    private final class Cabeza {
+        private final long segmento;
+        private final Iterator<Notificacion> recorrido;
+        private final Estado estado;
+        private Notificacion actual;
+
+        private Cabeza(long segmento, Iterator<Notificacion> recorrido, Estado estado) {
+            this.segmento = segmento;
+            this.recorrido = recorrido;
+            this.estado = estado;
+        }
+
+        private boolean avanzar() {
+            while (recorrido.hasNext()) {
+                Notificacion siguiente = recorrido.next();
+                if ((estado == null || siguiente.getEstado() == estado) && vigente(siguiente.getId(), segmento)) {
+                    actual = siguiente;
+                    return true;
+                }
+            }
+            actual = null;
+            return false;
+        }
+    }
+}
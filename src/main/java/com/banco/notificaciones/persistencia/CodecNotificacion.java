@@ -0,0 +1,148 @@
+package com.banco.notificaciones.persistencia;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.Prioridad;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Codificación binaria de {@link Notificacion} para el diario y las instantáneas.
+ * Los enums se guardan como ordinal (-1 para null) y las fechas como
+ * segundos y nanos de época, de modo que la recuperación no depende de Jackson.
+ * Los campos nuevos se añaden al final: un registro escrito por una versión
+ * anterior termina antes y esos campos toman su valor por defecto.
+ */
+public final class CodecNotificacion {
+
+    private static final byte AUSENTE = -1;
+
+    private CodecNotificacion() {
+    }
+
+    /**
+     * Codifica la notificación en un arreglo del tamaño exacto.
+     */
+    public static byte[] codificar(Notificacion notificacion) {
+        byte[] id = bytes(notificacion.getId());
+        byte[] destinatario = bytes(notificacion.getDestinatario());
+        byte[] mensaje = bytes(notificacion.getMensaje());
+        BigDecimal costo = notificacion.getCosto();
+        byte[] sinEscala = costo != null ? costo.unscaledValue().toByteArray() : null;
+        int tamano = tamanoTexto(id) + tamanoTexto(destinatario) + tamanoTexto(mensaje) + 3
+                + 1 + (sinEscala != null ? 2 * Integer.BYTES + sinEscala.length : 0)
+                + tamanoFecha(notificacion.getFechaCreacion()) + tamanoFecha(notificacion.getFechaEnvio())
+                + Integer.BYTES + tamanoFecha(notificacion.getProximoIntento());
+        ByteBuffer salida = ByteBuffer.allocate(tamano);
+        escribirTexto(salida, id);
+        escribirTexto(salida, destinatario);
+        escribirTexto(salida, mensaje);
+        escribirEnum(salida, notificacion.getCanal());
+        escribirEnum(salida, notificacion.getPrioridad());
+        escribirEnum(salida, notificacion.getEstado());
+        salida.put((byte) (sinEscala != null ? 1 : 0));
+        if (sinEscala != null) {
+            salida.putInt(costo.scale());
+            salida.putInt(sinEscala.length);
+            salida.put(sinEscala);
+        }
+        escribirFecha(salida, notificacion.getFechaCreacion());
+        escribirFecha(salida, notificacion.getFechaEnvio());
+        salida.putInt(notificacion.getIntentos());
+        escribirFecha(salida, notificacion.getProximoIntento());
+        return salida.array();
+    }
+
+    public static Notificacion leer(ByteBuffer entrada) {
+        Notificacion notificacion = Notificacion.builder()
+                .id(leerTexto(entrada))
+                .destinatario(leerTexto(entrada))
+                .mensaje(leerTexto(entrada))
+                .canal(leerEnum(entrada, CanalNotificacion.values()))
+                .prioridad(leerEnum(entrada, Prioridad.values()))
+                .estado(leerEnum(entrada, Estado.values()))
+                .costo(leerImporte(entrada))
+                .fechaCreacion(leerFecha(entrada))
+                .fechaEnvio(leerFecha(entrada))
+                .build();
+        if (entrada.hasRemaining()) {
+            notificacion.setIntentos(entrada.getInt());
+            notificacion.setProximoIntento(leerFecha(entrada));
+        }
+        return notificacion;
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto != null ? texto.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int tamanoTexto(byte[] texto) {
+        return Integer.BYTES + (texto != null ? texto.length : 0);
+    }
+
+    private static void escribirTexto(ByteBuffer salida, byte[] texto) {
+        if (texto == null) {
+            salida.putInt(-1);
+            return;
+        }
+        salida.putInt(texto.length);
+        salida.put(texto);
+    }
+
+    public static String leerTexto(ByteBuffer entrada) {
+        int longitud = entrada.getInt();
+        if (longitud < 0) {
+            return null;
+        }
+        String texto = new String(entrada.array(), entrada.arrayOffset() + entrada.position(), longitud,
+                StandardCharsets.UTF_8);
+        entrada.position(entrada.position() + longitud);
+        return texto;
+    }
+
+    private static void escribirEnum(ByteBuffer salida, Enum<?> valor) {
+        salida.put(valor == null ? AUSENTE : (byte) valor.ordinal());
+    }
+
+    private static <E extends Enum<E>> E leerEnum(ByteBuffer entrada, E[] valores) {
+        byte ordinal = entrada.get();
+        return ordinal == AUSENTE ? null : valores[ordinal];
+    }
+
+    private static BigDecimal leerImporte(ByteBuffer entrada) {
+        if (entrada.get() == 0) {
+            return null;
+        }
+        int escala = entrada.getInt();
+        byte[] sinEscala = new byte[entrada.getInt()];
+        entrada.get(sinEscala);
+        return new BigDecimal(new BigInteger(sinEscala), escala);
+    }
+
+    private static int tamanoFecha(LocalDateTime fecha) {
+        return 1 + (fecha != null ? Long.BYTES + Integer.BYTES : 0);
+    }
+
+    private static void escribirFecha(ByteBuffer salida, LocalDateTime fecha) {
+        salida.put((byte) (fecha != null ? 1 : 0));
+        if (fecha != null) {
+            salida.putLong(fecha.toEpochSecond(ZoneOffset.UTC));
+            salida.putInt(fecha.getNano());
+        }
+    }
+
+    private static LocalDateTime leerFecha(ByteBuffer entrada) {
+        if (entrada.get() == 0) {
+            return null;
+        }
+        long segundos = entrada.getLong();
+        int nanos = entrada.getInt();
+        return LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC);
+    }
+}
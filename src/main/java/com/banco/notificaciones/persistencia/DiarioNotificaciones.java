@@ -0,0 +1,611 @@
+package com.banco.notificaciones.persistencia;
+
+import com.banco.notificaciones.model.Notificacion;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Diario de operaciones del repositorio de notificaciones.
+ *
+ * <p>No es un diario de escritura anticipada: el repositorio aplica cada cambio
+ * en memoria y lo encola aquí en la misma operación atómica, y después espera a
+ * que sea durable (write-behind). Un error de escritura llega a quien espera el
+ * registro, pero no deshace el cambio en memoria.
+ *
+ * <p>Las operaciones se encolan desde los hilos de petición y un único hilo
+ * escritor las añade a un segmento con {@link FileChannel}, agrupando varios
+ * registros por fsync según el {@link ModoSincronizacion}. Periódicamente se
+ * rota el segmento y se escribe una instantánea compactada del estado completo;
+ * la recuperación carga la última instantánea y reproduce la cola del diario.
+ *
+ * <p>Formato de cada registro: {@code [int longitud][byte tipo][carga][int crc32]}.
+ * Un registro incompleto o con CRC inválido al final de un segmento se trata
+ * como una escritura interrumpida y el segmento se trunca en ese punto. Por eso,
+ * si una escritura falla, el escritor recorta el segmento hasta lo último
+ * confirmado y continúa en uno nuevo: nada confirmado queda detrás de un
+ * registro a medias.
+ */
+@Component
+@ConditionalOnProperty(name = "notificaciones.persistencia.habilitada", havingValue = "true")
+public class DiarioNotificaciones {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiarioNotificaciones.class);
+
+    static final byte GUARDAR = 1;
+    static final byte ELIMINAR = 2;
+    static final byte LIMPIAR = 3;
+    static final byte MOVER = 4;
+
+    private static final int MAGICO = 0x4E4F5449;
+    private static final byte VERSION = 1;
+    private static final int CABECERA = Integer.BYTES + Byte.BYTES;
+    private static final int MAX_CARGA = 16 * 1024 * 1024;
+    private static final int MAX_LOTE = 4096;
+    private static final int TAMANO_BLOQUE = 1 << 20;
+    private static final Pattern SEGMENTO = Pattern.compile("diario-(\\d{12})\\.log");
+    private static final Pattern INSTANTANEA = Pattern.compile("instantanea-(\\d{12})\\.snap");
+
+    /**
+     * Receptor de las operaciones reproducidas durante la recuperación.
+     */
+    public interface Destino {
+        void guardar(Notificacion notificacion);
+
+        void eliminar(String id);
+
+        void limpiar();
+
+        /**
+         * La notificación pasó al segmento archivado indicado.
+         */
+        void mover(String id, long segmento);
+    }
+
+    /**
+     * Operación encolada. Sirve como confirmación para esperar a que sea durable.
+     */
+    public static final class Registro {
+        private final byte tipo;
+        private final byte[] carga;
+        private volatile boolean completado;
+        private volatile IOException error;
+        private volatile Thread esperando;
+
+        private Registro(byte tipo, byte[] carga) {
+            this.tipo = tipo;
+            this.carga = carga;
+        }
+    }
+
+    private final Path directorio;
+    private final ModoSincronizacion modo;
+    private final long intervaloSincronizacionNanos;
+    private final long intervaloCompactacionNanos;
+    private final long umbralCompactacionBytes;
+
+    private final BlockingQueue<Registro> cola = new LinkedBlockingQueue<>();
+    private final AtomicBoolean compactando = new AtomicBoolean();
+    private volatile boolean compactacionSolicitada;
+    private final ExecutorService compactador = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "diario-compactacion");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private volatile boolean activo;
+    private Thread escritor;
+    private Supplier<Iterator<Notificacion>> fuente;
+    private ByteBuffer bufferEscritura = ByteBuffer.allocate(TAMANO_BLOQUE);
+    private final CRC32 crcEscritura = new CRC32();
+    private FileChannel segmento;
+    private long numeroSegmento;
+    private long bytesSegmento;
+    private long bytesConfirmados;
+    private long ultimaSincronizacion;
+    private long ultimaCompactacion;
+    private boolean pendienteSincronizar;
+
+    public DiarioNotificaciones(
+            @Value("${notificaciones.persistencia.directorio:./datos}") String directorio,
+            @Value("${notificaciones.persistencia.modo:POR_LOTE}") ModoSincronizacion modo,
+            @Value("${notificaciones.persistencia.intervalo-sincronizacion-ms:100}") long intervaloSincronizacionMs,
+            @Value("${notificaciones.persistencia.intervalo-compactacion-s:300}") long intervaloCompactacionS,
+            @Value("${notificaciones.persistencia.umbral-compactacion-mb:256}") long umbralCompactacionMb) {
+        this.directorio = Paths.get(directorio);
+        this.modo = modo;
+        this.intervaloSincronizacionNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, intervaloSincronizacionMs));
+        this.intervaloCompactacionNanos = TimeUnit.SECONDS.toNanos(Math.max(1, intervaloCompactacionS));
+        this.umbralCompactacionBytes = Math.max(1, umbralCompactacionMb) * 1024 * 1024;
+    }
+
+    /**
+     * Reproduce la última instantánea y los segmentos posteriores sobre el destino.
+     *
+     * @return número de registros aplicados
+     */
+    public long recuperar(Destino destino) throws IOException {
+        long inicio = System.nanoTime();
+        Files.createDirectories(directorio);
+
+        long instantanea = ultimo(INSTANTANEA);
+        long aplicados = 0;
+        if (instantanea > 0) {
+            aplicados += reproducir(archivoInstantanea(instantanea), destino, false);
+        }
+        // La instantánea K se toma tras rotar a K: se reproduce también K-1 para cubrir
+        // operaciones que estaban publicándose en el almacén durante la rotación
+        for (long numero : numeros(SEGMENTO)) {
+            if (numero >= instantanea - 1) {
+                aplicados += reproducir(archivoSegmento(numero), destino, true);
+            }
+            numeroSegmento = Math.max(numeroSegmento, numero);
+        }
+        numeroSegmento = Math.max(numeroSegmento, instantanea);
+
+        logger.info("Diario recuperado: {} registros en {} ms (instantánea {}, directorio {})",
+                aplicados, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio), instantanea, directorio);
+        return aplicados;
+    }
+
+    /**
+     * Abre un segmento nuevo y arranca el hilo escritor.
+     *
+     * @param fuente estado completo actual, usado para escribir instantáneas
+     */
+    public synchronized void iniciar(Supplier<Iterator<Notificacion>> fuente) throws IOException {
+        if (activo) {
+            return;
+        }
+        Files.createDirectories(directorio);
+        this.fuente = fuente;
+        abrirSegmento(numeroSegmento + 1);
+        ultimaSincronizacion = System.nanoTime();
+        ultimaCompactacion = ultimaSincronizacion;
+        activo = true;
+        escritor = new Thread(this::escribir, "diario-escritor");
+        escritor.setDaemon(true);
+        escritor.start();
+        logger.info("Diario iniciado en modo {} sobre {}", modo, archivoSegmento(numeroSegmento));
+    }
+
+    @PreDestroy
+    public synchronized void detener() {
+        if (!activo) {
+            return;
+        }
+        activo = false;
+        try {
+            escritor.join(TimeUnit.SECONDS.toMillis(30));
+            compactador.shutdown();
+            compactador.awaitTermination(5, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            segmento.force(false);
+            segmento.close();
+        } catch (IOException e) {
+            logger.error("Error cerrando el segmento del diario: {}", e.getMessage());
+        }
+    }
+
+    public Registro registrarGuardado(Notificacion notificacion) {
+        return registrar(GUARDAR, CodecNotificacion.codificar(notificacion));
+    }
+
+    public Registro registrarEliminacion(String id) {
+        return registrar(ELIMINAR, id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Registro registrarMovimiento(String id, long segmento) {
+        byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        return registrar(MOVER, ByteBuffer.allocate(Long.BYTES + bytes.length).putLong(segmento).put(bytes).array());
+    }
+
+    public Registro registrarLimpieza() {
+        return registrar(LIMPIAR, new byte[0]);
+    }
+
+    /**
+     * Bloquea hasta que el registro sea durable según el modo configurado.
+     * En {@link ModoSincronizacion#POR_INTERVALO} retorna inmediatamente.
+     */
+    public void esperar(Registro registro) {
+        if (registro == null || modo == ModoSincronizacion.POR_INTERVALO) {
+            return;
+        }
+        registro.esperando = Thread.currentThread();
+        while (!registro.completado) {
+            LockSupport.park(this);
+        }
+        if (registro.error != null) {
+            throw new IllegalStateException("No fue posible escribir en el diario", registro.error);
+        }
+    }
+
+    /**
+     * Solicita rotar el segmento y escribir una instantánea en la siguiente
+     * iteración del hilo escritor, sin esperar a los umbrales configurados.
+     */
+    public void solicitarCompactacion() {
+        compactacionSolicitada = true;
+    }
+
+    public boolean isCompactando() {
+        return compactando.get() || compactacionSolicitada;
+    }
+
+    public ModoSincronizacion getModo() {
+        return modo;
+    }
+
+    private Registro registrar(byte tipo, byte[] carga) {
+        if (!activo) {
+            throw new IllegalStateException("El diario de notificaciones no está activo");
+        }
+        Registro registro = new Registro(tipo, carga);
+        cola.add(registro);
+        return registro;
+    }
+
+    private void escribir() {
+        List<Registro> lote = new ArrayList<>(MAX_LOTE);
+        while (activo || !cola.isEmpty()) {
+            try {
+                Registro primero = cola.poll(intervaloSincronizacionNanos, TimeUnit.NANOSECONDS);
+                if (primero != null) {
+                    lote.add(primero);
+                    cola.drainTo(lote, MAX_LOTE - 1);
+                    persistir(lote);
+                    lote.clear();
+                }
+                sincronizarSiCorresponde();
+                compactarSiCorresponde();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                logger.error("Error escribiendo en el diario: {}", e.getMessage());
+                completar(lote, e);
+                lote.clear();
+                descartarEscrituraFallida();
+            }
+        }
+    }
+
+    private void persistir(List<Registro> lote) throws IOException {
+        if (modo == ModoSincronizacion.POR_ESCRITURA) {
+            for (Registro registro : lote) {
+                escribirCompleto(codificar(List.of(registro)));
+                segmento.force(false);
+                bytesConfirmados = bytesSegmento;
+                completar(registro, null);
+            }
+            return;
+        }
+        escribirCompleto(codificar(lote));
+        if (modo == ModoSincronizacion.POR_LOTE) {
+            segmento.force(false);
+            ultimaSincronizacion = System.nanoTime();
+        } else {
+            pendienteSincronizar = true;
+        }
+        bytesConfirmados = bytesSegmento;
+        completar(lote, null);
+    }
+
+    /**
+     * Tras un error de escritura o de fsync el segmento puede terminar en un registro
+     * a medias, y la recuperación truncaría ahí todo lo que se escribiera después.
+     * Se recorta hasta lo confirmado y se sigue en un segmento nuevo; si el recorte
+     * falla, el registro a medias queda al final de un segmento ya cerrado.
+     */
+    private void descartarEscrituraFallida() {
+        try {
+            segmento.truncate(bytesConfirmados);
+        } catch (IOException e) {
+            logger.error("No se pudo recortar el segmento {} del diario: {}", numeroSegmento, e.getMessage());
+        }
+        try {
+            segmento.close();
+        } catch (IOException e) {
+            logger.warn("Error cerrando el segmento {} del diario: {}", numeroSegmento, e.getMessage());
+        }
+        try {
+            abrirSegmento(numeroSegmento + 1);
+            logger.warn("El diario continúa en el segmento {} tras un error de escritura", numeroSegmento);
+        } catch (IOException e) {
+            // El siguiente lote falla sobre el canal cerrado y vuelve a intentarlo
+            logger.error("No se pudo abrir un segmento nuevo del diario: {}", e.getMessage());
+        }
+    }
+
+    private void sincronizarSiCorresponde() throws IOException {
+        if (pendienteSincronizar && System.nanoTime() - ultimaSincronizacion >= intervaloSincronizacionNanos) {
+            segmento.force(false);
+            ultimaSincronizacion = System.nanoTime();
+            pendienteSincronizar = false;
+        }
+    }
+
+    /**
+     * Rota el segmento y delega la instantánea al hilo de compactación cuando el
+     * segmento supera el umbral de tamaño o vence el intervalo de compactación.
+     */
+    private void compactarSiCorresponde() throws IOException {
+        long ahora = System.nanoTime();
+        boolean vencido = ahora - ultimaCompactacion >= intervaloCompactacionNanos && bytesSegmento > CABECERA;
+        boolean pendiente = compactacionSolicitada || vencido || bytesSegmento >= umbralCompactacionBytes;
+        if (!pendiente || !compactando.compareAndSet(false, true)) {
+            return;
+        }
+        compactacionSolicitada = false;
+        segmento.force(false);
+        segmento.close();
+        abrirSegmento(numeroSegmento + 1);
+        ultimaCompactacion = ahora;
+        long numero = numeroSegmento;
+        compactador.execute(() -> {
+            try {
+                escribirInstantanea(numero);
+                eliminarAnteriores(numero);
+            } catch (IOException e) {
+                logger.error("Error compactando el diario: {}", e.getMessage());
+            } finally {
+                compactando.set(false);
+            }
+        });
+    }
+
+    private void escribirInstantanea(long numero) throws IOException {
+        long inicio = System.nanoTime();
+        Path destino = archivoInstantanea(numero);
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        long escritos = 0;
+        try (FileChannel archivo = FileChannel.open(temporal,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BLOQUE).putInt(MAGICO).put(VERSION);
+            CRC32 crc = new CRC32();
+            Iterator<Notificacion> notificaciones = fuente.get();
+            while (notificaciones.hasNext()) {
+                byte[] carga = CodecNotificacion.codificar(notificaciones.next());
+                if (buffer.remaining() < tamanoRegistro(carga)) {
+                    volcar(archivo, buffer.flip());
+                    buffer = buffer.capacity() < tamanoRegistro(carga)
+                            ? ByteBuffer.allocate(tamanoRegistro(carga)) : buffer.clear();
+                }
+                ponerRegistro(buffer, crc, GUARDAR, carga);
+                escritos++;
+            }
+            volcar(archivo, buffer.flip());
+            archivo.force(true);
+        }
+        Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        logger.info("Instantánea {} escrita: {} notificaciones en {} ms",
+                numero, escritos, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+    }
+
+    private void eliminarAnteriores(long instantanea) throws IOException {
+        for (long numero : numeros(INSTANTANEA)) {
+            if (numero < instantanea) {
+                Files.deleteIfExists(archivoInstantanea(numero));
+            }
+        }
+        for (long numero : numeros(SEGMENTO)) {
+            if (numero < instantanea - 1) {
+                Files.deleteIfExists(archivoSegmento(numero));
+            }
+        }
+    }
+
+    /**
+     * Lee el archivo por bloques con {@link FileChannel} y decodifica cada registro
+     * directamente desde el buffer, sin copias intermedias por registro.
+     */
+    private long reproducir(Path archivo, Destino destino, boolean truncarSiCorrupto) throws IOException {
+        long aplicados = 0;
+        long posicionValida = 0;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BLOQUE).flip();
+            CRC32 crc = new CRC32();
+            if ((buffer = asegurar(canal, buffer, CABECERA)) == null) {
+                logger.warn("Archivo del diario vacío o sin cabecera: {}", archivo);
+            } else if (buffer.getInt() != MAGICO || buffer.get() != VERSION) {
+                throw new IOException("Cabecera inválida en " + archivo);
+            } else {
+                posicionValida = CABECERA;
+                while ((buffer = asegurar(canal, buffer, Integer.BYTES)) != null) {
+                    int longitud = buffer.getInt(buffer.position());
+                    if (longitud < 0 || longitud > MAX_CARGA) {
+                        logger.warn("Registro corrupto en {} en la posición {}: longitud {}",
+                                archivo, posicionValida, longitud);
+                        break;
+                    }
+                    int tamanoRegistro = Integer.BYTES + Byte.BYTES + longitud + Integer.BYTES;
+                    if ((buffer = asegurar(canal, buffer, tamanoRegistro)) == null) {
+                        logger.warn("Registro incompleto en {} en la posición {}", archivo, posicionValida);
+                        break;
+                    }
+                    int inicio = buffer.position() + Integer.BYTES;
+                    crc.reset();
+                    crc.update(buffer.array(), inicio, Byte.BYTES + longitud);
+                    if ((int) crc.getValue() != buffer.getInt(inicio + Byte.BYTES + longitud)) {
+                        logger.warn("Registro corrupto en {} en la posición {}: CRC inválido", archivo, posicionValida);
+                        break;
+                    }
+                    aplicar(buffer.get(inicio), buffer.slice(inicio + Byte.BYTES, longitud), destino);
+                    buffer.position(buffer.position() + tamanoRegistro);
+                    aplicados++;
+                    posicionValida += tamanoRegistro;
+                }
+            }
+        }
+        if (truncarSiCorrupto && Files.size(archivo) > posicionValida) {
+            try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+                canal.truncate(posicionValida);
+            }
+        }
+        return aplicados;
+    }
+
+    /**
+     * Garantiza al menos {@code requeridos} bytes disponibles en el buffer, leyendo
+     * del canal y ampliando el buffer si el registro no cabe.
+     *
+     * @return el buffer a usar en adelante, o null si el archivo termina antes
+     */
+    private static ByteBuffer asegurar(FileChannel canal, ByteBuffer buffer, int requeridos) throws IOException {
+        if (buffer.remaining() >= requeridos) {
+            return buffer;
+        }
+        if (buffer.capacity() < requeridos) {
+            buffer = ByteBuffer.allocate(Math.max(requeridos, buffer.capacity() * 2)).put(buffer);
+        } else {
+            buffer.compact();
+        }
+        while (buffer.position() < requeridos) {
+            if (canal.read(buffer) < 0) {
+                buffer.flip();
+                return null;
+            }
+        }
+        return buffer.flip();
+    }
+
+    private void aplicar(byte tipo, ByteBuffer carga, Destino destino) throws IOException {
+        switch (tipo) {
+            case GUARDAR -> destino.guardar(CodecNotificacion.leer(carga));
+            case ELIMINAR -> destino.eliminar(StandardCharsets.UTF_8.decode(carga).toString());
+            case LIMPIAR -> destino.limpiar();
+            case MOVER -> destino.mover(StandardCharsets.UTF_8.decode(carga.position(Long.BYTES)).toString(),
+                    carga.getLong(0));
+            default -> throw new IOException("Tipo de registro desconocido " + tipo);
+        }
+    }
+
+    private void abrirSegmento(long numero) throws IOException {
+        segmento = FileChannel.open(archivoSegmento(numero),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        numeroSegmento = numero;
+        ByteBuffer cabecera = ByteBuffer.allocate(CABECERA).putInt(MAGICO).put(VERSION).flip();
+        bytesSegmento = 0;
+        bytesConfirmados = 0;
+        escribirCompleto(cabecera);
+        segmento.force(true);
+        bytesConfirmados = bytesSegmento;
+    }
+
+    /**
+     * Serializa el lote en el buffer reutilizable del hilo escritor.
+     */
+    private ByteBuffer codificar(List<Registro> lote) {
+        int tamano = 0;
+        for (Registro registro : lote) {
+            tamano += tamanoRegistro(registro.carga);
+        }
+        if (bufferEscritura.capacity() < tamano) {
+            bufferEscritura = ByteBuffer.allocate(Math.max(tamano, bufferEscritura.capacity() * 2));
+        }
+        bufferEscritura.clear();
+        for (Registro registro : lote) {
+            ponerRegistro(bufferEscritura, crcEscritura, registro.tipo, registro.carga);
+        }
+        return bufferEscritura.flip();
+    }
+
+    private static int tamanoRegistro(byte[] carga) {
+        return Integer.BYTES + Byte.BYTES + carga.length + Integer.BYTES;
+    }
+
+    private static void ponerRegistro(ByteBuffer buffer, CRC32 crc, byte tipo, byte[] carga) {
+        crc.reset();
+        crc.update(tipo);
+        crc.update(carga);
+        buffer.putInt(carga.length).put(tipo).put(carga).putInt((int) crc.getValue());
+    }
+
+    private void escribirCompleto(ByteBuffer buffer) throws IOException {
+        bytesSegmento += volcarSegmento(segmento, buffer);
+    }
+
+    /**
+     * Escritura en el segmento activo; separada para poder simular escrituras interrumpidas.
+     */
+    long volcarSegmento(FileChannel canal, ByteBuffer buffer) throws IOException {
+        return volcar(canal, buffer);
+    }
+
+    private static long volcar(FileChannel canal, ByteBuffer buffer) throws IOException {
+        long escritos = 0;
+        while (buffer.hasRemaining()) {
+            escritos += canal.write(buffer);
+        }
+        return escritos;
+    }
+
+    private static void completar(List<Registro> lote, IOException error) {
+        for (Registro registro : lote) {
+            completar(registro, error);
+        }
+    }
+
+    private static void completar(Registro registro, IOException error) {
+        registro.error = error;
+        registro.completado = true;
+        Thread esperando = registro.esperando;
+        if (esperando != null) {
+            LockSupport.unpark(esperando);
+        }
+    }
+
+    private long ultimo(Pattern patron) throws IOException {
+        List<Long> encontrados = numeros(patron);
+        return encontrados.isEmpty() ? 0 : encontrados.get(encontrados.size() - 1);
+    }
+
+    private List<Long> numeros(Pattern patron) throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.map(archivo -> patron.matcher(archivo.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(coincidencia -> Long.parseLong(coincidencia.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path archivoSegmento(long numero) {
+        return directorio.resolve(String.format("diario-%012d.log", numero));
+    }
+
+    private Path archivoInstantanea(long numero) {
+        return directorio.resolve(String.format("instantanea-%012d.snap", numero));
+    }
+}
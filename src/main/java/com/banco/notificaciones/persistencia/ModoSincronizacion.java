@@ -0,0 +1,13 @@
+package com.banco.notificaciones.persistencia;
+
+/**
+ * Compromiso entre durabilidad y latencia del diario.
+ */
+public enum ModoSincronizacion {
+    /** fsync tras cada registro; cada escritura espera a su propio fsync. */
+    POR_ESCRITURA,
+    /** Group commit: un fsync por lote de registros acumulados; las escrituras esperan al lote. */
+    POR_LOTE,
+    /** fsync periódico; las escrituras no esperan y puede perderse el último intervalo. */
+    POR_INTERVALO
+}
@@ -0,0 +1,425 @@
+package com.banco.notificaciones.persistencia;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.Prioridad;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Segmento inmutable de notificaciones archivadas, ordenadas por ID.
+ *
+ * <p>Los registros se agrupan en bloques de unos {@value #TAMANO_BLOQUE} bytes
+ * comprimidos con Deflate. En memoria solo queda el índice disperso (primer ID y
+ * posición de cada bloque) y un resumen de conteos y costos por estado, canal y
+ * prioridad, así que buscar un ID cuesta una búsqueda binaria y descomprimir un bloque.
+ *
+ * <p>Formato: {@code [int mágico][byte versión]}, los bloques
+ * {@code [int comprimido][int original][int crc32][datos]} con registros
+ * {@code [int longitud][CodecNotificacion]}, el pie con el índice y el resumen,
+ * y al final {@code [long posición del pie][int mágico]}.
+ */
+public final class SegmentoFrio implements Closeable {
+
+    private static final int MAGICO = 0x46524F53;
+    private static final byte VERSION = 1;
+    private static final int CABECERA = Integer.BYTES + Byte.BYTES;
+    private static final int CABECERA_BLOQUE = 3 * Integer.BYTES;
+    private static final int COLA = Long.BYTES + Integer.BYTES;
+    private static final int TAMANO_BLOQUE = 64 * 1024;
+    private static final byte AUSENTE = -1;
+
+    /**
+     * Notificaciones del segmento con la misma combinación de estado, canal y prioridad.
+     */
+    public record Grupo(Estado estado, CanalNotificacion canal, Prioridad prioridad, long conteo, BigDecimal costo) {
+    }
+
+    private final long numero;
+    private final FileChannel canal;
+    private final String[] primerosIds;
+    private final long[] posiciones;
+    private final String ultimoId;
+    private final int registros;
+    private final List<Grupo> resumen;
+    private final long[] conteoPorEstado = new long[Estado.values().length];
+
+    private SegmentoFrio(long numero, FileChannel canal, String[] primerosIds, long[] posiciones,
+                         String ultimoId, int registros, List<Grupo> resumen) {
+        this.numero = numero;
+        this.canal = canal;
+        this.primerosIds = primerosIds;
+        this.posiciones = posiciones;
+        this.ultimoId = ultimoId;
+        this.registros = registros;
+        this.resumen = resumen;
+        for (Grupo grupo : resumen) {
+            if (grupo.estado() != null) {
+                conteoPorEstado[grupo.estado().ordinal()] += grupo.conteo();
+            }
+        }
+    }
+
+    /**
+     * Escribe las notificaciones, que deben venir ordenadas por ID y sin repetir,
+     * en un temporal que se sincroniza y se renombra de forma atómica.
+     */
+    public static SegmentoFrio escribir(Path archivo, long numero, List<Notificacion> ordenadas) throws IOException {
+        if (ordenadas.isEmpty()) {
+            throw new IllegalArgumentException("Un segmento archivado no puede estar vacío");
+        }
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        List<String> primeros = new ArrayList<>();
+        List<Long> posiciones = new ArrayList<>();
+        Map<List<Object>, BigDecimal[]> grupos = new LinkedHashMap<>();
+        try (FileChannel salida = FileChannel.open(temporal,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            volcar(salida, ByteBuffer.allocate(CABECERA).putInt(MAGICO).put(VERSION).flip());
+            long posicion = CABECERA;
+            ByteBuffer bloque = ByteBuffer.allocate(TAMANO_BLOQUE);
+            Deflater compresor = new Deflater();
+            CRC32 crc = new CRC32();
+            try {
+                String anterior = null;
+                for (Notificacion notificacion : ordenadas) {
+                    if (anterior != null && anterior.compareTo(notificacion.getId()) >= 0) {
+                        throw new IllegalArgumentException("Las notificaciones deben venir ordenadas por ID");
+                    }
+                    anterior = notificacion.getId();
+                    byte[] carga = CodecNotificacion.codificar(notificacion);
+                    if (bloque.position() > 0 && bloque.remaining() < Integer.BYTES + carga.length) {
+                        posicion += escribirBloque(salida, bloque.flip(), compresor, crc);
+                        bloque.clear();
+                    }
+                    if (bloque.position() == 0) {
+                        primeros.add(notificacion.getId());
+                        posiciones.add(posicion);
+                        if (bloque.capacity() < Integer.BYTES + carga.length) {
+                            bloque = ByteBuffer.allocate(Integer.BYTES + carga.length);
+                        }
+                    }
+                    bloque.putInt(carga.length).put(carga);
+                    acumular(grupos, notificacion);
+                }
+                posicion += escribirBloque(salida, bloque.flip(), compresor, crc);
+            } finally {
+                compresor.end();
+            }
+            volcar(salida, pie(primeros, posiciones, ordenadas.get(ordenadas.size() - 1).getId(), grupos,
+                    ordenadas.size(), posicion));
+            salida.force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return abrir(archivo, numero);
+    }
+
+    /**
+     * Abre un segmento existente cargando solo su índice disperso y su resumen.
+     */
+    public static SegmentoFrio abrir(Path archivo, long numero) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        try {
+            long tamano = canal.size();
+            if (tamano < CABECERA + COLA) {
+                throw new IOException("Segmento archivado incompleto: " + archivo);
+            }
+            ByteBuffer cola = leer(canal, tamano - COLA, COLA);
+            long posicionPie = cola.getLong();
+            if (cola.getInt() != MAGICO || posicionPie < CABECERA || posicionPie > tamano - COLA) {
+                throw new IOException("Segmento archivado corrupto: " + archivo);
+            }
+            ByteBuffer pie = leer(canal, posicionPie, (int) (tamano - COLA - posicionPie));
+            int bloques = pie.getInt();
+            String[] primeros = new String[bloques];
+            long[] posiciones = new long[bloques];
+            for (int i = 0; i < bloques; i++) {
+                primeros[i] = CodecNotificacion.leerTexto(pie);
+                posiciones[i] = pie.getLong();
+            }
+            String ultimo = CodecNotificacion.leerTexto(pie);
+            int cantidadGrupos = pie.getInt();
+            List<Grupo> resumen = new ArrayList<>(cantidadGrupos);
+            for (int i = 0; i < cantidadGrupos; i++) {
+                Estado estado = enumerado(pie.get(), Estado.values());
+                CanalNotificacion canalGrupo = enumerado(pie.get(), CanalNotificacion.values());
+                Prioridad prioridad = enumerado(pie.get(), Prioridad.values());
+                long conteo = pie.getLong();
+                int escala = pie.getInt();
+                byte[] sinEscala = new byte[pie.getInt()];
+                pie.get(sinEscala);
+                resumen.add(new Grupo(estado, canalGrupo, prioridad, conteo,
+                        new BigDecimal(new BigInteger(sinEscala), escala)));
+            }
+            int registros = pie.getInt();
+            return new SegmentoFrio(numero, canal, primeros, posiciones, ultimo, registros, List.copyOf(resumen));
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e instanceof IOException io ? io : new IOException("Segmento archivado corrupto: " + archivo, e);
+        }
+    }
+
+    public long getNumero() {
+        return numero;
+    }
+
+    public int getRegistros() {
+        return registros;
+    }
+
+    public List<Grupo> getResumen() {
+        return resumen;
+    }
+
+    public long contar(Estado estado) {
+        return conteoPorEstado[estado.ordinal()];
+    }
+
+    /**
+     * Indica si el ID cae dentro del rango del segmento; si no, seguro no está.
+     */
+    public boolean podriaContener(String id) {
+        return id.compareTo(primerosIds[0]) >= 0 && id.compareTo(ultimoId) <= 0;
+    }
+
+    /**
+     * Busca el ID descomprimiendo solo el bloque que le corresponde.
+     *
+     * @return la notificación, o null si no está en el segmento
+     */
+    public Notificacion buscar(String id) throws IOException {
+        if (!podriaContener(id)) {
+            return null;
+        }
+        ByteBuffer bloque = leerBloque(bloqueDe(id));
+        byte[] buscado = id.getBytes(StandardCharsets.UTF_8);
+        while (bloque.hasRemaining()) {
+            int longitud = bloque.getInt();
+            int inicio = bloque.position();
+            int longitudId = bloque.getInt(inicio);
+            if (longitudId == buscado.length && Arrays.equals(bloque.array(), inicio + Integer.BYTES,
+                    inicio + Integer.BYTES + longitudId, buscado, 0, buscado.length)) {
+                return CodecNotificacion.leer(bloque.slice(inicio, longitud));
+            }
+            bloque.position(inicio + longitud);
+        }
+        return null;
+    }
+
+    /**
+     * Recorre en orden de ID las notificaciones posteriores a {@code despuesDe}
+     * (exclusivo, null para empezar desde el principio), un bloque a la vez.
+     */
+    public Iterator<Notificacion> recorrer(String despuesDe) {
+        int primerBloque = despuesDe == null ? 0 : Math.max(0, bloqueDe(despuesDe));
+        return new Iterator<>() {
+            private int siguienteBloque = primerBloque;
+            private ByteBuffer bloque;
+            private Notificacion siguiente = avanzar();
+
+            @Override
+            public boolean hasNext() {
+                return siguiente != null;
+            }
+
+            @Override
+            public Notificacion next() {
+                if (siguiente == null) {
+                    throw new NoSuchElementException();
+                }
+                Notificacion actual = siguiente;
+                siguiente = avanzar();
+                return actual;
+            }
+
+            private Notificacion avanzar() {
+                while (true) {
+                    while (bloque == null || !bloque.hasRemaining()) {
+                        if (siguienteBloque >= posiciones.length) {
+                            return null;
+                        }
+                        try {
+                            bloque = leerBloque(siguienteBloque++);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException("No fue posible leer el segmento archivado " + numero, e);
+                        }
+                    }
+                    int longitud = bloque.getInt();
+                    Notificacion notificacion = CodecNotificacion.leer(bloque.slice(bloque.position(), longitud));
+                    bloque.position(bloque.position() + longitud);
+                    if (despuesDe == null || notificacion.getId().compareTo(despuesDe) > 0) {
+                        return notificacion;
+                    }
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Índice del último bloque cuyo primer ID es menor o igual al buscado; -1 si no hay.
+     */
+    private int bloqueDe(String id) {
+        int bajo = 0;
+        int alto = primerosIds.length - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (primerosIds[medio].compareTo(id) <= 0) {
+                bajo = medio + 1;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return alto;
+    }
+
+    private ByteBuffer leerBloque(int indice) throws IOException {
+        ByteBuffer cabecera = leer(canal, posiciones[indice], CABECERA_BLOQUE);
+        int comprimido = cabecera.getInt();
+        int original = cabecera.getInt();
+        int crcEsperado = cabecera.getInt();
+        ByteBuffer datos = leer(canal, posiciones[indice] + CABECERA_BLOQUE, comprimido);
+        CRC32 crc = new CRC32();
+        crc.update(datos.array(), 0, comprimido);
+        if ((int) crc.getValue() != crcEsperado) {
+            throw new IOException("CRC inválido en el bloque " + indice + " del segmento archivado " + numero);
+        }
+        Inflater descompresor = new Inflater();
+        try {
+            descompresor.setInput(datos.array(), 0, comprimido);
+            byte[] salida = new byte[original];
+            int leidos = 0;
+            while (leidos < original && !descompresor.finished()) {
+                leidos += descompresor.inflate(salida, leidos, original - leidos);
+            }
+            if (leidos != original) {
+                throw new IOException("Bloque " + indice + " truncado en el segmento archivado " + numero);
+            }
+            return ByteBuffer.wrap(salida);
+        } catch (DataFormatException e) {
+            throw new IOException("Bloque " + indice + " corrupto en el segmento archivado " + numero, e);
+        } finally {
+            descompresor.end();
+        }
+    }
+
+    private static long escribirBloque(FileChannel salida, ByteBuffer bloque, Deflater compresor, CRC32 crc)
+            throws IOException {
+        int original = bloque.remaining();
+        compresor.reset();
+        compresor.setInput(bloque.array(), 0, original);
+        compresor.finish();
+        byte[] comprimido = new byte[Math.max(64, original + original / 16 + 64)];
+        int longitud = 0;
+        while (!compresor.finished()) {
+            if (longitud == comprimido.length) {
+                comprimido = Arrays.copyOf(comprimido, comprimido.length * 2);
+            }
+            longitud += compresor.deflate(comprimido, longitud, comprimido.length - longitud);
+        }
+        crc.reset();
+        crc.update(comprimido, 0, longitud);
+        ByteBuffer escrito = ByteBuffer.allocate(CABECERA_BLOQUE + longitud)
+                .putInt(longitud).putInt(original).putInt((int) crc.getValue()).put(comprimido, 0, longitud);
+        return volcar(salida, escrito.flip());
+    }
+
+    private static void acumular(Map<List<Object>, BigDecimal[]> grupos, Notificacion notificacion) {
+        List<Object> clave = Arrays.asList(notificacion.getEstado(), notificacion.getCanal(), notificacion.getPrioridad());
+        BigDecimal[] acumulado = grupos.computeIfAbsent(clave, k -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+        acumulado[0] = acumulado[0].add(BigDecimal.ONE);
+        if (notificacion.getCosto() != null) {
+            acumulado[1] = acumulado[1].add(notificacion.getCosto());
+        }
+    }
+
+    private static ByteBuffer pie(List<String> primeros, List<Long> posiciones, String ultimoId,
+                                  Map<List<Object>, BigDecimal[]> grupos, int registros, long posicionPie) {
+        List<byte[]> ids = new ArrayList<>(primeros.size());
+        int tamano = Integer.BYTES;
+        for (String id : primeros) {
+            byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+            ids.add(bytes);
+            tamano += Integer.BYTES + bytes.length + Long.BYTES;
+        }
+        byte[] ultimo = ultimoId.getBytes(StandardCharsets.UTF_8);
+        tamano += Integer.BYTES + ultimo.length + Integer.BYTES;
+        List<byte[]> importes = new ArrayList<>(grupos.size());
+        for (BigDecimal[] acumulado : grupos.values()) {
+            byte[] sinEscala = acumulado[1].unscaledValue().toByteArray();
+            importes.add(sinEscala);
+            tamano += 3 + Long.BYTES + 2 * Integer.BYTES + sinEscala.length;
+        }
+        tamano += Integer.BYTES + COLA;
+
+        ByteBuffer pie = ByteBuffer.allocate(tamano).putInt(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            pie.putInt(ids.get(i).length).put(ids.get(i)).putLong(posiciones.get(i));
+        }
+        pie.putInt(ultimo.length).put(ultimo).putInt(grupos.size());
+        int indice = 0;
+        for (Map.Entry<List<Object>, BigDecimal[]> grupo : grupos.entrySet()) {
+            byte[] sinEscala = importes.get(indice++);
+            pie.put(ordinal((Enum<?>) grupo.getKey().get(0)))
+                    .put(ordinal((Enum<?>) grupo.getKey().get(1)))
+                    .put(ordinal((Enum<?>) grupo.getKey().get(2)))
+                    .putLong(grupo.getValue()[0].longValueExact())
+                    .putInt(grupo.getValue()[1].scale())
+                    .putInt(sinEscala.length)
+                    .put(sinEscala);
+        }
+        return pie.putInt(registros).putLong(posicionPie).putInt(MAGICO).flip();
+    }
+
+    private static <E extends Enum<E>> E enumerado(byte ordinal, E[] valores) {
+        return ordinal == AUSENTE ? null : valores[ordinal];
+    }
+
+    private static byte ordinal(Enum<?> valor) {
+        return valor == null ? AUSENTE : (byte) valor.ordinal();
+    }
+
+    private static ByteBuffer leer(FileChannel canal, long posicion, int longitud) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(longitud);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicion + buffer.position()) < 0) {
+                throw new IOException("Fin inesperado del segmento archivado");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static long volcar(FileChannel canal, ByteBuffer buffer) throws IOException {
+        long escritos = 0;
+        while (buffer.hasRemaining()) {
+            escritos += canal.write(buffer);
+        }
+        return escritos;
+    }
+}
@@ -0,0 +1,174 @@
+package com.banco.notificaciones.plan;
+
+import com.banco.notificaciones.model.enums.ModoEntrega;
+import com.banco.notificaciones.model.enums.ResultadoEntrega;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecuta un plan de entrega por varios canales y es dueño de sus intentos:
+ * ninguno sobrevive al plan.
+ *
+ * <p>En DIFUSION se inician todos a la vez y el plan termina cuando responden
+ * todos. En FAILOVER se prueban en orden: un fallo pasa al siguiente canal y,
+ * con presupuesto de latencia, si el intento en curso no respondió a tiempo se
+ * inicia también el siguiente (cobertura). El primer éxito cumple el plan: los
+ * intentos aún en vuelo se cancelan y los canales sin iniciar quedan OMITIDA.
+ * Cancelar el futuro del plan cancela igualmente los intentos en vuelo.
+ *
+ * <p>La cancelación de un intento es cooperativa: cancela su futuro, lo que evita
+ * las etapas que aún no empezaron (p. ej. la espera del limitador de tasa), pero
+ * no interrumpe una llamada al proveedor que ya esté en curso.
+ */
+public final class CoordinadorPlan {
+
+    /** Inicia el intento del canal indicado. */
+    @FunctionalInterface
+    public interface Intentos {
+        CompletableFuture<Boolean> iniciar(int indice);
+    }
+
+    /** Recibe el resultado de cada intento iniciado, una sola vez por canal. */
+    @FunctionalInterface
+    public interface Observador {
+        void terminado(int indice, ResultadoEntrega resultado);
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(CoordinadorPlan.class);
+
+    private final ModoEntrega modo;
+    private final long presupuestoNanos;
+    private final Intentos intentos;
+    private final Observador observador;
+    private final CompletableFuture<?>[] enVuelo;
+    private final ResultadoEntrega[] resultados;
+    private final CompletableFuture<List<ResultadoEntrega>> plan = new CompletableFuture<>();
+    private int siguiente;
+    private int pendientes;
+    private boolean terminado;
+
+    private CoordinadorPlan(ModoEntrega modo, int canales, Duration presupuesto,
+                            Intentos intentos, Observador observador) {
+        this.modo = modo;
+        this.presupuestoNanos = presupuesto == null ? 0 : presupuesto.toNanos();
+        this.intentos = intentos;
+        this.observador = observador;
+        this.enVuelo = new CompletableFuture<?>[canales];
+        this.resultados = new ResultadoEntrega[canales];
+    }
+
+    /**
+     * @param canales     número de canales del plan, en orden de preferencia
+     * @param presupuesto en FAILOVER, tiempo a esperar un intento antes de cubrirlo
+     *                    con el siguiente canal; null o cero para no cubrir
+     * @return el resultado de cada canal, en el mismo orden
+     */
+    public static CompletableFuture<List<ResultadoEntrega>> ejecutar(ModoEntrega modo, int canales,
+                                                                     Duration presupuesto, Intentos intentos,
+                                                                     Observador observador) {
+        if (canales <= 0) {
+            throw new IllegalArgumentException("El plan necesita al menos un canal");
+        }
+        CoordinadorPlan coordinador = new CoordinadorPlan(modo, canales, presupuesto, intentos, observador);
+        coordinador.iniciar();
+        return coordinador.plan;
+    }
+
+    private synchronized void iniciar() {
+        plan.whenComplete((resultado, error) -> {
+            if (plan.isCancelled()) {
+                cumplir();
+            }
+        });
+        if (modo == ModoEntrega.DIFUSION) {
+            while (!terminado && siguiente < enVuelo.length) {
+                lanzar(siguiente);
+            }
+        } else {
+            lanzar(0);
+        }
+    }
+
+    private void lanzar(int indice) {
+        siguiente = indice + 1;
+        pendientes++;
+        CompletableFuture<Boolean> intento;
+        try {
+            intento = intentos.iniciar(indice);
+        } catch (RuntimeException e) {
+            alTerminar(indice, false);
+            return;
+        }
+        enVuelo[indice] = intento;
+        if (modo == ModoEntrega.FAILOVER && presupuestoNanos > 0 && siguiente < enVuelo.length) {
+            CompletableFuture.delayedExecutor(presupuestoNanos, TimeUnit.NANOSECONDS)
+                    .execute(() -> cubrir(indice));
+        }
+        intento.whenComplete((exitoso, error) -> alTerminar(indice, error == null && Boolean.TRUE.equals(exitoso)));
+    }
+
+    private synchronized void cubrir(int indice) {
+        if (!terminado && resultados[indice] == null && siguiente == indice + 1) {
+            lanzar(siguiente);
+        }
+    }
+
+    private synchronized void alTerminar(int indice, boolean exitoso) {
+        if (terminado || resultados[indice] != null) {
+            return;
+        }
+        registrar(indice, exitoso ? ResultadoEntrega.ENTREGADA : ResultadoEntrega.FALLIDA);
+        if (modo == ModoEntrega.FAILOVER) {
+            if (exitoso) {
+                cumplir();
+                return;
+            }
+            if (siguiente < enVuelo.length) {
+                lanzar(siguiente);
+                return;
+            }
+        }
+        if (pendientes == 0 && siguiente == enVuelo.length) {
+            cumplir();
+        }
+    }
+
+    private synchronized void cumplir() {
+        if (terminado) {
+            return;
+        }
+        terminado = true;
+        for (int i = 0; i < enVuelo.length; i++) {
+            CompletableFuture<?> intento = enVuelo[i];
+            if (resultados[i] != null) {
+                continue;
+            }
+            if (intento == null) {
+                resultados[i] = ResultadoEntrega.OMITIDA;
+            } else if (intento.cancel(true)) {
+                registrar(i, ResultadoEntrega.CANCELADA);
+            } else {
+                // Terminó antes de poder cancelarlo; su aviso llegará con el plan ya cumplido
+                boolean exitoso = !intento.isCompletedExceptionally() && Boolean.TRUE.equals(intento.getNow(null));
+                registrar(i, exitoso ? ResultadoEntrega.ENTREGADA : ResultadoEntrega.FALLIDA);
+            }
+        }
+        plan.complete(Arrays.asList(resultados.clone()));
+    }
+
+    private void registrar(int indice, ResultadoEntrega resultado) {
+        resultados[indice] = resultado;
+        pendientes--;
+        try {
+            observador.terminado(indice, resultado);
+        } catch (RuntimeException e) {
+            logger.error("Error registrando el resultado {} del canal {} del plan", resultado, indice, e);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.banco.notificaciones.reintento;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.repository.NotificacionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reintentos automáticos de las notificaciones FALLIDA.
+ *
+ * <p>Tras un fallo, {@link #aplicarFallo} decide con la política del canal si
+ * hay otro intento (la notificación sigue FALLIDA con {@code proximoIntento}) o
+ * si se agotaron (pasa a DESCARTADA). Los intentos pendientes se guardan en una
+ * {@link RuedaTemporizacion} que avanza un hilo propio; al vencer, el ID se
+ * entrega al manejador registrado en {@link #iniciar}, que vuelve a despachar el envío.
+ * Al iniciar se reprograman las FALLIDA con intento pendiente que ya estaban en el repositorio.
+ *
+ * <p>Un envío que ni llegó al proveedor (circuito abierto) se {@link #aplazar aplaza}:
+ * conserva su estado y sus intentos y sólo recibe la fecha del siguiente intento.
+ */
+@Component
+public class MotorReintentos {
+
+    private static final Logger logger = LoggerFactory.getLogger(MotorReintentos.class);
+
+    /** Estados que pueden tener un intento programado: fallidas y pendientes aplazadas. */
+    private static final Set<Estado> REPROGRAMABLES = EnumSet.of(Estado.PENDIENTE, Estado.FALLIDA);
+
+    private final NotificacionRepository repository;
+    private final boolean habilitado;
+    private final long tickNanos;
+    private final Map<CanalNotificacion, PoliticaReintento> politicas = new EnumMap<>(CanalNotificacion.class);
+    private final RuedaTemporizacion<String> rueda;
+
+    private volatile boolean activo;
+    private Thread hilo;
+
+    public MotorReintentos(
+            NotificacionRepository repository,
+            MeterRegistry registro,
+            @Value("${notificaciones.reintento.habilitado:true}") boolean habilitado,
+            @Value("${notificaciones.reintento.tick-ms:100}") long tickMs,
+            @Value("${notificaciones.reintento.intentos-maximos.email:5}") int intentosEmail,
+            @Value("${notificaciones.reintento.intentos-maximos.sms:3}") int intentosSms,
+            @Value("${notificaciones.reintento.intentos-maximos.push:4}") int intentosPush,
+            @Value("${notificaciones.reintento.espera-inicial-ms.email:1000}") long esperaInicialEmailMs,
+            @Value("${notificaciones.reintento.espera-inicial-ms.sms:2000}") long esperaInicialSmsMs,
+            @Value("${notificaciones.reintento.espera-inicial-ms.push:500}") long esperaInicialPushMs,
+            @Value("${notificaciones.reintento.espera-maxima-ms.email:300000}") long esperaMaximaEmailMs,
+            @Value("${notificaciones.reintento.espera-maxima-ms.sms:60000}") long esperaMaximaSmsMs,
+            @Value("${notificaciones.reintento.espera-maxima-ms.push:60000}") long esperaMaximaPushMs) {
+        this.repository = repository;
+        this.habilitado = habilitado;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMs));
+        politicas.put(CanalNotificacion.EMAIL,
+                new PoliticaReintento(intentosEmail, esperaInicialEmailMs, esperaMaximaEmailMs));
+        politicas.put(CanalNotificacion.SMS,
+                new PoliticaReintento(intentosSms, esperaInicialSmsMs, esperaMaximaSmsMs));
+        politicas.put(CanalNotificacion.PUSH,
+                new PoliticaReintento(intentosPush, esperaInicialPushMs, esperaMaximaPushMs));
+        this.rueda = new RuedaTemporizacion<>(tickNanos, System.nanoTime());
+        Gauge.builder("notificaciones.reintentos.pendientes", rueda, RuedaTemporizacion::getPendientes)
+                .description("Reintentos programados que aún no vencen")
+                .register(registro);
+    }
+
+    /**
+     * Reprograma los reintentos pendientes del repositorio y arranca el hilo de la rueda.
+     *
+     * @param manejador recibe el ID de cada notificación cuyo reintento venció
+     */
+    public synchronized void iniciar(Consumer<String> manejador) {
+        if (!habilitado || activo) {
+            return;
+        }
+        int reprogramados = 0;
+        for (Estado estado : REPROGRAMABLES) {
+            try (Stream<Notificacion> notificaciones = repository.recorrerPorEstado(estado)) {
+                Iterator<Notificacion> recorrido = notificaciones.iterator();
+                while (recorrido.hasNext()) {
+                    Notificacion notificacion = recorrido.next();
+                    if (notificacion.getProximoIntento() != null) {
+                        programar(notificacion);
+                        reprogramados++;
+                    }
+                }
+            }
+        }
+        activo = true;
+        hilo = new Thread(() -> girar(manejador), "reintentos-rueda");
+        hilo.setDaemon(true);
+        hilo.start();
+        logger.info("Reintentos iniciados: {} reprogramados, políticas {}", reprogramados, politicas);
+    }
+
+    @PreDestroy
+    public synchronized void detener() {
+        if (!activo) {
+            return;
+        }
+        activo = false;
+        LockSupport.unpark(hilo);
+        try {
+            hilo.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Registra un intento fallido en la notificación: la deja FALLIDA con la fecha del
+     * siguiente intento o DESCARTADA si la política del canal se agotó. Sin reintentos
+     * habilitados queda FALLIDA sin siguiente intento, como antes.
+     */
+    public void aplicarFallo(Notificacion notificacion) {
+        PoliticaReintento politica = politicas.get(notificacion.getCanal());
+        if (!habilitado || politica == null) {
+            notificacion.setEstado(Estado.FALLIDA);
+            notificacion.setProximoIntento(null);
+        } else if (politica.agotada(notificacion.getIntentos())) {
+            notificacion.setEstado(Estado.DESCARTADA);
+            notificacion.setProximoIntento(null);
+        } else {
+            notificacion.setEstado(Estado.FALLIDA);
+            notificacion.setProximoIntento(
+                    NotificacionRepository.ahora().plus(Duration.ofMillis(politica.esperaMs(notificacion.getIntentos()))));
+        }
+    }
+
+    /**
+     * Aplaza un envío que no llegó a intentarse: no suma intento ni cambia el estado,
+     * sólo fija el siguiente intento dentro de {@code espera}.
+     */
+    public void aplazar(Notificacion notificacion, Duration espera) {
+        notificacion.setProximoIntento(NotificacionRepository.ahora().plus(espera).truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    /**
+     * Aplaza con la espera inicial de la política del canal, para cuando no hay una
+     * espera conocida (por ejemplo, la cola de despacho llena).
+     */
+    public void aplazar(Notificacion notificacion) {
+        PoliticaReintento politica = politicas.get(notificacion.getCanal());
+        aplazar(notificacion, Duration.ofMillis(politica != null ? politica.esperaInicialMs() : 0));
+    }
+
+    /**
+     * Programa en la rueda el siguiente intento de la notificación, si tiene uno.
+     */
+    public void programar(Notificacion notificacion) {
+        if (!habilitado || notificacion.getProximoIntento() == null) {
+            return;
+        }
+        long esperaNanos = Duration.between(LocalDateTime.now(), notificacion.getProximoIntento()).toNanos();
+        rueda.programar(notificacion.getId(), System.nanoTime() + Math.max(0, esperaNanos));
+    }
+
+    /**
+     * Indica si el intento programado de la notificación ya debe ejecutarse. Un
+     * vencimiento anterior a un reprogramado posterior se ignora.
+     */
+    public boolean corresponde(Notificacion notificacion) {
+        return REPROGRAMABLES.contains(notificacion.getEstado())
+                && notificacion.getProximoIntento() != null
+                && !notificacion.getProximoIntento().isAfter(
+                        LocalDateTime.now().plus(Duration.ofNanos(tickNanos)));
+    }
+
+    public long getPendientes() {
+        return rueda.getPendientes();
+    }
+
+    private void girar(Consumer<String> manejador) {
+        Consumer<String> protegido = id -> {
+            try {
+                manejador.accept(id);
+            } catch (RuntimeException e) {
+                logger.error("Error reintentando la notificación {}: {}", id, e.getMessage());
+            }
+        };
+        while (activo) {
+            rueda.avanzar(System.nanoTime(), protegido);
+            LockSupport.parkNanos(this, tickNanos);
+        }
+    }
+}
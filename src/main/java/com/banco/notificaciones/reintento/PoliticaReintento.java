@@ -0,0 +1,36 @@
+package com.banco.notificaciones.reintento;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Política de reintentos de un canal: intentos totales (incluido el primero) y
+ * espera exponencial con jitter, {@code min(maxima, inicial * 2^(n-1))}, de la que
+ * se toma al azar entre la mitad y el total para no sincronizar los reintentos.
+ */
+public record PoliticaReintento(int intentosMaximos, long esperaInicialMs, long esperaMaximaMs) {
+
+    public PoliticaReintento {
+        if (intentosMaximos < 1 || esperaInicialMs < 1 || esperaMaximaMs < esperaInicialMs) {
+            throw new IllegalArgumentException(String.format(
+                    "Política de reintentos inválida: intentos=%d, espera inicial=%d ms, espera máxima=%d ms",
+                    intentosMaximos, esperaInicialMs, esperaMaximaMs));
+        }
+    }
+
+    /**
+     * Indica si ya no quedan intentos tras {@code intentos} envíos fallidos.
+     */
+    public boolean agotada(int intentos) {
+        return intentos >= intentosMaximos;
+    }
+
+    /**
+     * Espera antes del siguiente intento tras el fallo número {@code intentos}.
+     */
+    public long esperaMs(int intentos) {
+        int exponente = Math.min(Math.max(intentos - 1, 0), 30);
+        long tope = Math.min(esperaMaximaMs, esperaInicialMs << exponente);
+        long mitad = tope / 2;
+        return tope - mitad + ThreadLocalRandom.current().nextLong(mitad + 1);
+    }
+}
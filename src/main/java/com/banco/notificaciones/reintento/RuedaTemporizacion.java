@@ -0,0 +1,141 @@
+package com.banco.notificaciones.reintento;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Rueda de temporización jerárquica: cuatro niveles de 256 ranuras, donde cada
+ * ranura del nivel {@code n} cubre {@code 256^n} ticks.
+ *
+ * <p>Programar es O(1) desde cualquier hilo: la entrada se encola sin locks y el
+ * hilo que avanza la rueda la coloca en la ranura que corresponde a su vencimiento.
+ * Avanzar un tick dispara la ranura actual del nivel 0 y, cada 256 ticks, redistribuye
+ * una ranura del nivel superior (cascada); cada entrada baja como mucho un nivel por
+ * cascada, así que el costo amortizado por entrada es constante sin importar cuántas
+ * haya pendientes. Vencimientos más allá del horizonte ({@code 2^32} ticks) se
+ * adelantan al horizonte. Solo un hilo debe llamar a {@link #avanzar}.
+ *
+ * <p>No hay cancelación: quien recibe una entrada vencida decide si sigue vigente.
+ */
+public final class RuedaTemporizacion<T> {
+
+    private static final int BITS = 8;
+    private static final int RANURAS = 1 << BITS;
+    private static final int MASCARA = RANURAS - 1;
+    private static final int NIVELES = 4;
+    private static final long HORIZONTE = (1L << (BITS * NIVELES)) - 1;
+
+    private static final class Nodo<T> {
+        private final T valor;
+        private long tick;
+        private Nodo<T> siguiente;
+
+        private Nodo(T valor, long tick) {
+            this.valor = valor;
+            this.tick = tick;
+        }
+    }
+
+    private final long tickNanos;
+    private final long origenNanos;
+    private final Nodo<T>[][] ranuras;
+    private final Queue<Nodo<T>> entrantes = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendientes = new AtomicLong();
+    private long tickActual;
+
+    @SuppressWarnings("unchecked")
+    public RuedaTemporizacion(long tickNanos, long origenNanos) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("El tick debe ser positivo: " + tickNanos);
+        }
+        this.tickNanos = tickNanos;
+        this.origenNanos = origenNanos;
+        this.ranuras = new Nodo[NIVELES][RANURAS];
+    }
+
+    /**
+     * Programa un valor para el instante indicado (escala de {@link System#nanoTime()}).
+     * Nunca se dispara antes de ese instante; como mucho un tick después.
+     */
+    public void programar(T valor, long instanteNanos) {
+        long tick = Math.floorDiv(instanteNanos - origenNanos + tickNanos - 1, tickNanos);
+        entrantes.offer(new Nodo<>(valor, tick));
+        pendientes.incrementAndGet();
+    }
+
+    /**
+     * Procesa todos los ticks hasta {@code ahoraNanos} y entrega los valores vencidos.
+     *
+     * @return número de valores entregados
+     */
+    public int avanzar(long ahoraNanos, Consumer<? super T> vencidos) {
+        int entregados = 0;
+        for (Nodo<T> nodo; (nodo = entrantes.poll()) != null; ) {
+            if (nodo.tick < tickActual) {
+                pendientes.decrementAndGet();
+                vencidos.accept(nodo.valor);
+                entregados++;
+            } else {
+                colocar(nodo);
+            }
+        }
+        long objetivo = Math.floorDiv(ahoraNanos - origenNanos, tickNanos);
+        while (tickActual <= objetivo) {
+            int indice = (int) (tickActual & MASCARA);
+            if (indice == 0) {
+                cascada();
+            }
+            Nodo<T> nodo = ranuras[0][indice];
+            ranuras[0][indice] = null;
+            tickActual++;
+            while (nodo != null) {
+                Nodo<T> siguiente = nodo.siguiente;
+                pendientes.decrementAndGet();
+                vencidos.accept(nodo.valor);
+                entregados++;
+                nodo = siguiente;
+            }
+        }
+        return entregados;
+    }
+
+    /**
+     * Entradas programadas que aún no se han entregado.
+     */
+    public long getPendientes() {
+        return pendientes.get();
+    }
+
+    private void cascada() {
+        for (int nivel = 1; nivel < NIVELES; nivel++) {
+            int indice = (int) ((tickActual >>> (BITS * nivel)) & MASCARA);
+            Nodo<T> nodo = ranuras[nivel][indice];
+            ranuras[nivel][indice] = null;
+            while (nodo != null) {
+                Nodo<T> siguiente = nodo.siguiente;
+                colocar(nodo);
+                nodo = siguiente;
+            }
+            if (indice != 0) {
+                return;
+            }
+        }
+    }
+
+    private void colocar(Nodo<T> nodo) {
+        long distancia = nodo.tick - tickActual;
+        if (distancia > HORIZONTE) {
+            nodo.tick = tickActual + HORIZONTE;
+            distancia = HORIZONTE;
+        }
+        int nivel = 0;
+        while (distancia >= 1L << (BITS * (nivel + 1))) {
+            nivel++;
+        }
+        int indice = (int) ((nodo.tick >>> (BITS * nivel)) & MASCARA);
+        nodo.siguiente = ranuras[nivel][indice];
+        ranuras[nivel][indice] = nodo;
+    }
+}
@@ -0,0 +1,146 @@
+package com.banco.notificaciones.repository;
+
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.Prioridad;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totales de costo mantenidos de forma incremental.
+ * Los importes se acumulan como enteros en punto fijo ({@value #ESCALA} decimales)
+ * sobre {@link LongAdder}, que reparte la contención entre celdas, de modo que
+ * consultar el total o sus desgloses es O(1) y exacto.
+ * Lleva también el número de notificaciones por estado.
+ */
+class AgregadosCosto {
+
+    static final int ESCALA = 4;
+    private static final int ESCALA_MINIMA_PRESENTACION = 2;
+
+    private final LongAdder total = new LongAdder();
+    private final Map<CanalNotificacion, LongAdder> porCanal = crear(CanalNotificacion.class);
+    private final Map<Prioridad, LongAdder> porPrioridad = crear(Prioridad.class);
+    private final Map<Estado, LongAdder> porEstado = crear(Estado.class);
+    private final Map<Estado, LongAdder> conteoPorEstado = crear(Estado.class);
+
+    /**
+     * Convierte un costo a unidades de punto fijo.
+     * Rechaza importes con más decimales de los que admite la escala.
+     */
+    static long aUnidades(BigDecimal costo) {
+        if (costo == null) {
+            return 0L;
+        }
+        try {
+            return costo.setScale(ESCALA, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                    String.format("El costo %s no es representable con %d decimales", costo, ESCALA));
+        }
+    }
+
+    static BigDecimal aImporte(long unidades) {
+        BigDecimal importe = BigDecimal.valueOf(unidades, ESCALA).stripTrailingZeros();
+        return importe.scale() < ESCALA_MINIMA_PRESENTACION
+                ? importe.setScale(ESCALA_MINIMA_PRESENTACION)
+                : importe;
+    }
+
+    /**
+     * Sustituye la contribución de la versión anterior por la de la nueva.
+     * Debe invocarse dentro de la actualización atómica de la clave.
+     *
+     * @param anterior versión almacenada previamente, o null
+     * @param nueva    versión que se almacena, o null si se elimina
+     */
+    void actualizar(RegistroCompacto anterior, RegistroCompacto nueva) {
+        if (anterior != null) {
+            acumular(-anterior.getCostoUnidades(), anterior.getCanal(), anterior.getPrioridad(), anterior.getEstado());
+            contar(anterior.getEstado(), -1);
+        }
+        if (nueva != null) {
+            acumular(nueva.getCostoUnidades(), nueva.getCanal(), nueva.getPrioridad(), nueva.getEstado());
+            contar(nueva.getEstado(), 1);
+        }
+    }
+
+    /**
+     * Suma {@code conteo} notificaciones con esos atributos y su costo total; con
+     * valores negativos las descuenta. Se usa para lo archivado, que no tiene registro.
+     */
+    void sumar(Estado estado, CanalNotificacion canal, Prioridad prioridad, long conteo, long unidades) {
+        acumular(unidades, canal, prioridad, estado);
+        if (estado != null) {
+            conteoPorEstado.get(estado).add(conteo);
+        }
+    }
+
+    long contarPorEstado(Estado estado) {
+        return conteoPorEstado.get(estado).sum();
+    }
+
+    BigDecimal total() {
+        return aImporte(total.sum());
+    }
+
+    Map<CanalNotificacion, BigDecimal> porCanal() {
+        return importes(porCanal, CanalNotificacion.class);
+    }
+
+    Map<Prioridad, BigDecimal> porPrioridad() {
+        return importes(porPrioridad, Prioridad.class);
+    }
+
+    Map<Estado, BigDecimal> porEstado() {
+        return importes(porEstado, Estado.class);
+    }
+
+    void limpiar() {
+        total.reset();
+        porCanal.values().forEach(LongAdder::reset);
+        porPrioridad.values().forEach(LongAdder::reset);
+        porEstado.values().forEach(LongAdder::reset);
+        conteoPorEstado.values().forEach(LongAdder::reset);
+    }
+
+    private void acumular(long unidades, CanalNotificacion canal, Prioridad prioridad, Estado estado) {
+        if (unidades == 0L) {
+            return;
+        }
+        total.add(unidades);
+        if (canal != null) {
+            porCanal.get(canal).add(unidades);
+        }
+        if (prioridad != null) {
+            porPrioridad.get(prioridad).add(unidades);
+        }
+        if (estado != null) {
+            porEstado.get(estado).add(unidades);
+        }
+    }
+
+    private void contar(Estado estado, int delta) {
+        if (estado != null) {
+            conteoPorEstado.get(estado).add(delta);
+        }
+    }
+
+    private static <E extends Enum<E>> Map<E, LongAdder> crear(Class<E> tipo) {
+        Map<E, LongAdder> contadores = new EnumMap<>(tipo);
+        for (E valor : tipo.getEnumConstants()) {
+            contadores.put(valor, new LongAdder());
+        }
+        return contadores;
+    }
+
+    private static <E extends Enum<E>> Map<E, BigDecimal> importes(Map<E, LongAdder> contadores, Class<E> tipo) {
+        Map<E, BigDecimal> resultado = new EnumMap<>(tipo);
+        contadores.forEach((clave, contador) -> resultado.put(clave, aImporte(contador.sum())));
+        return resultado;
+    }
+}
@@ -0,0 +1,98 @@
+package com.banco.notificaciones.repository;
+
+import java.util.UUID;
+
+/**
+ * Clave compacta de una notificación.
+ * Los IDs con forma de UUID canónico (minúsculas) se guardan como dos {@code long};
+ * cualquier otro ID se conserva como texto. El orden coincide con el orden
+ * lexicográfico del ID original, del que depende la paginación por cursor.
+ */
+final class ClaveNotificacion implements Comparable<ClaveNotificacion> {
+
+    private static final int LONGITUD_UUID = 36;
+
+    private final long alto;
+    private final long bajo;
+    private final String literal;
+
+    private ClaveNotificacion(long alto, long bajo, String literal) {
+        this.alto = alto;
+        this.bajo = bajo;
+        this.literal = literal;
+    }
+
+    static ClaveNotificacion de(String id) {
+        if (!esUuid(id)) {
+            return new ClaveNotificacion(0L, 0L, id);
+        }
+        long alto = hexadecimal(id, 0, 8) << 32 | hexadecimal(id, 9, 13) << 16 | hexadecimal(id, 14, 18);
+        long bajo = hexadecimal(id, 19, 23) << 48 | hexadecimal(id, 24, 36);
+        return new ClaveNotificacion(alto, bajo, null);
+    }
+
+    String id() {
+        return literal != null ? literal : new UUID(alto, bajo).toString();
+    }
+
+    @Override
+    public int compareTo(ClaveNotificacion otra) {
+        if (literal == null && otra.literal == null) {
+            int comparacion = Long.compareUnsigned(alto, otra.alto);
+            return comparacion != 0 ? comparacion : Long.compareUnsigned(bajo, otra.bajo);
+        }
+        return id().compareTo(otra.id());
+    }
+
+    @Override
+    public boolean equals(Object otro) {
+        if (this == otro) {
+            return true;
+        }
+        if (!(otro instanceof ClaveNotificacion clave)) {
+            return false;
+        }
+        return literal != null
+                ? literal.equals(clave.literal)
+                : clave.literal == null && alto == clave.alto && bajo == clave.bajo;
+    }
+
+    @Override
+    public int hashCode() {
+        return literal != null ? literal.hashCode() : Long.hashCode(alto ^ bajo);
+    }
+
+    @Override
+    public String toString() {
+        return id();
+    }
+
+    private static long hexadecimal(String id, int desde, int hasta) {
+        long valor = 0;
+        for (int i = desde; i < hasta; i++) {
+            char c = id.charAt(i);
+            valor = valor << 4 | (c <= '9' ? c - '0' : c - 'a' + 10);
+        }
+        return valor;
+    }
+
+    /**
+     * Indica si el ID es un UUID en su forma canónica, la única que se puede
+     * reconstruir idéntica a partir de los dos {@code long}.
+     */
+    private static boolean esUuid(String id) {
+        if (id.length() != LONGITUD_UUID) {
+            return false;
+        }
+        for (int i = 0; i < LONGITUD_UUID; i++) {
+            char c = id.charAt(i);
+            boolean valido = i == 8 || i == 13 || i == 18 || i == 23
+                    ? c == '-'
+                    : c >= '0' && c <= '9' || c >= 'a' && c <= 'f';
+            if (!valido) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,62 @@
+package com.banco.notificaciones.repository;
+
+import com.banco.notificaciones.model.enums.Estado;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Índice secundario de claves por {@link Estado}.
+ * Se mantiene de forma incremental desde el repositorio, dentro de la
+ * actualización atómica de cada clave, para que las consultas por estado
+ * recorran solo las notificaciones de ese estado.
+ * Cada índice está ordenado por ID, lo que permite paginar por cursor
+ * continuando desde el último ID devuelto.
+ */
+class IndiceEstados {
+    
+    private final Map<Estado, NavigableSet<ClaveNotificacion>> indices = new EnumMap<>(Estado.class);
+    
+    IndiceEstados() {
+        for (Estado estado : Estado.values()) {
+            indices.put(estado, new ConcurrentSkipListSet<>());
+        }
+    }
+    
+    /**
+     * Mueve la clave del índice del estado anterior al del nuevo estado.
+     */
+    void reindexar(ClaveNotificacion clave, Estado anterior, Estado nuevo) {
+        if (anterior == nuevo) {
+            return;
+        }
+        eliminar(clave, anterior);
+        if (nuevo != null) {
+            indices.get(nuevo).add(clave);
+        }
+    }
+    
+    void eliminar(ClaveNotificacion clave, Estado estado) {
+        if (estado != null) {
+            indices.get(estado).remove(clave);
+        }
+    }
+    
+    NavigableSet<ClaveNotificacion> claves(Estado estado) {
+        return indices.get(estado);
+    }
+    
+    /**
+     * Claves del estado posteriores a {@code despuesDe} (exclusivo), en orden.
+     */
+    NavigableSet<ClaveNotificacion> clavesDesde(Estado estado, ClaveNotificacion despuesDe) {
+        NavigableSet<ClaveNotificacion> claves = indices.get(estado);
+        return despuesDe == null ? claves : claves.tailSet(despuesDe, false);
+    }
+    
+    void limpiar() {
+        indices.values().forEach(NavigableSet::clear);
+    }
+}
@@ -1,48 +1,529 @@
 package com.banco.notificaciones.repository;
 
 import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
 import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.Prioridad;
+import com.banco.notificaciones.persistencia.ArchivoFrio;
+import com.banco.notificaciones.persistencia.DiarioNotificaciones;
+import com.banco.notificaciones.persistencia.SegmentoFrio;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * Almacén en memoria seguro para acceso concurrente.
+ * Las lecturas no se bloquean y las escrituras solo bloquean el bucket afectado,
+ * por lo que los hilos de Tomcat no compiten por un lock global.
+ * Mantiene además un índice por estado que se actualiza dentro de la misma
+ * operación atómica sobre la clave, de modo que nunca queda desalineado,
+ * junto con los totales de costo que se sirven sin recorrer el almacén.
+ *
+ * <p>Cada notificación se guarda como un {@link RegistroCompacto} bajo una
+ * {@link ClaveNotificacion}; las lecturas devuelven siempre una copia, por lo
+ * que los cambios sobre una notificación leída solo se aplican al volver a guardarla.
+ *
+ * <p>Si la persistencia está habilitada, cada operación se registra en el
+ * {@link DiarioNotificaciones} dentro de la misma operación atómica, y el hilo
+ * espera a que sea durable fuera de ella. El diario va por detrás de la memoria
+ * (write-behind): el cambio es visible desde que se aplica, y si la escritura
+ * falla quien guardó recibe el error pero el cambio sigue visible hasta el
+ * reinicio, en el que se pierde. Al iniciar se reconstruye el estado a partir de
+ * la última instantánea y el diario.
+ *
+ * <p>Con el {@link ArchivoFrio} habilitado, las notificaciones terminadas (ENVIADA,
+ * DESCARTADA y CANCELADA, que ya no se vuelven a enviar ni a reintentar)
+ * más antiguas que la edad configurada salen del almacén a segmentos comprimidos
+ * en disco, de modo que el heap queda acotado por las notificaciones recientes.
+ * Las lecturas, los filtros por estado y los totales las siguen incluyendo; volver
+ * a guardar una notificación archivada la trae de vuelta al almacén.
+ */
 @Repository
 public class NotificacionRepository {
     
-    private final Map<String, Notificacion> almacen = new HashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(NotificacionRepository.class);
+    private static final int RANURAS_TEXTOS = 1 << 16;
+    private static final Set<Estado> ARCHIVABLES = EnumSet.of(Estado.ENVIADA, Estado.DESCARTADA, Estado.CANCELADA);
     
-    public Notificacion guardar(Notificacion notificacion) {
-        if (notificacion == null || notificacion.getId() == null) {
-            throw new IllegalArgumentException("La notificación y su ID no pueden ser nulos");
+    private final ConcurrentHashMap<ClaveNotificacion, RegistroCompacto> almacen = new ConcurrentHashMap<>();
+    private final IndiceEstados indiceEstados = new IndiceEstados();
+    private final TablaTextos textos = new TablaTextos(RANURAS_TEXTOS);
+    private final AgregadosCosto agregados = new AgregadosCosto();
+    private final DiarioNotificaciones diario;
+    private final ArchivoFrio archivo;
+    private final LongAdder archivadas = new LongAdder();
+    private volatile boolean archivoContabilizado;
+    
+    private final List<OyenteBajas> oyentes = new CopyOnWriteArrayList<>();
+    
+    private record Candidata(ClaveNotificacion clave, RegistroCompacto registro) {
+    }
+    
+    /**
+     * Recibe las bajas del repositorio, para invalidar lo que se haya derivado de
+     * las notificaciones eliminadas (por ejemplo, respuestas en caché).
+     */
+    public interface OyenteBajas {
+        void eliminada(String id);
+        
+        void limpiado();
+    }
+    
+    public NotificacionRepository() {
+        this(Optional.empty(), Optional.empty());
+    }
+    
+    public NotificacionRepository(Optional<DiarioNotificaciones> diario) {
+        this(diario, Optional.empty());
+    }
+    
+    @Autowired
+    public NotificacionRepository(Optional<DiarioNotificaciones> diario, Optional<ArchivoFrio> archivo) {
+        this.diario = diario.orElse(null);
+        this.archivo = archivo.orElse(null);
+    }
+    
+    /**
+     * Reconstruye el estado desde el diario y el archivo frío y comienza a registrar operaciones.
+     */
+    @PostConstruct
+    public void recuperar() {
+        try {
+            if (archivo != null) {
+                archivo.abrir(diario != null);
+            }
+            if (diario != null) {
+                reproducirDiario();
+            }
+            if (archivo != null) {
+                contabilizarArchivo();
+                archivo.confirmarRecuperacion();
+                archivo.iniciar(this::archivarAntiguas);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No fue posible recuperar las notificaciones persistidas", e);
         }
-        almacen.put(notificacion.getId(), notificacion);
+    }
+    
+    private void reproducirDiario() throws IOException {
+        diario.recuperar(new DiarioNotificaciones.Destino() {
+            @Override
+            public void guardar(Notificacion notificacion) {
+                almacenar(notificacion, false);
+            }
+            
+            @Override
+            public void eliminar(String id) {
+                quitar(id, false);
+            }
+            
+            @Override
+            public void limpiar() {
+                vaciar();
+            }
+            
+            @Override
+            public void mover(String id, long segmento) {
+                moverRecuperada(id, segmento);
+            }
+        });
+        diario.iniciar(() -> almacen.entrySet().stream()
+                .map(entrada -> entrada.getValue().materializar(entrada.getKey().id()))
+                .iterator());
+    }
+    
+    public Notificacion guardar(Notificacion notificacion) {
+        esperar(almacenar(notificacion, true));
         return notificacion;
     }
     
+    /**
+     * Guarda un lote de notificaciones. Cada elemento se actualiza de forma atómica
+     * por clave; el lote en su conjunto no es transaccional. Con persistencia, se
+     * encola todo el lote antes de esperar, y se espera por cada registro: el
+     * escritor puede partir el lote y un tramo fallido no lo confirma uno posterior.
+     */
+    public void guardarTodas(Collection<Notificacion> notificaciones) {
+        List<DiarioNotificaciones.Registro> registros = new ArrayList<>(notificaciones.size());
+        for (Notificacion notificacion : notificaciones) {
+            registros.add(almacenar(notificacion, true));
+        }
+        for (DiarioNotificaciones.Registro registro : registros) {
+            esperar(registro);
+        }
+    }
+    
     public Optional<Notificacion> buscarPorId(String id) {
-        return Optional.ofNullable(almacen.get(id));
+        if (id == null) {
+            return Optional.empty();
+        }
+        RegistroCompacto registro = almacen.get(ClaveNotificacion.de(id));
+        if (registro != null) {
+            return Optional.of(registro.materializar(id));
+        }
+        ArchivoFrio.Copia copia = archivo != null ? archivo.buscar(id) : null;
+        return Optional.ofNullable(copia != null ? copia.notificacion() : null);
     }
     
     public List<Notificacion> listarTodas() {
-        return new ArrayList<>(almacen.values());
+        List<Notificacion> resultado = new ArrayList<>(almacen.size());
+        almacen.forEach((clave, registro) -> resultado.add(registro.materializar(clave.id())));
+        if (archivo != null) {
+            archivadasNoReemplazadas(archivo.recorrer(null, null)).forEachRemaining(resultado::add);
+        }
+        return resultado;
     }
     
+    /**
+     * Consulta el índice del estado, por lo que el costo depende del tamaño
+     * del resultado y no del total almacenado.
+     */
     public List<Notificacion> filtrarPorEstado(Estado estado) {
-        return almacen.values().stream()
-                .filter(n -> n.getEstado() == estado)
-                .collect(Collectors.toList());
+        if (estado == null) {
+            return new ArrayList<>();
+        }
+        List<Notificacion> resultado = new ArrayList<>();
+        recorrido(estado, null).forEachRemaining(resultado::add);
+        return resultado;
+    }
+    
+    public BigDecimal costoTotal() {
+        return agregados.total();
+    }
+    
+    public Map<CanalNotificacion, BigDecimal> costoPorCanal() {
+        return agregados.porCanal();
+    }
+    
+    public Map<Prioridad, BigDecimal> costoPorPrioridad() {
+        return agregados.porPrioridad();
+    }
+    
+    public Map<Estado, BigDecimal> costoPorEstado() {
+        return agregados.porEstado();
+    }
+    
+    /**
+     * Página de notificaciones del estado ordenadas por ID, a partir del ID
+     * {@code despuesDe} (exclusivo, null para empezar desde el principio).
+     */
+    public List<Notificacion> filtrarPorEstado(Estado estado, String despuesDe, int limite) {
+        List<Notificacion> resultado = new ArrayList<>(Math.min(limite, 1024));
+        if (estado == null || limite <= 0) {
+            return resultado;
+        }
+        Iterator<Notificacion> notificaciones = recorrido(estado, despuesDe);
+        while (resultado.size() < limite && notificaciones.hasNext()) {
+            resultado.add(notificaciones.next());
+        }
+        return resultado;
+    }
+    
+    /**
+     * Recorre de forma perezosa las notificaciones del estado en orden de ID,
+     * sin materializar el resultado completo.
+     */
+    public Stream<Notificacion> recorrerPorEstado(Estado estado) {
+        if (estado == null) {
+            return Stream.empty();
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(recorrido(estado, null),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
     }
     
     public long contar() {
-        return almacen.size();
+        return almacen.mappingCount() + archivadas.sum();
+    }
+    
+    /**
+     * Notificaciones que viven en el archivo frío y no en el heap.
+     */
+    public long contarArchivadas() {
+        return archivadas.sum();
+    }
+    
+    /**
+     * Archiva las notificaciones terminadas más antiguas que la edad configurada.
+     */
+    public int archivarAntiguas() {
+        return archivo != null ? archivarAnteriores(LocalDateTime.now().minus(archivo.getEdadMinima())) : 0;
+    }
+    
+    /**
+     * Mueve al archivo frío las notificaciones ENVIADA, DESCARTADA y CANCELADA cuya
+     * fecha de envío (o de creación, si no tiene) es anterior al límite. Cada tramo se escribe
+     * como un segmento durable antes de quitarlo del almacén; una notificación que
+     * cambia mientras tanto se queda en memoria y su copia archivada se anula.
+     *
+     * @return número de notificaciones archivadas
+     */
+    public synchronized int archivarAnteriores(LocalDateTime limite) {
+        if (archivo == null) {
+            return 0;
+        }
+        long inicio = System.nanoTime();
+        long limiteMs = RegistroCompacto.aMilisegundos(limite);
+        List<Candidata> candidatas = new ArrayList<>();
+        for (Estado estado : ARCHIVABLES) {
+            for (ClaveNotificacion clave : indiceEstados.claves(estado)) {
+                RegistroCompacto registro = almacen.get(clave);
+                if (registro != null && registro.getEstado() == estado && registro.getFechaReferencia() <= limiteMs) {
+                    candidatas.add(new Candidata(clave, registro));
+                }
+            }
+        }
+        candidatas.sort(Comparator.comparing(Candidata::clave));
+        int movidas = 0;
+        for (int desde = 0; desde < candidatas.size(); desde += archivo.getRegistrosPorSegmento()) {
+            int hasta = Math.min(candidatas.size(), desde + archivo.getRegistrosPorSegmento());
+            movidas += archivarTramo(candidatas.subList(desde, hasta));
+        }
+        if (movidas > 0) {
+            logger.info("Archivadas {} notificaciones anteriores a {} en {} ms",
+                    movidas, limite, (System.nanoTime() - inicio) / 1_000_000);
+        }
+        return movidas;
+    }
+    
+    /**
+     * Número de notificaciones en el estado, mantenido de forma incremental.
+     */
+    public long contarPorEstado(Estado estado) {
+        return estado != null ? agregados.contarPorEstado(estado) : 0L;
+    }
+    
+    /**
+     * Registra un oyente que se avisa después de cada eliminación y limpieza.
+     */
+    public void registrarOyente(OyenteBajas oyente) {
+        oyentes.add(oyente);
+    }
+    
+    /**
+     * Instante actual con la precisión que conserva el almacén (milisegundos), para
+     * que la respuesta de una escritura coincida con lo que devuelve una lectura.
+     */
+    public static LocalDateTime ahora() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
     }
     
     public void limpiar() {
-        almacen.clear();
+        DiarioNotificaciones.Registro registro = diario != null ? diario.registrarLimpieza() : null;
+        vaciar();
+        oyentes.forEach(OyenteBajas::limpiado);
+        esperar(registro);
+        if (archivo != null) {
+            try {
+                archivo.limpiar();
+            } catch (IOException e) {
+                throw new UncheckedIOException("No fue posible limpiar el archivo frío", e);
+            }
+            archivadas.reset();
+        }
     }
     
     public boolean eliminar(String id) {
-        return almacen.remove(id) != null;
+        if (id == null) {
+            return false;
+        }
+        boolean eliminada = quitar(id, true);
+        if (eliminada) {
+            oyentes.forEach(oyente -> oyente.eliminada(id));
+        }
+        return eliminada;
+    }
+    
+    private DiarioNotificaciones.Registro almacenar(Notificacion notificacion, boolean registrar) {
+        if (notificacion == null || notificacion.getId() == null) {
+            throw new IllegalArgumentException("La notificación y su ID no pueden ser nulos");
+        }
+        RegistroCompacto nuevo = RegistroCompacto.de(notificacion, textos);
+        DiarioNotificaciones.Registro[] registro = new DiarioNotificaciones.Registro[1];
+        almacen.compute(ClaveNotificacion.de(notificacion.getId()), (clave, anterior) -> {
+            if (anterior == null) {
+                anularArchivada(clave.id());
+            }
+            indiceEstados.reindexar(clave, anterior != null ? anterior.getEstado() : null, nuevo.getEstado());
+            agregados.actualizar(anterior, nuevo);
+            if (registrar && diario != null) {
+                registro[0] = diario.registrarGuardado(notificacion);
+            }
+            return nuevo;
+        });
+        return registro[0];
+    }
+    
+    private boolean quitar(String id, boolean registrar) {
+        DiarioNotificaciones.Registro[] registro = new DiarioNotificaciones.Registro[1];
+        boolean[] eliminada = new boolean[1];
+        almacen.compute(ClaveNotificacion.de(id), (clave, anterior) -> {
+            if (anterior != null) {
+                indiceEstados.eliminar(clave, anterior.getEstado());
+                agregados.actualizar(anterior, null);
+                eliminada[0] = true;
+            } else {
+                eliminada[0] = anularArchivada(id);
+            }
+            if (eliminada[0] && registrar && diario != null) {
+                registro[0] = diario.registrarEliminacion(id);
+            }
+            return null;
+        });
+        esperar(registro[0]);
+        return eliminada[0];
+    }
+    
+    private int archivarTramo(List<Candidata> tramo) {
+        List<Notificacion> notificaciones = new ArrayList<>(tramo.size());
+        for (Candidata candidata : tramo) {
+            notificaciones.add(candidata.registro().materializar(candidata.clave().id()));
+        }
+        long segmento;
+        try {
+            segmento = archivo.archivar(notificaciones);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No fue posible escribir el segmento archivado", e);
+        }
+        DiarioNotificaciones.Registro[] ultimo = new DiarioNotificaciones.Registro[1];
+        int[] movidas = new int[1];
+        for (Candidata candidata : tramo) {
+            almacen.compute(candidata.clave(), (clave, actual) -> {
+                if (actual != candidata.registro()) {
+                    archivo.anular(clave.id(), segmento);
+                    return actual;
+                }
+                indiceEstados.eliminar(clave, actual.getEstado());
+                if (diario != null) {
+                    ultimo[0] = diario.registrarMovimiento(clave.id(), segmento);
+                }
+                archivadas.increment();
+                movidas[0]++;
+                return null;
+            });
+        }
+        esperar(ultimo[0]);
+        return movidas[0];
+    }
+    
+    /**
+     * Anula la copia archivada vigente del ID, si la hay, porque la notificación
+     * vuelve al almacén o se elimina. Debe invocarse dentro de la operación atómica de la clave.
+     *
+     * @return true si había una copia vigente
+     */
+    private boolean anularArchivada(String id) {
+        ArchivoFrio.Copia copia = archivo != null ? archivo.buscar(id) : null;
+        if (copia == null) {
+            return false;
+        }
+        archivo.anular(id, copia.segmento());
+        if (archivoContabilizado) {
+            descontarArchivada(copia.notificacion());
+        }
+        return true;
+    }
+    
+    /**
+     * Reproduce un movimiento al archivo: si el segmento llegó a publicarse, la
+     * notificación sale del almacén y su copia archivada sigue vigente.
+     */
+    private void moverRecuperada(String id, long segmento) {
+        if (archivo == null) {
+            return;
+        }
+        almacen.computeIfPresent(ClaveNotificacion.de(id), (clave, anterior) -> {
+            if (!archivo.existe(segmento)) {
+                return anterior;
+            }
+            indiceEstados.eliminar(clave, anterior.getEstado());
+            agregados.actualizar(anterior, null);
+            archivo.restaurar(id, segmento);
+            return null;
+        });
+    }
+    
+    /**
+     * Suma a los totales lo archivado: los resúmenes de los segmentos menos las copias anuladas.
+     */
+    private void contabilizarArchivo() throws IOException {
+        for (SegmentoFrio segmento : archivo.getSegmentos()) {
+            for (SegmentoFrio.Grupo grupo : segmento.getResumen()) {
+                agregados.sumar(grupo.estado(), grupo.canal(), grupo.prioridad(), grupo.conteo(),
+                        AgregadosCosto.aUnidades(grupo.costo()));
+                archivadas.add(grupo.conteo());
+            }
+        }
+        for (Notificacion anulada : archivo.leerAnuladas()) {
+            descontarArchivada(anulada);
+        }
+        archivoContabilizado = true;
+    }
+    
+    private void descontarArchivada(Notificacion notificacion) {
+        agregados.sumar(notificacion.getEstado(), notificacion.getCanal(), notificacion.getPrioridad(), -1,
+                -AgregadosCosto.aUnidades(notificacion.getCosto()));
+        archivadas.decrement();
+    }
+    
+    /**
+     * Notificaciones del estado en orden de ID a partir de {@code despuesDe}
+     * (exclusivo), mezclando el almacén con el archivo frío.
+     */
+    private Iterator<Notificacion> recorrido(Estado estado, String despuesDe) {
+        ClaveNotificacion desde = despuesDe != null ? ClaveNotificacion.de(despuesDe) : null;
+        Iterator<Notificacion> enMemoria = indiceEstados.clavesDesde(estado, desde).stream()
+                .map(clave -> leer(clave, estado))
+                .filter(Objects::nonNull)
+                .iterator();
+        if (archivo == null) {
+            return enMemoria;
+        }
+        return new RecorridoMezclado(enMemoria, archivadasNoReemplazadas(archivo.recorrer(estado, despuesDe)));
+    }
+    
+    /**
+     * Descarta las copias archivadas de IDs que están en el almacén, donde vive
+     * la versión vigente mientras se completa un movimiento o una anulación.
+     */
+    private Iterator<Notificacion> archivadasNoReemplazadas(Iterator<Notificacion> archivadas) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(archivadas, Spliterator.ORDERED), false)
+                .filter(notificacion -> !almacen.containsKey(ClaveNotificacion.de(notificacion.getId())))
+                .iterator();
+    }
+    
+    private void vaciar() {
+        almacen.clear();
+        indiceEstados.limpiar();
+        agregados.limpiar();
+        textos.limpiar();
+    }
+    
+    /**
+     * Materializa el registro de la clave si sigue en el estado indicado; el índice
+     * puede ir por detrás del almacén durante una actualización concurrente.
+     */
+    private Notificacion leer(ClaveNotificacion clave, Estado estado) {
+        RegistroCompacto registro = almacen.get(clave);
+        return registro != null && registro.getEstado() == estado ? registro.materializar(clave.id()) : null;
+    }
+    
+    private void esperar(DiarioNotificaciones.Registro registro) {
+        if (registro != null) {
+            diario.esperar(registro);
+        }
     }
 }
@@ -0,0 +1,56 @@
+package com.banco.notificaciones.repository;
+
+import com.banco.notificaciones.model.Notificacion;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Mezcla dos recorridos ordenados por ID en uno solo, también ordenado.
+ * Si un ID aparece en ambos se entrega el del primero, que tiene precedencia.
+ */
+final class RecorridoMezclado implements Iterator<Notificacion> {
+
+    private final Iterator<Notificacion> primero;
+    private final Iterator<Notificacion> segundo;
+    private Notificacion actualPrimero;
+    private Notificacion actualSegundo;
+
+    RecorridoMezclado(Iterator<Notificacion> primero, Iterator<Notificacion> segundo) {
+        this.primero = primero;
+        this.segundo = segundo;
+        this.actualPrimero = siguiente(primero);
+        this.actualSegundo = siguiente(segundo);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return actualPrimero != null || actualSegundo != null;
+    }
+
+    @Override
+    public Notificacion next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int comparacion = actualPrimero == null ? 1
+                : actualSegundo == null ? -1
+                : actualPrimero.getId().compareTo(actualSegundo.getId());
+        Notificacion resultado;
+        if (comparacion <= 0) {
+            resultado = actualPrimero;
+            actualPrimero = siguiente(primero);
+            if (comparacion == 0) {
+                actualSegundo = siguiente(segundo);
+            }
+        } else {
+            resultado = actualSegundo;
+            actualSegundo = siguiente(segundo);
+        }
+        return resultado;
+    }
+
+    private static Notificacion siguiente(Iterator<Notificacion> recorrido) {
+        return recorrido.hasNext() ? recorrido.next() : null;
+    }
+}
@@ -0,0 +1,125 @@
+package com.banco.notificaciones.repository;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.Prioridad;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Representación inmutable y compacta de una notificación almacenada.
+ * Los enums se guardan como ordinal, las fechas como milisegundos de época
+ * (se descarta la precisión por debajo del milisegundo) y el costo en unidades
+ * de punto fijo de {@link AgregadosCosto}. El ID vive solo en la clave del almacén.
+ * Los intentos se guardan en un byte, saturando en {@link Byte#MAX_VALUE}.
+ * Cada lectura materializa una {@link Notificacion} nueva.
+ */
+final class RegistroCompacto {
+
+    private static final byte AUSENTE = -1;
+    private static final long SIN_VALOR = Long.MIN_VALUE;
+
+    private static final CanalNotificacion[] CANALES = CanalNotificacion.values();
+    private static final Prioridad[] PRIORIDADES = Prioridad.values();
+    private static final Estado[] ESTADOS = Estado.values();
+
+    private final String destinatario;
+    private final String mensaje;
+    private final long costo;
+    private final long fechaCreacion;
+    private final long fechaEnvio;
+    private final long proximoIntento;
+    private final byte canal;
+    private final byte prioridad;
+    private final byte estado;
+    private final byte intentos;
+
+    private RegistroCompacto(String destinatario, String mensaje, long costo, long fechaCreacion,
+                             long fechaEnvio, long proximoIntento, byte canal, byte prioridad, byte estado,
+                             byte intentos) {
+        this.destinatario = destinatario;
+        this.mensaje = mensaje;
+        this.costo = costo;
+        this.fechaCreacion = fechaCreacion;
+        this.fechaEnvio = fechaEnvio;
+        this.proximoIntento = proximoIntento;
+        this.canal = canal;
+        this.prioridad = prioridad;
+        this.estado = estado;
+        this.intentos = intentos;
+    }
+
+    static RegistroCompacto de(Notificacion notificacion, TablaTextos textos) {
+        return new RegistroCompacto(
+                textos.deduplicar(notificacion.getDestinatario()),
+                textos.deduplicar(notificacion.getMensaje()),
+                notificacion.getCosto() != null ? AgregadosCosto.aUnidades(notificacion.getCosto()) : SIN_VALOR,
+                aMilisegundos(notificacion.getFechaCreacion()),
+                aMilisegundos(notificacion.getFechaEnvio()),
+                aMilisegundos(notificacion.getProximoIntento()),
+                ordinal(notificacion.getCanal()),
+                ordinal(notificacion.getPrioridad()),
+                ordinal(notificacion.getEstado()),
+                (byte) Math.min(Math.max(notificacion.getIntentos(), 0), Byte.MAX_VALUE));
+    }
+
+    Notificacion materializar(String id) {
+        return Notificacion.builder()
+                .id(id)
+                .destinatario(destinatario)
+                .mensaje(mensaje)
+                .canal(getCanal())
+                .prioridad(getPrioridad())
+                .estado(getEstado())
+                .costo(costo != SIN_VALOR ? AgregadosCosto.aImporte(costo) : null)
+                .fechaCreacion(aFecha(fechaCreacion))
+                .fechaEnvio(aFecha(fechaEnvio))
+                .intentos(intentos)
+                .proximoIntento(aFecha(proximoIntento))
+                .build();
+    }
+
+    CanalNotificacion getCanal() {
+        return canal != AUSENTE ? CANALES[canal] : null;
+    }
+
+    Prioridad getPrioridad() {
+        return prioridad != AUSENTE ? PRIORIDADES[prioridad] : null;
+    }
+
+    Estado getEstado() {
+        return estado != AUSENTE ? ESTADOS[estado] : null;
+    }
+
+    /**
+     * Costo en unidades de punto fijo; 0 si la notificación no tiene costo.
+     */
+    long getCostoUnidades() {
+        return costo != SIN_VALOR ? costo : 0L;
+    }
+
+    /**
+     * Fecha desde la que se mide la antigüedad: la de envío o, si no hay, la de creación.
+     */
+    long getFechaReferencia() {
+        return fechaEnvio != SIN_VALOR ? fechaEnvio : fechaCreacion;
+    }
+
+    private static byte ordinal(Enum<?> valor) {
+        return valor != null ? (byte) valor.ordinal() : AUSENTE;
+    }
+
+    static long aMilisegundos(LocalDateTime fecha) {
+        return fecha != null ? fecha.toInstant(ZoneOffset.UTC).toEpochMilli() : SIN_VALOR;
+    }
+
+    private static LocalDateTime aFecha(long milisegundos) {
+        if (milisegundos == SIN_VALOR) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(milisegundos, 1000L),
+                (int) Math.floorMod(milisegundos, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+}
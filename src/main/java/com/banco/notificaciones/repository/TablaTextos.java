@@ -0,0 +1,40 @@
+package com.banco.notificaciones.repository;
+
+import java.util.Arrays;
+
+/**
+ * Tabla de deduplicación con pérdida para destinatarios y mensajes repetidos.
+ * Cada texto ocupa la ranura que indica su hash; si ya hay uno igual se reutiliza
+ * esa instancia y, si no, se sustituye. No garantiza deduplicar todos los
+ * duplicados, pero su tamaño es fijo y no necesita sincronización: los
+ * {@link String} son inmutables y se publican de forma segura.
+ */
+final class TablaTextos {
+
+    private final String[] ranuras;
+    private final int mascara;
+
+    TablaTextos(int tamano) {
+        int potencia = Integer.highestOneBit(Math.max(16, tamano - 1) << 1);
+        this.ranuras = new String[potencia];
+        this.mascara = potencia - 1;
+    }
+
+    String deduplicar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        int hash = texto.hashCode();
+        int ranura = (hash ^ hash >>> 16) & mascara;
+        String existente = ranuras[ranura];
+        if (texto.equals(existente)) {
+            return existente;
+        }
+        ranuras[ranura] = texto;
+        return texto;
+    }
+
+    void limpiar() {
+        Arrays.fill(ranuras, null);
+    }
+}
@@ -0,0 +1,222 @@
+package com.banco.notificaciones.respuesta;
+
+import com.banco.notificaciones.repository.NotificacionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * Guarda el JSON ya serializado de las notificaciones que no van a cambiar
+ * (ENVIADA) para escribirlo directo en la respuesta, sin mapear ni serializar
+ * en cada consulta de estado.
+ *
+ * <p>El tamaño se acota en bytes. El desalojo es de segunda oportunidad: la cola
+ * está en orden de alta y una entrada leída desde su última pasada vuelve al
+ * final en lugar de salir, así que las que se consultan seguido se quedan.
+ *
+ * <p>El ETag se deriva del contenido (CRC32C y longitud), de modo que es el
+ * mismo esté o no en caché y en cualquier instancia.
+ *
+ * <p>Una notificación eliminada deja de existir aunque fuera ENVIADA: la caché
+ * se registra en el repositorio y descarta su entrada al eliminarla o al limpiarlo.
+ */
+@Component
+public class CacheRespuestas {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheRespuestas.class);
+    private static final int PESO_ENTRADA = 128;
+
+    /**
+     * Cuerpo JSON serializado y su ETag, ya entre comillas.
+     */
+    public record Respuesta(byte[] cuerpo, String etag) {
+    }
+
+    private static final class Entrada {
+        private final String id;
+        private final Respuesta respuesta;
+        private volatile boolean usada;
+
+        private Entrada(String id, Respuesta respuesta) {
+            this.id = id;
+            this.respuesta = respuesta;
+        }
+
+        private long peso() {
+            return respuesta.cuerpo().length + PESO_ENTRADA;
+        }
+    }
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Queue<Entrada> porAlta = new ConcurrentLinkedQueue<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final long maximoBytes;
+    private final Counter aciertos;
+    private final Counter fallos;
+
+    @Autowired
+    public CacheRespuestas(
+            MeterRegistry registro,
+            NotificacionRepository repository,
+            @Value("${notificaciones.respuestas.maximo-mb:64}") long maximoMb) {
+        this(registro, maximoMb);
+        repository.registrarOyente(new NotificacionRepository.OyenteBajas() {
+            @Override
+            public void eliminada(String id) {
+                invalidar(id);
+            }
+
+            @Override
+            public void limpiado() {
+                vaciar();
+            }
+        });
+    }
+
+    public CacheRespuestas(MeterRegistry registro, long maximoMb) {
+        this.maximoBytes = Math.max(1, maximoMb) * 1024 * 1024;
+        this.aciertos = Counter.builder("notificaciones.respuestas.cache")
+                .description("Consultas por ID según se sirvieron desde la caché de respuestas o no")
+                .tag("resultado", "acierto")
+                .register(registro);
+        this.fallos = Counter.builder("notificaciones.respuestas.cache")
+                .description("Consultas por ID según se sirvieron desde la caché de respuestas o no")
+                .tag("resultado", "fallo")
+                .register(registro);
+        Gauge.builder("notificaciones.respuestas.cache.bytes", bytes, AtomicLong::get)
+                .description("Bytes de respuestas serializadas en caché")
+                .baseUnit("bytes")
+                .register(registro);
+        logger.info("Caché de respuestas: máximo {} MB", Math.max(1, maximoMb));
+    }
+
+    /**
+     * Respuesta en caché del ID, o {@code null} si no la hay.
+     */
+    public Respuesta obtener(String id) {
+        Entrada entrada = entradas.get(id);
+        if (entrada == null) {
+            fallos.increment();
+            return null;
+        }
+        if (!entrada.usada) {
+            entrada.usada = true;
+        }
+        aciertos.increment();
+        return entrada.respuesta;
+    }
+
+    /**
+     * Guarda el cuerpo de una notificación inmutable y devuelve la respuesta que
+     * queda en caché (la existente, si otra petición se adelantó).
+     */
+    public Respuesta guardar(String id, byte[] cuerpo) {
+        Respuesta respuesta = sinGuardar(cuerpo);
+        Entrada nueva = new Entrada(id, respuesta);
+        if (nueva.peso() > maximoBytes) {
+            return respuesta;
+        }
+        Entrada existente = entradas.putIfAbsent(id, nueva);
+        if (existente != null) {
+            return existente.respuesta;
+        }
+        porAlta.offer(nueva);
+        bytes.addAndGet(nueva.peso());
+        desalojar();
+        return respuesta;
+    }
+
+    /**
+     * Descarta la respuesta del ID, si la hay. La entrada queda en la cola de
+     * desalojo, que la salta al llegar a ella: quitarla ahí costaría recorrerla.
+     */
+    public void invalidar(String id) {
+        Entrada entrada = entradas.remove(id);
+        if (entrada != null) {
+            bytes.addAndGet(-entrada.peso());
+        }
+    }
+
+    /**
+     * Descarta todas las respuestas con una sola pasada por el mapa y otra por la
+     * cola; una guardada a la vez que se vacía puede quedar, con su peso contado.
+     */
+    public void vaciar() {
+        for (Entrada entrada : entradas.values()) {
+            if (entradas.remove(entrada.id, entrada)) {
+                bytes.addAndGet(-entrada.peso());
+            }
+        }
+        porAlta.removeIf(entrada -> entradas.get(entrada.id) != entrada);
+    }
+
+    /**
+     * Respuesta con ETag para un cuerpo que puede cambiar y no se guarda.
+     */
+    public static Respuesta sinGuardar(byte[] cuerpo) {
+        CRC32C crc = new CRC32C();
+        crc.update(cuerpo);
+        return new Respuesta(cuerpo, "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(cuerpo.length) + "\"");
+    }
+
+    /**
+     * Indica si la cabecera {@code If-None-Match} incluye el ETag. Acepta listas,
+     * {@code *} y etiquetas débiles, que para GET se comparan igual que las fuertes.
+     */
+    public static boolean coincide(String siNoCoincide, String etag) {
+        if (siNoCoincide == null) {
+            return false;
+        }
+        for (String etiqueta : siNoCoincide.split(",")) {
+            String limpia = etiqueta.trim();
+            if (limpia.startsWith("W/")) {
+                limpia = limpia.substring(2);
+            }
+            if (limpia.equals("*") || limpia.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    public int getTamano() {
+        return entradas.size();
+    }
+
+    private void desalojar() {
+        while (bytes.get() > maximoBytes) {
+            Entrada cabeza = porAlta.poll();
+            if (cabeza == null) {
+                return;
+            }
+            if (entradas.get(cabeza.id) != cabeza) {
+                // Invalidada: su peso ya se descontó
+                continue;
+            }
+            if (cabeza.usada) {
+                cabeza.usada = false;
+                porAlta.offer(cabeza);
+                continue;
+            }
+            if (entradas.remove(cabeza.id, cabeza)) {
+                bytes.addAndGet(-cabeza.peso());
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.banco.notificaciones.service;
+
+import com.banco.notificaciones.dto.CrearNotificacionRequest;
+import com.banco.notificaciones.dto.ResultadoLoteResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Carga masiva de notificaciones desde un flujo NDJSON o un arreglo JSON.
+ * Lee, valida y persiste por lotes de tamaño fijo y escribe un resultado NDJSON
+ * por registro a medida que avanza, de modo que la memoria usada no depende
+ * del tamaño del cuerpo recibido.
+ */
+@Service
+public class IngestaLoteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestaLoteService.class);
+
+    private final NotificacionService notificacionService;
+    private final Validator validator;
+    private final ObjectReader lector;
+    private final ObjectMapper objectMapper;
+    private final int tamanoLote;
+
+    public IngestaLoteService(NotificacionService notificacionService,
+                              Validator validator,
+                              ObjectMapper objectMapper,
+                              @Value("${notificaciones.lote.tamano:500}") int tamanoLote) {
+        if (tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo");
+        }
+        this.notificacionService = notificacionService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.lector = objectMapper.readerFor(CrearNotificacionRequest.class);
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Procesa el flujo de entrada y escribe en la salida una línea JSON por registro.
+     *
+     * @return número de registros leídos
+     */
+    public long procesar(InputStream entrada, OutputStream salida) throws IOException {
+        List<CrearNotificacionRequest> lote = new ArrayList<>(tamanoLote);
+        List<ResultadoLoteResponse> resultados = new ArrayList<>(tamanoLote);
+        long indice = 0;
+
+        try (MappingIterator<CrearNotificacionRequest> registros = lector.readValues(entrada);
+             JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+            generador.setRootValueSeparator(null);
+
+            while (true) {
+                CrearNotificacionRequest solicitud;
+                try {
+                    if (!registros.hasNextValue()) {
+                        break;
+                    }
+                    solicitud = registros.nextValue();
+                } catch (JsonMappingException e) {
+                    // Registro con tipos inválidos: el iterador se resincroniza en el siguiente
+                    resultados.add(error(indice++, "formato", e.getOriginalMessage()));
+                    continue;
+                } catch (JsonProcessingException e) {
+                    // JSON mal formado: no es posible localizar el siguiente registro
+                    resultados.add(error(indice++, "formato", e.getOriginalMessage()));
+                    break;
+                }
+
+                Map<String, String> errores = validar(solicitud);
+                if (errores.isEmpty()) {
+                    lote.add(solicitud);
+                    resultados.add(ResultadoLoteResponse.builder().indice(indice).build());
+                } else {
+                    resultados.add(ResultadoLoteResponse.builder().indice(indice).errores(errores).build());
+                }
+                indice++;
+
+                if (resultados.size() >= tamanoLote) {
+                    vaciar(lote, resultados, generador);
+                }
+            }
+            vaciar(lote, resultados, generador);
+        }
+
+        logger.info("Carga por lote finalizada: {} registros procesados", indice);
+        return indice;
+    }
+
+    /**
+     * Persiste el lote acumulado, completa los resultados pendientes con los IDs
+     * creados y los escribe en la salida.
+     */
+    private void vaciar(List<CrearNotificacionRequest> lote, List<ResultadoLoteResponse> resultados,
+                        JsonGenerator generador) throws IOException {
+        if (!lote.isEmpty()) {
+            List<ResultadoLoteResponse> creados = notificacionService.crearLote(lote);
+            int siguiente = 0;
+            for (ResultadoLoteResponse resultado : resultados) {
+                if (resultado.getErrores() == null && resultado.getId() == null) {
+                    ResultadoLoteResponse creado = creados.get(siguiente++);
+                    resultado.setId(creado.getId());
+                    resultado.setErrores(creado.getErrores());
+                }
+            }
+        }
+        for (ResultadoLoteResponse resultado : resultados) {
+            generador.writeObject(resultado);
+            generador.writeRaw('\n');
+        }
+        generador.flush();
+        lote.clear();
+        resultados.clear();
+    }
+
+    private Map<String, String> validar(CrearNotificacionRequest solicitud) {
+        Map<String, String> errores = new HashMap<>();
+        if (solicitud == null) {
+            errores.put("registro", "El registro no puede ser nulo");
+            return errores;
+        }
+        Set<ConstraintViolation<CrearNotificacionRequest>> violaciones = validator.validate(solicitud);
+        for (ConstraintViolation<CrearNotificacionRequest> violacion : violaciones) {
+            errores.put(violacion.getPropertyPath().toString(), violacion.getMessage());
+        }
+        return errores;
+    }
+
+    private ResultadoLoteResponse error(long indice, String campo, String mensaje) {
+        return ResultadoLoteResponse.builder()
+                .indice(indice)
+                .errores(Map.of(campo, mensaje != null ? mensaje : "Registro inválido"))
+                .build();
+    }
+}
@@ -1,24 +1,49 @@
 package com.banco.notificaciones.service;
 
+import com.banco.notificaciones.dto.CostoDesgloseResponse;
 import com.banco.notificaciones.dto.CostoTotalResponse;
+import com.banco.notificaciones.dto.CrearNotificacionRequest;
+import com.banco.notificaciones.dto.EnvioLoteResponse;
 import com.banco.notificaciones.dto.EnvioResponse;
 import com.banco.notificaciones.dto.NotificacionResponse;
+import com.banco.notificaciones.dto.PaginaNotificacionesResponse;
+import com.banco.notificaciones.dto.PlanEntregaRequest;
+import com.banco.notificaciones.dto.PlanEntregaResponse;
+import com.banco.notificaciones.dto.ResultadoLoteResponse;
 import com.banco.notificaciones.model.enums.CanalNotificacion;
 import com.banco.notificaciones.model.enums.Estado;
 import com.banco.notificaciones.model.enums.Prioridad;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 public interface NotificacionService {
     
     NotificacionResponse crearNotificacion(String destinatario, String mensaje, 
                                    CanalNotificacion canal, Prioridad prioridad);
     
+    List<ResultadoLoteResponse> crearLote(List<CrearNotificacionRequest> solicitudes);
+    
     EnvioResponse enviarNotificacion(String id);
     
+    EnvioResponse encolarEnvio(String id);
+    
+    CompletableFuture<EnvioResponse> enviarAsincrono(String id);
+    
+    CompletableFuture<PlanEntregaResponse> ejecutarPlan(PlanEntregaRequest request);
+    
+    EnvioLoteResponse enviarPendientes();
+    
     NotificacionResponse obtenerPorId(String id);
     
     List<NotificacionResponse> obtenerPorEstado(Estado estado);
     
+    PaginaNotificacionesResponse obtenerPaginaPorEstado(Estado estado, String cursor, Integer limite);
+    
+    Stream<NotificacionResponse> recorrerPorEstado(Estado estado);
+    
     CostoTotalResponse calcularCostoTotal();
+    
+    CostoDesgloseResponse calcularCostoDesglose();
 }
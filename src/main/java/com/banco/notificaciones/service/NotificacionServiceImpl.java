@@ -1,26 +1,58 @@
 package com.banco.notificaciones.service;
 
+import com.banco.notificaciones.auditoria.AuditoriaEnvios;
+import com.banco.notificaciones.circuito.CircuitoAbiertoException;
+import com.banco.notificaciones.despacho.DespachadorNotificaciones;
+import com.banco.notificaciones.dto.CostoDesgloseResponse;
 import com.banco.notificaciones.dto.CostoTotalResponse;
+import com.banco.notificaciones.dto.CrearNotificacionRequest;
+import com.banco.notificaciones.dto.DestinoPlanRequest;
+import com.banco.notificaciones.dto.EnvioLoteResponse;
 import com.banco.notificaciones.dto.EnvioResponse;
 import com.banco.notificaciones.dto.NotificacionResponse;
+import com.banco.notificaciones.dto.PaginaNotificacionesResponse;
+import com.banco.notificaciones.dto.PlanEntregaRequest;
+import com.banco.notificaciones.dto.PlanEntregaResponse;
+import com.banco.notificaciones.dto.ResultadoCanalResponse;
+import com.banco.notificaciones.dto.ResultadoEnvioResponse;
+import com.banco.notificaciones.dto.ResultadoLoteResponse;
+import com.banco.notificaciones.exception.ColaLlenaException;
 import com.banco.notificaciones.factory.NotificacionStrategyFactory;
+import com.banco.notificaciones.identificador.GeneradorId;
 import com.banco.notificaciones.mapper.NotificacionMapper;
+import com.banco.notificaciones.metricas.MetricasNotificaciones;
 import com.banco.notificaciones.model.Notificacion;
 import com.banco.notificaciones.model.enums.CanalNotificacion;
 import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.ModoEntrega;
 import com.banco.notificaciones.model.enums.Prioridad;
+import com.banco.notificaciones.model.enums.ResultadoEntrega;
+import com.banco.notificaciones.plan.CoordinadorPlan;
+import com.banco.notificaciones.reintento.MotorReintentos;
 import com.banco.notificaciones.repository.NotificacionRepository;
 import com.banco.notificaciones.strategy.CanalNotificacionStrategy;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Aplica principios SOLID:
@@ -34,23 +66,81 @@ public class NotificacionServiceImpl implements NotificacionService {
     
     private static final Logger logger = LoggerFactory.getLogger(NotificacionServiceImpl.class);
     private static final int MAX_LONGITUD_MENSAJE = 500;
+    private static final int LIMITE_PAGINA_DEFECTO = 100;
+    private static final int LIMITE_PAGINA_MAXIMO = 1000;
     
     private final NotificacionRepository repository;
     private final NotificacionStrategyFactory strategyFactory;
     private final NotificacionMapper mapper;
+    private final DespachadorNotificaciones despachador;
+    private final GeneradorId generadorId;
+    private final MetricasNotificaciones metricas;
+    private final AuditoriaEnvios auditoria;
+    private final MotorReintentos reintentos;
+    
+    @Value("${notificaciones.envio.tamano-lote:100}")
+    private int tamanoLoteEnvio;
+    
+    @PostConstruct
+    public void iniciarReintentos() {
+        reintentos.iniciar(this::reintentar);
+    }
     
     @Override
     public NotificacionResponse crearNotificacion(String destinatario, String mensaje, 
                                          CanalNotificacion canal, Prioridad prioridad) {
-        logger.debug("Creando notificación para destinatario: {}", destinatario);
+        logger.debug("Creando notificación por {}", canal);
+        long inicio = System.nanoTime();
+        
+        Notificacion notificacion = construirNotificacion(destinatario, mensaje, canal, prioridad);
+        
+        repository.guardar(notificacion);
+        metricas.registrarCreacion(System.nanoTime() - inicio);
+        
+        logger.debug("Notificación creada exitosamente con ID: {}", notificacion.getId());
+        return mapper.toResponse(notificacion);
+    }
+    
+    /**
+     * Crea un lote de notificaciones con una única escritura en el repositorio.
+     * Un registro inválido no impide crear el resto; su resultado lleva el error.
+     */
+    @Override
+    public List<ResultadoLoteResponse> crearLote(List<CrearNotificacionRequest> solicitudes) {
+        List<ResultadoLoteResponse> resultados = new ArrayList<>(solicitudes.size());
+        List<Notificacion> validas = new ArrayList<>(solicitudes.size());
         
+        for (CrearNotificacionRequest solicitud : solicitudes) {
+            try {
+                Notificacion notificacion = construirNotificacion(solicitud.getDestinatario(),
+                        solicitud.getMensaje(), solicitud.getCanal(), solicitud.getPrioridad());
+                validas.add(notificacion);
+                resultados.add(ResultadoLoteResponse.builder().id(notificacion.getId()).build());
+            } catch (IllegalArgumentException e) {
+                resultados.add(ResultadoLoteResponse.builder()
+                        .errores(Map.of("error", e.getMessage()))
+                        .build());
+            }
+        }
+        
+        repository.guardarTodas(validas);
+        
+        logger.debug("Lote procesado: {} creadas de {}", validas.size(), solicitudes.size());
+        return resultados;
+    }
+    
+    private Notificacion construirNotificacion(String destinatario, String mensaje,
+                                               CanalNotificacion canal, Prioridad prioridad) {
         validarDestinatario(destinatario);
         validarMensaje(mensaje);
         
         CanalNotificacionStrategy strategy = strategyFactory.getStrategy(canal);
+        if (!strategy.esDestinatarioValido(destinatario)) {
+            throw new IllegalArgumentException("Destinatario inválido para el canal " + canal);
+        }
         BigDecimal costo = strategy.calcularCosto();
         
-        Notificacion notificacion = Notificacion.builder()
+        return Notificacion.builder()
                 .id(generarId())
                 .destinatario(destinatario)
                 .mensaje(mensaje)
@@ -58,13 +148,8 @@ public class NotificacionServiceImpl implements NotificacionService {
                 .prioridad(prioridad)
                 .estado(Estado.PENDIENTE)
                 .costo(costo)
-                .fechaCreacion(LocalDateTime.now())
+                .fechaCreacion(NotificacionRepository.ahora())
                 .build();
-        
-        repository.guardar(notificacion);
-        
-        logger.info("Notificación creada exitosamente con ID: {}", notificacion.getId());
-        return mapper.toResponse(notificacion);
     }
     
     @Override
@@ -73,28 +158,192 @@ public class NotificacionServiceImpl implements NotificacionService {
         
         Notificacion notificacion = buscarPorId(id);
         
-        if (notificacion.getEstado() == Estado.ENVIADA) {
-            logger.warn("La notificación {} ya fue enviada", id);
-            return EnvioResponse.builder()
-                    .exitoso(true)
+        if (notificacion.getEstado().esFinal()) {
+            logger.warn("La notificación {} ya está {}, no se vuelve a enviar", id, notificacion.getEstado());
+            return respuestaFinal(notificacion);
+        }
+        
+        CanalNotificacionStrategy strategy = strategyFactory.getStrategy(notificacion.getCanal());
+        long inicio = System.nanoTime();
+        
+        boolean exitoso;
+        try {
+            exitoso = strategy.enviar(notificacion);
+        } catch (CircuitoAbiertoException e) {
+            return aplazar(notificacion, e);
+        }
+        
+        return registrarResultado(notificacion, strategy, exitoso, inicio, true);
+    }
+    
+    /**
+     * Envía sin ocupar un hilo mientras responde el proveedor; el resultado se
+     * registra en el hilo que completa el envío. La notificación se reserva en el
+     * despachador para que no salga dos veces a la vez: si ya está en la cola o en
+     * curso se responde con {@code enDespacho}, sin volver a enviarla.
+     */
+    @Override
+    public CompletableFuture<EnvioResponse> enviarAsincrono(String id) {
+        Notificacion notificacion = buscarPorId(id);
+        
+        if (notificacion.getEstado().esFinal()) {
+            return CompletableFuture.completedFuture(respuestaFinal(notificacion));
+        }
+        if (!despachador.reservar(id)) {
+            return CompletableFuture.completedFuture(EnvioResponse.builder()
+                    .encolada(false)
+                    .enDespacho(true)
                     .notificacion(mapper.toResponse(notificacion))
-                    .build();
+                    .build());
         }
         
         CanalNotificacionStrategy strategy = strategyFactory.getStrategy(notificacion.getCanal());
+        long inicio = System.nanoTime();
+        CompletableFuture<Boolean> envio;
+        try {
+            envio = strategy.enviarAsincrono(notificacion);
+        } catch (RuntimeException e) {
+            despachador.liberar(id);
+            throw e;
+        }
+        return envio.handle((exitoso, error) -> {
+                    if (error == null) {
+                        return registrarResultado(notificacion, strategy, exitoso, inicio, true);
+                    }
+                    Throwable causa = error instanceof CompletionException ? error.getCause() : error;
+                    if (causa instanceof CircuitoAbiertoException abierto) {
+                        return aplazar(notificacion, abierto);
+                    }
+                    throw error instanceof CompletionException completion
+                            ? completion : new CompletionException(error);
+                })
+                .whenComplete((respuesta, error) -> despachador.liberar(id));
+    }
+    
+    /**
+     * Ejecuta un plan de entrega por varios canales con {@link CoordinadorPlan}.
+     * Todas las notificaciones del plan se validan antes de enviar ninguna; cada
+     * una se guarda al iniciarse su intento, así que las de canales omitidos no
+     * llegan a existir. Los intentos del plan no entran en los reintentos
+     * automáticos: el propio plan decide qué canal probar después.
+     *
+     * <p>Se cobra cada intento que llegó al proveedor, aunque después se cancelara
+     * (la cancelación no detiene una llamada en curso), y nada de los que no
+     * salieron: cancelados mientras esperaban turno o rechazados por el circuito.
+     */
+    @Override
+    public CompletableFuture<PlanEntregaResponse> ejecutarPlan(PlanEntregaRequest request) {
+        List<DestinoPlanRequest> destinos = request.getDestinos();
+        if (destinos.stream().map(DestinoPlanRequest::getCanal).distinct().count() != destinos.size()) {
+            throw new IllegalArgumentException("Un plan de entrega no puede repetir canal");
+        }
+        
+        int canales = destinos.size();
+        Notificacion[] notificaciones = new Notificacion[canales];
+        CanalNotificacionStrategy[] strategies = new CanalNotificacionStrategy[canales];
+        long[] inicios = new long[canales];
+        Long[] duraciones = new Long[canales];
+        AtomicIntegerArray llamadas = new AtomicIntegerArray(canales);
+        for (int i = 0; i < canales; i++) {
+            DestinoPlanRequest destino = destinos.get(i);
+            notificaciones[i] = construirNotificacion(destino.getDestinatario(), request.getMensaje(),
+                    destino.getCanal(), request.getPrioridad());
+            strategies[i] = strategyFactory.getStrategy(destino.getCanal());
+        }
+        
+        CoordinadorPlan.Intentos intentos = indice -> {
+            Notificacion notificacion = notificaciones[indice];
+            despachador.reservar(notificacion.getId());
+            repository.guardar(notificacion);
+            inicios[indice] = System.nanoTime();
+            return strategies[indice].enviarAsincrono(notificacion, () -> llamadas.set(indice, 1));
+        };
+        CoordinadorPlan.Observador observador = (indice, resultado) -> {
+            Notificacion notificacion = notificaciones[indice];
+            duraciones[indice] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicios[indice]);
+            if (llamadas.get(indice) == 0) {
+                notificacion.setCosto(BigDecimal.ZERO);
+            }
+            try {
+                if (resultado == ResultadoEntrega.CANCELADA) {
+                    notificacion.setEstado(Estado.CANCELADA);
+                    repository.guardar(notificacion);
+                } else {
+                    registrarResultado(notificacion, strategies[indice],
+                            resultado == ResultadoEntrega.ENTREGADA, inicios[indice], false);
+                }
+            } finally {
+                despachador.liberar(notificacion.getId());
+            }
+        };
         
-        boolean exitoso = strategy.enviar(notificacion);
+        Duration presupuesto = request.getPresupuestoMs() != null
+                ? Duration.ofMillis(request.getPresupuestoMs()) : null;
+        return CoordinadorPlan.ejecutar(request.getModo(), canales, presupuesto, intentos, observador)
+                .thenApply(resultados -> responderPlan(request.getModo(), destinos, notificaciones,
+                        duraciones, resultados));
+    }
+    
+    private PlanEntregaResponse responderPlan(ModoEntrega modo, List<DestinoPlanRequest> destinos,
+                                              Notificacion[] notificaciones, Long[] duraciones,
+                                              List<ResultadoEntrega> resultados) {
+        List<ResultadoCanalResponse> porCanal = new ArrayList<>(resultados.size());
+        BigDecimal costoTotal = BigDecimal.ZERO;
+        int entregadas = 0;
+        for (int i = 0; i < resultados.size(); i++) {
+            ResultadoEntrega resultado = resultados.get(i);
+            BigDecimal costo = resultado != ResultadoEntrega.OMITIDA ? notificaciones[i].getCosto() : BigDecimal.ZERO;
+            costoTotal = costoTotal.add(costo);
+            if (resultado == ResultadoEntrega.ENTREGADA) {
+                entregadas++;
+            }
+            porCanal.add(ResultadoCanalResponse.builder()
+                    .canal(destinos.get(i).getCanal())
+                    .destinatario(destinos.get(i).getDestinatario())
+                    .resultado(resultado)
+                    .notificacionId(resultado != ResultadoEntrega.OMITIDA ? notificaciones[i].getId() : null)
+                    .costo(costo)
+                    .duracionMs(duraciones[i])
+                    .build());
+        }
         
+        boolean exitoso = modo == ModoEntrega.FAILOVER ? entregadas > 0 : entregadas == resultados.size();
+        logger.debug("Plan {} terminado: {} de {} canales entregaron", modo, entregadas, resultados.size());
+        return PlanEntregaResponse.builder()
+                .modo(modo)
+                .exitoso(exitoso)
+                .entregadas(entregadas)
+                .costoTotal(costoTotal)
+                .resultados(porCanal)
+                .build();
+    }
+    
+    private EnvioResponse registrarResultado(Notificacion notificacion, CanalNotificacionStrategy strategy,
+                                             boolean exitoso, long inicio, boolean reintentar) {
+        String id = notificacion.getId();
+        notificacion.setIntentos(notificacion.getIntentos() + 1);
         if (exitoso) {
             notificacion.setEstado(Estado.ENVIADA);
-            notificacion.setFechaEnvio(LocalDateTime.now());
-            logger.info("Notificación {} enviada exitosamente por {}", id, strategy.getNombreCanal());
+            notificacion.setFechaEnvio(NotificacionRepository.ahora());
+            notificacion.setProximoIntento(null);
+            logger.debug("Notificación {} enviada exitosamente por {}", id, strategy.getNombreCanal());
         } else {
             notificacion.setEstado(Estado.FALLIDA);
-            logger.error("Falló el envío de la notificación {}", id);
+            if (reintentar) {
+                reintentos.aplicarFallo(notificacion);
+            }
+            logger.error("Falló el envío de la notificación {} (intento {}, estado {})",
+                    id, notificacion.getIntentos(), notificacion.getEstado());
         }
         
         repository.guardar(notificacion);
+        if (!exitoso && reintentar) {
+            reintentos.programar(notificacion);
+        }
+        long duracion = System.nanoTime() - inicio;
+        metricas.registrarEnvio(notificacion.getCanal(), exitoso, duracion, notificacion.getCosto());
+        auditoria.registrar(id, notificacion.getCanal(), notificacion.getDestinatario(),
+                exitoso, duracion, notificacion.getCosto());
         
         return EnvioResponse.builder()
                 .exitoso(exitoso)
@@ -102,6 +351,203 @@ public class NotificacionServiceImpl implements NotificacionService {
                 .build();
     }
     
+    /**
+     * Una notificación en estado final (ENVIADA, DESCARTADA o CANCELADA) no se vuelve
+     * a enviar: se responde con su estado actual, exitosa solo si fue ENVIADA.
+     */
+    private EnvioResponse respuestaFinal(Notificacion notificacion) {
+        return EnvioResponse.builder()
+                .exitoso(notificacion.getEstado() == Estado.ENVIADA)
+                .encolada(false)
+                .notificacion(mapper.toResponse(notificacion))
+                .build();
+    }
+    
+    /**
+     * El circuito del canal rechazó el envío sin llamar al proveedor: no cuenta como
+     * intento ni como fallo, sólo se vuelve a programar para cuando termine la espera.
+     */
+    private EnvioResponse aplazar(Notificacion notificacion, CircuitoAbiertoException rechazo) {
+        reintentos.aplazar(notificacion, rechazo.getEspera());
+        repository.guardar(notificacion);
+        reintentos.programar(notificacion);
+        logger.warn("Notificación {} aplazada {} ms: circuito de {} abierto",
+                notificacion.getId(), rechazo.getEspera().toMillis(), rechazo.getCanal());
+        return EnvioResponse.builder()
+                .exitoso(false)
+                .aplazada(true)
+                .notificacion(mapper.toResponse(notificacion))
+                .build();
+    }
+    
+    /**
+     * Acepta la solicitud de envío y la delega a la cola de despacho por prioridad.
+     * Si ya estaba en la cola o en curso no se encola de nuevo y se responde con
+     * {@code enDespacho}. Si el despacho asíncrono está deshabilitado, envía en el hilo actual.
+     */
+    @Override
+    public EnvioResponse encolarEnvio(String id) {
+        if (!despachador.isAsincrono()) {
+            return enviarNotificacion(id);
+        }
+        
+        Notificacion notificacion = buscarPorId(id);
+        
+        if (notificacion.getEstado().esFinal()) {
+            return respuestaFinal(notificacion);
+        }
+        
+        // Se mapea antes de encolar: un worker puede modificar la notificación en cuanto se encola
+        NotificacionResponse aceptada = mapper.toResponse(notificacion);
+        boolean encolada = despachador.encolar(id, notificacion.getPrioridad(), () -> enviarNotificacion(id));
+        logger.debug("Notificación {} {} en la cola de despacho", id, encolada ? "encolada" : "ya estaba");
+        
+        return EnvioResponse.builder()
+                .encolada(encolada)
+                .enDespacho(!encolada)
+                .notificacion(aceptada)
+                .build();
+    }
+    
+    /**
+     * Envía todas las notificaciones PENDIENTE recorriéndolas por páginas de
+     * {@code tamanoLoteEnvio} con el cursor del repositorio, para no cargarlas
+     * todas en memoria. Cada página se agrupa por canal y se envía en lotes que
+     * guardan sus cambios de estado de una vez. Las que ya están en la cola de
+     * despacho se omiten.
+     */
+    @Override
+    public EnvioLoteResponse enviarPendientes() {
+        List<ResultadoEnvioResponse> resultados = new ArrayList<>();
+        int tamanoLote = Math.max(1, tamanoLoteEnvio);
+        String cursor = null;
+        List<Notificacion> pagina;
+        do {
+            pagina = repository.filtrarPorEstado(Estado.PENDIENTE, cursor, tamanoLote);
+            if (pagina.isEmpty()) {
+                break;
+            }
+            // El cursor avanza por ID: las enviadas salen del índice y las aplazadas no se repiten
+            cursor = pagina.get(pagina.size() - 1).getId();
+            enviarPagina(pagina, resultados);
+        } while (pagina.size() == tamanoLote);
+        
+        int exitosos = (int) resultados.stream().filter(ResultadoEnvioResponse::getExitoso).count();
+        int aplazadas = (int) resultados.stream().filter(r -> Boolean.TRUE.equals(r.getAplazada())).count();
+        logger.info("Envío de pendientes: {} exitosas y {} aplazadas de {}", exitosos, aplazadas, resultados.size());
+        
+        return EnvioLoteResponse.builder()
+                .total(resultados.size())
+                .exitosos(exitosos)
+                .fallidos(resultados.size() - exitosos - aplazadas)
+                .aplazadas(aplazadas)
+                .resultados(resultados)
+                .build();
+    }
+    
+    private void enviarPagina(List<Notificacion> pagina, List<ResultadoEnvioResponse> resultados) {
+        Map<CanalNotificacion, List<Notificacion>> porCanal = new EnumMap<>(CanalNotificacion.class);
+        for (Notificacion notificacion : pagina) {
+            if (despachador.reservar(notificacion.getId())) {
+                porCanal.computeIfAbsent(notificacion.getCanal(), canal -> new ArrayList<>()).add(notificacion);
+            }
+        }
+        try {
+            for (Map.Entry<CanalNotificacion, List<Notificacion>> entrada : porCanal.entrySet()) {
+                enviarLote(entrada.getKey(), strategyFactory.getStrategy(entrada.getKey()),
+                        entrada.getValue(), resultados);
+            }
+        } finally {
+            porCanal.values().forEach(lista -> lista.forEach(n -> despachador.liberar(n.getId())));
+        }
+    }
+    
+    private void enviarLote(CanalNotificacion canal, CanalNotificacionStrategy strategy,
+                            List<Notificacion> lote, List<ResultadoEnvioResponse> resultados) {
+        long inicio = System.nanoTime();
+        List<Boolean> exitos;
+        try {
+            exitos = strategy.enviarLote(lote);
+        } catch (CircuitoAbiertoException e) {
+            for (Notificacion notificacion : lote) {
+                reintentos.aplazar(notificacion, e.getEspera());
+            }
+            repository.guardarTodas(lote);
+            for (Notificacion notificacion : lote) {
+                reintentos.programar(notificacion);
+                resultados.add(ResultadoEnvioResponse.builder()
+                        .id(notificacion.getId())
+                        .canal(canal)
+                        .exitoso(false)
+                        .aplazada(true)
+                        .build());
+            }
+            logger.warn("Lote de {} por {} aplazado {} ms: circuito abierto",
+                    lote.size(), canal, e.getEspera().toMillis());
+            return;
+        } catch (RuntimeException e) {
+            logger.error("Falló el envío de un lote de {} por {}: {}",
+                    lote.size(), strategy.getNombreCanal(), e.getMessage());
+            exitos = List.of();
+        }
+        
+        long duracion = System.nanoTime() - inicio;
+        LocalDateTime ahora = NotificacionRepository.ahora();
+        int exitosos = 0;
+        BigDecimal costoEnviado = BigDecimal.ZERO;
+        for (int i = 0; i < lote.size(); i++) {
+            Notificacion notificacion = lote.get(i);
+            boolean exitoso = i < exitos.size() && Boolean.TRUE.equals(exitos.get(i));
+            notificacion.setIntentos(notificacion.getIntentos() + 1);
+            if (exitoso) {
+                notificacion.setEstado(Estado.ENVIADA);
+                notificacion.setProximoIntento(null);
+                notificacion.setFechaEnvio(ahora);
+                exitosos++;
+                if (notificacion.getCosto() != null) {
+                    costoEnviado = costoEnviado.add(notificacion.getCosto());
+                }
+            } else {
+                notificacion.setEstado(Estado.FALLIDA);
+                reintentos.aplicarFallo(notificacion);
+            }
+            auditoria.registrar(notificacion.getId(), canal, notificacion.getDestinatario(),
+                    exitoso, duracion, notificacion.getCosto());
+            resultados.add(ResultadoEnvioResponse.builder()
+                    .id(notificacion.getId())
+                    .canal(notificacion.getCanal())
+                    .exitoso(exitoso)
+                    .build());
+        }
+        
+        repository.guardarTodas(lote);
+        for (Notificacion notificacion : lote) {
+            if (notificacion.getProximoIntento() != null) {
+                reintentos.programar(notificacion);
+            }
+        }
+        metricas.registrarEnvios(canal, exitosos, lote.size() - exitosos, costoEnviado);
+    }
+    
+    /**
+     * Vuelve a despachar una notificación cuyo reintento venció, con su prioridad.
+     * Si la cola está llena se aplaza sin contar intento: no llegó a enviarse.
+     */
+    private void reintentar(String id) {
+        Notificacion notificacion = repository.buscarPorId(id).orElse(null);
+        if (notificacion == null || !reintentos.corresponde(notificacion)) {
+            return;
+        }
+        try {
+            despachador.encolar(id, notificacion.getPrioridad(), () -> enviarNotificacion(id));
+        } catch (ColaLlenaException e) {
+            logger.warn("Cola de despacho llena, se aplaza el reintento de {}", id);
+            reintentos.aplazar(notificacion);
+            repository.guardar(notificacion);
+            reintentos.programar(notificacion);
+        }
+    }
+    
     @Override
     public NotificacionResponse obtenerPorId(String id) {
         Notificacion notificacion = buscarPorId(id);
@@ -116,28 +562,85 @@ public class NotificacionServiceImpl implements NotificacionService {
     
     @Override
     public List<NotificacionResponse> obtenerPorEstado(Estado estado) {
-        if (estado == null) {
-            throw new IllegalArgumentException("El estado no puede ser nulo");
-        }
+        validarEstado(estado);
         return repository.filtrarPorEstado(estado)
                 .stream()
                 .map(mapper::toResponse)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Paginación por cursor: el cursor codifica el último ID devuelto y la
+     * siguiente página continúa desde ahí en el índice ordenado del estado.
+     */
     @Override
-    public CostoTotalResponse calcularCostoTotal() {
-        List<Notificacion> notificaciones = repository.listarTodas();
+    public PaginaNotificacionesResponse obtenerPaginaPorEstado(Estado estado, String cursor, Integer limite) {
+        validarEstado(estado);
+        int tamano = limite != null ? limite : LIMITE_PAGINA_DEFECTO;
+        if (tamano <= 0 || tamano > LIMITE_PAGINA_MAXIMO) {
+            throw new IllegalArgumentException(
+                    String.format("El límite debe estar entre 1 y %d", LIMITE_PAGINA_MAXIMO));
+        }
         
-        BigDecimal costoTotal = notificaciones.stream()
-                .map(Notificacion::getCosto)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Se pide un elemento más para saber si existe una página siguiente
+        List<Notificacion> encontradas = repository.filtrarPorEstado(estado, decodificarCursor(cursor), tamano + 1);
+        boolean hayMas = encontradas.size() > tamano;
+        List<Notificacion> pagina = hayMas ? encontradas.subList(0, tamano) : encontradas;
         
+        return PaginaNotificacionesResponse.builder()
+                .contenido(pagina.stream().map(mapper::toResponse).collect(Collectors.toList()))
+                .limite(tamano)
+                .siguienteCursor(hayMas ? codificarCursor(pagina.get(pagina.size() - 1).getId()) : null)
+                .build();
+    }
+    
+    @Override
+    public Stream<NotificacionResponse> recorrerPorEstado(Estado estado) {
+        validarEstado(estado);
+        return repository.recorrerPorEstado(estado).map(mapper::toResponse);
+    }
+    
+    /**
+     * Se sirve desde los totales que mantiene el repositorio, sin recorrer el almacén.
+     */
+    @Override
+    public CostoTotalResponse calcularCostoTotal() {
         return CostoTotalResponse.builder()
-                .costoTotal(costoTotal)
+                .costoTotal(repository.costoTotal())
                 .build();
     }
     
+    @Override
+    public CostoDesgloseResponse calcularCostoDesglose() {
+        return CostoDesgloseResponse.builder()
+                .costoTotal(repository.costoTotal())
+                .porCanal(repository.costoPorCanal())
+                .porPrioridad(repository.costoPorPrioridad())
+                .porEstado(repository.costoPorEstado())
+                .build();
+    }
+    
+    private void validarEstado(Estado estado) {
+        if (estado == null) {
+            throw new IllegalArgumentException("El estado no puede ser nulo");
+        }
+    }
+    
+    private String codificarCursor(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private String decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+    
     /**
      * Principio DRY: Método reutilizable para validación de destinatario.
      */
@@ -164,6 +667,6 @@ public class NotificacionServiceImpl implements NotificacionService {
      * Principio DRY: Método reutilizable para generación de IDs.
      */
     private String generarId() {
-        return UUID.randomUUID().toString();
+        return generadorId.generar();
     }
 }
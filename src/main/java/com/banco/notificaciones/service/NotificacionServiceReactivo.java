@@ -0,0 +1,89 @@
+package com.banco.notificaciones.service;
+
+import com.banco.notificaciones.dto.CostoDesgloseResponse;
+import com.banco.notificaciones.dto.CostoTotalResponse;
+import com.banco.notificaciones.dto.CrearNotificacionRequest;
+import com.banco.notificaciones.dto.EnvioLoteResponse;
+import com.banco.notificaciones.dto.EnvioResponse;
+import com.banco.notificaciones.dto.NotificacionResponse;
+import com.banco.notificaciones.dto.PaginaNotificacionesResponse;
+import com.banco.notificaciones.dto.PlanEntregaRequest;
+import com.banco.notificaciones.dto.PlanEntregaResponse;
+import com.banco.notificaciones.model.enums.Estado;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Fachada reactiva de {@link NotificacionService} para el modo WebFlux.
+ *
+ * <p>El envío usa el contrato no bloqueante de las estrategias, así que las
+ * notificaciones en vuelo no dependen del número de hilos. Lo que puede esperar
+ * al disco (escrituras con el diario, búsquedas y recorridos que leen el archivo
+ * frío, el envío por lotes) corre en {@code boundedElastic} para no bloquear el
+ * event loop; las consultas servidas desde memoria se resuelven en el hilo que las pide.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class NotificacionServiceReactivo {
+
+    private final NotificacionService notificacionService;
+
+    public Mono<NotificacionResponse> crearNotificacion(CrearNotificacionRequest request) {
+        return Mono.fromCallable(() -> notificacionService.crearNotificacion(
+                        request.getDestinatario(),
+                        request.getMensaje(),
+                        request.getCanal(),
+                        request.getPrioridad()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<EnvioResponse> enviarNotificacion(String id) {
+        return Mono.fromFuture(() -> notificacionService.enviarAsincrono(id));
+    }
+
+    /**
+     * Las notificaciones del plan se guardan al iniciar cada intento, así que
+     * la ejecución arranca en {@code boundedElastic}.
+     */
+    public Mono<PlanEntregaResponse> ejecutarPlan(PlanEntregaRequest request) {
+        return Mono.fromFuture(() -> notificacionService.ejecutarPlan(request))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<EnvioLoteResponse> enviarPendientes() {
+        return Mono.fromCallable(notificacionService::enviarPendientes)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Una notificación archivada se lee y descomprime del disco, así que la búsqueda
+     * sale del event loop; las ENVIADA en caché las responde antes el controlador.
+     */
+    public Mono<NotificacionResponse> obtenerPorId(String id) {
+        return Mono.fromCallable(() -> notificacionService.obtenerPorId(id))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Flux<NotificacionResponse> recorrerPorEstado(Estado estado) {
+        return Flux.fromStream(() -> notificacionService.recorrerPorEstado(estado))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<PaginaNotificacionesResponse> obtenerPaginaPorEstado(Estado estado, String cursor, Integer limite) {
+        return Mono.fromCallable(() -> notificacionService.obtenerPaginaPorEstado(estado, cursor, limite))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<CostoTotalResponse> calcularCostoTotal() {
+        return Mono.fromCallable(notificacionService::calcularCostoTotal);
+    }
+
+    public Mono<CostoDesgloseResponse> calcularCostoDesglose() {
+        return Mono.fromCallable(notificacionService::calcularCostoDesglose);
+    }
+}
@@ -0,0 +1,279 @@
+package com.banco.notificaciones.smtp;
+
+import com.banco.notificaciones.model.Notificacion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de sesiones SMTP hacia un servidor. Las sesiones quedan abiertas entre
+ * envíos (keep-alive) y se reutilizan hasta {@code mensajesPorSesion} mensajes;
+ * como mucho hay {@code sesionesMaximas} en uso a la vez y quien excede el máximo
+ * espera hasta el timeout. Un lote completo viaja por una sola sesión, con
+ * PIPELINING si el servidor lo anuncia.
+ *
+ * <p>La sesión libre más reciente es la primera en reutilizarse, así las que
+ * sobran envejecen y se cierran al superar la inactividad máxima. Una sesión
+ * inactiva más de {@value #VERIFICAR_TRAS_MS} ms se comprueba con NOOP antes de
+ * usarla. Un error de conexión descarta la sesión y da por fallidos los mensajes
+ * del lote sin respuesta, que quedan para el motor de reintentos.
+ */
+public final class PoolSmtp implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoolSmtp.class);
+    private static final long VERIFICAR_TRAS_MS = 5_000;
+
+    private final InetSocketAddress servidor;
+    private final String remitente;
+    private final String asunto;
+    private final String dominio;
+    private final String cliente;
+    private final int mensajesPorSesion;
+    private final long inactividadMaximaNanos;
+    private final int timeoutMs;
+    private final boolean usarPipelining;
+    private final Semaphore permisos;
+    private final ConcurrentLinkedDeque<SesionSmtp> libres = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger abiertas = new AtomicInteger();
+    private final ExecutorService hilos;
+    private final Counter conexiones;
+    private final Counter entregados;
+    private final Counter rechazados;
+    private volatile boolean cerrado;
+
+    /**
+     * @param usarPipelining false para esperar cada respuesta aunque el servidor anuncie PIPELINING
+     */
+    public PoolSmtp(InetSocketAddress servidor, String remitente, String asunto, int sesionesMaximas,
+                    int mensajesPorSesion, Duration inactividadMaxima, Duration timeout, boolean usarPipelining,
+                    MeterRegistry registro) {
+        if (sesionesMaximas < 1 || mensajesPorSesion < 1) {
+            throw new IllegalArgumentException("Las sesiones y los mensajes por sesión deben ser positivos");
+        }
+        this.servidor = servidor;
+        this.remitente = remitente;
+        this.asunto = codificarEncabezado(asunto);
+        this.dominio = remitente.substring(remitente.indexOf('@') + 1);
+        this.cliente = nombreLocal();
+        this.mensajesPorSesion = mensajesPorSesion;
+        this.inactividadMaximaNanos = inactividadMaxima.toNanos();
+        this.timeoutMs = (int) timeout.toMillis();
+        this.usarPipelining = usarPipelining;
+        this.permisos = new Semaphore(sesionesMaximas, true);
+        AtomicInteger secuencia = new AtomicInteger();
+        this.hilos = Executors.newFixedThreadPool(sesionesMaximas, tarea -> {
+            Thread hilo = new Thread(tarea, "smtp-" + secuencia.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.conexiones = Counter.builder("notificaciones.smtp.conexiones")
+                .description("Sesiones SMTP abiertas desde el inicio")
+                .register(registro);
+        this.entregados = mensajes(registro, "entregado");
+        this.rechazados = mensajes(registro, "fallido");
+        Gauge.builder("notificaciones.smtp.sesiones.abiertas", abiertas, AtomicInteger::get)
+                .description("Sesiones SMTP abiertas, en uso o libres")
+                .register(registro);
+        Gauge.builder("notificaciones.smtp.sesiones.en.uso", permisos, p -> sesionesMaximas - p.availablePermits())
+                .description("Sesiones SMTP prestadas en este momento")
+                .register(registro);
+    }
+
+    public boolean enviar(Notificacion notificacion) {
+        return enviarLote(List.of(notificacion)).get(0);
+    }
+
+    /**
+     * Envía en uno de los hilos del pool, para no bloquear a quien llama.
+     */
+    public CompletableFuture<Boolean> enviarAsincrono(Notificacion notificacion) {
+        return CompletableFuture.supplyAsync(() -> enviar(notificacion), hilos);
+    }
+
+    /**
+     * Entrega el lote por una sola sesión, abriendo otra cuando la actual llega al
+     * máximo de mensajes por sesión.
+     *
+     * @return el resultado de cada notificación, en el mismo orden del lote
+     */
+    public List<Boolean> enviarLote(List<Notificacion> notificaciones) {
+        if (notificaciones.isEmpty()) {
+            return List.of();
+        }
+        boolean[] resultados = new boolean[notificaciones.size()];
+        try {
+            if (!permisos.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("Sin sesión SMTP libre tras {} ms para un lote de {}", timeoutMs, notificaciones.size());
+                return aLista(resultados);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return aLista(resultados);
+        }
+        try {
+            int desde = 0;
+            while (desde < notificaciones.size()) {
+                SesionSmtp sesion = tomar();
+                int hasta = Math.min(notificaciones.size(), desde + mensajesPorSesion - sesion.getMensajes());
+                boolean[] parcial = new boolean[hasta - desde];
+                try {
+                    sesion.enviar(remitente, envios(notificaciones.subList(desde, hasta)), parcial);
+                } catch (IOException e) {
+                    logger.warn("Sesión SMTP con {} perdida: {}", servidor, e.toString());
+                    descartar(sesion);
+                    break;
+                } finally {
+                    System.arraycopy(parcial, 0, resultados, desde, parcial.length);
+                }
+                devolver(sesion);
+                desde = hasta;
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudo abrir una sesión SMTP con {}: {}", servidor, e.toString());
+        } finally {
+            permisos.release();
+        }
+        return aLista(resultados);
+    }
+
+    public int getSesionesAbiertas() {
+        return abiertas.get();
+    }
+
+    @Override
+    public void close() {
+        cerrado = true;
+        hilos.shutdownNow();
+        SesionSmtp sesion;
+        while ((sesion = libres.pollFirst()) != null) {
+            descartar(sesion);
+        }
+    }
+
+    /**
+     * La libre más reciente que siga vigente, o una nueva.
+     */
+    private SesionSmtp tomar() throws IOException {
+        SesionSmtp sesion;
+        while ((sesion = libres.pollFirst()) != null) {
+            long inactiva = System.nanoTime() - sesion.getUltimoUso();
+            if (inactiva < inactividadMaximaNanos
+                    && (inactiva < TimeUnit.MILLISECONDS.toNanos(VERIFICAR_TRAS_MS) || sesion.responde())) {
+                return sesion;
+            }
+            descartar(sesion);
+        }
+        SesionSmtp nueva = SesionSmtp.abrir(servidor, cliente, timeoutMs, usarPipelining);
+        abiertas.incrementAndGet();
+        conexiones.increment();
+        logger.debug("Sesión SMTP abierta con {} (pipelining {})", servidor, nueva.isPipelining());
+        return nueva;
+    }
+
+    private void devolver(SesionSmtp sesion) {
+        if (cerrado || sesion.getMensajes() >= mensajesPorSesion) {
+            descartar(sesion);
+            return;
+        }
+        libres.addFirst(sesion);
+        // Las del fondo son las más antiguas: se cierran aquí si vencieron
+        SesionSmtp antigua = libres.peekLast();
+        if (antigua != null && System.nanoTime() - antigua.getUltimoUso() >= inactividadMaximaNanos
+                && libres.removeLastOccurrence(antigua)) {
+            descartar(antigua);
+        }
+    }
+
+    private void descartar(SesionSmtp sesion) {
+        sesion.close();
+        abiertas.decrementAndGet();
+    }
+
+    private List<SesionSmtp.Envio> envios(List<Notificacion> notificaciones) {
+        List<SesionSmtp.Envio> envios = new ArrayList<>(notificaciones.size());
+        String fecha = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now());
+        for (Notificacion notificacion : notificaciones) {
+            envios.add(new SesionSmtp.Envio(notificacion.getDestinatario(), contenido(notificacion, fecha)));
+        }
+        return envios;
+    }
+
+    /**
+     * Encabezados y cuerpo en texto plano UTF-8, con los saltos de línea en CRLF,
+     * las líneas que empiezan con "." escapadas y el "." que cierra el DATA.
+     */
+    private byte[] contenido(Notificacion notificacion, String fecha) {
+        StringBuilder texto = new StringBuilder(256 + notificacion.getMensaje().length());
+        texto.append("Message-ID: <").append(notificacion.getId()).append('@').append(dominio).append(">\r\n")
+                .append("Date: ").append(fecha).append("\r\n")
+                .append("From: ").append(remitente).append("\r\n")
+                .append("To: ").append(notificacion.getDestinatario()).append("\r\n")
+                .append("Subject: ").append(asunto).append("\r\n")
+                .append("MIME-Version: 1.0\r\n")
+                .append("Content-Type: text/plain; charset=UTF-8\r\n")
+                .append("Content-Transfer-Encoding: 8bit\r\n")
+                .append("\r\n");
+        for (String linea : notificacion.getMensaje().split("\r?\n|\r", -1)) {
+            if (linea.startsWith(".")) {
+                texto.append('.');
+            }
+            texto.append(linea).append("\r\n");
+        }
+        texto.append(".\r\n");
+        return texto.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String codificarEncabezado(String valor) {
+        boolean ascii = valor.chars().allMatch(c -> c >= 0x20 && c < 0x7f);
+        return ascii ? valor
+                : "=?UTF-8?B?" + Base64.getEncoder().encodeToString(valor.getBytes(StandardCharsets.UTF_8)) + "?=";
+    }
+
+    private static String nombreLocal() {
+        try {
+            return InetAddress.getLocalHost().getCanonicalHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+
+    private static Counter mensajes(MeterRegistry registro, String resultado) {
+        return Counter.builder("notificaciones.smtp.mensajes")
+                .description("Mensajes entregados o rechazados por el servidor SMTP")
+                .tag("resultado", resultado)
+                .register(registro);
+    }
+
+    private List<Boolean> aLista(boolean[] resultados) {
+        List<Boolean> lista = new ArrayList<>(resultados.length);
+        int aceptados = 0;
+        for (boolean resultado : resultados) {
+            lista.add(resultado);
+            aceptados += resultado ? 1 : 0;
+        }
+        entregados.increment(aceptados);
+        rechazados.increment(resultados.length - aceptados);
+        return lista;
+    }
+}
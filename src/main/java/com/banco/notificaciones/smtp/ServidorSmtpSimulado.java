@@ -0,0 +1,228 @@
+package com.banco.notificaciones.smtp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor SMTP embebido para pruebas y benchmarks sin red externa. Acepta
+ * cualquier remitente y rechaza con 550 los destinatarios que empiezan con
+ * "rechazado". Anuncia PIPELINING (si se pide) y 8BITMIME y descarta el contenido.
+ *
+ * <p>Las respuestas a comandos agrupados se escriben juntas cuando no queda nada
+ * por leer, y antes de cada escritura espera la latencia configurada: así la
+ * latencia se paga una vez por ida y vuelta, como en la red. Atiende cada
+ * conexión en su propio hilo.
+ */
+public final class ServidorSmtpSimulado implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServidorSmtpSimulado.class);
+
+    private final ServerSocket servidor;
+    private final ExecutorService hilos;
+    private final long latenciaNanos;
+    private final boolean pipelining;
+    private final Set<Socket> abiertas = ConcurrentHashMap.newKeySet();
+    private final AtomicLong mensajes = new AtomicLong();
+    private final AtomicLong rondas = new AtomicLong();
+    private final AtomicInteger conexiones = new AtomicInteger();
+    private final AtomicInteger maximoSimultaneas = new AtomicInteger();
+
+    /**
+     * @param puerto     puerto local; 0 para uno libre
+     * @param latencia   espera antes de cada escritura de respuestas
+     * @param pipelining si anuncia PIPELINING en la respuesta al EHLO
+     */
+    public ServidorSmtpSimulado(int puerto, Duration latencia, boolean pipelining) {
+        this.latenciaNanos = latencia.toNanos();
+        this.pipelining = pipelining;
+        try {
+            this.servidor = new ServerSocket(puerto, 1024, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el servidor SMTP simulado en el puerto " + puerto, e);
+        }
+        AtomicInteger secuencia = new AtomicInteger();
+        this.hilos = Executors.newCachedThreadPool(tarea -> {
+            Thread hilo = new Thread(tarea, "smtp-simulado-" + secuencia.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        hilos.execute(this::aceptar);
+        logger.info("Servidor SMTP simulado en {} (latencia {} ms, pipelining {})",
+                getDireccion(), latencia.toMillis(), pipelining);
+    }
+
+    public InetSocketAddress getDireccion() {
+        return new InetSocketAddress(servidor.getInetAddress(), servidor.getLocalPort());
+    }
+
+    /** Mensajes aceptados tras el DATA. */
+    public long getMensajes() {
+        return mensajes.get();
+    }
+
+    /** Escrituras de respuestas, es decir, idas y vueltas que vio el cliente. */
+    public long getRondas() {
+        return rondas.get();
+    }
+
+    /** Conexiones aceptadas desde el inicio. */
+    public int getConexiones() {
+        return conexiones.get();
+    }
+
+    /** Mayor número de conexiones abiertas a la vez desde el inicio. */
+    public int getMaximoSimultaneas() {
+        return maximoSimultaneas.get();
+    }
+
+    @Override
+    public void close() {
+        try {
+            servidor.close();
+        } catch (IOException e) {
+            // Se cierra de todos modos
+        }
+        for (Socket socket : abiertas) {
+            cerrar(socket);
+        }
+        hilos.shutdownNow();
+    }
+
+    private void aceptar() {
+        while (!servidor.isClosed()) {
+            try {
+                Socket socket = servidor.accept();
+                socket.setTcpNoDelay(true);
+                conexiones.incrementAndGet();
+                abiertas.add(socket);
+                maximoSimultaneas.accumulateAndGet(abiertas.size(), Math::max);
+                try {
+                    hilos.execute(() -> atender(socket));
+                } catch (RejectedExecutionException e) {
+                    // Llegó mientras se cerraba el servidor
+                    abiertas.remove(socket);
+                    cerrar(socket);
+                }
+            } catch (IOException e) {
+                if (!servidor.isClosed()) {
+                    logger.warn("Error aceptando una conexión SMTP simulada: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void atender(Socket socket) {
+        try (socket) {
+            InputStream entrada = new BufferedInputStream(socket.getInputStream());
+            OutputStream salida = new BufferedOutputStream(socket.getOutputStream());
+            responder(salida, "220 localhost ESMTP simulado");
+            vaciar(salida);
+            boolean transaccion = false;
+            int destinatarios = 0;
+            while (true) {
+                String linea = SesionSmtp.leerLinea(entrada);
+                String comando = linea.length() >= 4 ? linea.substring(0, 4).toUpperCase() : linea.toUpperCase();
+                switch (comando) {
+                    case "EHLO" -> {
+                        if (pipelining) {
+                            responder(salida, "250-PIPELINING");
+                        }
+                        responder(salida, "250-8BITMIME");
+                        responder(salida, "250 localhost");
+                    }
+                    case "HELO", "NOOP" -> responder(salida, "250 OK");
+                    case "MAIL" -> {
+                        responder(salida, transaccion ? "503 Transacción en curso" : "250 OK");
+                        transaccion = true;
+                    }
+                    case "RCPT" -> {
+                        if (!transaccion) {
+                            responder(salida, "503 Falta MAIL");
+                        } else if (linea.toLowerCase().contains("<rechazado")) {
+                            responder(salida, "550 Destinatario desconocido");
+                        } else {
+                            destinatarios++;
+                            responder(salida, "250 OK");
+                        }
+                    }
+                    case "DATA" -> {
+                        if (destinatarios == 0) {
+                            responder(salida, "554 Sin destinatarios válidos");
+                        } else {
+                            responder(salida, "354 Termine con <CRLF>.<CRLF>");
+                            vaciar(salida);
+                            while (!SesionSmtp.leerLinea(entrada).equals(".")) {
+                                // El contenido se descarta
+                            }
+                            mensajes.incrementAndGet();
+                            responder(salida, "250 OK en cola");
+                            transaccion = false;
+                            destinatarios = 0;
+                        }
+                    }
+                    case "RSET" -> {
+                        transaccion = false;
+                        destinatarios = 0;
+                        responder(salida, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        responder(salida, "221 Adiós");
+                        vaciar(salida);
+                        return;
+                    }
+                    default -> responder(salida, "500 Comando no reconocido");
+                }
+                if (entrada.available() == 0) {
+                    vaciar(salida);
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Conexión SMTP simulada cerrada: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            abiertas.remove(socket);
+        }
+    }
+
+    private static void responder(OutputStream salida, String linea) throws IOException {
+        salida.write((linea + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void vaciar(OutputStream salida) throws IOException, InterruptedException {
+        if (latenciaNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(latenciaNanos);
+        }
+        rondas.incrementAndGet();
+        salida.flush();
+    }
+
+    private static void cerrar(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Nada más que hacer
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.banco.notificaciones.smtp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Sesión SMTP sobre un socket que queda abierto entre envíos. Tras el EHLO
+ * recuerda si el servidor anuncia PIPELINING (RFC 2920) y, si es así, manda
+ * MAIL FROM, RCPT TO y DATA de cada mensaje en una sola escritura, junto con el
+ * contenido del mensaje anterior: un mensaje cuesta una ida y vuelta en lugar de
+ * cuatro. Sin PIPELINING cada comando espera su respuesta.
+ *
+ * <p>No es segura entre hilos: la usa un solo hilo a la vez, prestada por {@link PoolSmtp}.
+ */
+final class SesionSmtp implements AutoCloseable {
+
+    /** Mensaje listo para DATA: con CRLF, puntos escapados y el "." final. */
+    record Envio(String destinatario, byte[] contenido) {
+    }
+
+    private final Socket socket;
+    private final InputStream entrada;
+    private final OutputStream salida;
+    private final boolean pipelining;
+    private final boolean ochoBits;
+    private int mensajes;
+    private long ultimoUso;
+
+    private SesionSmtp(Socket socket, boolean pipelining, boolean ochoBits, InputStream entrada,
+                       OutputStream salida) {
+        this.socket = socket;
+        this.pipelining = pipelining;
+        this.ochoBits = ochoBits;
+        this.entrada = entrada;
+        this.salida = salida;
+        this.ultimoUso = System.nanoTime();
+    }
+
+    /**
+     * Conecta, lee el saludo y presenta al cliente con EHLO (HELO si el servidor no lo admite).
+     *
+     * @param usarPipelining false para no agrupar comandos aunque el servidor lo anuncie
+     */
+    static SesionSmtp abrir(InetSocketAddress servidor, String cliente, int timeoutMs,
+                            boolean usarPipelining) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(servidor, timeoutMs);
+            socket.setSoTimeout(timeoutMs);
+            socket.setTcpNoDelay(true);
+            InputStream entrada = new BufferedInputStream(socket.getInputStream());
+            OutputStream salida = new BufferedOutputStream(socket.getOutputStream(), 16 * 1024);
+
+            esperar(leer(entrada), 220, "saludo");
+            escribir(salida, "EHLO " + cliente);
+            salida.flush();
+            Respuesta ehlo = leer(entrada);
+            if (ehlo.codigo() != 250) {
+                escribir(salida, "HELO " + cliente);
+                salida.flush();
+                esperar(leer(entrada), 250, "HELO");
+            }
+            boolean pipelining = usarPipelining && ehlo.anuncia("PIPELINING");
+            return new SesionSmtp(socket, pipelining, ehlo.anuncia("8BITMIME"), entrada, salida);
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Entrega los mensajes en orden. Un mensaje rechazado deja {@code false} en su
+     * posición, se descarta la transacción con RSET y la sesión sigue con el siguiente.
+     *
+     * @param resultados del mismo tamaño que {@code envios}, se llena a medida que responde el servidor
+     * @throws IOException si se pierde la conexión; la sesión ya no sirve
+     */
+    void enviar(String remitente, List<Envio> envios, boolean[] resultados) throws IOException {
+        if (pipelining) {
+            enviarAgrupado(remitente, envios, resultados);
+        } else {
+            for (int i = 0; i < envios.size(); i++) {
+                resultados[i] = enviarPasoAPaso(remitente, envios.get(i));
+            }
+        }
+        mensajes += envios.size();
+        ultimoUso = System.nanoTime();
+    }
+
+    /**
+     * NOOP para comprobar que el servidor no cerró la sesión inactiva.
+     */
+    boolean responde() {
+        try {
+            escribir(salida, "NOOP");
+            salida.flush();
+            return leer(entrada).codigo() == 250;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    int getMensajes() {
+        return mensajes;
+    }
+
+    long getUltimoUso() {
+        return ultimoUso;
+    }
+
+    boolean isPipelining() {
+        return pipelining;
+    }
+
+    /**
+     * QUIT sin esperar la respuesta y cierre del socket.
+     */
+    @Override
+    public void close() {
+        try {
+            if (!socket.isClosed()) {
+                escribir(salida, "QUIT");
+                salida.flush();
+            }
+        } catch (IOException e) {
+            // La sesión se cierra de todos modos
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nada más que hacer
+            }
+        }
+    }
+
+    /**
+     * Las respuestas llegan en el orden de los comandos: las de MAIL, RCPT y DATA
+     * del mensaje i, y tras mandar su contenido (y los comandos del mensaje i+1 en
+     * la misma escritura) la respuesta final del mensaje i.
+     */
+    private void enviarAgrupado(String remitente, List<Envio> envios, boolean[] resultados) throws IOException {
+        if (envios.isEmpty()) {
+            return;
+        }
+        transaccion(remitente, envios.get(0));
+        salida.flush();
+        for (int i = 0; i < envios.size(); i++) {
+            boolean mail = leer(entrada).codigo() == 250;
+            boolean rcpt = leer(entrada).codigo() / 100 == 2;
+            boolean abierta = leer(entrada).codigo() == 354;
+            if (abierta) {
+                salida.write(envios.get(i).contenido());
+            } else {
+                escribir(salida, "RSET");
+            }
+            if (i + 1 < envios.size()) {
+                transaccion(remitente, envios.get(i + 1));
+            }
+            salida.flush();
+            if (abierta) {
+                resultados[i] = mail && rcpt && leer(entrada).codigo() == 250;
+            } else {
+                leer(entrada);
+            }
+        }
+    }
+
+    private boolean enviarPasoAPaso(String remitente, Envio envio) throws IOException {
+        boolean entregado = comando(mailFrom(remitente)) == 250
+                && comando("RCPT TO:<" + envio.destinatario() + ">") / 100 == 2
+                && comando("DATA") == 354;
+        if (!entregado) {
+            comando("RSET");
+            return false;
+        }
+        salida.write(envio.contenido());
+        salida.flush();
+        return leer(entrada).codigo() == 250;
+    }
+
+    private void transaccion(String remitente, Envio envio) throws IOException {
+        escribir(salida, mailFrom(remitente));
+        escribir(salida, "RCPT TO:<" + envio.destinatario() + ">");
+        escribir(salida, "DATA");
+    }
+
+    private String mailFrom(String remitente) {
+        return "MAIL FROM:<" + remitente + ">" + (ochoBits ? " BODY=8BITMIME" : "");
+    }
+
+    private int comando(String linea) throws IOException {
+        escribir(salida, linea);
+        salida.flush();
+        return leer(entrada).codigo();
+    }
+
+    private static void escribir(OutputStream salida, String linea) throws IOException {
+        salida.write(linea.getBytes(StandardCharsets.US_ASCII));
+        salida.write('\r');
+        salida.write('\n');
+    }
+
+    private static void esperar(Respuesta respuesta, int codigo, String paso) throws IOException {
+        if (respuesta.codigo() != codigo) {
+            throw new IOException("Respuesta SMTP inesperada al " + paso + ": " + respuesta.texto());
+        }
+    }
+
+    /**
+     * Lee una respuesta completa, de una o varias líneas ("250-..." hasta "250 ...").
+     */
+    private static Respuesta leer(InputStream entrada) throws IOException {
+        StringBuilder texto = new StringBuilder();
+        while (true) {
+            String linea = leerLinea(entrada);
+            if (linea.length() < 3) {
+                throw new IOException("Respuesta SMTP mal formada: " + linea);
+            }
+            texto.append(linea).append('\n');
+            if (linea.length() == 3 || linea.charAt(3) != '-') {
+                try {
+                    return new Respuesta(Integer.parseInt(linea.substring(0, 3)), texto.toString());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Respuesta SMTP mal formada: " + linea, e);
+                }
+            }
+        }
+    }
+
+    static String leerLinea(InputStream entrada) throws IOException {
+        ByteArrayOutputStream linea = new ByteArrayOutputStream(64);
+        int b;
+        while ((b = entrada.read()) != '\n') {
+            if (b < 0) {
+                throw new EOFException("El servidor SMTP cerró la conexión");
+            }
+            linea.write(b);
+        }
+        int largo = linea.size();
+        byte[] bytes = linea.toByteArray();
+        return new String(bytes, 0, largo > 0 && bytes[largo - 1] == '\r' ? largo - 1 : largo,
+                StandardCharsets.UTF_8);
+    }
+
+    private record Respuesta(int codigo, String texto) {
+
+        boolean anuncia(String extension) {
+            for (String linea : texto.split("\n")) {
+                if (linea.length() > 4 && linea.substring(4).trim().toUpperCase().startsWith(extension)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.banco.notificaciones.smtp;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Transporte SMTP del canal email: un {@link PoolSmtp} hacia el servidor de
+ * {@code notificaciones.smtp.host}. Sin host no hay pool y la estrategia de email
+ * se limita a registrar el envío, como antes.
+ *
+ * <p>Con {@code notificaciones.smtp.simulado.habilitado=true} y sin host se levanta
+ * un {@link ServidorSmtpSimulado} en localhost y el pool apunta a él.
+ */
+@Component
+public class TransporteSmtp {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransporteSmtp.class);
+
+    private final ServidorSmtpSimulado simulado;
+    private final PoolSmtp pool;
+
+    public TransporteSmtp(
+            MeterRegistry registro,
+            @Value("${notificaciones.smtp.host:}") String host,
+            @Value("${notificaciones.smtp.puerto:25}") int puerto,
+            @Value("${notificaciones.smtp.remitente:notificaciones@banco.com}") String remitente,
+            @Value("${notificaciones.smtp.asunto:Notificación del banco}") String asunto,
+            @Value("${notificaciones.smtp.sesiones-maximas:8}") int sesionesMaximas,
+            @Value("${notificaciones.smtp.mensajes-por-sesion:1000}") int mensajesPorSesion,
+            @Value("${notificaciones.smtp.inactividad-maxima-s:30}") long inactividadMaximaS,
+            @Value("${notificaciones.smtp.timeout-ms:10000}") long timeoutMs,
+            @Value("${notificaciones.smtp.pipelining:true}") boolean pipelining,
+            @Value("${notificaciones.smtp.simulado.habilitado:false}") boolean simuladoHabilitado,
+            @Value("${notificaciones.smtp.simulado.puerto:0}") int puertoSimulado,
+            @Value("${notificaciones.smtp.simulado.latencia-ms:5}") long latenciaSimuladaMs) {
+        this.simulado = simuladoHabilitado && host.isBlank()
+                ? new ServidorSmtpSimulado(puertoSimulado, Duration.ofMillis(latenciaSimuladaMs), true)
+                : null;
+        InetSocketAddress servidor = simulado != null ? simulado.getDireccion()
+                : host.isBlank() ? null : new InetSocketAddress(host, puerto);
+        if (servidor == null) {
+            this.pool = null;
+            return;
+        }
+        this.pool = new PoolSmtp(servidor, remitente, asunto, sesionesMaximas, mensajesPorSesion,
+                Duration.ofSeconds(inactividadMaximaS), Duration.ofMillis(timeoutMs), pipelining, registro);
+        logger.info("Transporte SMTP hacia {} (máximo {} sesiones, {} mensajes por sesión, pipelining {})",
+                servidor, sesionesMaximas, mensajesPorSesion, pipelining);
+    }
+
+    /**
+     * Pool de sesiones SMTP, si hay servidor configurado.
+     */
+    public Optional<PoolSmtp> pool() {
+        return Optional.ofNullable(pool);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (pool != null) {
+            pool.close();
+        }
+        if (simulado != null) {
+            simulado.close();
+        }
+    }
+}
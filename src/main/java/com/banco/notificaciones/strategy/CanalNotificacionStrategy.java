@@ -2,8 +2,12 @@ package com.banco.notificaciones.strategy;
 
 import com.banco.notificaciones.model.Notificacion;
 import com.banco.notificaciones.model.enums.CanalNotificacion;
+import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Patrón Strategy para canales de notificación.
@@ -13,6 +17,82 @@ public interface CanalNotificacionStrategy {
     
     boolean enviar(Notificacion notificacion);
     
+    /**
+     * Envía sin bloquear el hilo que llama: el futuro se completa cuando responde
+     * el proveedor. La implementación por defecto envía en el hilo actual, válida
+     * mientras {@link #enviar} no haga E/S bloqueante.
+     */
+    default CompletableFuture<Boolean> enviarAsincrono(Notificacion notificacion) {
+        try {
+            return CompletableFuture.completedFuture(enviar(notificacion));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * Como {@link #enviarAsincrono(Notificacion)}, pero avisa a {@code alLlamarProveedor}
+     * en el momento en que el envío sale hacia el proveedor. Si se cancela mientras
+     * espera turno o lo rechaza el circuito, el aviso no llega: sirve para cobrar
+     * solo lo que el proveedor recibió.
+     */
+    default CompletableFuture<Boolean> enviarAsincrono(Notificacion notificacion, Runnable alLlamarProveedor) {
+        alLlamarProveedor.run();
+        return enviarAsincrono(notificacion);
+    }
+    
+    /**
+     * Indica si el destinatario tiene el formato que exige el canal.
+     * Se consulta al crear la notificación y otra vez al enviarla.
+     */
+    boolean esDestinatarioValido(String destinatario);
+    
+    /**
+     * Envía un lote de notificaciones del canal: valida cada destinatario y pasa
+     * solo los válidos a {@link #entregarLote}; los inválidos quedan fallidos sin
+     * llegar al proveedor.
+     *
+     * @return el resultado de cada notificación, en el mismo orden del lote
+     */
+    default List<Boolean> enviarLote(List<Notificacion> notificaciones) {
+        List<Boolean> resultados = new ArrayList<>(notificaciones.size());
+        List<Notificacion> validas = new ArrayList<>(notificaciones.size());
+        for (Notificacion notificacion : notificaciones) {
+            boolean valida = esDestinatarioValido(notificacion.getDestinatario());
+            if (valida) {
+                validas.add(notificacion);
+            } else {
+                LoggerFactory.getLogger(getClass()).error("Destinatario de {} inválido en la notificación {}",
+                        getNombreCanal(), notificacion.getId());
+            }
+            resultados.add(valida);
+        }
+        
+        if (!validas.isEmpty()) {
+            List<Boolean> entregadas = entregarLote(validas);
+            for (int i = 0, j = 0; i < resultados.size(); i++) {
+                if (resultados.get(i)) {
+                    resultados.set(i, entregadas.get(j++));
+                }
+            }
+        }
+        return resultados;
+    }
+    
+    /**
+     * Entrega al proveedor un lote ya validado por {@link #enviarLote}. La
+     * implementación por defecto envía una a una con {@link #enviar}.
+     *
+     * @return el resultado de cada notificación, en el mismo orden del lote
+     */
+    default List<Boolean> entregarLote(List<Notificacion> validas) {
+        List<Boolean> resultados = new ArrayList<>(validas.size());
+        for (Notificacion notificacion : validas) {
+            resultados.add(enviar(notificacion));
+        }
+        return resultados;
+    }
+    
     BigDecimal calcularCosto();
     
     CanalNotificacion getNombreCanal();
@@ -2,13 +2,24 @@ package com.banco.notificaciones.strategy;
 
 import com.banco.notificaciones.model.Notificacion;
 import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.smtp.PoolSmtp;
+import com.banco.notificaciones.smtp.TransporteSmtp;
+import com.banco.notificaciones.validacion.ValidadoresDestinatario;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Con servidor SMTP configurado ({@link TransporteSmtp}) los envíos salen por el
+ * pool de sesiones SMTP; sin él el envío solo se registra.
+ */
 @Component
 public class EmailNotificationStrategy implements CanalNotificacionStrategy {
     
@@ -17,18 +28,60 @@ public class EmailNotificationStrategy implements CanalNotificacionStrategy {
     @Value("${notificaciones.canal.email.costo}")
     private BigDecimal costo;
     
+    private final PoolSmtp smtp;
+    
+    public EmailNotificationStrategy() {
+        this.smtp = null;
+    }
+    
+    @Autowired
+    public EmailNotificationStrategy(TransporteSmtp transporte) {
+        this.smtp = transporte.pool().orElse(null);
+    }
+    
     @Override
     public boolean enviar(Notificacion notificacion) {
-        if (!validarEmail(notificacion.getDestinatario())) {
-            logger.error("Email inválido: {}", notificacion.getDestinatario());
+        if (!esDestinatarioValido(notificacion.getDestinatario())) {
+            logger.error("Email inválido en la notificación {}", notificacion.getId());
             return false;
         }
         
-        logger.info("Enviando email a: {} con mensaje: {}", 
-                   notificacion.getDestinatario(), 
-                   notificacion.getMensaje());
+        logger.debug("Enviando email de la notificación {}", notificacion.getId());
+        
+        return smtp == null || smtp.enviar(notificacion);
+    }
+    
+    /**
+     * Con SMTP la sesión bloquea, así que el envío pasa a los hilos del pool.
+     */
+    @Override
+    public CompletableFuture<Boolean> enviarAsincrono(Notificacion notificacion) {
+        if (smtp == null || !esDestinatarioValido(notificacion.getDestinatario())) {
+            return CanalNotificacionStrategy.super.enviarAsincrono(notificacion);
+        }
+        
+        logger.debug("Enviando email de la notificación {}", notificacion.getId());
         
-        return true;
+        return smtp.enviarAsincrono(notificacion);
+    }
+    
+    /**
+     * Con SMTP el lote viaja por una sola sesión del pool, un mensaje tras otro
+     * (otra sesión si se llega al máximo de mensajes por sesión).
+     */
+    @Override
+    public List<Boolean> entregarLote(List<Notificacion> validas) {
+        logger.debug("Enviando lote de {} emails", validas.size());
+        
+        if (smtp == null) {
+            return Collections.nCopies(validas.size(), true);
+        }
+        return smtp.enviarLote(validas);
+    }
+    
+    @Override
+    public boolean esDestinatarioValido(String destinatario) {
+        return ValidadoresDestinatario.esEmailValido(destinatario);
     }
     
     @Override
@@ -40,8 +93,4 @@ public class EmailNotificationStrategy implements CanalNotificacionStrategy {
     public CanalNotificacion getNombreCanal() {
         return CanalNotificacion.EMAIL;
     }
-    
-    private boolean validarEmail(String email) {
-        return email != null && email.contains("@");
-    }
 }
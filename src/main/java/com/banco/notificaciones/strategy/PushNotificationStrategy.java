@@ -2,34 +2,87 @@ package com.banco.notificaciones.strategy;
 
 import com.banco.notificaciones.model.Notificacion;
 import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.pasarela.ClientePasarela;
+import com.banco.notificaciones.pasarela.PasarelasHttp;
+import com.banco.notificaciones.validacion.ValidadoresDestinatario;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Con la pasarela HTTP del canal configurada ({@link PasarelasHttp}) cada envío es
+ * una solicitud no bloqueante a la pasarela; sin ella el envío solo se registra.
+ */
 @Component
 public class PushNotificationStrategy implements CanalNotificacionStrategy {
     
     private static final Logger logger = LoggerFactory.getLogger(PushNotificationStrategy.class);
-    private static final String PREFIJO_DEVICE = "device_";
     
     @Value("${notificaciones.canal.push.costo}")
     private BigDecimal costo;
     
+    private final ClientePasarela pasarela;
+    
+    public PushNotificationStrategy() {
+        this.pasarela = null;
+    }
+    
+    @Autowired
+    public PushNotificationStrategy(PasarelasHttp pasarelas) {
+        this.pasarela = pasarelas.cliente(CanalNotificacion.PUSH).orElse(null);
+    }
+    
     @Override
     public boolean enviar(Notificacion notificacion) {
-        if (!validarDeviceId(notificacion.getDestinatario())) {
-            logger.error("Device ID inválido: {}", notificacion.getDestinatario());
-            return false;
+        return enviarAsincrono(notificacion).join();
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> enviarAsincrono(Notificacion notificacion) {
+        if (!esDestinatarioValido(notificacion.getDestinatario())) {
+            logger.error("Device ID inválido en la notificación {}", notificacion.getId());
+            return CompletableFuture.completedFuture(false);
         }
         
-        logger.info("Enviando notificación Push a: {} con mensaje: {}", 
-                   notificacion.getDestinatario(), 
-                   notificacion.getMensaje());
+        logger.debug("Enviando notificación Push de la notificación {}", notificacion.getId());
+        
+        return pasarela != null ? pasarela.enviar(notificacion) : CompletableFuture.completedFuture(true);
+    }
+    
+    /**
+     * La pasarela HTTP no tiene envío por lotes: cada notificación es una solicitud
+     * propia. Salen todas a la vez, hasta el máximo en vuelo de la pasarela, y se
+     * espera a que respondan todas.
+     */
+    @Override
+    public List<Boolean> entregarLote(List<Notificacion> validas) {
+        logger.debug("Enviando lote de {} notificaciones Push", validas.size());
         
-        return true;
+        if (pasarela == null) {
+            return Collections.nCopies(validas.size(), true);
+        }
+        List<CompletableFuture<Boolean>> envios = new ArrayList<>(validas.size());
+        for (Notificacion notificacion : validas) {
+            envios.add(pasarela.enviar(notificacion));
+        }
+        List<Boolean> resultados = new ArrayList<>(envios.size());
+        for (CompletableFuture<Boolean> envio : envios) {
+            resultados.add(envio.join());
+        }
+        return resultados;
+    }
+    
+    @Override
+    public boolean esDestinatarioValido(String destinatario) {
+        return ValidadoresDestinatario.esDispositivoValido(destinatario);
     }
     
     @Override
@@ -41,8 +94,4 @@ public class PushNotificationStrategy implements CanalNotificacionStrategy {
     public CanalNotificacion getNombreCanal() {
         return CanalNotificacion.PUSH;
     }
-    
-    private boolean validarDeviceId(String deviceId) {
-        return deviceId != null && deviceId.startsWith(PREFIJO_DEVICE);
-    }
 }
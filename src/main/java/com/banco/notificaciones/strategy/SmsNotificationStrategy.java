@@ -2,13 +2,25 @@ package com.banco.notificaciones.strategy;
 
 import com.banco.notificaciones.model.Notificacion;
 import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.pasarela.ClientePasarela;
+import com.banco.notificaciones.pasarela.PasarelasHttp;
+import com.banco.notificaciones.validacion.ValidadoresDestinatario;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Con la pasarela HTTP del canal configurada ({@link PasarelasHttp}) cada envío es
+ * una solicitud no bloqueante a la pasarela; sin ella el envío solo se registra.
+ */
 @Component
 public class SmsNotificationStrategy implements CanalNotificacionStrategy {
     
@@ -17,18 +29,60 @@ public class SmsNotificationStrategy implements CanalNotificacionStrategy {
     @Value("${notificaciones.canal.sms.costo}")
     private BigDecimal costo;
     
+    private final ClientePasarela pasarela;
+    
+    public SmsNotificationStrategy() {
+        this.pasarela = null;
+    }
+    
+    @Autowired
+    public SmsNotificationStrategy(PasarelasHttp pasarelas) {
+        this.pasarela = pasarelas.cliente(CanalNotificacion.SMS).orElse(null);
+    }
+    
     @Override
     public boolean enviar(Notificacion notificacion) {
-        if (!validarTelefono(notificacion.getDestinatario())) {
-            logger.error("Número de teléfono inválido: {}", notificacion.getDestinatario());
-            return false;
+        return enviarAsincrono(notificacion).join();
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> enviarAsincrono(Notificacion notificacion) {
+        if (!esDestinatarioValido(notificacion.getDestinatario())) {
+            logger.error("Número de teléfono inválido en la notificación {}", notificacion.getId());
+            return CompletableFuture.completedFuture(false);
         }
         
-        logger.info("Enviando SMS a: {} con mensaje: {}", 
-                   notificacion.getDestinatario(), 
-                   notificacion.getMensaje());
+        logger.debug("Enviando SMS de la notificación {}", notificacion.getId());
         
-        return true;
+        return pasarela != null ? pasarela.enviar(notificacion) : CompletableFuture.completedFuture(true);
+    }
+    
+    /**
+     * La pasarela HTTP no tiene envío por lotes: cada notificación es una solicitud
+     * propia. Salen todas a la vez, hasta el máximo en vuelo de la pasarela, y se
+     * espera a que respondan todas.
+     */
+    @Override
+    public List<Boolean> entregarLote(List<Notificacion> validas) {
+        logger.debug("Enviando lote de {} SMS", validas.size());
+        
+        if (pasarela == null) {
+            return Collections.nCopies(validas.size(), true);
+        }
+        List<CompletableFuture<Boolean>> envios = new ArrayList<>(validas.size());
+        for (Notificacion notificacion : validas) {
+            envios.add(pasarela.enviar(notificacion));
+        }
+        List<Boolean> resultados = new ArrayList<>(envios.size());
+        for (CompletableFuture<Boolean> envio : envios) {
+            resultados.add(envio.join());
+        }
+        return resultados;
+    }
+    
+    @Override
+    public boolean esDestinatarioValido(String destinatario) {
+        return ValidadoresDestinatario.esTelefonoValido(destinatario);
     }
     
     @Override
@@ -40,11 +94,4 @@ public class SmsNotificationStrategy implements CanalNotificacionStrategy {
     public CanalNotificacion getNombreCanal() {
         return CanalNotificacion.SMS;
     }
-    
-    private boolean validarTelefono(String telefono) {
-        if (telefono == null) {
-            return false;
-        }
-        return telefono.matches("\\d{10}");
-    }
 }
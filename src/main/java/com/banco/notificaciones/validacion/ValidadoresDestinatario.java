@@ -0,0 +1,145 @@
+package com.banco.notificaciones.validacion;
+
+/**
+ * Validadores de destinatario por canal.
+ *
+ * <p>Se recorren los caracteres una sola vez, sin expresiones regulares ni
+ * objetos intermedios, porque se ejecutan al crear cada notificación y de
+ * nuevo al enviarla. Aceptan {@link CharSequence} para poder validar
+ * fragmentos de un búfer sin copiarlos.
+ */
+public final class ValidadoresDestinatario {
+
+    public static final int LONGITUD_TELEFONO = 10;
+    public static final String PREFIJO_DISPOSITIVO = "device_";
+
+    private static final int MAX_EMAIL = 254;
+    private static final int MAX_LOCAL = 64;
+    private static final int MAX_ETIQUETA = 63;
+    private static final int MAX_DISPOSITIVO = 256;
+
+    /** Caracteres ASCII permitidos en la parte local (dot-atom, RFC 5322) sin contar el punto. */
+    private static final boolean[] LOCAL = new boolean[128];
+    /** Caracteres ASCII permitidos en un token de dispositivo tras el prefijo. */
+    private static final boolean[] DISPOSITIVO = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            LOCAL[c] = true;
+            LOCAL[c - 'a' + 'A'] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            LOCAL[c] = true;
+        }
+        System.arraycopy(LOCAL, 0, DISPOSITIVO, 0, LOCAL.length);
+        for (char c : "!#$%&'*+/=?^_`{|}~-".toCharArray()) {
+            LOCAL[c] = true;
+        }
+        for (char c : "-_:.".toCharArray()) {
+            DISPOSITIVO[c] = true;
+        }
+    }
+
+    private ValidadoresDestinatario() {
+    }
+
+    /**
+     * Dirección {@code local@dominio}: parte local dot-atom de hasta 64 caracteres
+     * y dominio con al menos dos etiquetas alfanuméricas (se admite el guion
+     * interior), 254 caracteres en total.
+     */
+    public static boolean esEmailValido(CharSequence email) {
+        if (email == null) {
+            return false;
+        }
+        int longitud = email.length();
+        if (longitud < 3 || longitud > MAX_EMAIL) {
+            return false;
+        }
+
+        int i = 0;
+        char anterior = '.';
+        for (; i < longitud; i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                break;
+            }
+            if (c == '.') {
+                if (anterior == '.') {
+                    return false;
+                }
+            } else if (c >= 128 || !LOCAL[c]) {
+                return false;
+            }
+            anterior = c;
+        }
+        if (i == 0 || i > MAX_LOCAL || i == longitud || anterior == '.') {
+            return false;
+        }
+
+        int etiquetas = 0;
+        int inicioEtiqueta = i + 1;
+        for (int j = inicioEtiqueta; j <= longitud; j++) {
+            char c = j < longitud ? email.charAt(j) : '.';
+            if (c == '.') {
+                int largo = j - inicioEtiqueta;
+                if (largo == 0 || largo > MAX_ETIQUETA
+                        || email.charAt(inicioEtiqueta) == '-' || email.charAt(j - 1) == '-') {
+                    return false;
+                }
+                etiquetas++;
+                inicioEtiqueta = j + 1;
+            } else if (!esAlfanumerico(c) && c != '-') {
+                return false;
+            }
+        }
+        return etiquetas >= 2;
+    }
+
+    /**
+     * Teléfono nacional de exactamente diez dígitos ASCII.
+     */
+    public static boolean esTelefonoValido(CharSequence telefono) {
+        if (telefono == null || telefono.length() != LONGITUD_TELEFONO) {
+            return false;
+        }
+        for (int i = 0; i < LONGITUD_TELEFONO; i++) {
+            char c = telefono.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Token de dispositivo con el prefijo {@value #PREFIJO_DISPOSITIVO} seguido
+     * de al menos un carácter alfanumérico, {@code - _ : .}; 256 caracteres en total.
+     */
+    public static boolean esDispositivoValido(CharSequence dispositivo) {
+        if (dispositivo == null) {
+            return false;
+        }
+        int longitud = dispositivo.length();
+        int prefijo = PREFIJO_DISPOSITIVO.length();
+        if (longitud <= prefijo || longitud > MAX_DISPOSITIVO) {
+            return false;
+        }
+        for (int i = 0; i < prefijo; i++) {
+            if (dispositivo.charAt(i) != PREFIJO_DISPOSITIVO.charAt(i)) {
+                return false;
+            }
+        }
+        for (int i = prefijo; i < longitud; i++) {
+            char c = dispositivo.charAt(i);
+            if (c >= 128 || !DISPOSITIVO[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean esAlfanumerico(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+}
@@ -0,0 +1,126 @@
+package com.banco.notificaciones.auditoria;
+
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la auditoría de envíos: muestreo, enmascarado, rotación y
+ * comportamiento con el buffer lleno.
+ */
+@DisplayName("Tests de AuditoriaEnvios")
+class AuditoriaEnviosTest {
+
+    @TempDir
+    Path directorio;
+
+    private final List<AuditoriaEnvios> abiertas = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        abiertas.forEach(AuditoriaEnvios::detener);
+    }
+
+    @Test
+    @DisplayName("Registrar - Escribe todos los fallos, ningún éxito con muestreo 0 y enmascara destinatarios")
+    void testFallosCompletosYEnmascarado() throws IOException {
+        // Given
+        AuditoriaEnvios auditoria = crear(0.0, 64, 64);
+
+        // When
+        auditoria.registrar("id-1", CanalNotificacion.EMAIL, "usuario@banco.com", false, 1_500_000, new BigDecimal("0.10"));
+        auditoria.registrar("id-2", CanalNotificacion.EMAIL, "otro@banco.com", true, 1_000, new BigDecimal("0.10"));
+        auditoria.registrar("id-3", CanalNotificacion.SMS, "5512345678", false, 2_000, null);
+        auditoria.registrar("id-4", CanalNotificacion.PUSH, "device_abc123xyz", false, 3_000, null);
+        auditoria.registrar("id-5", CanalNotificacion.SMS, "55\"ñ", false, 3_000, null);
+        auditoria.detener();
+
+        // Then
+        List<String> lineas = leerLineas();
+        assertEquals(4, lineas.size());
+        assertTrue(lineas.get(0).startsWith("{\"instante\":"));
+        assertTrue(lineas.get(0).endsWith(",\"id\":\"id-1\",\"canal\":\"EMAIL\",\"resultado\":\"FALLIDO\","
+                + "\"destinatario\":\"u***@banco.com\",\"duracionUs\":1500,\"costo\":0.10}"));
+        assertTrue(lineas.get(1).contains("\"destinatario\":\"***5678\""));
+        assertTrue(lineas.get(2).contains("\"destinatario\":\"device_***3xyz\""));
+        assertTrue(lineas.get(3).contains("\"destinatario\":\"***\""));
+        assertTrue(lineas.stream().noneMatch(linea -> linea.contains("usuario") || linea.contains("5512")));
+    }
+
+    @Test
+    @DisplayName("Registrar - Con muestreo 1 registra todos los éxitos y rota por tamaño conservando los últimos archivos")
+    void testMuestreoCompletoYRotacion() throws IOException {
+        // Given
+        AuditoriaEnvios auditoria = new AuditoriaEnvios(true, directorio.toString(), 32_768, 1.0, 1, 2);
+        abiertas.add(auditoria);
+        auditoria.iniciar();
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            auditoria.registrar("id-" + i, CanalNotificacion.SMS, "5512345678", true, 1_000, null);
+        }
+        auditoria.detener();
+
+        // Then
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            assertEquals(2, archivos.count());
+        }
+        List<String> lineas = leerLineas();
+        assertEquals(0, auditoria.getDescartados());
+        assertTrue(lineas.size() < 20_000);
+        int primero = 20_000 - lineas.size();
+        for (int i = 0; i < lineas.size(); i++) {
+            assertTrue(lineas.get(i).contains("\"id\":\"id-" + (primero + i) + "\""), lineas.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Registrar - Con el buffer lleno descarta sin bloquear y cuenta los descartes")
+    void testDescartaConBufferLleno() throws IOException {
+        // Given
+        AuditoriaEnvios auditoria = crear(1.0, 2, 64);
+
+        // When
+        for (int i = 0; i < 200_000; i++) {
+            auditoria.registrar("id-" + i, CanalNotificacion.SMS, "5512345678", true, 1_000, null);
+        }
+        auditoria.detener();
+
+        // Then
+        assertTrue(auditoria.getDescartados() > 0);
+        assertEquals(200_000, leerLineas().size() + auditoria.getDescartados());
+    }
+
+    private AuditoriaEnvios crear(double muestreo, int capacidad, long tamanoMb) {
+        AuditoriaEnvios auditoria = new AuditoriaEnvios(true, directorio.toString(), capacidad, muestreo, tamanoMb, 10);
+        abiertas.add(auditoria);
+        try {
+            auditoria.iniciar();
+        } catch (IOException e) {
+            fail(e);
+        }
+        return auditoria;
+    }
+
+    private List<String> leerLineas() throws IOException {
+        List<String> lineas = new ArrayList<>();
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            for (Path archivo : archivos.sorted().toList()) {
+                lineas.addAll(Files.readAllLines(archivo));
+            }
+        }
+        return lineas;
+    }
+}
@@ -0,0 +1,213 @@
+package com.banco.notificaciones.circuito;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.EstadoCircuito;
+import com.banco.notificaciones.strategy.CanalNotificacionStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del circuit breaker por canal con reloj controlado: apertura por fallos
+ * y por lentitud, sondeo en semiabierto y rechazo sin llamar al proveedor.
+ */
+@DisplayName("Tests de CircuitoCanal")
+class CircuitoCanalTest {
+
+    private static final long ESPERA = TimeUnit.SECONDS.toNanos(30);
+    private static final long LENTA = TimeUnit.SECONDS.toNanos(2);
+
+    private final AtomicLong reloj = new AtomicLong(1_000_000_000L);
+    private final List<EstadoCircuito> transiciones = new ArrayList<>();
+
+    private CircuitoCanal circuito() {
+        return new CircuitoCanal("SMS", 10, 5, 50, 80, LENTA, ESPERA, 2, reloj::get, transiciones::add);
+    }
+
+    private static void llamar(CircuitoCanal circuito, boolean exitoso, long duracion) {
+        CircuitoCanal.Fase fase = circuito.permitir();
+        assertNotNull(fase);
+        circuito.registrar(fase, exitoso, duracion);
+    }
+
+    @Test
+    @DisplayName("Cerrado - Abre al alcanzar el umbral de fallos, pero no antes del mínimo de llamadas")
+    void testAbrePorFallos() {
+        // Given
+        CircuitoCanal circuito = circuito();
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            llamar(circuito, false, 0);
+        }
+        EstadoCircuito antesDelMinimo = circuito.getEstado();
+        llamar(circuito, false, 0);
+
+        // Then
+        assertEquals(EstadoCircuito.CERRADO, antesDelMinimo);
+        assertEquals(EstadoCircuito.ABIERTO, circuito.getEstado());
+        assertNull(circuito.permitir());
+        assertEquals(List.of(EstadoCircuito.ABIERTO), transiciones);
+    }
+
+    @Test
+    @DisplayName("Cerrado - Las llamadas antiguas salen de la ventana y las lentas también abren")
+    void testVentanaYLlamadasLentas() {
+        // Given
+        CircuitoCanal circuito = circuito();
+        for (int i = 0; i < 6; i++) {
+            llamar(circuito, true, 0);
+        }
+        for (int i = 0; i < 4; i++) {
+            llamar(circuito, false, 0);
+        }
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            llamar(circuito, true, 0);
+        }
+        for (int i = 0; i < 4; i++) {
+            llamar(circuito, false, 0);
+        }
+        EstadoCircuito conFallosRecientes = circuito.getEstado();
+        for (int i = 0; i < 8; i++) {
+            llamar(circuito, true, LENTA);
+        }
+
+        // Then
+        assertEquals(EstadoCircuito.CERRADO, conFallosRecientes);
+        assertEquals(EstadoCircuito.ABIERTO, circuito.getEstado());
+    }
+
+    @Test
+    @DisplayName("Semiabierto - Tras la espera deja pasar solo los sondeos y se cierra si salen bien")
+    void testSondeoCierra() {
+        // Given
+        CircuitoCanal circuito = circuito();
+        for (int i = 0; i < 5; i++) {
+            llamar(circuito, false, 0);
+        }
+
+        // When
+        reloj.addAndGet(ESPERA);
+        CircuitoCanal.Fase primero = circuito.permitir();
+        CircuitoCanal.Fase segundo = circuito.permitir();
+        CircuitoCanal.Fase excedente = circuito.permitir();
+        circuito.registrar(primero, true, 0);
+        circuito.registrar(segundo, true, 0);
+
+        // Then
+        assertNotNull(primero);
+        assertNotNull(segundo);
+        assertNull(excedente);
+        assertEquals(EstadoCircuito.CERRADO, circuito.getEstado());
+        assertEquals(List.of(EstadoCircuito.ABIERTO, EstadoCircuito.SEMIABIERTO, EstadoCircuito.CERRADO),
+                transiciones);
+        // Un resultado de una fase anterior no afecta a la nueva ventana
+        circuito.registrar(primero, false, 0);
+        for (int i = 0; i < 4; i++) {
+            llamar(circuito, false, 0);
+        }
+        assertEquals(EstadoCircuito.CERRADO, circuito.getEstado());
+    }
+
+    @Test
+    @DisplayName("Semiabierto - Un sondeo lento reabre el circuito y reinicia la espera")
+    void testSondeoLentoReabre() {
+        // Given
+        CircuitoCanal circuito = circuito();
+        for (int i = 0; i < 5; i++) {
+            llamar(circuito, false, 0);
+        }
+        reloj.addAndGet(ESPERA);
+
+        // When
+        llamar(circuito, true, LENTA);
+
+        // Then
+        assertEquals(EstadoCircuito.ABIERTO, circuito.getEstado());
+        assertNull(circuito.permitir());
+        reloj.addAndGet(ESPERA);
+        assertNotNull(circuito.permitir());
+        assertEquals(EstadoCircuito.SEMIABIERTO, circuito.getEstado());
+    }
+
+    @Test
+    @DisplayName("Estrategia protegida - Con el circuito abierto rechaza sin llamar al proveedor e informa la espera")
+    void testEstrategiaRechazaSinLlamar() {
+        // Given
+        CanalNotificacionStrategy proveedor = mock(CanalNotificacionStrategy.class);
+        when(proveedor.esDestinatarioValido(any())).thenReturn(true);
+        when(proveedor.enviar(any())).thenReturn(false);
+        when(proveedor.getNombreCanal()).thenReturn(CanalNotificacion.SMS);
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        CircuitoCanal circuito = circuito();
+        CanalNotificacionStrategy protegida = new EstrategiaProtegida(proveedor, circuito,
+                registro.counter("rechazadas"));
+        Notificacion notificacion = Notificacion.builder().id("id-1").canal(CanalNotificacion.SMS).build();
+        for (int i = 0; i < 5; i++) {
+            protegida.enviar(notificacion);
+        }
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        // When
+        CircuitoAbiertoException rechazo = assertThrows(CircuitoAbiertoException.class,
+                () -> protegida.enviar(notificacion));
+
+        // Then
+        verify(proveedor, times(5)).enviar(notificacion);
+        assertEquals(CanalNotificacion.SMS, rechazo.getCanal());
+        assertEquals(20, rechazo.getEspera().toSeconds());
+        CompletionException asincrono = assertThrows(CompletionException.class,
+                () -> protegida.enviarAsincrono(notificacion).join());
+        assertInstanceOf(CircuitoAbiertoException.class, asincrono.getCause());
+        assertThrows(CircuitoAbiertoException.class,
+                () -> protegida.enviarLote(List.of(notificacion, notificacion)));
+        assertEquals(4, registro.counter("rechazadas").count());
+        verify(proveedor, never()).enviarAsincrono(any());
+        verify(proveedor, never()).enviarLote(any());
+    }
+
+    @Test
+    @DisplayName("Estrategia protegida - Los destinatarios inválidos no cuentan como fallos del proveedor")
+    void testDestinatarioInvalidoNoAbre() {
+        // Given
+        CanalNotificacionStrategy proveedor = mock(CanalNotificacionStrategy.class);
+        when(proveedor.esDestinatarioValido("5512345678")).thenReturn(true);
+        when(proveedor.enviar(any())).thenReturn(false);
+        when(proveedor.enviarLote(any())).thenReturn(List.of(false, true));
+        CircuitoCanal circuito = circuito();
+        CanalNotificacionStrategy protegida = new EstrategiaProtegida(proveedor, circuito,
+                new SimpleMeterRegistry().counter("rechazadas"));
+        Notificacion invalida = Notificacion.builder().id("id-1").destinatario("abc").canal(CanalNotificacion.SMS).build();
+        Notificacion valida = Notificacion.builder().id("id-2").destinatario("5512345678").canal(CanalNotificacion.SMS).build();
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            assertFalse(protegida.enviar(invalida));
+        }
+        for (int i = 0; i < 4; i++) {
+            protegida.enviarLote(List.of(invalida, valida));
+        }
+        for (int i = 0; i < 3; i++) {
+            protegida.enviarLote(List.of(valida, invalida));
+        }
+
+        // Then
+        verify(proveedor, times(20)).enviar(invalida);
+        assertEquals(EstadoCircuito.CERRADO, circuito.getEstado());
+        protegida.enviar(valida);
+        assertEquals(EstadoCircuito.ABIERTO, circuito.getEstado());
+    }
+}
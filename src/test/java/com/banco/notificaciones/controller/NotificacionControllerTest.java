@@ -0,0 +1,56 @@
+package com.banco.notificaciones.controller;
+
+import com.banco.notificaciones.dto.NotificacionResponse;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.service.NotificacionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del controlador invocado directamente, sin levantar el contexto de Spring.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de NotificacionController")
+class NotificacionControllerTest {
+
+    @Mock
+    private NotificacionService notificacionService;
+
+    @Test
+    @DisplayName("Stream - Cada línea NDJSON es un objeto sin separador delante")
+    void testStreamNdjsonSinSeparador() throws Exception {
+        // Given
+        NotificacionController controller = new NotificacionController(notificacionService, null, null,
+                new ObjectMapper(), null, null, null);
+        when(notificacionService.recorrerPorEstado(Estado.ENVIADA)).thenReturn(Stream.of(
+                NotificacionResponse.builder().id("id-1").build(),
+                NotificacionResponse.builder().id("id-2").build(),
+                NotificacionResponse.builder().id("id-3").build()));
+
+        // When
+        ResponseEntity<StreamingResponseBody> respuesta = controller.recorrerPorEstado(Estado.ENVIADA);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        respuesta.getBody().writeTo(salida);
+
+        // Then
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(4, lineas.length);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(lineas[i].startsWith("{\"id\":\"id-" + (i + 1) + "\""), lineas[i]);
+        }
+        assertEquals("", lineas[3]);
+    }
+}
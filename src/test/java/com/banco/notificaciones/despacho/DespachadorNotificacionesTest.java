@@ -0,0 +1,135 @@
+package com.banco.notificaciones.despacho;
+
+import com.banco.notificaciones.dto.EstadisticasDespachoResponse;
+import com.banco.notificaciones.exception.ColaLlenaException;
+import com.banco.notificaciones.model.enums.Prioridad;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la cola de despacho por prioridad.
+ */
+@DisplayName("Tests de DespachadorNotificaciones")
+class DespachadorNotificacionesTest {
+
+    private DespachadorNotificaciones despachador;
+
+    @AfterEach
+    void tearDown() {
+        if (despachador != null) {
+            despachador.detener();
+        }
+    }
+
+    @Test
+    @DisplayName("Prioridad - ALTA adelanta a MEDIA y BAJA encoladas antes")
+    void testAltaAdelantaABaja() throws Exception {
+        // Given: un único worker ocupado con una tarea bloqueante
+        despachador = new DespachadorNotificaciones(true, 100, 1, 0, 60_000, 60_000);
+        despachador.iniciar();
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(4);
+        List<String> orden = new CopyOnWriteArrayList<>();
+        despachador.encolar("bloqueo", Prioridad.ALTA, () -> {
+            esperar(bloqueo);
+            fin.countDown();
+        });
+        esperarCola(0);
+
+        // When
+        despachador.encolar("baja", Prioridad.BAJA, registrar(orden, "baja", fin));
+        despachador.encolar("media", Prioridad.MEDIA, registrar(orden, "media", fin));
+        despachador.encolar("alta", Prioridad.ALTA, registrar(orden, "alta", fin));
+        bloqueo.countDown();
+
+        // Then
+        assertTrue(fin.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("alta", "media", "baja"), orden);
+        esperarProcesadas(4);
+        EstadisticasDespachoResponse estadisticas = despachador.estadisticas();
+        assertEquals(2L, estadisticas.getProcesadasPorPrioridad().get(Prioridad.ALTA));
+        assertEquals(1L, estadisticas.getProcesadasPorPrioridad().get(Prioridad.BAJA));
+        assertTrue(estadisticas.getEsperaMaximaMs().get(Prioridad.BAJA) > 0.0);
+    }
+
+    @Test
+    @DisplayName("Espera máxima - Una BAJA vencida se atiende antes que una ALTA reciente")
+    void testBajaVencidaSeAtiendePrimero() throws Exception {
+        // Given: BAJA sin tolerancia de espera
+        despachador = new DespachadorNotificaciones(true, 100, 1, 0, 60_000, 0);
+        despachador.iniciar();
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(2);
+        List<String> orden = new CopyOnWriteArrayList<>();
+        despachador.encolar("bloqueo", Prioridad.ALTA, () -> esperar(bloqueo));
+        esperarCola(0);
+
+        // When
+        despachador.encolar("baja", Prioridad.BAJA, registrar(orden, "baja", fin));
+        Thread.sleep(5);
+        despachador.encolar("alta", Prioridad.ALTA, registrar(orden, "alta", fin));
+        bloqueo.countDown();
+
+        // Then
+        assertTrue(fin.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("baja", "alta"), orden);
+    }
+
+    @Test
+    @DisplayName("Capacidad - Rechaza cuando la cola está llena y deduplica IDs en curso")
+    void testColaLlena() {
+        // Given: capacidad 1 y sin workers arrancados
+        despachador = new DespachadorNotificaciones(true, 1, 1, 0, 0, 0);
+
+        // When & Then
+        assertTrue(despachador.encolar("id-1", Prioridad.BAJA, () -> { }));
+        assertFalse(despachador.encolar("id-1", Prioridad.BAJA, () -> { }));
+        assertThrows(ColaLlenaException.class,
+                () -> despachador.encolar("id-2", Prioridad.ALTA, () -> { }));
+        assertEquals(1, despachador.estadisticas().getProfundidadCola());
+        assertEquals(1L, despachador.estadisticas().getRechazadas());
+    }
+
+    private Runnable registrar(List<String> orden, String nombre, CountDownLatch fin) {
+        return () -> {
+            orden.add(nombre);
+            fin.countDown();
+        };
+    }
+
+    private void esperarCola(int profundidad) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (despachador.estadisticas().getProfundidadCola() != profundidad && System.nanoTime() < limite) {
+            Thread.sleep(1);
+        }
+    }
+
+    private void esperarProcesadas(long total) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (procesadas() < total && System.nanoTime() < limite) {
+            Thread.sleep(1);
+        }
+    }
+
+    private long procesadas() {
+        return despachador.estadisticas().getProcesadasPorPrioridad().values().stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.banco.notificaciones.idempotencia;
+
+import com.banco.notificaciones.dto.NotificacionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la caché de idempotencia: repetición, colapso de duplicados
+ * concurrentes, fallos y límite de tamaño.
+ */
+@DisplayName("Tests de CacheIdempotencia")
+class CacheIdempotenciaTest {
+
+    @Test
+    @DisplayName("Resolver - Una clave repetida devuelve la respuesta original sin volver a crear")
+    void testRepeticionDevuelveOriginal() {
+        // Given
+        CacheIdempotencia cache = crearCache(1_000);
+        AtomicInteger creaciones = new AtomicInteger();
+        Supplier<NotificacionResponse> crear = () -> respuesta("id-" + creaciones.incrementAndGet());
+
+        // When
+        CacheIdempotencia.Resolucion primera = cache.resolver("clave-1", crear);
+        CacheIdempotencia.Resolucion segunda = cache.resolver("clave-1", crear);
+        CacheIdempotencia.Resolucion otra = cache.resolver("clave-2", crear);
+
+        // Then
+        assertFalse(primera.repetida());
+        assertTrue(segunda.repetida());
+        assertSame(primera.respuesta(), segunda.respuesta());
+        assertEquals("id-2", otra.respuesta().getId());
+        assertEquals(2, creaciones.get());
+    }
+
+    @Test
+    @DisplayName("Resolver - Duplicados concurrentes producen una sola creación")
+    void testDuplicadosConcurrentes() throws Exception {
+        // Given
+        CacheIdempotencia cache = crearCache(1_000);
+        AtomicInteger creaciones = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        int hilos = 16;
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        List<Future<CacheIdempotencia.Resolucion>> resultados = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < hilos; i++) {
+            resultados.add(ejecutor.submit(() -> {
+                salida.await();
+                return cache.resolver("clave-otp", () -> {
+                    creaciones.incrementAndGet();
+                    return respuesta("id-" + creaciones.get());
+                });
+            }));
+        }
+        salida.countDown();
+        Set<String> ids = new HashSet<>();
+        int nuevas = 0;
+        for (Future<CacheIdempotencia.Resolucion> resultado : resultados) {
+            CacheIdempotencia.Resolucion resolucion = resultado.get(5, TimeUnit.SECONDS);
+            ids.add(resolucion.respuesta().getId());
+            nuevas += resolucion.repetida() ? 0 : 1;
+        }
+        ejecutor.shutdownNow();
+
+        // Then
+        assertEquals(1, creaciones.get());
+        assertEquals(1, nuevas);
+        assertEquals(Set.of("id-1"), ids);
+    }
+
+    @Test
+    @DisplayName("Resolver - Si la creación falla la clave se libera para el siguiente intento")
+    void testFalloLiberaClave() {
+        // Given
+        CacheIdempotencia cache = crearCache(1_000);
+
+        // When
+        assertThrows(IllegalArgumentException.class, () -> cache.resolver("clave-1", () -> {
+            throw new IllegalArgumentException("Destinatario inválido");
+        }));
+        CacheIdempotencia.Resolucion resolucion = cache.resolver("clave-1", () -> respuesta("id-1"));
+
+        // Then
+        assertFalse(resolucion.repetida());
+        assertEquals("id-1", resolucion.respuesta().getId());
+        assertThrows(IllegalArgumentException.class, () -> cache.resolver(" ", () -> respuesta("id-2")));
+    }
+
+    @Test
+    @DisplayName("Resolver - Al superar el máximo se olvidan las claves más antiguas")
+    void testLimiteDeTamano() {
+        // Given
+        CacheIdempotencia cache = crearCache(100);
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            cache.resolver("clave-" + i, () -> respuesta("id"));
+        }
+        CacheIdempotencia.Resolucion reciente = cache.resolver("clave-999", () -> respuesta("otro"));
+        CacheIdempotencia.Resolucion antigua = cache.resolver("clave-0", () -> respuesta("otro"));
+
+        // Then
+        assertTrue(cache.getTamano() <= 101);
+        assertTrue(reciente.repetida());
+        assertFalse(antigua.repetida());
+    }
+
+    @Test
+    @DisplayName("Resolver - Un Error en la creación también libera la clave sin bloquear duplicados")
+    void testErrorLiberaClave() {
+        // Given
+        CacheIdempotencia cache = crearCache(1_000);
+
+        // When
+        assertThrows(StackOverflowError.class, () -> cache.resolver("clave-1", () -> {
+            throw new StackOverflowError();
+        }));
+        CacheIdempotencia.Resolucion resolucion = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> cache.resolver("clave-1", () -> respuesta("id-1")));
+
+        // Then
+        assertFalse(resolucion.repetida());
+        assertEquals("id-1", resolucion.respuesta().getId());
+    }
+
+    @Test
+    @DisplayName("Resolver - Al superar el máximo no se olvida una creación en curso")
+    void testLimiteRespetaCreacionEnCurso() throws Exception {
+        // Given
+        CacheIdempotencia cache = crearCache(1);
+        AtomicInteger creaciones = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        Supplier<NotificacionResponse> lenta = () -> {
+            creaciones.incrementAndGet();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return respuesta("id-lenta");
+        };
+        ExecutorService ejecutor = Executors.newFixedThreadPool(2);
+        Future<CacheIdempotencia.Resolucion> original = ejecutor.submit(() -> cache.resolver("clave-lenta", lenta));
+        while (creaciones.get() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // When
+        cache.resolver("clave-1", () -> respuesta("id-1"));
+        cache.resolver("clave-2", () -> respuesta("id-2"));
+        Future<CacheIdempotencia.Resolucion> duplicada = ejecutor.submit(() -> cache.resolver("clave-lenta", lenta));
+        liberar.countDown();
+        CacheIdempotencia.Resolucion primera = original.get(5, TimeUnit.SECONDS);
+        CacheIdempotencia.Resolucion segunda = duplicada.get(5, TimeUnit.SECONDS);
+        ejecutor.shutdownNow();
+
+        // Then
+        assertEquals(1, creaciones.get());
+        assertFalse(primera.repetida());
+        assertTrue(segunda.repetida());
+        assertSame(primera.respuesta(), segunda.respuesta());
+    }
+
+    private CacheIdempotencia crearCache(int maximo) {
+        return new CacheIdempotencia(new SimpleMeterRegistry(), 3_600, maximo);
+    }
+
+    private NotificacionResponse respuesta(String id) {
+        return NotificacionResponse.builder()
+                .id(id)
+                .destinatario("usuario@banco.com")
+                .mensaje("Su código es 123456")
+                .build();
+    }
+}
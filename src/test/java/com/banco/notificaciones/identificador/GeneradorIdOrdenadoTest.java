@@ -0,0 +1,93 @@
+package com.banco.notificaciones.identificador;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del generador de IDs ordenados por tiempo.
+ */
+@DisplayName("Tests de GeneradorIdOrdenado")
+class GeneradorIdOrdenadoTest {
+
+    private static final int HILOS = 16;
+    private static final int IDS_POR_HILO = 20_000;
+
+    @Test
+    @DisplayName("Generar - Produce UUID versión 7 canónicos y estrictamente crecientes")
+    void testIdsCrecientes() {
+        // Given
+        GeneradorIdOrdenado generador = new GeneradorIdOrdenado(5);
+        long inicio = System.currentTimeMillis();
+
+        // When
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(generador.generar());
+        }
+
+        // Then
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, "IDs no crecientes en la posición " + i);
+        }
+        UUID uuid = UUID.fromString(ids.get(0));
+        assertEquals(ids.get(0), uuid.toString());
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(5L, uuid.getLeastSignificantBits() >>> 48 & GeneradorIdOrdenado.NODO_MAXIMO);
+        assertTrue(GeneradorIdOrdenado.milisegundos(ids.get(0)) >= inicio);
+    }
+
+    @Test
+    @DisplayName("Generar - No repite IDs con muchos hilos concurrentes")
+    void testSinDuplicadosConcurrentes() throws Exception {
+        // Given
+        GeneradorIdOrdenado generador = new GeneradorIdOrdenado(0);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        // When
+        for (int h = 0; h < HILOS; h++) {
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                String anterior = "";
+                for (int i = 0; i < IDS_POR_HILO; i++) {
+                    String id = generador.generar();
+                    assertTrue(anterior.compareTo(id) < 0);
+                    ids.add(id);
+                    anterior = id;
+                }
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(HILOS * IDS_POR_HILO, ids.size());
+    }
+
+    @Test
+    @DisplayName("Constructor - Rechaza nodos fuera de rango")
+    void testNodoFueraDeRango() {
+        assertThrows(IllegalArgumentException.class, () -> new GeneradorIdOrdenado(-1));
+        assertThrows(IllegalArgumentException.class, () -> new GeneradorIdOrdenado(GeneradorIdOrdenado.NODO_MAXIMO + 1));
+    }
+}
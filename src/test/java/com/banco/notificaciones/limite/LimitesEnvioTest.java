@@ -0,0 +1,123 @@
+package com.banco.notificaciones.limite;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.strategy.CanalNotificacionStrategy;
+import com.banco.notificaciones.strategy.SmsNotificationStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de los límites de tasa: cálculo de la cubeta con reloj controlado y
+ * tasa sostenida bajo una ráfaga real de envíos concurrentes.
+ */
+@DisplayName("Tests de LimitesEnvio")
+class LimitesEnvioTest {
+
+    @Test
+    @DisplayName("Cubeta - Entrega la ráfaga sin esperar, después un permiso por intervalo y se rellena en reposo")
+    void testCubetaConRelojControlado() {
+        // Given
+        AtomicLong reloj = new AtomicLong(1_000_000_000L);
+        LimitadorTasa limitador = new LimitadorTasa(100, 3, reloj::get);
+        long intervalo = TimeUnit.MILLISECONDS.toNanos(10);
+
+        // When & Then
+        assertEquals(0, limitador.reservar(1));
+        assertEquals(0, limitador.reservar(1));
+        assertEquals(0, limitador.reservar(1));
+        assertEquals(intervalo, limitador.reservar(1));
+        assertEquals(2 * intervalo, limitador.reservar(1));
+        assertFalse(limitador.estaLlena());
+
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(limitador.estaLlena());
+        assertEquals(0, limitador.reservar(3));
+        assertEquals(2 * intervalo, limitador.reservar(2));
+    }
+
+    @Test
+    @DisplayName("Cubeta - Rechaza tasas no positivas")
+    void testConfiguracionInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> new LimitadorTasa(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new LimitadorTasa(10, 0));
+    }
+
+    @Test
+    @DisplayName("Límite por canal - Una ráfaga de 10 veces la tasa se entrega completa a la tasa configurada")
+    void testRafagaDiezVecesLaTasa() throws Exception {
+        // Given
+        int tasa = 1_000;
+        int ventanaMs = 100;
+        int envios = 10 * tasa * ventanaMs / 1_000;
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        LimitesEnvio limites = new LimitesEnvio(registro, 0, tasa, 0, 1, 10, 1, 0, 1, 10_000);
+        AtomicInteger entregados = new AtomicInteger();
+        CanalNotificacionStrategy strategy = limites.aplicar(new SmsNotificationStrategy() {
+            @Override
+            public boolean enviar(Notificacion notificacion) {
+                entregados.incrementAndGet();
+                return true;
+            }
+        });
+        Notificacion notificacion = Notificacion.builder().id("id").destinatario("5512345678").build();
+
+        // When: 8 hilos ofrecen a la vez 10 veces lo que la tasa admite en la ventana
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> resultados = new ArrayList<>(envios);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < envios; i++) {
+            resultados.add(hilos.submit(() -> strategy.enviar(notificacion)));
+        }
+        for (Future<Boolean> resultado : resultados) {
+            assertTrue(resultado.get(10, TimeUnit.SECONDS));
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        hilos.shutdown();
+
+        // Then: ninguno falla y el ritmo efectivo no supera la tasa (más la ráfaga inicial)
+        assertEquals(envios, entregados.get());
+        assertTrue(segundos >= (envios - 10) / (double) tasa * 0.95, "duración " + segundos);
+        assertTrue(envios / segundos <= tasa * 1.05, "tasa efectiva " + envios / segundos);
+        assertTrue(registro.get("notificaciones.limite.demoradas").tag("canal", "SMS").counter().count() > 0);
+        assertSame(CanalNotificacion.SMS, strategy.getNombreCanal());
+    }
+
+    @Test
+    @DisplayName("Límite por destinatario - Las cubetas llenas se purgan en segundo plano, no al enviar")
+    void testPurgaEnSegundoPlano() throws Exception {
+        // Given: 1000/s por destinatario, la cubeta se rellena en 1 ms
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        LimitesEnvio limites = new LimitesEnvio(registro, 0, 0, 0, 1, 1, 1, 1_000, 1, 20);
+        try {
+            // When
+            for (int i = 0; i < 5_000; i++) {
+                limites.reservarTurno(CanalNotificacion.SMS, "55" + i);
+            }
+            int trasEnviar = (int) registro.get("notificaciones.limite.destinatarios").gauge().value();
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (registro.get("notificaciones.limite.destinatarios").gauge().value() > 0
+                    && System.nanoTime() < limite) {
+                Thread.sleep(10);
+            }
+
+            // Then
+            assertTrue(trasEnviar > 0, "cubetas tras enviar " + trasEnviar);
+            assertEquals(0, registro.get("notificaciones.limite.destinatarios").gauge().value());
+        } finally {
+            limites.detener();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.banco.notificaciones.metricas;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.Prioridad;
+import com.banco.notificaciones.repository.NotificacionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de las métricas del flujo de notificaciones.
+ */
+@DisplayName("Tests de MetricasNotificaciones")
+class MetricasNotificacionesTest {
+
+    private SimpleMeterRegistry registro;
+    private NotificacionRepository repository;
+    private MetricasNotificaciones metricas;
+
+    @BeforeEach
+    void setUp() {
+        registro = new SimpleMeterRegistry();
+        repository = new NotificacionRepository();
+        metricas = new MetricasNotificaciones(registro, repository);
+    }
+
+    @Test
+    @DisplayName("Envíos - Cuenta por canal y resultado y acumula el costo de los exitosos")
+    void testContadoresDeEnvio() {
+        // When
+        metricas.registrarEnvio(CanalNotificacion.SMS, true, 2_000_000, new BigDecimal("0.50"));
+        metricas.registrarEnvio(CanalNotificacion.SMS, false, 1_000_000, new BigDecimal("0.50"));
+        metricas.registrarEnvios(CanalNotificacion.EMAIL, 3, 1, new BigDecimal("0.30"));
+
+        // Then
+        assertEquals(1.0, contador("notificaciones.envios", "SMS", "exitoso"));
+        assertEquals(1.0, contador("notificaciones.envios", "SMS", "fallido"));
+        assertEquals(3.0, contador("notificaciones.envios", "EMAIL", "exitoso"));
+        assertEquals(0.50, registro.get("notificaciones.costo.enviado").tag("canal", "SMS").counter().count(), 1e-9);
+        assertEquals(0.30, registro.get("notificaciones.costo.enviado").tag("canal", "EMAIL").counter().count(), 1e-9);
+        assertEquals(2.0, registro.get("notificaciones.envio").tags("canal", "SMS", "resultado", "exitoso")
+                .timer().totalTime(TimeUnit.MILLISECONDS), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Gauges - Reflejan el tamaño del repositorio y el conteo por estado")
+    void testGaugesDelRepositorio() {
+        // Given
+        repository.guardar(crearNotificacion("id-1", Estado.PENDIENTE));
+        repository.guardar(crearNotificacion("id-2", Estado.PENDIENTE));
+        repository.guardar(crearNotificacion("id-3", Estado.ENVIADA));
+
+        // When
+        repository.guardar(crearNotificacion("id-1", Estado.FALLIDA));
+
+        // Then
+        assertEquals(3.0, registro.get("notificaciones.almacenadas").gauge().value());
+        assertEquals(1.0, estado(Estado.PENDIENTE));
+        assertEquals(1.0, estado(Estado.ENVIADA));
+        assertEquals(1.0, estado(Estado.FALLIDA));
+        assertEquals(0.30, registro.get("notificaciones.costo.total").gauge().value(), 1e-9);
+    }
+
+    private double contador(String nombre, String canal, String resultado) {
+        return registro.get(nombre).tags("canal", canal, "resultado", resultado).counter().count();
+    }
+
+    private double estado(Estado estado) {
+        return registro.get("notificaciones.por.estado").tag("estado", estado.name()).gauge().value();
+    }
+
+    private Notificacion crearNotificacion(String id, Estado estado) {
+        return Notificacion.builder()
+                .id(id)
+                .destinatario("usuario@banco.com")
+                .mensaje("Mensaje de prueba")
+                .canal(CanalNotificacion.EMAIL)
+                .prioridad(Prioridad.MEDIA)
+                .estado(estado)
+                .costo(new BigDecimal("0.10"))
+                .fechaCreacion(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,139 @@
+package com.banco.notificaciones.pasarela;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.strategy.SmsNotificationStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del cliente de pasarela HTTP contra la pasarela simulada embebida:
+ * reutilización de conexiones, errores, timeouts y máximo de solicitudes en vuelo.
+ */
+@DisplayName("Tests de ClientePasarela")
+class ClientePasarelaTest {
+
+    private final ExecutorService hilos = Executors.newFixedThreadPool(2);
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(2))
+            .executor(hilos)
+            .build();
+    private PasarelaSimulada simulada;
+
+    @AfterEach
+    void tearDown() {
+        if (simulada != null) {
+            simulada.close();
+        }
+        hilos.shutdownNow();
+    }
+
+    private ClientePasarela cliente(Duration timeout, int maximoEnVuelo) {
+        return new ClientePasarela(CanalNotificacion.SMS, http, URI.create(simulada.getUri() + "/sms"),
+                timeout, maximoEnVuelo, new SimpleMeterRegistry());
+    }
+
+    private static Notificacion notificacion(int i) {
+        return Notificacion.builder()
+                .id("id-" + i)
+                .destinatario("5512345678")
+                .mensaje("Código \"OTP\" " + i)
+                .canal(CanalNotificacion.SMS)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Envío - Las solicitudes sucesivas reutilizan la misma conexión")
+    void testReutilizaConexiones() {
+        // Given
+        simulada = new PasarelaSimulada(0, Duration.ZERO, 0);
+        ClientePasarela cliente = cliente(Duration.ofSeconds(2), 8);
+
+        // When
+        boolean todas = true;
+        for (int i = 0; i < 50; i++) {
+            todas &= cliente.enviar(notificacion(i)).join();
+        }
+
+        // Then
+        assertTrue(todas);
+        assertEquals(50, simulada.getSolicitudes());
+        assertTrue(simulada.getConexiones() <= 2, "conexiones: " + simulada.getConexiones());
+    }
+
+    @Test
+    @DisplayName("Envío - Un 503 o un timeout se dan por fallidos sin lanzar excepción")
+    void testErroresYTimeout() {
+        // Given
+        simulada = new PasarelaSimulada(0, Duration.ofMillis(300), 1);
+        ClientePasarela conErrores = cliente(Duration.ofSeconds(2), 8);
+        ClientePasarela impaciente = cliente(Duration.ofMillis(50), 8);
+
+        // When
+        boolean rechazada = conErrores.enviar(notificacion(1)).join();
+        boolean vencida = impaciente.enviar(notificacion(2)).join();
+
+        // Then
+        assertFalse(rechazada);
+        assertFalse(vencida);
+    }
+
+    @Test
+    @DisplayName("Máximo en vuelo - Las excedentes esperan sin superar el límite y se entregan todas")
+    void testMaximoEnVuelo() {
+        // Given
+        simulada = new PasarelaSimulada(0, Duration.ofMillis(20), 0);
+        ClientePasarela cliente = cliente(Duration.ofSeconds(5), 4);
+
+        // When
+        List<CompletableFuture<Boolean>> envios = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            envios.add(cliente.enviar(notificacion(i)));
+        }
+        long aceptadas = envios.stream().filter(CompletableFuture::join).count();
+
+        // Then
+        assertEquals(40, aceptadas);
+        assertTrue(simulada.getMaximoEnCurso() <= 4, "en curso: " + simulada.getMaximoEnCurso());
+        assertTrue(simulada.getMaximoEnCurso() > 1);
+    }
+
+    @Test
+    @DisplayName("Estrategia SMS - Con la pasarela simulada habilitada los envíos pasan por HTTP")
+    void testEstrategiaConPasarelaSimulada() {
+        // Given
+        PasarelasHttp pasarelas = new PasarelasHttp(new SimpleMeterRegistry(), "", "", 1000, 2000, 16, 2,
+                true, 0, 5, 0);
+        SmsNotificationStrategy strategy = new SmsNotificationStrategy(pasarelas);
+        Notificacion invalida = notificacion(3);
+        invalida.setDestinatario("123");
+
+        try {
+            // When
+            boolean individual = strategy.enviarAsincrono(notificacion(1)).join();
+            List<Boolean> lote = strategy.enviarLote(List.of(notificacion(2), invalida, notificacion(4)));
+
+            // Then
+            assertTrue(individual);
+            assertEquals(List.of(true, false, true), lote);
+            assertTrue(pasarelas.cliente(CanalNotificacion.SMS).isPresent());
+            assertTrue(pasarelas.cliente(CanalNotificacion.EMAIL).isEmpty());
+        } finally {
+            pasarelas.detener();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.banco.notificaciones.persistencia;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.Prioridad;
+import com.banco.notificaciones.repository.NotificacionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del archivo frío: formato de segmento, lecturas que mezclan memoria y
+ * disco, reactivación de archivadas y recuperación junto con el diario.
+ */
+@DisplayName("Tests de ArchivoFrio")
+class ArchivoFrioTest {
+
+    private static final LocalDateTime ANTIGUA = LocalDateTime.of(2025, 1, 15, 10, 30);
+    private static final LocalDateTime RECIENTE = LocalDateTime.of(2025, 3, 1, 9, 0);
+    private static final LocalDateTime LIMITE = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @TempDir
+    Path directorio;
+
+    private final List<Runnable> cierres = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        cierres.forEach(Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Segmento - Busca por ID y recorre desde un cursor a través de varios bloques")
+    void testSegmentoBuscarYRecorrer() throws Exception {
+        // Given
+        List<Notificacion> ordenadas = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            ordenadas.add(crearNotificacion(id(i * 2), Estado.ENVIADA, "0.0010", ANTIGUA));
+        }
+        SegmentoFrio.escribir(directorio.resolve("prueba.seg"), 7, ordenadas).close();
+
+        // When
+        try (SegmentoFrio segmento = SegmentoFrio.abrir(directorio.resolve("prueba.seg"), 7)) {
+            Iterator<Notificacion> desdeCursor = segmento.recorrer(id(7_000));
+
+            // Then
+            assertEquals(5_000, segmento.getRegistros());
+            assertEquals(5_000, segmento.contar(Estado.ENVIADA));
+            assertEquals(0, new BigDecimal("5.0000").compareTo(segmento.getResumen().get(0).costo()));
+            assertEquals(id(4_242), segmento.buscar(id(4_242)).getId());
+            assertEquals(ANTIGUA, segmento.buscar(id(4_242)).getFechaEnvio());
+            assertNull(segmento.buscar(id(4_243)));
+            assertFalse(segmento.podriaContener(id(10_000)));
+            assertEquals(id(7_002), desdeCursor.next().getId());
+            int restantes = 1;
+            while (desdeCursor.hasNext()) {
+                desdeCursor.next();
+                restantes++;
+            }
+            assertEquals(1_499, restantes);
+        }
+    }
+
+    @Test
+    @DisplayName("Archivar - Las antiguas salen del heap pero siguen en búsquedas, filtros, páginas y totales")
+    void testLecturasIncluyenArchivadas() {
+        // Given
+        NotificacionRepository repository = abrir(Optional.empty());
+        repository.guardar(crearNotificacion(id(1), Estado.ENVIADA, "0.50", ANTIGUA));
+        repository.guardar(crearNotificacion(id(2), Estado.ENVIADA, "0.50", RECIENTE));
+        repository.guardar(crearNotificacion(id(3), Estado.DESCARTADA, "0.10", ANTIGUA));
+        repository.guardar(crearNotificacion(id(4), Estado.PENDIENTE, "0.10", ANTIGUA));
+        repository.guardar(crearNotificacion(id(5), Estado.ENVIADA, "0.50", ANTIGUA));
+
+        // When
+        int archivadas = repository.archivarAnteriores(LIMITE);
+
+        // Then
+        assertEquals(3, archivadas);
+        assertEquals(3, repository.contarArchivadas());
+        assertEquals(5, repository.contar());
+        assertEquals(0, new BigDecimal("1.70").compareTo(repository.costoTotal()));
+        assertEquals(Estado.DESCARTADA, repository.buscarPorId(id(3)).orElseThrow().getEstado());
+        assertEquals(List.of(id(1), id(2), id(5)), ids(repository.filtrarPorEstado(Estado.ENVIADA)));
+        assertEquals(List.of(id(2), id(5)), ids(repository.filtrarPorEstado(Estado.ENVIADA, id(1), 10)));
+        assertEquals(List.of(id(1)), ids(repository.filtrarPorEstado(Estado.ENVIADA, null, 1)));
+        assertEquals(5, repository.listarTodas().size());
+        assertEquals(0, repository.archivarAnteriores(LIMITE));
+    }
+
+    @Test
+    @DisplayName("Archivar - Las CANCELADA de un plan se archivan como terminadas; las FALLIDA se quedan para reintento")
+    void testArchivaCanceladas() {
+        // Given: una cancelada nunca se envió, así que se archiva por su fecha de creación
+        NotificacionRepository repository = abrir(Optional.empty());
+        Notificacion cancelada = crearNotificacion(id(1), Estado.CANCELADA, "0", ANTIGUA);
+        cancelada.setFechaEnvio(null);
+        repository.guardar(cancelada);
+        repository.guardar(crearNotificacion(id(2), Estado.FALLIDA, "0.10", ANTIGUA));
+
+        // When
+        int archivadas = repository.archivarAnteriores(LIMITE);
+
+        // Then
+        assertEquals(1, archivadas);
+        assertEquals(List.of(id(1)), ids(repository.filtrarPorEstado(Estado.CANCELADA)));
+        assertEquals(List.of(id(2)), ids(repository.filtrarPorEstado(Estado.FALLIDA)));
+    }
+
+    @Test
+    @DisplayName("Archivar - Guardar o eliminar una archivada anula su copia en disco")
+    void testReactivarYEliminarArchivada() {
+        // Given
+        NotificacionRepository repository = abrir(Optional.empty());
+        repository.guardar(crearNotificacion(id(1), Estado.ENVIADA, "0.50", ANTIGUA));
+        repository.guardar(crearNotificacion(id(2), Estado.ENVIADA, "0.50", ANTIGUA));
+        repository.archivarAnteriores(LIMITE);
+
+        // When
+        repository.guardar(crearNotificacion(id(1), Estado.FALLIDA, "0.50", ANTIGUA));
+        boolean eliminada = repository.eliminar(id(2));
+
+        // Then
+        assertTrue(eliminada);
+        assertFalse(repository.eliminar(id(2)));
+        assertEquals(0, repository.contarArchivadas());
+        assertEquals(1, repository.contar());
+        assertEquals(0, new BigDecimal("0.50").compareTo(repository.costoTotal()));
+        assertEquals(Estado.FALLIDA, repository.buscarPorId(id(1)).orElseThrow().getEstado());
+        assertTrue(repository.buscarPorId(id(2)).isEmpty());
+        assertTrue(repository.filtrarPorEstado(Estado.ENVIADA).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Recuperar - Con diario se conservan las archivadas, sus anulaciones y los totales")
+    void testRecuperarConDiario() {
+        // Given
+        DiarioNotificaciones diario = crearDiario();
+        NotificacionRepository repository = abrir(Optional.of(diario));
+        for (int i = 1; i <= 4; i++) {
+            repository.guardar(crearNotificacion(id(i), Estado.ENVIADA, "0.25", ANTIGUA));
+        }
+        repository.guardar(crearNotificacion(id(5), Estado.PENDIENTE, "0.25", ANTIGUA));
+        repository.archivarAnteriores(LIMITE);
+        repository.guardar(crearNotificacion(id(1), Estado.FALLIDA, "0.25", ANTIGUA));
+        repository.eliminar(id(2));
+        diario.detener();
+
+        // When
+        NotificacionRepository recuperado = abrir(Optional.of(crearDiario()));
+
+        // Then
+        assertEquals(2, recuperado.contarArchivadas());
+        assertEquals(4, recuperado.contar());
+        assertEquals(0, new BigDecimal("1.00").compareTo(recuperado.costoTotal()));
+        assertEquals(Estado.FALLIDA, recuperado.buscarPorId(id(1)).orElseThrow().getEstado());
+        assertTrue(recuperado.buscarPorId(id(2)).isEmpty());
+        assertEquals(List.of(id(3), id(4)), ids(recuperado.filtrarPorEstado(Estado.ENVIADA)));
+    }
+
+    private NotificacionRepository abrir(Optional<DiarioNotificaciones> diario) {
+        ArchivoFrio archivo = new ArchivoFrio(directorio.resolve("archivo").toString(), 60, 3_600, 2);
+        cierres.add(archivo::detener);
+        NotificacionRepository repository = new NotificacionRepository(diario, Optional.of(archivo));
+        repository.recuperar();
+        return repository;
+    }
+
+    private DiarioNotificaciones crearDiario() {
+        DiarioNotificaciones diario = new DiarioNotificaciones(
+                directorio.resolve("diario").toString(), ModoSincronizacion.POR_LOTE, 10, 300, 256);
+        cierres.add(diario::detener);
+        return diario;
+    }
+
+    private static String id(int numero) {
+        return String.format("%08d-0000-7000-8000-000000000000", numero);
+    }
+
+    private static List<String> ids(List<Notificacion> notificaciones) {
+        return notificaciones.stream().map(Notificacion::getId).toList();
+    }
+
+    private Notificacion crearNotificacion(String id, Estado estado, String costo, LocalDateTime fecha) {
+        return Notificacion.builder()
+                .id(id)
+                .destinatario("usuario@banco.com")
+                .mensaje("Mensaje de prueba")
+                .canal(CanalNotificacion.EMAIL)
+                .prioridad(Prioridad.MEDIA)
+                .estado(estado)
+                .costo(new BigDecimal(costo))
+                .fechaCreacion(fecha)
+                .fechaEnvio(estado == Estado.PENDIENTE ? null : fecha)
+                .build();
+    }
+}
@@ -0,0 +1,252 @@
+package com.banco.notificaciones.persistencia;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.Prioridad;
+import com.banco.notificaciones.repository.NotificacionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del diario de persistencia: recuperación, compactación y
+ * tolerancia a escrituras interrumpidas.
+ */
+@DisplayName("Tests de DiarioNotificaciones")
+class DiarioNotificacionesTest {
+
+    @TempDir
+    Path directorio;
+
+    private final List<DiarioNotificaciones> abiertos = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        abiertos.forEach(DiarioNotificaciones::detener);
+    }
+
+    @Test
+    @DisplayName("Recuperar - Reconstruye guardados, actualizaciones y eliminaciones tras reiniciar")
+    void testRecuperarTrasReinicio() {
+        // Given
+        DiarioNotificaciones diario = crearDiario(ModoSincronizacion.POR_LOTE);
+        NotificacionRepository repository = abrir(diario);
+        repository.guardar(crearNotificacion("id-1", Estado.PENDIENTE, "0.50"));
+        repository.guardar(crearNotificacion("id-2", Estado.PENDIENTE, "0.10"));
+        repository.guardar(crearNotificacion("id-1", Estado.ENVIADA, "0.50"));
+        repository.eliminar("id-2");
+        diario.detener();
+
+        // When
+        NotificacionRepository recuperado = abrir(crearDiario(ModoSincronizacion.POR_LOTE));
+
+        // Then
+        assertEquals(1, recuperado.contar());
+        Notificacion notificacion = recuperado.buscarPorId("id-1").orElseThrow();
+        assertEquals(Estado.ENVIADA, notificacion.getEstado());
+        assertEquals("usuario@banco.com", notificacion.getDestinatario());
+        assertEquals(LocalDateTime.of(2025, 1, 15, 10, 30, 0, 123_000_000), notificacion.getFechaCreacion());
+        assertEquals(0, new BigDecimal("0.50").compareTo(recuperado.costoTotal()));
+        assertEquals(1, recuperado.filtrarPorEstado(Estado.ENVIADA).size());
+    }
+
+    @Test
+    @DisplayName("Recuperar - Conserva los intentos y el próximo intento de una notificación fallida")
+    void testRecuperarIntentos() {
+        // Given
+        DiarioNotificaciones diario = crearDiario(ModoSincronizacion.POR_LOTE);
+        NotificacionRepository repository = abrir(diario);
+        Notificacion fallida = crearNotificacion("id-1", Estado.FALLIDA, "0.10");
+        fallida.setIntentos(2);
+        fallida.setProximoIntento(LocalDateTime.of(2025, 1, 15, 10, 31, 0, 250_000_000));
+        repository.guardar(fallida);
+        diario.detener();
+
+        // When
+        NotificacionRepository recuperado = abrir(crearDiario(ModoSincronizacion.POR_LOTE));
+
+        // Then
+        Notificacion notificacion = recuperado.buscarPorId("id-1").orElseThrow();
+        assertEquals(Estado.FALLIDA, notificacion.getEstado());
+        assertEquals(2, notificacion.getIntentos());
+        assertEquals(LocalDateTime.of(2025, 1, 15, 10, 31, 0, 250_000_000), notificacion.getProximoIntento());
+    }
+
+    @Test
+    @DisplayName("Compactar - La instantánea más la cola del diario reproducen el estado y se borran segmentos viejos")
+    void testCompactacion() throws Exception {
+        // Given
+        DiarioNotificaciones diario = crearDiario(ModoSincronizacion.POR_ESCRITURA);
+        NotificacionRepository repository = abrir(diario);
+        for (int i = 0; i < 100; i++) {
+            repository.guardar(crearNotificacion("id-" + i, Estado.PENDIENTE, "0.10"));
+        }
+
+        // When
+        diario.solicitarCompactacion();
+        esperarCompactacion(diario);
+        diario.solicitarCompactacion();
+        esperarCompactacion(diario);
+        repository.guardar(crearNotificacion("id-100", Estado.PENDIENTE, "0.10"));
+        repository.eliminar("id-0");
+        diario.detener();
+        NotificacionRepository recuperado = abrir(crearDiario(ModoSincronizacion.POR_ESCRITURA));
+
+        // Then
+        assertEquals(100, recuperado.contar());
+        assertTrue(recuperado.buscarPorId("id-0").isEmpty());
+        assertTrue(recuperado.buscarPorId("id-100").isPresent());
+        assertEquals(1, contarArchivos(".snap"));
+        assertTrue(contarArchivos(".log") <= 3);
+    }
+
+    @Test
+    @DisplayName("Recuperar - Trunca un registro incompleto al final del segmento")
+    void testRegistroIncompleto() throws Exception {
+        // Given
+        DiarioNotificaciones diario = crearDiario(ModoSincronizacion.POR_INTERVALO);
+        NotificacionRepository repository = abrir(diario);
+        repository.guardar(crearNotificacion("id-1", Estado.PENDIENTE, "0.10"));
+        repository.guardar(crearNotificacion("id-2", Estado.PENDIENTE, "0.10"));
+        diario.detener();
+        Path segmento = ultimoSegmento();
+        long tamanoValido = Files.size(segmento);
+        Files.write(segmento, new byte[]{0, 0, 0, 40, 1, 7, 7}, StandardOpenOption.APPEND);
+
+        // When
+        NotificacionRepository recuperado = abrir(crearDiario(ModoSincronizacion.POR_INTERVALO));
+
+        // Then
+        assertEquals(2, recuperado.contar());
+        assertEquals(tamanoValido, Files.size(segmento));
+    }
+
+    @Test
+    @DisplayName("Escritura interrumpida - Tras un registro a medias lo confirmado después sobrevive al reinicio")
+    void testEscrituraInterrumpida() {
+        // Given: la segunda escritura tras arrancar deja medio registro y falla
+        AtomicInteger escrituras = new AtomicInteger();
+        DiarioNotificaciones diario = new DiarioNotificaciones(directorio.toString(),
+                ModoSincronizacion.POR_LOTE, 10, 300, 256) {
+            @Override
+            long volcarSegmento(FileChannel canal, ByteBuffer buffer) throws IOException {
+                if (escrituras.incrementAndGet() == 3) {
+                    canal.write(buffer.limit(buffer.position() + buffer.remaining() / 2));
+                    throw new IOException("Disco lleno simulado");
+                }
+                return super.volcarSegmento(canal, buffer);
+            }
+        };
+        abiertos.add(diario);
+        NotificacionRepository repository = abrir(diario);
+        repository.guardar(crearNotificacion("id-1", Estado.PENDIENTE, "0.10"));
+        assertThrows(IllegalStateException.class,
+                () -> repository.guardar(crearNotificacion("id-2", Estado.PENDIENTE, "0.10")));
+
+        // When
+        repository.guardar(crearNotificacion("id-3", Estado.PENDIENTE, "0.10"));
+        repository.guardar(crearNotificacion("id-1", Estado.ENVIADA, "0.10"));
+        diario.detener();
+        NotificacionRepository recuperado = abrir(crearDiario(ModoSincronizacion.POR_LOTE));
+
+        // Then
+        assertEquals(Estado.ENVIADA, recuperado.buscarPorId("id-1").orElseThrow().getEstado());
+        assertTrue(recuperado.buscarPorId("id-3").isPresent());
+        assertTrue(recuperado.buscarPorId("id-2").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Escritura interrumpida - Un lote guardado falla si falla cualquiera de sus tramos, no solo el último")
+    void testGuardarTodasConTramoFallido() {
+        // Given: el escritor parte el lote en tramos y solo falla el primero
+        AtomicInteger escrituras = new AtomicInteger();
+        DiarioNotificaciones diario = new DiarioNotificaciones(directorio.toString(),
+                ModoSincronizacion.POR_LOTE, 10, 300, 256) {
+            @Override
+            long volcarSegmento(FileChannel canal, ByteBuffer buffer) throws IOException {
+                if (escrituras.incrementAndGet() == 2) {
+                    throw new IOException("Disco lleno simulado");
+                }
+                return super.volcarSegmento(canal, buffer);
+            }
+        };
+        abiertos.add(diario);
+        NotificacionRepository repository = abrir(diario);
+        List<Notificacion> lote = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            lote.add(crearNotificacion("id-" + i, Estado.PENDIENTE, "0.10"));
+        }
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> repository.guardarTodas(lote));
+        diario.detener();
+        NotificacionRepository recuperado = abrir(crearDiario(ModoSincronizacion.POR_LOTE));
+        assertTrue(recuperado.buscarPorId("id-0").isEmpty());
+        assertTrue(recuperado.buscarPorId("id-4999").isPresent());
+    }
+
+    private DiarioNotificaciones crearDiario(ModoSincronizacion modo) {
+        DiarioNotificaciones diario = new DiarioNotificaciones(directorio.toString(), modo, 10, 300, 256);
+        abiertos.add(diario);
+        return diario;
+    }
+
+    private NotificacionRepository abrir(DiarioNotificaciones diario) {
+        NotificacionRepository repository = new NotificacionRepository(Optional.of(diario));
+        repository.recuperar();
+        return repository;
+    }
+
+    private void esperarCompactacion(DiarioNotificaciones diario) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (diario.isCompactando() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertFalse(diario.isCompactando());
+    }
+
+    private long contarArchivos(String extension) throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.filter(archivo -> archivo.toString().endsWith(extension)).count();
+        }
+    }
+
+    private Path ultimoSegmento() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.filter(archivo -> archivo.toString().endsWith(".log"))
+                    .max(Path::compareTo)
+                    .orElseThrow();
+        }
+    }
+
+    private Notificacion crearNotificacion(String id, Estado estado, String costo) {
+        return Notificacion.builder()
+                .id(id)
+                .destinatario("usuario@banco.com")
+                .mensaje("Mensaje de prueba")
+                .canal(CanalNotificacion.EMAIL)
+                .prioridad(Prioridad.MEDIA)
+                .estado(estado)
+                .costo(new BigDecimal(costo))
+                .fechaCreacion(LocalDateTime.of(2025, 1, 15, 10, 30, 0, 123_000_000))
+                .build();
+    }
+}
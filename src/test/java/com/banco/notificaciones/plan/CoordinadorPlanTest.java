@@ -0,0 +1,133 @@
+package com.banco.notificaciones.plan;
+
+import com.banco.notificaciones.model.enums.ModoEntrega;
+import com.banco.notificaciones.model.enums.ResultadoEntrega;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del coordinador de planes de entrega: difusión, failover, cobertura por
+ * latencia y cancelación de los intentos en vuelo.
+ */
+@DisplayName("Tests de CoordinadorPlan")
+class CoordinadorPlanTest {
+
+    /** Intentos controlados por el test: cada canal devuelve un futuro que se completa a mano. */
+    private static final class Canales implements CoordinadorPlan.Intentos, CoordinadorPlan.Observador {
+
+        private final List<CompletableFuture<Boolean>> futuros = new ArrayList<>();
+        private final Map<Integer, ResultadoEntrega> avisados = new ConcurrentHashMap<>();
+
+        Canales(int cantidad) {
+            for (int i = 0; i < cantidad; i++) {
+                futuros.add(new CompletableFuture<>());
+            }
+        }
+
+        @Override
+        public CompletableFuture<Boolean> iniciar(int indice) {
+            avisados.putIfAbsent(indice, ResultadoEntrega.OMITIDA);
+            return futuros.get(indice);
+        }
+
+        @Override
+        public void terminado(int indice, ResultadoEntrega resultado) {
+            avisados.put(indice, resultado);
+        }
+
+        boolean iniciado(int indice) {
+            return avisados.containsKey(indice);
+        }
+    }
+
+    @Test
+    @DisplayName("DIFUSION - Inicia todos los canales y termina cuando responden todos")
+    void testDifusion() {
+        // Given
+        Canales canales = new Canales(3);
+
+        // When
+        CompletableFuture<List<ResultadoEntrega>> plan =
+                CoordinadorPlan.ejecutar(ModoEntrega.DIFUSION, 3, null, canales, canales);
+        boolean iniciadosTodos = canales.iniciado(0) && canales.iniciado(1) && canales.iniciado(2);
+        canales.futuros.get(1).complete(true);
+        canales.futuros.get(0).complete(false);
+        boolean terminadoAntesDelUltimo = plan.isDone();
+        canales.futuros.get(2).complete(true);
+
+        // Then
+        assertTrue(iniciadosTodos);
+        assertFalse(terminadoAntesDelUltimo);
+        assertEquals(List.of(ResultadoEntrega.FALLIDA, ResultadoEntrega.ENTREGADA, ResultadoEntrega.ENTREGADA),
+                plan.join());
+    }
+
+    @Test
+    @DisplayName("FAILOVER - Un fallo pasa al siguiente canal y el primer éxito omite el resto")
+    void testFailover() {
+        // Given
+        Canales canales = new Canales(3);
+
+        // When
+        CompletableFuture<List<ResultadoEntrega>> plan =
+                CoordinadorPlan.ejecutar(ModoEntrega.FAILOVER, 3, null, canales, canales);
+        boolean segundoAntesDelFallo = canales.iniciado(1);
+        canales.futuros.get(0).completeExceptionally(new IllegalStateException("proveedor caído"));
+        boolean segundoTrasElFallo = canales.iniciado(1);
+        canales.futuros.get(1).complete(true);
+
+        // Then
+        assertFalse(segundoAntesDelFallo);
+        assertTrue(segundoTrasElFallo);
+        assertEquals(List.of(ResultadoEntrega.FALLIDA, ResultadoEntrega.ENTREGADA, ResultadoEntrega.OMITIDA),
+                plan.join());
+        assertFalse(canales.iniciado(2));
+    }
+
+    @Test
+    @DisplayName("FAILOVER - Con presupuesto cubre al canal lento y cancela el que no respondió")
+    void testCoberturaPorLatencia() {
+        // Given
+        Canales canales = new Canales(2);
+
+        // When
+        CompletableFuture<List<ResultadoEntrega>> plan =
+                CoordinadorPlan.ejecutar(ModoEntrega.FAILOVER, 2, Duration.ofMillis(20), canales, canales);
+        canales.futuros.get(1).completeOnTimeout(true, 30, TimeUnit.MILLISECONDS);
+        List<ResultadoEntrega> resultados = plan.orTimeout(5, TimeUnit.SECONDS).join();
+
+        // Then
+        assertTrue(canales.iniciado(1));
+        assertEquals(List.of(ResultadoEntrega.CANCELADA, ResultadoEntrega.ENTREGADA), resultados);
+        assertTrue(canales.futuros.get(0).isCancelled());
+        assertEquals(ResultadoEntrega.CANCELADA, canales.avisados.get(0));
+    }
+
+    @Test
+    @DisplayName("Cancelar el plan cancela los intentos en vuelo y no inicia más")
+    void testCancelarPlan() {
+        // Given
+        Canales canales = new Canales(3);
+        CompletableFuture<List<ResultadoEntrega>> plan =
+                CoordinadorPlan.ejecutar(ModoEntrega.FAILOVER, 3, Duration.ofMinutes(1), canales, canales);
+
+        // When
+        plan.cancel(true);
+        canales.futuros.get(0).complete(false);
+
+        // Then
+        assertTrue(canales.futuros.get(0).isCancelled());
+        assertEquals(ResultadoEntrega.CANCELADA, canales.avisados.get(0));
+        assertFalse(canales.iniciado(1));
+    }
+}
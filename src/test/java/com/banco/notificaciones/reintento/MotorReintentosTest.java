@@ -0,0 +1,208 @@
+package com.banco.notificaciones.reintento;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.Prioridad;
+import com.banco.notificaciones.repository.NotificacionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de los reintentos: exactitud de la rueda de temporización con un reloj
+ * simulado, límites de la política y transición a DESCARTADA.
+ */
+@DisplayName("Tests de MotorReintentos")
+class MotorReintentosTest {
+
+    @Test
+    @DisplayName("Rueda - Cada entrada vence en su tick, nunca antes, incluso tras varias cascadas")
+    void testRuedaVenceEnSuTick() {
+        // Given
+        long tick = 1_000;
+        long origen = 5_000_000L;
+        RuedaTemporizacion<long[]> rueda = new RuedaTemporizacion<>(tick, origen);
+        Random aleatorio = new Random(42);
+        List<long[]> programadas = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            long espera = i % 4 == 0 ? aleatorio.nextInt(300) : aleatorio.nextInt(200_000);
+            long instante = origen + espera * tick + aleatorio.nextInt((int) tick);
+            long[] entrada = {instante, -1};
+            programadas.add(entrada);
+            rueda.programar(entrada, instante);
+        }
+
+        // When
+        for (long ahora = origen; rueda.getPendientes() > 0; ahora += tick) {
+            long instanteActual = ahora;
+            rueda.avanzar(ahora, entrada -> entrada[1] = instanteActual);
+            assertTrue(ahora < origen + 300_000 * tick, "La rueda no entregó todas las entradas");
+        }
+
+        // Then
+        for (long[] entrada : programadas) {
+            assertTrue(entrada[1] >= entrada[0], "Entrada disparada antes de su vencimiento");
+            assertTrue(entrada[1] < entrada[0] + tick, "Entrada disparada más de un tick tarde");
+        }
+    }
+
+    @Test
+    @DisplayName("Rueda - Entradas en el pasado vencen en el siguiente avance")
+    void testRuedaEntradaVencida() {
+        // Given
+        RuedaTemporizacion<String> rueda = new RuedaTemporizacion<>(10, 0);
+        List<String> vencidos = new ArrayList<>();
+        rueda.avanzar(1_000, vencidos::add);
+        rueda.programar("tarde", 500);
+
+        // When
+        int entregados = rueda.avanzar(1_000, vencidos::add);
+
+        // Then
+        assertEquals(1, entregados);
+        assertEquals(List.of("tarde"), vencidos);
+        assertEquals(0, rueda.getPendientes());
+    }
+
+    @Test
+    @DisplayName("Política - La espera crece exponencialmente con jitter y respeta el máximo")
+    void testPoliticaEspera() {
+        // Given
+        PoliticaReintento politica = new PoliticaReintento(5, 1_000, 6_000);
+
+        // When & Then
+        for (int i = 0; i < 1_000; i++) {
+            long primera = politica.esperaMs(1);
+            long segunda = politica.esperaMs(2);
+            long tope = politica.esperaMs(10);
+            assertTrue(primera >= 500 && primera <= 1_000);
+            assertTrue(segunda >= 1_000 && segunda <= 2_000);
+            assertTrue(tope >= 3_000 && tope <= 6_000);
+        }
+        assertFalse(politica.agotada(4));
+        assertTrue(politica.agotada(5));
+        assertThrows(IllegalArgumentException.class, () -> new PoliticaReintento(0, 1_000, 6_000));
+        assertThrows(IllegalArgumentException.class, () -> new PoliticaReintento(3, 1_000, 500));
+    }
+
+    @Test
+    @DisplayName("Fallo - Programa el siguiente intento y descarta al agotar la política del canal")
+    void testAplicarFallo() {
+        // Given
+        MotorReintentos motor = crearMotor(true);
+        Notificacion notificacion = crearNotificacion("id-1");
+
+        // When & Then
+        notificacion.setIntentos(1);
+        LocalDateTime antes = LocalDateTime.now();
+        motor.aplicarFallo(notificacion);
+        assertEquals(Estado.FALLIDA, notificacion.getEstado());
+        assertFalse(notificacion.getProximoIntento().isBefore(antes.plus(Duration.ofMillis(25))));
+
+        notificacion.setIntentos(3);
+        motor.aplicarFallo(notificacion);
+        assertEquals(Estado.DESCARTADA, notificacion.getEstado());
+        assertNull(notificacion.getProximoIntento());
+    }
+
+    @Test
+    @DisplayName("Fallo - Sin reintentos habilitados la notificación queda FALLIDA sin siguiente intento")
+    void testReintentosDeshabilitados() {
+        // Given
+        MotorReintentos motor = crearMotor(false);
+        Notificacion notificacion = crearNotificacion("id-1");
+        notificacion.setIntentos(1);
+
+        // When
+        motor.aplicarFallo(notificacion);
+        motor.programar(notificacion);
+
+        // Then
+        assertEquals(Estado.FALLIDA, notificacion.getEstado());
+        assertNull(notificacion.getProximoIntento());
+        assertEquals(0, motor.getPendientes());
+    }
+
+    @Test
+    @DisplayName("Rueda en marcha - Entrega el ID al manejador cuando vence el intento")
+    void testEntregaAlVencer() throws Exception {
+        // Given
+        MotorReintentos motor = crearMotor(true);
+        BlockingQueue<String> vencidos = new LinkedBlockingQueue<>();
+        Notificacion notificacion = crearNotificacion("id-1");
+        notificacion.setIntentos(1);
+        motor.aplicarFallo(notificacion);
+        motor.iniciar(vencidos::add);
+
+        try {
+            // When
+            motor.programar(notificacion);
+            String id = vencidos.poll(5, TimeUnit.SECONDS);
+
+            // Then
+            assertEquals("id-1", id);
+            assertFalse(LocalDateTime.now().isBefore(notificacion.getProximoIntento()));
+            assertTrue(motor.corresponde(notificacion));
+            assertEquals(0, motor.getPendientes());
+        } finally {
+            motor.detener();
+        }
+    }
+
+    @Test
+    @DisplayName("Aplazar - Una PENDIENTE aplazada conserva estado e intentos y se reprograma al iniciar")
+    void testAplazarPendiente() throws Exception {
+        // Given
+        NotificacionRepository repository = new NotificacionRepository();
+        MotorReintentos motor = new MotorReintentos(repository, new SimpleMeterRegistry(), true, 10,
+                3, 3, 3, 50, 50, 50, 200, 200, 200);
+        Notificacion notificacion = crearNotificacion("id-1");
+        notificacion.setEstado(Estado.PENDIENTE);
+
+        // When
+        motor.aplazar(notificacion, Duration.ofMillis(100));
+        repository.guardar(notificacion);
+        BlockingQueue<String> vencidos = new LinkedBlockingQueue<>();
+        motor.iniciar(vencidos::add);
+
+        try {
+            // Then
+            assertEquals(Estado.PENDIENTE, notificacion.getEstado());
+            assertEquals(0, notificacion.getIntentos());
+            assertFalse(motor.corresponde(notificacion));
+            assertEquals("id-1", vencidos.poll(5, TimeUnit.SECONDS));
+            assertTrue(motor.corresponde(notificacion));
+        } finally {
+            motor.detener();
+        }
+    }
+
+    private MotorReintentos crearMotor(boolean habilitado) {
+        return new MotorReintentos(new NotificacionRepository(), new SimpleMeterRegistry(), habilitado, 10,
+                3, 3, 3, 50, 50, 50, 200, 200, 200);
+    }
+
+    private Notificacion crearNotificacion(String id) {
+        return Notificacion.builder()
+                .id(id)
+                .destinatario("usuario@banco.com")
+                .mensaje("Mensaje de prueba")
+                .canal(CanalNotificacion.EMAIL)
+                .prioridad(Prioridad.MEDIA)
+                .estado(Estado.FALLIDA)
+                .fechaCreacion(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,328 @@
+package com.banco.notificaciones.repository;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.Prioridad;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del repositorio en memoria.
+ * Incluye pruebas de estrés con múltiples hilos escribiendo simultáneamente.
+ */
+@DisplayName("Tests de NotificacionRepository")
+class NotificacionRepositoryTest {
+
+    private static final int HILOS = 64;
+    private static final int OPERACIONES_POR_HILO = 2_000;
+
+    private NotificacionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new NotificacionRepository();
+    }
+
+    @Test
+    @DisplayName("Guardar y buscar por ID - Recupera la notificación almacenada")
+    void testGuardarYBuscarPorId() {
+        // Given
+        Notificacion notificacion = crearNotificacion("id-1", Estado.PENDIENTE);
+
+        // When
+        repository.guardar(notificacion);
+
+        // Then
+        assertTrue(repository.buscarPorId("id-1").isPresent());
+        assertEquals(1, repository.contar());
+        assertTrue(repository.buscarPorId("no-existe").isEmpty());
+        assertTrue(repository.buscarPorId(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Guardar - Rechaza notificación sin ID")
+    void testGuardarSinId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.guardar(crearNotificacion(null, Estado.PENDIENTE)));
+        assertThrows(IllegalArgumentException.class, () -> repository.guardar(null));
+    }
+
+    @Test
+    @DisplayName("Eliminar - Solo devuelve true si existía")
+    void testEliminar() {
+        repository.guardar(crearNotificacion("id-1", Estado.PENDIENTE));
+
+        assertTrue(repository.eliminar("id-1"));
+        assertFalse(repository.eliminar("id-1"));
+        assertEquals(0, repository.contar());
+    }
+
+    @Test
+    @DisplayName("Filtrado por estado - Usa el índice y refleja los cambios de estado al volver a guardar")
+    void testFiltrarPorEstadoTrasCambioDeEstado() {
+        // Given
+        Notificacion pendiente = crearNotificacion("id-1", Estado.PENDIENTE);
+        repository.guardar(pendiente);
+        repository.guardar(crearNotificacion("id-2", Estado.PENDIENTE));
+        repository.guardar(crearNotificacion("id-3", Estado.FALLIDA));
+
+        // When: la misma instancia pasa de PENDIENTE a ENVIADA, como en enviarNotificacion
+        pendiente.setEstado(Estado.ENVIADA);
+        repository.guardar(pendiente);
+
+        // Then
+        assertEquals(List.of("id-2"), ids(repository.filtrarPorEstado(Estado.PENDIENTE)));
+        assertEquals(List.of("id-1"), ids(repository.filtrarPorEstado(Estado.ENVIADA)));
+        assertEquals(List.of("id-3"), ids(repository.filtrarPorEstado(Estado.FALLIDA)));
+    }
+
+    @Test
+    @DisplayName("Filtrado por estado - Las notificaciones eliminadas salen del índice")
+    void testFiltrarPorEstadoTrasEliminar() {
+        // Given
+        repository.guardar(crearNotificacion("id-1", Estado.FALLIDA));
+        repository.guardar(crearNotificacion("id-2", Estado.FALLIDA));
+
+        // When
+        repository.eliminar("id-1");
+
+        // Then
+        assertEquals(List.of("id-2"), ids(repository.filtrarPorEstado(Estado.FALLIDA)));
+        assertTrue(repository.filtrarPorEstado(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Paginación - Recorre el estado por páginas en orden de ID sin repetir ni omitir")
+    void testPaginacionPorCursor() {
+        // Given
+        for (int i = 0; i < 25; i++) {
+            repository.guardar(crearNotificacion(String.format("id-%02d", i), i % 5 == 0 ? Estado.FALLIDA : Estado.PENDIENTE));
+        }
+
+        // When
+        List<String> recorridos = new ArrayList<>();
+        String cursor = null;
+        List<Notificacion> pagina;
+        do {
+            pagina = repository.filtrarPorEstado(Estado.PENDIENTE, cursor, 7);
+            pagina.forEach(n -> recorridos.add(n.getId()));
+            cursor = pagina.isEmpty() ? null : pagina.get(pagina.size() - 1).getId();
+        } while (pagina.size() == 7);
+
+        // Then
+        assertEquals(20, recorridos.size());
+        assertEquals(recorridos.stream().sorted().toList(), recorridos);
+        assertEquals(recorridos, repository.recorrerPorEstado(Estado.PENDIENTE).map(Notificacion::getId).toList());
+        assertEquals(5L, repository.recorrerPorEstado(Estado.FALLIDA).count());
+    }
+
+    @Test
+    @DisplayName("Almacenamiento compacto - Las lecturas devuelven copias y los cambios requieren guardar")
+    void testLecturasDevuelvenCopias() {
+        // Given
+        Notificacion original = crearNotificacion("id-1", Estado.PENDIENTE);
+        original.setFechaCreacion(LocalDateTime.of(2025, 3, 1, 8, 15, 30, 250_000_000));
+        repository.guardar(original);
+
+        // When
+        Notificacion leida = repository.buscarPorId("id-1").orElseThrow();
+        leida.setEstado(Estado.ENVIADA);
+
+        // Then
+        assertNotSame(original, leida);
+        assertEquals(Estado.PENDIENTE, repository.buscarPorId("id-1").orElseThrow().getEstado());
+        assertEquals(original.getFechaCreacion(), leida.getFechaCreacion());
+        assertEquals(0, original.getCosto().compareTo(leida.getCosto()));
+        assertNull(leida.getFechaEnvio());
+        repository.guardar(leida);
+        assertEquals(List.of("id-1"), ids(repository.filtrarPorEstado(Estado.ENVIADA)));
+    }
+
+    @Test
+    @DisplayName("Almacenamiento compacto - Las fechas de ahora() se leen idénticas a las guardadas")
+    void testFechasAhoraSobrevivenAlAlmacen() {
+        // Given
+        Notificacion original = crearNotificacion("id-1", Estado.ENVIADA);
+        original.setFechaCreacion(NotificacionRepository.ahora());
+        original.setFechaEnvio(NotificacionRepository.ahora());
+        repository.guardar(original);
+
+        // When
+        Notificacion leida = repository.buscarPorId("id-1").orElseThrow();
+
+        // Then
+        assertEquals(original.getFechaCreacion(), leida.getFechaCreacion());
+        assertEquals(original.getFechaEnvio(), leida.getFechaEnvio());
+    }
+
+    @Test
+    @DisplayName("Almacenamiento compacto - Los UUID y los IDs libres conservan su valor y el orden de texto")
+    void testClavesUuidYLibres() {
+        // Given
+        List<String> idsOriginales = List.of(
+                "0f8fad5b-d9cb-469f-a165-70867728950e",
+                "ffffffff-ffff-4fff-bfff-ffffffffffff",
+                "7c9e6679-7425-40de-944b-e07fc1f90ae7",
+                "7C9E6679-7425-40DE-944B-E07FC1F90AE7",
+                "id-libre");
+        idsOriginales.forEach(id -> repository.guardar(crearNotificacion(id, Estado.PENDIENTE)));
+
+        // When
+        List<String> recorridos = repository.recorrerPorEstado(Estado.PENDIENTE).map(Notificacion::getId).toList();
+        List<Notificacion> despuesDelSegundo = repository.filtrarPorEstado(Estado.PENDIENTE, recorridos.get(1), 10);
+
+        // Then
+        assertEquals(idsOriginales.stream().sorted().toList(), recorridos);
+        assertEquals(recorridos.subList(2, recorridos.size()), despuesDelSegundo.stream().map(Notificacion::getId).toList());
+        idsOriginales.forEach(id -> assertEquals(id, repository.buscarPorId(id).orElseThrow().getId()));
+    }
+
+    @Test
+    @DisplayName("Costos - Los totales y desgloses se mantienen al crear, cambiar de estado y eliminar")
+    void testAgregadosDeCosto() {
+        // Given
+        Notificacion email = crearNotificacion("id-1", Estado.PENDIENTE);
+        Notificacion sms = crearNotificacion("id-2", Estado.PENDIENTE);
+        sms.setCanal(CanalNotificacion.SMS);
+        sms.setPrioridad(Prioridad.ALTA);
+        sms.setCosto(new BigDecimal("0.50"));
+        Notificacion push = crearNotificacion("id-3", Estado.PENDIENTE);
+        push.setCanal(CanalNotificacion.PUSH);
+        push.setCosto(new BigDecimal("0.05"));
+
+        // When
+        repository.guardar(email);
+        repository.guardar(sms);
+        repository.guardar(push);
+        sms.setEstado(Estado.ENVIADA);
+        repository.guardar(sms);
+        repository.eliminar("id-3");
+
+        // Then
+        assertEquals(new BigDecimal("0.60"), repository.costoTotal());
+        assertEquals(new BigDecimal("0.10"), repository.costoPorCanal().get(CanalNotificacion.EMAIL));
+        assertEquals(new BigDecimal("0.50"), repository.costoPorCanal().get(CanalNotificacion.SMS));
+        assertEquals(new BigDecimal("0.00"), repository.costoPorCanal().get(CanalNotificacion.PUSH));
+        assertEquals(new BigDecimal("0.50"), repository.costoPorPrioridad().get(Prioridad.ALTA));
+        assertEquals(new BigDecimal("0.10"), repository.costoPorEstado().get(Estado.PENDIENTE));
+        assertEquals(new BigDecimal("0.50"), repository.costoPorEstado().get(Estado.ENVIADA));
+    }
+
+    @Test
+    @DisplayName("Costos - Rechaza importes con más decimales de los representables")
+    void testCostoNoRepresentable() {
+        Notificacion notificacion = crearNotificacion("id-1", Estado.PENDIENTE);
+        notificacion.setCosto(new BigDecimal("0.123456"));
+
+        assertThrows(IllegalArgumentException.class, () -> repository.guardar(notificacion));
+        assertEquals(0, repository.contar());
+    }
+
+    @Test
+    @DisplayName("Estrés - Escrituras concurrentes de IDs distintos no pierden actualizaciones")
+    void testEscriturasConcurrentesNoPierdenActualizaciones() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        // When
+        for (int h = 0; h < HILOS; h++) {
+            final int hilo = h;
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                    String id = hilo + "-" + i;
+                    repository.guardar(crearNotificacion(id, Estado.PENDIENTE));
+                    assertTrue(repository.buscarPorId(id).isPresent());
+                }
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals((long) HILOS * OPERACIONES_POR_HILO, repository.contar());
+        assertEquals(0, new BigDecimal("0.10").multiply(BigDecimal.valueOf((long) HILOS * OPERACIONES_POR_HILO))
+                .compareTo(repository.costoTotal()));
+        assertEquals(HILOS * OPERACIONES_POR_HILO, repository.listarTodas().size());
+    }
+
+    @Test
+    @DisplayName("Estrés - Altas y bajas concurrentes sobre las mismas claves mantienen el conteo")
+    void testAltasYBajasConcurrentes() throws Exception {
+        // Given: cada hilo escribe y elimina sobre un rango de claves compartido
+        int claves = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        // When
+        for (int h = 0; h < HILOS; h++) {
+            final int hilo = h;
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                    String id = "compartida-" + ((hilo + i) % claves);
+                    repository.guardar(crearNotificacion(id, Estado.PENDIENTE));
+                    if (i % 3 == 0) {
+                        repository.eliminar(id);
+                    }
+                }
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then: el conteo coincide exactamente con las claves realmente presentes
+        long presentes = 0;
+        for (int i = 0; i < claves; i++) {
+            if (repository.buscarPorId("compartida-" + i).isPresent()) {
+                presentes++;
+            }
+        }
+        assertEquals(presentes, repository.contar());
+        assertEquals(presentes, repository.filtrarPorEstado(Estado.PENDIENTE).size());
+        assertEquals(0, new BigDecimal("0.10").multiply(BigDecimal.valueOf(presentes))
+                .compareTo(repository.costoTotal()));
+    }
+
+    private List<String> ids(List<Notificacion> notificaciones) {
+        return notificaciones.stream().map(Notificacion::getId).sorted().toList();
+    }
+
+    private Notificacion crearNotificacion(String id, Estado estado) {
+        return Notificacion.builder()
+                .id(id)
+                .destinatario("usuario@banco.com")
+                .mensaje("Mensaje de prueba")
+                .canal(CanalNotificacion.EMAIL)
+                .prioridad(Prioridad.MEDIA)
+                .estado(estado)
+                .costo(new BigDecimal("0.10"))
+                .fechaCreacion(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.banco.notificaciones.respuesta;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.repository.NotificacionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la caché de respuestas serializadas: ETag, If-None-Match, desalojo por tamaño
+ * e invalidación al eliminar.
+ */
+@DisplayName("Tests de CacheRespuestas")
+class CacheRespuestasTest {
+
+    @Test
+    @DisplayName("Guardar - El ETag depende solo del contenido y coincide con If-None-Match")
+    void testEtagYCoincidencia() {
+        // Given
+        CacheRespuestas cache = new CacheRespuestas(new SimpleMeterRegistry(), 1);
+        byte[] cuerpo = "{\"id\":\"id-1\",\"estado\":\"ENVIADA\"}".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        CacheRespuestas.Respuesta guardada = cache.guardar("id-1", cuerpo);
+        CacheRespuestas.Respuesta leida = cache.obtener("id-1");
+
+        // Then
+        assertSame(guardada, leida);
+        assertNull(cache.obtener("id-2"));
+        String etag = guardada.etag();
+        assertEquals(etag, CacheRespuestas.sinGuardar(cuerpo.clone()).etag());
+        assertNotEquals(etag, CacheRespuestas.sinGuardar("{}".getBytes(StandardCharsets.UTF_8)).etag());
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertTrue(CacheRespuestas.coincide(etag, etag));
+        assertTrue(CacheRespuestas.coincide("\"otro\", W/" + etag, etag));
+        assertTrue(CacheRespuestas.coincide("*", etag));
+        assertFalse(CacheRespuestas.coincide("\"otro\"", etag));
+        assertFalse(CacheRespuestas.coincide(null, etag));
+    }
+
+    @Test
+    @DisplayName("Guardar - Al superar el máximo se desalojan primero las que no se consultaron")
+    void testDesalojoSegundaOportunidad() {
+        // Given
+        CacheRespuestas cache = new CacheRespuestas(new SimpleMeterRegistry(), 1);
+        byte[] cuerpo = new byte[64 * 1024];
+        cache.guardar("consultada", cuerpo);
+        cache.guardar("olvidada", cuerpo);
+        cache.obtener("consultada");
+
+        // When
+        for (int i = 0; i < 14; i++) {
+            cache.guardar("id-" + i, cuerpo);
+        }
+
+        // Then
+        assertTrue(cache.getBytes() <= 1024 * 1024);
+        assertNotNull(cache.obtener("consultada"));
+        assertNull(cache.obtener("olvidada"));
+        assertNotNull(cache.obtener("id-13"));
+    }
+
+    @Test
+    @DisplayName("Invalidar - El desalojo salta las invalidadas sin volver a descontar su peso")
+    void testDesalojoSaltaInvalidadas() {
+        // Given: 15 entradas de ~64 KB caben en 1 MB; se invalidan las 5 más antiguas
+        CacheRespuestas cache = new CacheRespuestas(new SimpleMeterRegistry(), 1);
+        byte[] cuerpo = new byte[64 * 1024];
+        for (int i = 0; i < 15; i++) {
+            cache.guardar("id-" + i, cuerpo);
+        }
+        long bytesPorEntrada = cache.getBytes() / 15;
+        for (int i = 0; i < 5; i++) {
+            cache.invalidar("id-" + i);
+        }
+
+        // When
+        for (int i = 15; i < 25; i++) {
+            cache.guardar("id-" + i, cuerpo);
+        }
+
+        // Then
+        assertTrue(cache.getBytes() <= 1024 * 1024);
+        assertEquals(cache.getTamano() * bytesPorEntrada, cache.getBytes());
+        assertNull(cache.obtener("id-0"));
+        assertNotNull(cache.obtener("id-24"));
+    }
+
+    @Test
+    @DisplayName("Invalidar - Eliminar la notificación o limpiar el repositorio descarta su respuesta")
+    void testInvalidaAlEliminarYLimpiar() {
+        // Given
+        NotificacionRepository repository = new NotificacionRepository();
+        CacheRespuestas cache = new CacheRespuestas(new SimpleMeterRegistry(), repository, 1);
+        for (String id : List.of("id-1", "id-2", "id-3")) {
+            repository.guardar(Notificacion.builder().id(id).estado(Estado.ENVIADA).build());
+            cache.guardar(id, ("{\"id\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8));
+        }
+        long bytesPorEntrada = cache.getBytes() / 3;
+
+        // When
+        repository.eliminar("id-1");
+
+        // Then
+        assertNull(cache.obtener("id-1"));
+        assertNotNull(cache.obtener("id-2"));
+        assertEquals(2 * bytesPorEntrada, cache.getBytes());
+
+        // When
+        repository.limpiar();
+
+        // Then
+        assertNull(cache.obtener("id-2"));
+        assertEquals(0, cache.getTamano());
+        assertEquals(0, cache.getBytes());
+    }
+}
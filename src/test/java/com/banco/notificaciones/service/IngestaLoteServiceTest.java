@@ -0,0 +1,118 @@
+package com.banco.notificaciones.service;
+
+import com.banco.notificaciones.dto.CrearNotificacionRequest;
+import com.banco.notificaciones.dto.ResultadoLoteResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests de la carga masiva en streaming.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de IngestaLoteService")
+class IngestaLoteServiceTest {
+
+    private static final String VALIDA_EMAIL =
+            "{\"destinatario\":\"usuario@banco.com\",\"mensaje\":\"Hola\",\"canal\":\"EMAIL\",\"prioridad\":\"BAJA\"}";
+    private static final String VALIDA_SMS =
+            "{\"destinatario\":\"5512345678\",\"mensaje\":\"OTP\",\"canal\":\"SMS\",\"prioridad\":\"ALTA\"}";
+    private static final String SIN_MENSAJE =
+            "{\"destinatario\":\"5512345678\",\"canal\":\"SMS\",\"prioridad\":\"ALTA\"}";
+    private static final String CANAL_DESCONOCIDO =
+            "{\"destinatario\":\"5512345678\",\"mensaje\":\"OTP\",\"canal\":\"FAX\",\"prioridad\":\"ALTA\"}";
+
+    @Mock
+    private NotificacionService notificacionService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final AtomicInteger secuencia = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(notificacionService.crearLote(anyList())).thenAnswer(invocation -> {
+            List<CrearNotificacionRequest> lote = invocation.getArgument(0);
+            return lote.stream()
+                    .map(s -> ResultadoLoteResponse.builder().id("id-" + secuencia.incrementAndGet()).build())
+                    .toList();
+        });
+    }
+
+    @Test
+    @DisplayName("NDJSON - Crea los válidos y reporta errores por registro sin detener la carga")
+    void testNdjsonConRegistrosInvalidos() throws Exception {
+        // Given
+        String cuerpo = String.join("\n", VALIDA_EMAIL, SIN_MENSAJE, CANAL_DESCONOCIDO, VALIDA_SMS) + "\n";
+
+        // When
+        List<ResultadoLoteResponse> resultados = procesar(new IngestaLoteService(
+                notificacionService, validator, objectMapper, 500), cuerpo);
+
+        // Then
+        assertEquals(4, resultados.size());
+        assertEquals("id-1", resultados.get(0).getId());
+        assertNotNull(resultados.get(1).getErrores().get("mensaje"));
+        assertNull(resultados.get(1).getId());
+        assertNotNull(resultados.get(2).getErrores().get("formato"));
+        assertEquals("id-2", resultados.get(3).getId());
+        assertEquals(3L, resultados.get(3).getIndice());
+        verify(notificacionService, times(1)).crearLote(anyList());
+    }
+
+    @Test
+    @DisplayName("Arreglo JSON - Se procesa en lotes del tamaño configurado")
+    void testArregloJsonEnLotes() throws Exception {
+        // Given
+        String cuerpo = "[" + String.join(",", VALIDA_EMAIL, VALIDA_SMS, VALIDA_EMAIL, VALIDA_SMS, VALIDA_EMAIL) + "]";
+
+        // When
+        List<ResultadoLoteResponse> resultados = procesar(new IngestaLoteService(
+                notificacionService, validator, objectMapper, 2), cuerpo);
+
+        // Then
+        assertEquals(5, resultados.size());
+        assertTrue(resultados.stream().allMatch(r -> r.getId() != null && r.getErrores() == null));
+        verify(notificacionService, times(3)).crearLote(anyList());
+    }
+
+    @Test
+    @DisplayName("JSON mal formado - Reporta el error y termina la carga")
+    void testJsonMalFormado() throws Exception {
+        // Given
+        String cuerpo = VALIDA_EMAIL + "\n{\"destinatario\": \n";
+
+        // When
+        List<ResultadoLoteResponse> resultados = procesar(new IngestaLoteService(
+                notificacionService, validator, objectMapper, 500), cuerpo);
+
+        // Then
+        assertEquals(2, resultados.size());
+        assertEquals("id-1", resultados.get(0).getId());
+        assertNotNull(resultados.get(1).getErrores().get("formato"));
+    }
+
+    private List<ResultadoLoteResponse> procesar(IngestaLoteService ingesta, String cuerpo) throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        ingesta.procesar(new ByteArrayInputStream(cuerpo.getBytes(StandardCharsets.UTF_8)), salida);
+        return objectMapper.readerFor(ResultadoLoteResponse.class)
+                .<ResultadoLoteResponse>readValues(salida.toByteArray())
+                .readAll();
+    }
+}
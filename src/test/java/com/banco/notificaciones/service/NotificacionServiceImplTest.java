@@ -1,14 +1,33 @@
 package com.banco.notificaciones.service;
 
+import com.banco.notificaciones.auditoria.AuditoriaEnvios;
+import com.banco.notificaciones.circuito.CircuitoAbiertoException;
+import com.banco.notificaciones.despacho.DespachadorNotificaciones;
+import com.banco.notificaciones.dto.CostoDesgloseResponse;
 import com.banco.notificaciones.dto.CostoTotalResponse;
+import com.banco.notificaciones.dto.CrearNotificacionRequest;
+import com.banco.notificaciones.dto.DestinoPlanRequest;
+import com.banco.notificaciones.dto.EnvioLoteResponse;
 import com.banco.notificaciones.dto.EnvioResponse;
 import com.banco.notificaciones.dto.NotificacionResponse;
+import com.banco.notificaciones.dto.PaginaNotificacionesResponse;
+import com.banco.notificaciones.dto.PlanEntregaRequest;
+import com.banco.notificaciones.dto.PlanEntregaResponse;
+import com.banco.notificaciones.dto.ResultadoCanalResponse;
+import com.banco.notificaciones.dto.ResultadoLoteResponse;
+import com.banco.notificaciones.exception.ColaLlenaException;
 import com.banco.notificaciones.factory.NotificacionStrategyFactory;
+import com.banco.notificaciones.identificador.GeneradorId;
+import com.banco.notificaciones.identificador.GeneradorIdOrdenado;
 import com.banco.notificaciones.mapper.NotificacionMapper;
+import com.banco.notificaciones.metricas.MetricasNotificaciones;
 import com.banco.notificaciones.model.Notificacion;
 import com.banco.notificaciones.model.enums.CanalNotificacion;
 import com.banco.notificaciones.model.enums.Estado;
+import com.banco.notificaciones.model.enums.ModoEntrega;
 import com.banco.notificaciones.model.enums.Prioridad;
+import com.banco.notificaciones.model.enums.ResultadoEntrega;
+import com.banco.notificaciones.reintento.MotorReintentos;
 import com.banco.notificaciones.repository.NotificacionRepository;
 import com.banco.notificaciones.strategy.CanalNotificacionStrategy;
 import com.banco.notificaciones.strategy.EmailNotificationStrategy;
@@ -20,17 +39,30 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -53,6 +85,21 @@ class NotificacionServiceImplTest {
     @Mock
     private NotificacionMapper mapper;
     
+    @Mock
+    private DespachadorNotificaciones despachador;
+    
+    @Mock
+    private MetricasNotificaciones metricas;
+    
+    @Mock
+    private AuditoriaEnvios auditoria;
+    
+    @Mock
+    private MotorReintentos reintentos;
+    
+    @Spy
+    private GeneradorId generadorId = new GeneradorIdOrdenado(0);
+    
     @InjectMocks
     private NotificacionServiceImpl notificacionService;
     
@@ -70,6 +117,7 @@ class NotificacionServiceImplTest {
         CanalNotificacion canal = CanalNotificacion.EMAIL;
         Prioridad prioridad = Prioridad.ALTA;
         
+        when(emailStrategy.esDestinatarioValido(destinatario)).thenReturn(true);
         when(emailStrategy.calcularCosto()).thenReturn(new BigDecimal("0.10"));
         when(strategyFactory.getStrategy(canal)).thenReturn(emailStrategy);
         when(repository.guardar(any(Notificacion.class))).thenAnswer(i -> i.getArgument(0));
@@ -104,6 +152,7 @@ class NotificacionServiceImplTest {
         assertEquals(Estado.PENDIENTE, resultado.getEstado()); // Estado inicial PENDIENTE
         assertEquals(new BigDecimal("0.10"), resultado.getCosto()); // Costo calculado según canal
         assertNotNull(resultado.getFechaCreacion());
+        assertEquals(0, resultado.getFechaCreacion().getNano() % 1_000_000); // Precisión del almacén
         assertNull(resultado.getFechaEnvio()); // No enviada aún
         
         // Verificar que se guardó en el repositorio
@@ -171,6 +220,53 @@ class NotificacionServiceImplTest {
         verify(repository, never()).guardar(any(Notificacion.class));
     }
     
+    @Test
+    @DisplayName("Validación de destinatario por canal - Rechaza al crear un teléfono con formato inválido")
+    void testCrearNotificacionConDestinatarioInvalidoParaElCanal() {
+        // Given
+        SmsNotificationStrategy smsStrategy = new SmsNotificationStrategy();
+        when(strategyFactory.getStrategy(CanalNotificacion.SMS)).thenReturn(smsStrategy);
+        
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> notificacionService.crearNotificacion("55-1234-5678", "Código: 123456",
+                        CanalNotificacion.SMS, Prioridad.ALTA)
+        );
+        
+        assertEquals("Destinatario inválido para el canal SMS", exception.getMessage());
+        verify(repository, never()).guardar(any(Notificacion.class));
+    }
+    
+    @Test
+    @DisplayName("Creación por lote - Guarda los válidos en una sola escritura y reporta los inválidos")
+    void testCrearLote() {
+        // Given
+        when(emailStrategy.esDestinatarioValido(anyString())).thenReturn(true);
+        when(emailStrategy.calcularCosto()).thenReturn(new BigDecimal("0.10"));
+        when(strategyFactory.getStrategy(CanalNotificacion.EMAIL)).thenReturn(emailStrategy);
+        List<CrearNotificacionRequest> solicitudes = List.of(
+                new CrearNotificacionRequest("usuario@banco.com", "Mensaje", CanalNotificacion.EMAIL, Prioridad.BAJA),
+                new CrearNotificacionRequest("  ", "Mensaje", CanalNotificacion.EMAIL, Prioridad.BAJA),
+                new CrearNotificacionRequest("otro@banco.com", "Mensaje", CanalNotificacion.EMAIL, Prioridad.ALTA));
+        
+        // When
+        List<ResultadoLoteResponse> resultados = notificacionService.crearLote(solicitudes);
+        
+        // Then
+        assertEquals(3, resultados.size());
+        assertNotNull(resultados.get(0).getId());
+        assertEquals("El destinatario no puede ser nulo o vacío", resultados.get(1).getErrores().get("error"));
+        assertNotNull(resultados.get(2).getId());
+        
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Notificacion>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).guardarTodas(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertTrue(captor.getValue().stream().allMatch(n -> n.getEstado() == Estado.PENDIENTE));
+        verify(repository, never()).guardar(any(Notificacion.class));
+    }
+    
     @Test
     @DisplayName("Test 4: Envío exitoso por canal EMAIL - Cambia estado a ENVIADA")
     void testEnviarNotificacionExitosaPorEmail() {
@@ -231,28 +327,14 @@ class NotificacionServiceImplTest {
         
         verify(emailStrategy, times(1)).enviar(notificacion);
         verify(mapper, times(1)).toResponse(any(Notificacion.class));
+        verify(metricas).registrarEnvio(eq(CanalNotificacion.EMAIL), eq(true), anyLong(), eq(new BigDecimal("0.10")));
     }
     
     @Test
-    @DisplayName("Test 5: Cálculo de costos totales - Suma correctamente múltiples notificaciones")
+    @DisplayName("Test 5: Cálculo de costos totales - Se sirve desde los totales del repositorio")
     void testCalcularCostoTotal() {
         // Given
-        Notificacion notif1 = Notificacion.builder()
-                .id("1")
-                .costo(new BigDecimal("0.10"))
-                .build();
-        
-        Notificacion notif2 = Notificacion.builder()
-                .id("2")
-                .costo(new BigDecimal("0.50"))
-                .build();
-        
-        Notificacion notif3 = Notificacion.builder()
-                .id("3")
-                .costo(new BigDecimal("0.05"))
-                .build();
-        
-        when(repository.listarTodas()).thenReturn(Arrays.asList(notif1, notif2, notif3));
+        when(repository.costoTotal()).thenReturn(new BigDecimal("0.65"));
         
         // When
         CostoTotalResponse resultado = notificacionService.calcularCostoTotal();
@@ -260,30 +342,34 @@ class NotificacionServiceImplTest {
         // Then
         assertNotNull(resultado);
         assertEquals(new BigDecimal("0.65"), resultado.getCostoTotal());
-        verify(repository, times(1)).listarTodas();
+        verify(repository, times(1)).costoTotal();
+        verify(repository, never()).listarTodas();
     }
     
     @Test
-    @DisplayName("Test 5: Cálculo de costos totales - Maneja diferentes canales")
-    void testCalcularCostoTotalConDiferentesCanales() {
-        // Given - Simular notificaciones de diferentes canales
-        List<Notificacion> notificaciones = Arrays.asList(
-                Notificacion.builder().id("1").canal(CanalNotificacion.EMAIL)
-                        .costo(new BigDecimal("0.10")).build(),
-                Notificacion.builder().id("2").canal(CanalNotificacion.SMS)
-                        .costo(new BigDecimal("0.50")).build(),
-                Notificacion.builder().id("3").canal(CanalNotificacion.PUSH)
-                        .costo(new BigDecimal("0.05")).build()
-        );
+    @DisplayName("Test 5: Cálculo de costos totales - Desglose por canal, prioridad y estado")
+    void testCalcularCostoDesgloseConDiferentesCanales() {
+        // Given
+        Map<CanalNotificacion, BigDecimal> porCanal = new EnumMap<>(CanalNotificacion.class);
+        porCanal.put(CanalNotificacion.EMAIL, new BigDecimal("0.10"));
+        porCanal.put(CanalNotificacion.SMS, new BigDecimal("0.50"));
+        porCanal.put(CanalNotificacion.PUSH, new BigDecimal("0.05"));
         
-        when(repository.listarTodas()).thenReturn(notificaciones);
+        when(repository.costoTotal()).thenReturn(new BigDecimal("0.65"));
+        when(repository.costoPorCanal()).thenReturn(porCanal);
+        when(repository.costoPorPrioridad()).thenReturn(Map.of(Prioridad.ALTA, new BigDecimal("0.65")));
+        when(repository.costoPorEstado()).thenReturn(Map.of(Estado.PENDIENTE, new BigDecimal("0.65")));
         
         // When
-        CostoTotalResponse resultado = notificacionService.calcularCostoTotal();
+        CostoDesgloseResponse resultado = notificacionService.calcularCostoDesglose();
         
         // Then
         assertNotNull(resultado);
         assertEquals(0, new BigDecimal("0.65").compareTo(resultado.getCostoTotal()));
+        assertEquals(porCanal, resultado.getPorCanal());
+        assertEquals(new BigDecimal("0.65"), resultado.getPorPrioridad().get(Prioridad.ALTA));
+        assertEquals(new BigDecimal("0.65"), resultado.getPorEstado().get(Estado.PENDIENTE));
+        verify(repository, never()).listarTodas();
     }
     
     @Test
@@ -336,6 +422,45 @@ class NotificacionServiceImplTest {
         assertTrue(resultado.isEmpty());
     }
     
+    @Test
+    @DisplayName("Paginación por estado - Devuelve cursor solo si hay más resultados y lo decodifica al continuar")
+    void testObtenerPaginaPorEstado() {
+        // Given
+        List<Notificacion> encontradas = List.of(
+                Notificacion.builder().id("a").estado(Estado.PENDIENTE).build(),
+                Notificacion.builder().id("b").estado(Estado.PENDIENTE).build(),
+                Notificacion.builder().id("c").estado(Estado.PENDIENTE).build());
+        when(repository.filtrarPorEstado(Estado.PENDIENTE, null, 3)).thenReturn(encontradas);
+        when(repository.filtrarPorEstado(Estado.PENDIENTE, "b", 3)).thenReturn(encontradas.subList(2, 3));
+        when(mapper.toResponse(any(Notificacion.class))).thenAnswer(invocation -> NotificacionResponse.builder()
+                .id(((Notificacion) invocation.getArgument(0)).getId())
+                .build());
+        
+        // When
+        PaginaNotificacionesResponse primera = notificacionService.obtenerPaginaPorEstado(Estado.PENDIENTE, null, 2);
+        PaginaNotificacionesResponse segunda = notificacionService.obtenerPaginaPorEstado(
+                Estado.PENDIENTE, primera.getSiguienteCursor(), 2);
+        
+        // Then
+        assertEquals(2, primera.getContenido().size());
+        assertNotNull(primera.getSiguienteCursor());
+        assertEquals("c", segunda.getContenido().get(0).getId());
+        assertNull(segunda.getSiguienteCursor());
+    }
+    
+    @Test
+    @DisplayName("Paginación por estado - Rechaza límites fuera de rango y cursores inválidos")
+    void testObtenerPaginaPorEstadoParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class,
+                () -> notificacionService.obtenerPaginaPorEstado(Estado.PENDIENTE, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> notificacionService.obtenerPaginaPorEstado(Estado.PENDIENTE, null, 5000));
+        assertThrows(IllegalArgumentException.class,
+                () -> notificacionService.obtenerPaginaPorEstado(Estado.PENDIENTE, "%%%", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> notificacionService.recorrerPorEstado(null));
+    }
+    
     @Test
     @DisplayName("Test 7: Factory genera estrategia correcta - Verifica creación de EmailStrategy")
     void testFactoryGeneraEstrategiaEmailCorrecta() {
@@ -438,6 +563,264 @@ class NotificacionServiceImplTest {
         assertEquals(Estado.FALLIDA, captor.getValue().getEstado());
         assertEquals(Estado.FALLIDA, resultado.getNotificacion().getEstado());
         verify(mapper, times(1)).toResponse(any(Notificacion.class));
+        verify(auditoria).registrar(eq(id), eq(CanalNotificacion.EMAIL), eq("invalid"), eq(false), anyLong(), isNull());
+        assertEquals(1, captor.getValue().getIntentos());
+        verify(reintentos).aplicarFallo(notificacion);
+        verify(reintentos).programar(notificacion);
+    }
+    
+    @Test
+    @DisplayName("Envío asíncrono - Encola en el despachador con la prioridad de la notificación")
+    void testEncolarEnvio() {
+        // Given
+        String id = "test-id-async";
+        Notificacion notificacion = Notificacion.builder()
+                .id(id)
+                .destinatario("usuario@banco.com")
+                .mensaje("Código OTP")
+                .canal(CanalNotificacion.EMAIL)
+                .prioridad(Prioridad.ALTA)
+                .estado(Estado.PENDIENTE)
+                .build();
+        
+        when(despachador.isAsincrono()).thenReturn(true);
+        when(repository.buscarPorId(id)).thenReturn(Optional.of(notificacion));
+        when(despachador.encolar(eq(id), eq(Prioridad.ALTA), any(Runnable.class))).thenReturn(true);
+        when(mapper.toResponse(any(Notificacion.class))).thenAnswer(invocation -> {
+            Notificacion notif = invocation.getArgument(0);
+            return NotificacionResponse.builder()
+                    .id(notif.getId())
+                    .estado(notif.getEstado())
+                    .build();
+        });
+        
+        // When
+        EnvioResponse resultado = notificacionService.encolarEnvio(id);
+        
+        // Then
+        assertTrue(resultado.getEncolada());
+        assertNull(resultado.getExitoso());
+        assertEquals(Estado.PENDIENTE, resultado.getNotificacion().getEstado());
+        verify(despachador).encolar(eq(id), eq(Prioridad.ALTA), any(Runnable.class));
+        verify(strategyFactory, never()).getStrategy(any());
+        verify(repository, never()).guardar(any(Notificacion.class));
+    }
+    
+    @Test
+    @DisplayName("Envío asíncrono - Una notificación ya en la cola no se encola otra vez y se informa")
+    void testEncolarEnvioDuplicado() {
+        // Given
+        String id = "test-id-dup";
+        Notificacion notificacion = Notificacion.builder()
+                .id(id)
+                .destinatario("usuario@banco.com")
+                .mensaje("Código OTP")
+                .canal(CanalNotificacion.EMAIL)
+                .prioridad(Prioridad.MEDIA)
+                .estado(Estado.PENDIENTE)
+                .build();
+        
+        when(despachador.isAsincrono()).thenReturn(true);
+        when(repository.buscarPorId(id)).thenReturn(Optional.of(notificacion));
+        when(despachador.encolar(eq(id), eq(Prioridad.MEDIA), any(Runnable.class))).thenReturn(true, false);
+        
+        // When
+        EnvioResponse primera = notificacionService.encolarEnvio(id);
+        EnvioResponse segunda = notificacionService.encolarEnvio(id);
+        
+        // Then
+        assertTrue(primera.getEncolada());
+        assertFalse(primera.getEnDespacho());
+        assertFalse(segunda.getEncolada());
+        assertTrue(segunda.getEnDespacho());
+        verify(despachador, times(2)).encolar(eq(id), eq(Prioridad.MEDIA), any(Runnable.class));
+    }
+    
+    @Test
+    @DisplayName("Estados finales - DESCARTADA y CANCELADA no se vuelven a enviar ni a encolar")
+    void testEnviarEstadoFinalNoReenvia() {
+        // Given
+        Notificacion descartada = Notificacion.builder()
+                .id("id-descartada")
+                .destinatario("usuario@banco.com")
+                .canal(CanalNotificacion.EMAIL)
+                .prioridad(Prioridad.MEDIA)
+                .estado(Estado.DESCARTADA)
+                .intentos(5)
+                .build();
+        Notificacion cancelada = Notificacion.builder()
+                .id("id-cancelada")
+                .destinatario("5512345678")
+                .canal(CanalNotificacion.SMS)
+                .prioridad(Prioridad.ALTA)
+                .estado(Estado.CANCELADA)
+                .build();
+        when(despachador.isAsincrono()).thenReturn(true, false);
+        when(repository.buscarPorId("id-descartada")).thenReturn(Optional.of(descartada));
+        when(repository.buscarPorId("id-cancelada")).thenReturn(Optional.of(cancelada));
+        
+        // When
+        EnvioResponse encolada = notificacionService.encolarEnvio("id-descartada");
+        EnvioResponse directa = notificacionService.encolarEnvio("id-cancelada");
+        EnvioResponse asincrona = notificacionService.enviarAsincrono("id-descartada").join();
+        
+        // Then
+        for (EnvioResponse respuesta : List.of(encolada, directa, asincrona)) {
+            assertFalse(respuesta.getExitoso());
+            assertFalse(respuesta.getEncolada());
+        }
+        assertEquals(Estado.DESCARTADA, descartada.getEstado());
+        assertEquals(5, descartada.getIntentos());
+        assertEquals(Estado.CANCELADA, cancelada.getEstado());
+        verify(despachador, never()).encolar(anyString(), any(), any(Runnable.class));
+        verify(despachador, never()).reservar(anyString());
+        verify(strategyFactory, never()).getStrategy(any());
+        verify(repository, never()).guardar(any(Notificacion.class));
+    }
+    
+    @Test
+    @DisplayName("Reintentos - Con la cola llena el reintento se aplaza sin contar un fallo")
+    void testReintentoColaLlenaAplaza() {
+        // Given
+        String id = "id-reintento";
+        Notificacion notificacion = Notificacion.builder()
+                .id(id)
+                .destinatario("usuario@banco.com")
+                .canal(CanalNotificacion.EMAIL)
+                .prioridad(Prioridad.BAJA)
+                .estado(Estado.FALLIDA)
+                .intentos(1)
+                .build();
+        ArgumentCaptor<Consumer<String>> manejador = ArgumentCaptor.forClass(Consumer.class);
+        notificacionService.iniciarReintentos();
+        verify(reintentos).iniciar(manejador.capture());
+        when(repository.buscarPorId(id)).thenReturn(Optional.of(notificacion));
+        when(reintentos.corresponde(notificacion)).thenReturn(true);
+        when(despachador.encolar(eq(id), eq(Prioridad.BAJA), any(Runnable.class)))
+                .thenThrow(new ColaLlenaException("La cola de despacho está llena, reintente más tarde"));
+        
+        // When
+        manejador.getValue().accept(id);
+        
+        // Then
+        assertEquals(Estado.FALLIDA, notificacion.getEstado());
+        assertEquals(1, notificacion.getIntentos());
+        verify(reintentos).aplazar(notificacion);
+        verify(reintentos, never()).aplicarFallo(any());
+        verify(repository).guardar(notificacion);
+        verify(reintentos).programar(notificacion);
+    }
+    
+    @Test
+    @DisplayName("Envío no bloqueante - Registra el resultado al completarse el envío del proveedor")
+    void testEnviarAsincrono() {
+        // Given
+        String id = "test-id-reactivo";
+        Notificacion notificacion = Notificacion.builder()
+                .id(id)
+                .destinatario("usuario@banco.com")
+                .mensaje("Código OTP")
+                .canal(CanalNotificacion.EMAIL)
+                .prioridad(Prioridad.ALTA)
+                .estado(Estado.PENDIENTE)
+                .costo(new BigDecimal("0.10"))
+                .build();
+        CompletableFuture<Boolean> proveedor = new CompletableFuture<>();
+        
+        when(repository.buscarPorId(id)).thenReturn(Optional.of(notificacion));
+        when(despachador.reservar(id)).thenReturn(true);
+        when(strategyFactory.getStrategy(CanalNotificacion.EMAIL)).thenReturn(emailStrategy);
+        when(emailStrategy.enviarAsincrono(notificacion)).thenReturn(proveedor);
+        when(mapper.toResponse(any(Notificacion.class))).thenAnswer(invocation -> {
+            Notificacion notif = invocation.getArgument(0);
+            return NotificacionResponse.builder()
+                    .id(notif.getId())
+                    .estado(notif.getEstado())
+                    .build();
+        });
+        
+        // When
+        CompletableFuture<EnvioResponse> envio = notificacionService.enviarAsincrono(id);
+        boolean completoAntesDelProveedor = envio.isDone();
+        proveedor.complete(true);
+        EnvioResponse resultado = envio.join();
+        
+        // Then
+        assertFalse(completoAntesDelProveedor);
+        verify(repository).guardar(notificacion);
+        assertTrue(resultado.getExitoso());
+        assertEquals(Estado.ENVIADA, resultado.getNotificacion().getEstado());
+        assertEquals(1, notificacion.getIntentos());
+        verify(emailStrategy, never()).enviar(any());
+        verify(despachador).liberar(id);
+        verify(metricas).registrarEnvio(eq(CanalNotificacion.EMAIL), eq(true), anyLong(), eq(new BigDecimal("0.10")));
+    }
+    
+    @Test
+    @DisplayName("Envío no bloqueante - No vuelve a enviar una notificación que ya está en despacho")
+    void testEnviarAsincronoYaEnDespacho() {
+        // Given
+        String id = "test-id-reactivo";
+        Notificacion notificacion = Notificacion.builder()
+                .id(id)
+                .canal(CanalNotificacion.EMAIL)
+                .estado(Estado.PENDIENTE)
+                .build();
+        
+        when(repository.buscarPorId(id)).thenReturn(Optional.of(notificacion));
+        when(despachador.reservar(id)).thenReturn(false);
+        when(mapper.toResponse(notificacion)).thenReturn(NotificacionResponse.builder().id(id).build());
+        
+        // When
+        EnvioResponse resultado = notificacionService.enviarAsincrono(id).join();
+        
+        // Then
+        assertFalse(resultado.getEncolada());
+        assertTrue(resultado.getEnDespacho());
+        verify(strategyFactory, never()).getStrategy(any());
+        verify(despachador, never()).liberar(id);
+        verify(repository, never()).guardar(any(Notificacion.class));
+    }
+    
+    @Test
+    @DisplayName("Envío de pendientes - Recorre por páginas, agrupa por canal y guarda los estados por lote")
+    void testEnviarPendientes() {
+        // Given
+        ReflectionTestUtils.setField(notificacionService, "tamanoLoteEnvio", 2);
+        Notificacion email1 = Notificacion.builder().id("e1").canal(CanalNotificacion.EMAIL).estado(Estado.PENDIENTE).build();
+        Notificacion email2 = Notificacion.builder().id("e2").canal(CanalNotificacion.EMAIL).estado(Estado.PENDIENTE).build();
+        Notificacion email3 = Notificacion.builder().id("e3").canal(CanalNotificacion.EMAIL).estado(Estado.PENDIENTE).build();
+        Notificacion sms = Notificacion.builder().id("s1").canal(CanalNotificacion.SMS).estado(Estado.PENDIENTE).build();
+        CanalNotificacionStrategy smsStrategy = mock(CanalNotificacionStrategy.class);
+        
+        when(repository.filtrarPorEstado(Estado.PENDIENTE, null, 2)).thenReturn(List.of(email1, email2));
+        when(repository.filtrarPorEstado(Estado.PENDIENTE, "e2", 2)).thenReturn(List.of(email3, sms));
+        when(repository.filtrarPorEstado(Estado.PENDIENTE, "s1", 2)).thenReturn(List.of());
+        when(despachador.reservar(any())).thenReturn(true);
+        when(strategyFactory.getStrategy(CanalNotificacion.EMAIL)).thenReturn(emailStrategy);
+        when(strategyFactory.getStrategy(CanalNotificacion.SMS)).thenReturn(smsStrategy);
+        when(emailStrategy.enviarLote(List.of(email1, email2))).thenReturn(List.of(true, false));
+        when(emailStrategy.enviarLote(List.of(email3))).thenReturn(List.of(true));
+        when(smsStrategy.enviarLote(List.of(sms))).thenReturn(List.of(true));
+        
+        // When
+        EnvioLoteResponse resultado = notificacionService.enviarPendientes();
+        
+        // Then
+        assertEquals(4, resultado.getTotal());
+        assertEquals(3, resultado.getExitosos());
+        assertEquals(1, resultado.getFallidos());
+        assertEquals(Estado.ENVIADA, email1.getEstado());
+        assertNotNull(email1.getFechaEnvio());
+        assertEquals(Estado.FALLIDA, email2.getEstado());
+        assertEquals(Estado.ENVIADA, sms.getEstado());
+        verify(repository, times(3)).guardarTodas(anyList());
+        verify(repository, never()).guardar(any(Notificacion.class));
+        verify(repository, never()).filtrarPorEstado(Estado.PENDIENTE);
+        verify(despachador, times(4)).liberar(any());
+        verify(metricas).registrarEnvios(CanalNotificacion.EMAIL, 1, 1, BigDecimal.ZERO);
+        verify(metricas).registrarEnvios(CanalNotificacion.EMAIL, 1, 0, BigDecimal.ZERO);
+        verify(metricas).registrarEnvios(CanalNotificacion.SMS, 1, 0, BigDecimal.ZERO);
     }
     
     @Test
@@ -456,4 +839,203 @@ class NotificacionServiceImplTest {
         assertTrue(exception.getMessage().contains("No existe una notificación con ID"));
         verify(mapper, never()).toResponse(any(Notificacion.class));
     }
+    
+    @Test
+    @DisplayName("Plan FAILOVER - Si el primer canal falla entrega el siguiente y solo cobra lo enviado")
+    void testEjecutarPlanFailover() {
+        // Given
+        CanalNotificacionStrategy smsStrategy = mock(CanalNotificacionStrategy.class);
+        CanalNotificacionStrategy pushStrategy = mock(CanalNotificacionStrategy.class);
+        when(strategyFactory.getStrategy(CanalNotificacion.EMAIL)).thenReturn(emailStrategy);
+        when(strategyFactory.getStrategy(CanalNotificacion.SMS)).thenReturn(smsStrategy);
+        when(strategyFactory.getStrategy(CanalNotificacion.PUSH)).thenReturn(pushStrategy);
+        when(emailStrategy.esDestinatarioValido(anyString())).thenReturn(true);
+        when(smsStrategy.esDestinatarioValido(anyString())).thenReturn(true);
+        when(pushStrategy.esDestinatarioValido(anyString())).thenReturn(true);
+        when(emailStrategy.calcularCosto()).thenReturn(new BigDecimal("0.10"));
+        when(smsStrategy.calcularCosto()).thenReturn(new BigDecimal("0.50"));
+        when(pushStrategy.calcularCosto()).thenReturn(new BigDecimal("0.05"));
+        when(emailStrategy.enviarAsincrono(any(), any())).thenAnswer(llegaAlProveedor(CompletableFuture.completedFuture(false)));
+        when(smsStrategy.enviarAsincrono(any(), any())).thenAnswer(llegaAlProveedor(CompletableFuture.completedFuture(true)));
+        
+        PlanEntregaRequest request = PlanEntregaRequest.builder()
+                .modo(ModoEntrega.FAILOVER)
+                .mensaje("Su transferencia fue aplicada")
+                .prioridad(Prioridad.ALTA)
+                .destinos(List.of(
+                        DestinoPlanRequest.builder().canal(CanalNotificacion.EMAIL).destinatario("usuario@banco.com").build(),
+                        DestinoPlanRequest.builder().canal(CanalNotificacion.SMS).destinatario("5512345678").build(),
+                        DestinoPlanRequest.builder().canal(CanalNotificacion.PUSH).destinatario("device_abc123").build()))
+                .build();
+        
+        // When
+        PlanEntregaResponse resultado = notificacionService.ejecutarPlan(request).join();
+        
+        // Then
+        assertTrue(resultado.getExitoso());
+        assertEquals(1, resultado.getEntregadas());
+        assertEquals(List.of(ResultadoEntrega.FALLIDA, ResultadoEntrega.ENTREGADA, ResultadoEntrega.OMITIDA),
+                resultado.getResultados().stream().map(ResultadoCanalResponse::getResultado).toList());
+        assertEquals(new BigDecimal("0.60"), resultado.getCostoTotal());
+        assertNull(resultado.getResultados().get(2).getNotificacionId());
+        verify(pushStrategy, never()).enviarAsincrono(any(), any());
+        verify(repository, times(4)).guardar(any(Notificacion.class));
+        verify(reintentos, never()).aplicarFallo(any());
+        verify(reintentos, never()).programar(any());
+        verify(despachador, times(2)).liberar(anyString());
+    }
+    
+    @Test
+    @DisplayName("Plan FAILOVER - Cobra el intento cancelado que ya llegó al proveedor y no el que esperaba turno")
+    void testEjecutarPlanCobraCanceladaEnVuelo() {
+        // Given
+        CanalNotificacionStrategy smsStrategy = mock(CanalNotificacionStrategy.class);
+        CanalNotificacionStrategy pushStrategy = mock(CanalNotificacionStrategy.class);
+        when(strategyFactory.getStrategy(CanalNotificacion.EMAIL)).thenReturn(emailStrategy);
+        when(strategyFactory.getStrategy(CanalNotificacion.SMS)).thenReturn(smsStrategy);
+        when(strategyFactory.getStrategy(CanalNotificacion.PUSH)).thenReturn(pushStrategy);
+        when(emailStrategy.esDestinatarioValido(anyString())).thenReturn(true);
+        when(smsStrategy.esDestinatarioValido(anyString())).thenReturn(true);
+        when(pushStrategy.esDestinatarioValido(anyString())).thenReturn(true);
+        when(emailStrategy.calcularCosto()).thenReturn(new BigDecimal("0.10"));
+        when(smsStrategy.calcularCosto()).thenReturn(new BigDecimal("0.50"));
+        when(pushStrategy.calcularCosto()).thenReturn(new BigDecimal("0.05"));
+        // El email sale y no responde; el SMS sigue esperando turno cuando el push entrega
+        when(emailStrategy.enviarAsincrono(any(), any())).thenAnswer(llegaAlProveedor(new CompletableFuture<>()));
+        when(smsStrategy.enviarAsincrono(any(), any())).thenReturn(new CompletableFuture<>());
+        when(pushStrategy.enviarAsincrono(any(), any())).thenAnswer(llegaAlProveedor(CompletableFuture.completedFuture(true)));
+        
+        PlanEntregaRequest request = PlanEntregaRequest.builder()
+                .modo(ModoEntrega.FAILOVER)
+                .mensaje("Su transferencia fue aplicada")
+                .prioridad(Prioridad.ALTA)
+                .presupuestoMs(10L)
+                .destinos(List.of(
+                        DestinoPlanRequest.builder().canal(CanalNotificacion.EMAIL).destinatario("usuario@banco.com").build(),
+                        DestinoPlanRequest.builder().canal(CanalNotificacion.SMS).destinatario("5512345678").build(),
+                        DestinoPlanRequest.builder().canal(CanalNotificacion.PUSH).destinatario("device_abc123").build()))
+                .build();
+        
+        // When
+        PlanEntregaResponse resultado = notificacionService.ejecutarPlan(request).join();
+        
+        // Then
+        assertEquals(List.of(ResultadoEntrega.CANCELADA, ResultadoEntrega.CANCELADA, ResultadoEntrega.ENTREGADA),
+                resultado.getResultados().stream().map(ResultadoCanalResponse::getResultado).toList());
+        assertEquals(new BigDecimal("0.10"), resultado.getResultados().get(0).getCosto());
+        assertEquals(BigDecimal.ZERO, resultado.getResultados().get(1).getCosto());
+        assertEquals(new BigDecimal("0.15"), resultado.getCostoTotal());
+        ArgumentCaptor<Notificacion> guardadas = ArgumentCaptor.forClass(Notificacion.class);
+        verify(repository, atLeastOnce()).guardar(guardadas.capture());
+        assertTrue(guardadas.getAllValues().stream().anyMatch(n -> n.getCanal() == CanalNotificacion.EMAIL
+                && n.getEstado() == Estado.CANCELADA && new BigDecimal("0.10").equals(n.getCosto())));
+        assertTrue(guardadas.getAllValues().stream().anyMatch(n -> n.getCanal() == CanalNotificacion.SMS
+                && n.getEstado() == Estado.CANCELADA && BigDecimal.ZERO.equals(n.getCosto())));
+    }
+    
+    @Test
+    @DisplayName("Plan FAILOVER - Un canal rechazado por el circuito abierto no se cobra")
+    void testEjecutarPlanCircuitoAbiertoSinCosto() {
+        // Given
+        CanalNotificacionStrategy smsStrategy = mock(CanalNotificacionStrategy.class);
+        when(strategyFactory.getStrategy(CanalNotificacion.EMAIL)).thenReturn(emailStrategy);
+        when(strategyFactory.getStrategy(CanalNotificacion.SMS)).thenReturn(smsStrategy);
+        when(emailStrategy.esDestinatarioValido(anyString())).thenReturn(true);
+        when(smsStrategy.esDestinatarioValido(anyString())).thenReturn(true);
+        when(emailStrategy.calcularCosto()).thenReturn(new BigDecimal("0.10"));
+        when(smsStrategy.calcularCosto()).thenReturn(new BigDecimal("0.50"));
+        when(emailStrategy.enviarAsincrono(any(), any())).thenReturn(CompletableFuture.failedFuture(
+                new CircuitoAbiertoException(CanalNotificacion.EMAIL, Duration.ofSeconds(30))));
+        when(smsStrategy.enviarAsincrono(any(), any())).thenAnswer(llegaAlProveedor(CompletableFuture.completedFuture(true)));
+        
+        PlanEntregaRequest request = PlanEntregaRequest.builder()
+                .modo(ModoEntrega.FAILOVER)
+                .mensaje("Su transferencia fue aplicada")
+                .prioridad(Prioridad.ALTA)
+                .destinos(List.of(
+                        DestinoPlanRequest.builder().canal(CanalNotificacion.EMAIL).destinatario("usuario@banco.com").build(),
+                        DestinoPlanRequest.builder().canal(CanalNotificacion.SMS).destinatario("5512345678").build()))
+                .build();
+        
+        // When
+        PlanEntregaResponse resultado = notificacionService.ejecutarPlan(request).join();
+        
+        // Then
+        assertEquals(List.of(ResultadoEntrega.FALLIDA, ResultadoEntrega.ENTREGADA),
+                resultado.getResultados().stream().map(ResultadoCanalResponse::getResultado).toList());
+        assertEquals(BigDecimal.ZERO, resultado.getResultados().get(0).getCosto());
+        assertEquals(new BigDecimal("0.50"), resultado.getCostoTotal());
+        ArgumentCaptor<Notificacion> guardadas = ArgumentCaptor.forClass(Notificacion.class);
+        verify(repository, atLeastOnce()).guardar(guardadas.capture());
+        assertTrue(guardadas.getAllValues().stream().anyMatch(n -> n.getCanal() == CanalNotificacion.EMAIL
+                && n.getEstado() == Estado.FALLIDA && BigDecimal.ZERO.equals(n.getCosto())));
+    }
+    
+    /** Respuesta de una estrategia simulada que avisa que el envío llegó al proveedor. */
+    private static Answer<CompletableFuture<Boolean>> llegaAlProveedor(CompletableFuture<Boolean> envio) {
+        return invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return envio;
+        };
+    }
+    
+    @Test
+    @DisplayName("Plan - Rechaza un plan que repite canal")
+    void testEjecutarPlanCanalRepetido() {
+        // Given
+        PlanEntregaRequest request = PlanEntregaRequest.builder()
+                .modo(ModoEntrega.DIFUSION)
+                .mensaje("Aviso")
+                .prioridad(Prioridad.BAJA)
+                .destinos(List.of(
+                        DestinoPlanRequest.builder().canal(CanalNotificacion.EMAIL).destinatario("a@banco.com").build(),
+                        DestinoPlanRequest.builder().canal(CanalNotificacion.EMAIL).destinatario("b@banco.com").build()))
+                .build();
+        
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> notificacionService.ejecutarPlan(request));
+        verify(repository, never()).guardar(any(Notificacion.class));
+    }
+    
+    @Test
+    @DisplayName("Circuito abierto - El envío se aplaza sin contar intento ni descartar la notificación")
+    void testCircuitoAbiertoNoDescarta() {
+        // Given
+        CanalNotificacionStrategy smsStrategy = mock(CanalNotificacionStrategy.class);
+        Notificacion notificacion = Notificacion.builder()
+                .id("id-sms")
+                .destinatario("5512345678")
+                .mensaje("Código de verificación")
+                .canal(CanalNotificacion.SMS)
+                .prioridad(Prioridad.ALTA)
+                .estado(Estado.PENDIENTE)
+                .fechaCreacion(LocalDateTime.now())
+                .build();
+        CircuitoAbiertoException rechazo = new CircuitoAbiertoException(CanalNotificacion.SMS, Duration.ofSeconds(30));
+        when(repository.buscarPorId("id-sms")).thenReturn(Optional.of(notificacion));
+        when(strategyFactory.getStrategy(CanalNotificacion.SMS)).thenReturn(smsStrategy);
+        when(smsStrategy.enviar(notificacion)).thenThrow(rechazo);
+        when(smsStrategy.enviarAsincrono(notificacion)).thenReturn(CompletableFuture.failedFuture(rechazo));
+        when(despachador.reservar("id-sms")).thenReturn(true);
+        doCallRealMethod().when(reintentos).aplazar(any(), any());
+        
+        // When
+        EnvioResponse resultado = null;
+        for (int i = 0; i < 5; i++) {
+            resultado = notificacionService.enviarNotificacion("id-sms");
+        }
+        EnvioResponse asincrono = notificacionService.enviarAsincrono("id-sms").join();
+        
+        // Then
+        assertFalse(resultado.getExitoso());
+        assertTrue(resultado.getAplazada());
+        assertTrue(asincrono.getAplazada());
+        assertEquals(Estado.PENDIENTE, notificacion.getEstado());
+        assertEquals(0, notificacion.getIntentos());
+        assertTrue(notificacion.getProximoIntento().isAfter(LocalDateTime.now().plusSeconds(25)));
+        verify(reintentos, never()).aplicarFallo(any());
+        verify(reintentos, times(6)).programar(notificacion);
+        verify(metricas, never()).registrarEnvio(any(), anyBoolean(), anyLong(), any());
+        verify(despachador).liberar("id-sms");
+    }
 }
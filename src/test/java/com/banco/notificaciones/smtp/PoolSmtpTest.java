@@ -0,0 +1,171 @@
+package com.banco.notificaciones.smtp;
+
+import com.banco.notificaciones.model.Notificacion;
+import com.banco.notificaciones.model.enums.CanalNotificacion;
+import com.banco.notificaciones.strategy.EmailNotificationStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del pool SMTP contra el servidor simulado embebido: pipelining,
+ * rechazos dentro de una sesión, reutilización y máximo de sesiones.
+ */
+@DisplayName("Tests de PoolSmtp")
+class PoolSmtpTest {
+
+    private ServidorSmtpSimulado servidor;
+    private PoolSmtp pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+        if (servidor != null) {
+            servidor.close();
+        }
+    }
+
+    private PoolSmtp pool(int sesionesMaximas, int mensajesPorSesion, boolean pipelining) {
+        return new PoolSmtp(servidor.getDireccion(), "notificaciones@banco.com", "Estado de cuenta",
+                sesionesMaximas, mensajesPorSesion, Duration.ofSeconds(30), Duration.ofSeconds(2), pipelining,
+                new SimpleMeterRegistry());
+    }
+
+    private static Notificacion notificacion(int i) {
+        return Notificacion.builder()
+                .id("id-" + i)
+                .destinatario("cliente" + i + "@correo.com")
+                .mensaje("Su estado de cuenta está listo.\n.\nLínea que empieza con punto")
+                .canal(CanalNotificacion.EMAIL)
+                .build();
+    }
+
+    private static List<Notificacion> lote(int tamano) {
+        List<Notificacion> lote = new ArrayList<>();
+        for (int i = 0; i < tamano; i++) {
+            lote.add(notificacion(i));
+        }
+        return lote;
+    }
+
+    @Test
+    @DisplayName("Pipelining - Un lote viaja por una sesión con una ida y vuelta por mensaje")
+    void testPipelining() {
+        // Given
+        servidor = new ServidorSmtpSimulado(0, Duration.ZERO, true);
+        pool = pool(2, 1000, true);
+
+        // When
+        List<Boolean> resultados = pool.enviarLote(lote(20));
+
+        // Then
+        assertEquals(20, resultados.stream().filter(Boolean::booleanValue).count());
+        assertEquals(20, servidor.getMensajes());
+        assertEquals(1, servidor.getConexiones());
+        assertTrue(servidor.getRondas() < 2 * 20, "rondas: " + servidor.getRondas());
+    }
+
+    @Test
+    @DisplayName("Sin PIPELINING - Cada comando espera su respuesta")
+    void testSinPipelining() {
+        // Given
+        servidor = new ServidorSmtpSimulado(0, Duration.ZERO, false);
+        pool = pool(2, 1000, true);
+
+        // When
+        List<Boolean> resultados = pool.enviarLote(lote(10));
+
+        // Then
+        assertEquals(10, resultados.stream().filter(Boolean::booleanValue).count());
+        // Saludo y EHLO, luego MAIL, RCPT, DATA y contenido por mensaje
+        assertEquals(2 + 4 * 10, servidor.getRondas());
+    }
+
+    @Test
+    @DisplayName("Rechazo - Un destinatario rechazado falla solo su mensaje y la sesión sigue")
+    void testRechazoDentroDeLaSesion() {
+        // Given
+        servidor = new ServidorSmtpSimulado(0, Duration.ZERO, true);
+        pool = pool(1, 1000, true);
+        Notificacion rechazada = notificacion(1);
+        rechazada.setDestinatario("rechazado@correo.com");
+
+        // When
+        List<Boolean> resultados = pool.enviarLote(List.of(notificacion(0), rechazada, notificacion(2)));
+        boolean siguiente = pool.enviar(notificacion(3));
+
+        // Then
+        assertEquals(List.of(true, false, true), resultados);
+        assertTrue(siguiente);
+        assertEquals(3, servidor.getMensajes());
+        assertEquals(1, servidor.getConexiones());
+    }
+
+    @Test
+    @DisplayName("Sesiones - Se reutilizan, no superan el máximo y se renuevan por cantidad de mensajes")
+    void testMaximoDeSesiones() throws Exception {
+        // Given
+        servidor = new ServidorSmtpSimulado(0, Duration.ofMillis(1), true);
+        pool = pool(3, 50, true);
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<Boolean>> envios = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Notificacion notificacion = notificacion(i);
+            envios.add(hilos.submit(() -> pool.enviar(notificacion)));
+        }
+        long entregados = 0;
+        for (Future<Boolean> envio : envios) {
+            entregados += envio.get() ? 1 : 0;
+        }
+        hilos.shutdown();
+
+        // Then
+        assertEquals(120, entregados);
+        assertTrue(servidor.getMaximoSimultaneas() <= 3, "simultáneas: " + servidor.getMaximoSimultaneas());
+        // 120 mensajes a 50 por sesión: al menos 3 conexiones, y pocas más por el reparto entre sesiones
+        assertTrue(servidor.getConexiones() >= 3 && servidor.getConexiones() <= 6,
+                "conexiones: " + servidor.getConexiones());
+        assertTrue(pool.getSesionesAbiertas() <= 3);
+    }
+
+    @Test
+    @DisplayName("Estrategia email - Con el servidor simulado los envíos pasan por SMTP y sin servidor fallan")
+    void testEstrategiaConServidorSimulado() {
+        // Given
+        TransporteSmtp transporte = new TransporteSmtp(new SimpleMeterRegistry(), "", 25,
+                "notificaciones@banco.com", "Notificación del banco", 2, 1000, 30, 2000, true,
+                true, 0, 0);
+        EmailNotificationStrategy strategy = new EmailNotificationStrategy(transporte);
+        Notificacion invalida = notificacion(3);
+        invalida.setDestinatario("sin-arroba");
+
+        try {
+            // When
+            boolean individual = strategy.enviarAsincrono(notificacion(1)).join();
+            List<Boolean> lote = strategy.enviarLote(List.of(notificacion(2), invalida, notificacion(4)));
+            transporte.detener();
+            boolean sinServidor = strategy.enviar(notificacion(5));
+
+            // Then
+            assertTrue(individual);
+            assertEquals(List.of(true, false, true), lote);
+            assertFalse(sinServidor);
+        } finally {
+            transporte.detener();
+        }
+    }
+}
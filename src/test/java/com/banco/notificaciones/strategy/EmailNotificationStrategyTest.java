@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -72,6 +73,22 @@ class EmailNotificationStrategyTest {
         assertFalse(resultado);
     }
     
+    @Test
+    @DisplayName("Estrategia de Email - Envío por lote devuelve el resultado de cada notificación en orden")
+    void testEnviarLote() {
+        // Given
+        List<Notificacion> lote = List.of(
+                Notificacion.builder().destinatario("usuario@banco.com").mensaje("Estado de cuenta disponible").canal(CanalNotificacion.EMAIL).build(),
+                Notificacion.builder().destinatario("usuariobanco.com").mensaje("Estado de cuenta disponible").canal(CanalNotificacion.EMAIL).build(),
+                Notificacion.builder().destinatario("usuario@banco.com").mensaje("Estado de cuenta disponible").canal(CanalNotificacion.EMAIL).build());
+        
+        // When
+        List<Boolean> resultados = strategy.enviarLote(lote);
+        
+        // Then
+        assertEquals(List.of(true, false, true), resultados);
+    }
+    
     @Test
     @DisplayName("Estrategia de Email - Verifica nombre del canal")
     void testGetNombreCanal() {
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -89,6 +90,22 @@ class PushNotificationStrategyTest {
         assertFalse(resultado);
     }
     
+    @Test
+    @DisplayName("Estrategia de Push - Envío por lote devuelve el resultado de cada notificación en orden")
+    void testEnviarLote() {
+        // Given
+        List<Notificacion> lote = List.of(
+                Notificacion.builder().destinatario("device_abc123xyz").mensaje("Tienes una promoción especial").canal(CanalNotificacion.PUSH).build(),
+                Notificacion.builder().destinatario("abc123xyz").mensaje("Tienes una promoción especial").canal(CanalNotificacion.PUSH).build(),
+                Notificacion.builder().destinatario("device_abc123xyz").mensaje("Tienes una promoción especial").canal(CanalNotificacion.PUSH).build());
+        
+        // When
+        List<Boolean> resultados = strategy.enviarLote(lote);
+        
+        // Then
+        assertEquals(List.of(true, false, true), resultados);
+    }
+    
     @Test
     @DisplayName("Estrategia de Push - Verifica nombre del canal")
     void testGetNombreCanal() {
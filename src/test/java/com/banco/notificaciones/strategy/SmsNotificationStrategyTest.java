@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -89,6 +90,22 @@ class SmsNotificationStrategyTest {
         assertFalse(resultado);
     }
     
+    @Test
+    @DisplayName("Estrategia de SMS - Envío por lote devuelve el resultado de cada notificación en orden")
+    void testEnviarLote() {
+        // Given
+        List<Notificacion> lote = List.of(
+                Notificacion.builder().destinatario("5512345678").mensaje("Código de verificación: 123456").canal(CanalNotificacion.SMS).build(),
+                Notificacion.builder().destinatario("551234567").mensaje("Código de verificación: 123456").canal(CanalNotificacion.SMS).build(),
+                Notificacion.builder().destinatario("5512345678").mensaje("Código de verificación: 123456").canal(CanalNotificacion.SMS).build());
+        
+        // When
+        List<Boolean> resultados = strategy.enviarLote(lote);
+        
+        // Then
+        assertEquals(List.of(true, false, true), resultados);
+    }
+    
     @Test
     @DisplayName("Estrategia de SMS - Verifica nombre del canal")
     void testGetNombreCanal() {
@@ -0,0 +1,49 @@
+package com.banco.notificaciones.validacion;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de los validadores de destinatario por canal.
+ */
+@DisplayName("Tests de ValidadoresDestinatario")
+class ValidadoresDestinatarioTest {
+
+    @Test
+    @DisplayName("Email - Acepta direcciones dot-atom y rechaza formatos mal construidos")
+    void testEmail() {
+        for (String valido : new String[]{"usuario@banco.com", "nombre.apellido+alertas@correo.banco.com.mx",
+                "a@b.co", "x_y@sub-dominio.banco.com"}) {
+            assertTrue(ValidadoresDestinatario.esEmailValido(valido), valido);
+        }
+        for (String invalido : new String[]{null, "", "usuariobanco.com", "@banco.com", "usuario@",
+                "usuario@banco", "usuario@@banco.com", ".usuario@banco.com", "usuario.@banco.com",
+                "usu..ario@banco.com", "usuario@banco..com", "usuario@-banco.com", "usuario@banco.com.",
+                "usu ario@banco.com", "usuário@banco.com", "a".repeat(65) + "@banco.com"}) {
+            assertFalse(ValidadoresDestinatario.esEmailValido(invalido), invalido);
+        }
+    }
+
+    @Test
+    @DisplayName("Teléfono - Exige exactamente diez dígitos ASCII")
+    void testTelefono() {
+        assertTrue(ValidadoresDestinatario.esTelefonoValido("5512345678"));
+        for (String invalido : new String[]{null, "", "551234567", "55123456789", "55123456AB",
+                "55-1234567", "５５１２３４５６７８"}) {
+            assertFalse(ValidadoresDestinatario.esTelefonoValido(invalido), invalido);
+        }
+    }
+
+    @Test
+    @DisplayName("Dispositivo - Exige el prefijo device_ seguido de un token")
+    void testDispositivo() {
+        assertTrue(ValidadoresDestinatario.esDispositivoValido("device_abc123xyz"));
+        assertTrue(ValidadoresDestinatario.esDispositivoValido("device_fcm:APA91b-x_y.z"));
+        for (String invalido : new String[]{null, "abc123xyz", "device_", "device_abc 123",
+                "Device_abc", "device_" + "a".repeat(250)}) {
+            assertFalse(ValidadoresDestinatario.esDispositivoValido(invalido), invalido);
+        }
+    }
+}